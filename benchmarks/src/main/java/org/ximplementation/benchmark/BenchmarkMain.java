@@ -0,0 +1,50 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark entry.
+ * <p>
+ * It is the same as JMH's {@code org.openjdk.jmh.Main}, except that
+ * {@linkplain GCProfiler} is always enabled, so that bytes allocated per
+ * operation ({@code gc.alloc.rate.norm}) is reported besides throughput and
+ * latency percentiles.
+ * </p>
+ * <p>
+ * Usage : {@code java -jar benchmarks.jar [JMH options]}, e.g.
+ * {@code java -jar benchmarks.jar DispatchBenchmark -p implementors=lots}.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-20
+ *
+ */
+public class BenchmarkMain
+{
+	public static void main(String[] args) throws Exception
+	{
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+}
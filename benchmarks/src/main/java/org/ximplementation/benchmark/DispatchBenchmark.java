@@ -0,0 +1,127 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory;
+import org.ximplementation.support.ImplementInfo;
+import org.ximplementation.support.Implementation;
+import org.ximplementation.support.ImplementationResolver;
+import org.ximplementation.support.ImplementeeMethodInvocationFactory;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementee;
+import org.ximplementation.support.ImplementorBeanFactory;
+import org.ximplementation.support.SimpleImplementeeMethodInvocationFactory;
+
+/**
+ * Dispatch benchmark of {@linkplain SimpleImplementeeMethodInvocationFactory}
+ * and {@linkplain CachedImplementeeMethodInvocationFactory}, for few/lots
+ * <i>implementor</i>s with/without validity and priority method.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-20
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark
+{
+	public static final String SIMPLE = "simple";
+
+	public static final String CACHED = "cached";
+
+	@Param({ ImplementationFixtures.FEW, ImplementationFixtures.LOTS })
+	public String implementors;
+
+	@Param({ "false", "true" })
+	public boolean validityAndPriority;
+
+	@Param({ SIMPLE, CACHED })
+	public String factory;
+
+	@SuppressWarnings("rawtypes")
+	private Implementation<Implementee> implementation;
+
+	private ImplementorBeanFactory implementorBeanFactory;
+
+	private ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory;
+
+	private ImplementInfo implementInfo;
+
+	private Object[] invocationParams;
+
+	@Setup
+	public void setUp() throws Exception
+	{
+		this.implementation = ImplementationFixtures.resolve(
+				new ImplementationResolver(), this.implementors,
+				this.validityAndPriority);
+		this.implementorBeanFactory = ImplementationFixtures
+				.createImplementorBeanFactory(this.implementors,
+						this.validityAndPriority);
+
+		if (SIMPLE.equals(this.factory))
+			this.implementeeMethodInvocationFactory = new SimpleImplementeeMethodInvocationFactory();
+		else if (CACHED.equals(this.factory))
+			this.implementeeMethodInvocationFactory = new CachedImplementeeMethodInvocationFactory();
+		else
+			throw new IllegalArgumentException(
+					"Unknown [factory] : " + this.factory);
+
+		this.implementInfo = this.implementation.getImplementInfo(
+				Implementee.class.getMethod("compare", Number.class,
+						Number.class));
+		this.invocationParams = new Object[] { 1, 2 };
+	}
+
+	/**
+	 * Get an {@code ImplementeeMethodInvocation} and invoke it.
+	 */
+	@Benchmark
+	public Object getAndInvoke() throws Throwable
+	{
+		return this.implementeeMethodInvocationFactory
+				.get(this.implementation, this.implementInfo,
+						this.invocationParams, this.implementorBeanFactory)
+				.invoke();
+	}
+
+	/**
+	 * Invoke through the direct invoke path, without creating
+	 * {@code ImplementeeMethodInvocation}.
+	 */
+	@Benchmark
+	public Object invoke() throws Throwable
+	{
+		return this.implementeeMethodInvocationFactory.invoke(
+				this.implementation, this.implementInfo,
+				this.invocationParams, this.implementorBeanFactory);
+	}
+}
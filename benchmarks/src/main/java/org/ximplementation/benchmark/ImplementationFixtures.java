@@ -0,0 +1,159 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.ximplementation.support.Implementation;
+import org.ximplementation.support.ImplementationResolver;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementee;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementor0;
+import org.ximplementation.support.ImplementorBeanFactory;
+import org.ximplementation.support.SimpleImplementorBeanFactory;
+
+/**
+ * Benchmark fixtures.
+ * <p>
+ * The <i>implementee</i> and <i>implementor</i>s are the same as
+ * {@linkplain ImplementeeMethodInvocationFactoryPerformanceTest}, so the
+ * benchmark results can be compared with it.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-20
+ *
+ */
+public class ImplementationFixtures
+{
+	/** few implementors scenario */
+	public static final String FEW = "few";
+
+	/** lots implementors scenario */
+	public static final String LOTS = "lots";
+
+	/** implementor count of {@linkplain #LOTS} scenario */
+	public static final int LOTS_IMPLEMENTOR_COUNT = 100;
+
+	/** implementor index with validity and priority method */
+	public static final int VALIDITY_AND_PRIORITY_IMPLEMENTOR_INDEX = 100;
+
+	private ImplementationFixtures()
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Get the <i>implementor</i>s of a scenario.
+	 * 
+	 * @param implementors
+	 *            {@linkplain #FEW} or {@linkplain #LOTS}.
+	 * @param validityAndPriority
+	 *            Whether includes an <i>implementor</i> with validity and
+	 *            priority method.
+	 * @return
+	 */
+	public static Class<?>[] getImplementors(String implementors,
+			boolean validityAndPriority)
+	{
+		int count;
+
+		if (FEW.equals(implementors))
+			count = 3;
+		else if (LOTS.equals(implementors))
+			count = LOTS_IMPLEMENTOR_COUNT;
+		else
+			throw new IllegalArgumentException(
+					"Unknown [implementors] : " + implementors);
+
+		Class<?>[] re = new Class<?>[count];
+
+		for (int i = 0; i < count; i++)
+			re[i] = getImplementor(i);
+
+		if (validityAndPriority)
+			re[count - 1] = getImplementor(
+					VALIDITY_AND_PRIORITY_IMPLEMENTOR_INDEX);
+
+		return re;
+	}
+
+	/**
+	 * Resolve the {@code Implementation} of a scenario.
+	 * 
+	 * @param implementationResolver
+	 * @param implementors
+	 * @param validityAndPriority
+	 * @return
+	 */
+	@SuppressWarnings("rawtypes")
+	public static Implementation<Implementee> resolve(
+			ImplementationResolver implementationResolver,
+			String implementors, boolean validityAndPriority)
+	{
+		return implementationResolver.resolve(Implementee.class,
+				getImplementors(implementors, validityAndPriority));
+	}
+
+	/**
+	 * Create the {@code ImplementorBeanFactory} of a scenario.
+	 * 
+	 * @param implementors
+	 * @param validityAndPriority
+	 * @return
+	 */
+	@SuppressWarnings("rawtypes")
+	public static ImplementorBeanFactory createImplementorBeanFactory(
+			String implementors, boolean validityAndPriority)
+	{
+		Class<?>[] implementorClasses = getImplementors(implementors,
+				validityAndPriority);
+
+		List<Object> beans = new ArrayList<Object>();
+
+		// two beans for Implementor0, same as the performance test
+		beans.add(new Implementor0());
+
+		for (Class<?> implementorClass : implementorClasses)
+		{
+			try
+			{
+				beans.add(implementorClass.newInstance());
+			}
+			catch (Exception e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+
+		return SimpleImplementorBeanFactory.valueOf(beans);
+	}
+
+	protected static Class<?> getImplementor(int index)
+	{
+		String name = ImplementeeMethodInvocationFactoryPerformanceTest.class
+				.getName() + "$Implementor" + index;
+
+		try
+		{
+			return Class.forName(name);
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+}
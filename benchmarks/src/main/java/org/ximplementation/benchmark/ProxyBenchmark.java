@@ -0,0 +1,112 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory;
+import org.ximplementation.support.GeneratedImplementeeBeanBuilder;
+import org.ximplementation.support.Implementation;
+import org.ximplementation.support.ImplementationResolver;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementee;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementor0;
+import org.ximplementation.support.ImplementorBeanFactory;
+import org.ximplementation.support.ProxyImplementeeBeanBuilder;
+
+/**
+ * Overhead benchmark of <i>implementee</i> beans built by
+ * {@linkplain ProxyImplementeeBeanBuilder} and
+ * {@linkplain GeneratedImplementeeBeanBuilder}, compared with a direct
+ * virtual call on an <i>implementor</i> bean.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-20
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyBenchmark
+{
+	@Param({ ImplementationFixtures.FEW, ImplementationFixtures.LOTS })
+	public String implementors;
+
+	private Implementee<Number> directBean;
+
+	private Implementee<Number> proxyBean;
+
+	private Implementee<Number> generatedBean;
+
+	private Integer a = 1;
+
+	private Integer b = 2;
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Setup
+	public void setUp()
+	{
+		Implementation<Implementee> implementation = ImplementationFixtures
+				.resolve(new ImplementationResolver(), this.implementors,
+						false);
+		ImplementorBeanFactory implementorBeanFactory = ImplementationFixtures
+				.createImplementorBeanFactory(this.implementors, false);
+
+		ProxyImplementeeBeanBuilder proxyBuilder = new ProxyImplementeeBeanBuilder();
+		proxyBuilder.setImplementeeMethodInvocationFactory(
+				new CachedImplementeeMethodInvocationFactory());
+
+		GeneratedImplementeeBeanBuilder generatedBuilder = new GeneratedImplementeeBeanBuilder();
+		generatedBuilder.setImplementeeMethodInvocationFactory(
+				new CachedImplementeeMethodInvocationFactory());
+
+		this.directBean = new Implementor0<Number>();
+		this.proxyBean = proxyBuilder.build(implementation,
+				implementorBeanFactory);
+		this.generatedBean = generatedBuilder.build(implementation,
+				implementorBeanFactory);
+	}
+
+	@Benchmark
+	public int direct()
+	{
+		return this.directBean.compare(this.a, this.b);
+	}
+
+	@Benchmark
+	public int proxy()
+	{
+		return this.proxyBean.compare(this.a, this.b);
+	}
+
+	@Benchmark
+	public int generated()
+	{
+		return this.generatedBean.compare(this.a, this.b);
+	}
+}
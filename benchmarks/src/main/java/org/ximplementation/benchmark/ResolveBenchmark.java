@@ -0,0 +1,96 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.ximplementation.support.Implementation;
+import org.ximplementation.support.ImplementationResolver;
+import org.ximplementation.support.ImplementeeMethodInvocationFactoryPerformanceTest.Implementee;
+
+/**
+ * {@linkplain ImplementationResolver#resolve(Class, Class...)} cost
+ * benchmark.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-20
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolveBenchmark
+{
+	@Param({ ImplementationFixtures.FEW, ImplementationFixtures.LOTS })
+	public String implementors;
+
+	@Param({ "false", "true" })
+	public boolean validityAndPriority;
+
+	@Param({ "false", "true" })
+	public boolean parallel;
+
+	private ImplementationResolver implementationResolver;
+
+	private ForkJoinPool forkJoinPool;
+
+	private Class<?>[] implementorClasses;
+
+	@Setup
+	public void setUp()
+	{
+		this.implementationResolver = new ImplementationResolver();
+
+		if (this.parallel)
+		{
+			this.forkJoinPool = new ForkJoinPool();
+			this.implementationResolver.setForkJoinPool(this.forkJoinPool);
+		}
+
+		this.implementorClasses = ImplementationFixtures
+				.getImplementors(this.implementors, this.validityAndPriority);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		if (this.forkJoinPool != null)
+			this.forkJoinPool.shutdown();
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Benchmark
+	public Implementation<Implementee> resolve()
+	{
+		return this.implementationResolver.resolve(Implementee.class,
+				this.implementorClasses);
+	}
+}
@@ -0,0 +1,63 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+
+/**
+ * Batch annotation.
+ * <p>
+ * This annotation indicate that the <i>implement method</i> has a batch
+ * method, which handles a group of <i>implementee method</i> invocations in
+ * one call, when they are invoked in batch.
+ * </p>
+ * <p>
+ * Batch method should have only one parameter of {@linkplain List} type, each
+ * element of which is the parameter array of an <i>implement method</i>
+ * invocation, in the invocation order. If the <i>implementee method</i> is not
+ * {@code void}, it should return a {@linkplain List} of the invocation
+ * results, in the same order and of the same size.
+ * </p>
+ * <p>
+ * This annotation should be annotated on <i>implement method</i>.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ * @see Implement
+ * @see Index
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD })
+public @interface Batch
+{
+	/**
+	 * The batch method match pattern.
+	 * <p>
+	 * See {@linkplain Implement#value()} API documentation for detail match
+	 * pattern format.
+	 * </p>
+	 * <p>
+	 * Examples : <code>"plusAll", "Foo.plusAll", "plusAll(List)"</code>.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	String value();
+}
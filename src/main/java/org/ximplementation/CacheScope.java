@@ -0,0 +1,54 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation;
+
+/**
+ * Cache scope of validity and priority method results.
+ * <p>
+ * It is used by {@linkplain Validity#cacheScope()} and
+ * {@linkplain Priority#cacheScope()} for declaring that the result of the
+ * validity or priority method can be cached and reused. The results are cached
+ * separately for each <i>implementor</i> bean, in a bounded cache whose size
+ * is {@linkplain Validity#cacheSize()} or {@linkplain Priority#cacheSize()}.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-23
+ * @see Validity
+ * @see Priority
+ */
+public enum CacheScope
+{
+	/**
+	 * Not cached, the method is invoked for every invocation.
+	 */
+	NONE,
+
+	/**
+	 * Cached by the types of the method parameters, for methods whose result
+	 * only depends on the parameter types.
+	 */
+	PER_TYPE,
+
+	/**
+	 * Cached by the values of the method parameters, for methods whose result
+	 * only depends on the parameter values, the parameters should implement
+	 * {@code equals} and {@code hashCode} properly.
+	 */
+	PER_VALUE;
+
+	/** The default cache size */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+}
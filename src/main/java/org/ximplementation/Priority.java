@@ -39,6 +39,7 @@ import java.lang.annotation.Target;
  * @date 2015-12-3
  * @see Implement
  * @see Index
+ * @see CacheScope
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD })
@@ -73,4 +74,53 @@ public @interface Priority
 	 * @return
 	 */
 	int priority() default DEFAULT;
+
+	/**
+	 * The cache scope of the priority method result.
+	 * <p>
+	 * Its default value is {@linkplain CacheScope#NONE}, set it to
+	 * {@linkplain CacheScope#PER_TYPE} or {@linkplain CacheScope#PER_VALUE} if
+	 * the priority method is a pure function of its parameter types or values.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	CacheScope cacheScope() default CacheScope.NONE;
+
+	/**
+	 * The max count of cached priority method results, only used when
+	 * {@linkplain #cacheScope()} is not {@linkplain CacheScope#NONE}.
+	 * <p>
+	 * Its default value is {@linkplain CacheScope#DEFAULT_CACHE_SIZE}.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	int cacheSize() default CacheScope.DEFAULT_CACHE_SIZE;
+
+	/**
+	 * The min value the priority method may return, only used when
+	 * {@linkplain #value()} is set.
+	 * <p>
+	 * Priority method results less than it are taken as it. Its default value
+	 * is {@code Integer.MIN_VALUE}.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	int min() default Integer.MIN_VALUE;
+
+	/**
+	 * The max value the priority method may return, only used when
+	 * {@linkplain #value()} is set.
+	 * <p>
+	 * Priority method results greater than it are taken as it. Its default
+	 * value is {@code Integer.MAX_VALUE}. Declaring it lets the evaluation
+	 * skip the priority method, and the validity method, when an already
+	 * evaluated <i>implement method</i> has a priority not less than it.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	int max() default Integer.MAX_VALUE;
 }
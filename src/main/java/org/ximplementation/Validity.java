@@ -41,6 +41,7 @@ import java.lang.annotation.Target;
  * @date 2015-12-3
  * @see Implement
  * @see Index
+ * @see CacheScope
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ ElementType.METHOD })
@@ -62,4 +63,27 @@ public @interface Validity
 	 * @return
 	 */
 	String value();
+
+	/**
+	 * The cache scope of the validity method result.
+	 * <p>
+	 * Its default value is {@linkplain CacheScope#NONE}, set it to
+	 * {@linkplain CacheScope#PER_TYPE} or {@linkplain CacheScope#PER_VALUE} if
+	 * the validity method is a pure function of its parameter types or values.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	CacheScope cacheScope() default CacheScope.NONE;
+
+	/**
+	 * The max count of cached validity method results, only used when
+	 * {@linkplain #cacheScope()} is not {@linkplain CacheScope#NONE}.
+	 * <p>
+	 * Its default value is {@linkplain CacheScope#DEFAULT_CACHE_SIZE}.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	int cacheSize() default CacheScope.DEFAULT_CACHE_SIZE;
 }
@@ -0,0 +1,69 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Abstract {@linkplain BeanSelectionStrategy}.
+ * <p>
+ * It does nothing before and after invoking.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public abstract class AbstractBeanSelectionStrategy
+		implements BeanSelectionStrategy
+{
+	public AbstractBeanSelectionStrategy()
+	{
+		super();
+	}
+
+	@Override
+	public void beforeInvoke(Object implementorBean)
+	{
+	}
+
+	@Override
+	public void afterInvoke(Object implementorBean)
+	{
+	}
+
+	/**
+	 * Get the element at given index of a {@code Collection}.
+	 * 
+	 * @param objs
+	 * @param index
+	 * @return
+	 */
+	protected Object getElement(Collection<?> objs, int index)
+	{
+		if (objs instanceof List<?> && objs instanceof RandomAccess)
+			return ((List<?>) objs).get(index);
+
+		Iterator<?> it = objs.iterator();
+
+		for (int i = 0; i < index; i++)
+			it.next();
+
+		return it.next();
+	}
+}
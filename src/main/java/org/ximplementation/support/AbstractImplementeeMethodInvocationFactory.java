@@ -14,6 +14,9 @@
 
 package org.ximplementation.support;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
@@ -22,7 +25,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+
+import org.ximplementation.CacheScope;
 
 /**
  * Abstract {@linkplain ImplementeeMethodInvocationFactory}.
@@ -38,11 +42,301 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 
 	protected static final List<Object> ONE_NULL_IMPLEMENTOR_FOR_LOOP = Arrays.asList(new Object[] { null });
 
-	protected ConcurrentHashMap<ImplementMethodInfo, Class<?>[]> implementMethodParamTypes = new ConcurrentHashMap<ImplementMethodInfo, Class<?>[]>();
+	protected Cache<ImplementMethodInfoKey, Class<?>[]> implementMethodParamTypes = new BoundedCache<ImplementMethodInfoKey, Class<?>[]>();
+
+	/** the queue of cleared implementMethodParamTypes keys */
+	private final ReferenceQueue<ImplementMethodInfo> clearedImplementMethodInfoQueue = new ReferenceQueue<ImplementMethodInfo>();
+
+	/** the strategy for selecting implementor bean, null for the first one */
+	protected BeanSelectionStrategy beanSelectionStrategy;
+
+	/** the dispatch metrics, null for not recording */
+	protected DispatchMetrics dispatchMetrics;
+
+	/** the invocation listener, fixed at construction */
+	protected final InvocationListener invocationListener;
 
 	public AbstractImplementeeMethodInvocationFactory()
+	{
+		this(InvocationListener.NO_OP);
+	}
+
+	/**
+	 * Create an instance with the given {@linkplain InvocationListener}.
+	 * 
+	 * @param invocationListener
+	 *            The {@linkplain InvocationListener}, {@code null} for
+	 *            {@linkplain InvocationListener#NO_OP}.
+	 */
+	public AbstractImplementeeMethodInvocationFactory(
+			InvocationListener invocationListener)
 	{
 		super();
+		this.invocationListener = (invocationListener == null
+				? InvocationListener.NO_OP : invocationListener);
+	}
+
+	/**
+	 * Get the cache of actual <i>implement method</i> parameter types.
+	 * <p>
+	 * Its keys hold the {@linkplain ImplementMethodInfo}s weakly, and the ones
+	 * cleared are removed on the next put, so the cache does not keep the
+	 * <i>implementor</i>s and their class loaders alive.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Cache<ImplementMethodInfoKey, Class<?>[]> getImplementMethodParamTypes()
+	{
+		return implementMethodParamTypes;
+	}
+
+	/**
+	 * Set the cache of actual <i>implement method</i> parameter types.
+	 * <p>
+	 * A {@linkplain BoundedCache} is used by default.
+	 * </p>
+	 * 
+	 * @param implementMethodParamTypes
+	 */
+	public void setImplementMethodParamTypes(
+			Cache<ImplementMethodInfoKey, Class<?>[]> implementMethodParamTypes)
+	{
+		this.implementMethodParamTypes = implementMethodParamTypes;
+	}
+
+	/**
+	 * Get the {@linkplain BeanSelectionStrategy}.
+	 * 
+	 * @return The {@linkplain BeanSelectionStrategy}, {@code null} if none.
+	 */
+	public BeanSelectionStrategy getBeanSelectionStrategy()
+	{
+		return beanSelectionStrategy;
+	}
+
+	/**
+	 * Set the {@linkplain BeanSelectionStrategy}.
+	 * <p>
+	 * If it is {@code null}, which is the default, the first of the equally
+	 * valid <i>implementor</i> beans is used.
+	 * </p>
+	 * 
+	 * @param beanSelectionStrategy
+	 */
+	public void setBeanSelectionStrategy(
+			BeanSelectionStrategy beanSelectionStrategy)
+	{
+		this.beanSelectionStrategy = beanSelectionStrategy;
+	}
+
+	/**
+	 * Get the {@linkplain DispatchMetrics}.
+	 * 
+	 * @return The {@linkplain DispatchMetrics}, {@code null} if none.
+	 */
+	public DispatchMetrics getDispatchMetrics()
+	{
+		return dispatchMetrics;
+	}
+
+	/**
+	 * Set the {@linkplain DispatchMetrics}.
+	 * <p>
+	 * It is {@code null} by default, which means nothing is recorded nor
+	 * timed. Routing latency is recorded only for invocations made by
+	 * {@linkplain #invoke(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * .
+	 * </p>
+	 * 
+	 * @param dispatchMetrics
+	 */
+	public void setDispatchMetrics(DispatchMetrics dispatchMetrics)
+	{
+		this.dispatchMetrics = dispatchMetrics;
+	}
+
+	/**
+	 * Get the {@linkplain InvocationListener}.
+	 * <p>
+	 * It is fixed at construction and {@linkplain InvocationListener#NO_OP}
+	 * by default. Routing and completion events are notified only for
+	 * invocations made by
+	 * {@linkplain #invoke(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * , evaluation events are notified for all.
+	 * </p>
+	 * <p>
+	 * Since it never changes, the hooks read a plain {@code final} field and
+	 * call it, the calls to {@linkplain InvocationListener#NO_OP} are inlined
+	 * away by the JIT compiler.
+	 * </p>
+	 * 
+	 * @return The {@linkplain InvocationListener}, never {@code null}.
+	 */
+	public InvocationListener getInvocationListener()
+	{
+		return invocationListener;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This implementation just calls
+	 * {@linkplain #get(Implementation, Method, Object[], ImplementorBeanFactory)}
+	 * with {@linkplain ImplementInfo#getImplementeeMethod()}, sub classes
+	 * should override it to avoid the <i>implementee method</i> lookup.
+	 * </p>
+	 */
+	@Override
+	public ImplementeeMethodInvocation get(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		return get(implementation, implementInfo.getImplementeeMethod(),
+				invocationParams, implementorBeanFactory);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This implementation just invokes the
+	 * {@linkplain ImplementeeMethodInvocation} got by
+	 * {@linkplain #get(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * .
+	 * </p>
+	 */
+	@Override
+	public Object invoke(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+		InvocationListener invocationListener = this.invocationListener;
+
+		if (dispatchMetrics != null
+				|| invocationListener != InvocationListener.NO_OP)
+			return invokeObserved(dispatchMetrics, invocationListener,
+					implementation, implementInfo, invocationParams,
+					implementorBeanFactory);
+
+		ImplementeeMethodInvocation invocation = get(implementation,
+				implementInfo, invocationParams, implementorBeanFactory);
+
+		if (invocation == null)
+			throw noValidImplementMethodException(implementInfo);
+
+		return invocation.invoke();
+	}
+
+	/**
+	 * Invoke, record the routing latency to the given
+	 * {@linkplain DispatchMetrics} and notify the given
+	 * {@linkplain InvocationListener}.
+	 * <p>
+	 * The <i>implement method</i> is selected by
+	 * {@linkplain #get(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * first, so that the routing and target can be told apart.
+	 * </p>
+	 * 
+	 * @param dispatchMetrics
+	 *            The {@linkplain DispatchMetrics}, may be {@code null}.
+	 * @param invocationListener
+	 *            The {@linkplain InvocationListener}, not {@code null}.
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Object invokeObserved(DispatchMetrics dispatchMetrics,
+			InvocationListener invocationListener,
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		invocationListener.routingStarted(implementInfo, invocationParams);
+
+		long start = (dispatchMetrics == null ? 0 : System.nanoTime());
+
+		ImplementeeMethodInvocation invocation = get(implementation,
+				implementInfo, invocationParams, implementorBeanFactory);
+
+		if (dispatchMetrics != null)
+			dispatchMetrics.recordRouting(implementInfo.getImplementeeMethod(),
+					System.nanoTime() - start);
+
+		DefaultImplementeeMethodInvocation defaultInvocation = (invocation instanceof DefaultImplementeeMethodInvocation
+				? (DefaultImplementeeMethodInvocation) invocation : null);
+		ImplementMethodInfo implementMethodInfo = (defaultInvocation == null
+				? null : defaultInvocation.getImplementMethodInfo());
+		Object implementorBean = (defaultInvocation == null ? null
+				: defaultInvocation.getImplementorBean());
+
+		invocationListener.routingEnded(implementInfo, implementMethodInfo,
+				implementorBean);
+
+		if (invocation == null)
+			throw noValidImplementMethodException(implementInfo);
+
+		Object result;
+
+		try
+		{
+			if (defaultInvocation != null)
+				result = invokeImplementMethod(implementation, implementInfo,
+						implementMethodInfo,
+						defaultInvocation.getInvocationParams(),
+						implementorBean);
+			else
+				result = invocation.invoke();
+		}
+		catch (Throwable t)
+		{
+			invocationListener.invocationCompleted(implementInfo,
+					implementMethodInfo, implementorBean, null, t);
+
+			throw t;
+		}
+
+		invocationListener.invocationCompleted(implementInfo,
+				implementMethodInfo, implementorBean, result, null);
+
+		return result;
+	}
+
+	/**
+	 * Get the {@linkplain DispatchMetrics} if it is set and enabled.
+	 * 
+	 * @return The {@linkplain DispatchMetrics}, {@code null} if not set or
+	 *         disabled.
+	 */
+	protected DispatchMetrics getActiveDispatchMetrics()
+	{
+		DispatchMetrics dispatchMetrics = this.dispatchMetrics;
+
+		return (dispatchMetrics != null && dispatchMetrics.isEnabled()
+				? dispatchMetrics : null);
+	}
+
+	/**
+	 * Create the exception for no valid <i>implement method</i> found.
+	 * 
+	 * @param implementInfo
+	 * @return
+	 */
+	protected UnsupportedOperationException noValidImplementMethodException(
+			ImplementInfo implementInfo)
+	{
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+
+		if (dispatchMetrics != null)
+			dispatchMetrics.recordNoValidImplementMethod(
+					implementInfo.getImplementeeMethod());
+
+		return new UnsupportedOperationException(
+				"No valid implement method found for ["
+						+ implementInfo.getImplementeeMethod() + "]");
 	}
 
 	/**
@@ -86,6 +380,83 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 		return implementorBeans;
 	}
 
+	/**
+	 * Select one of the equally valid <i>implementor</i> beans by the
+	 * {@linkplain BeanSelectionStrategy}, the first one if no
+	 * {@linkplain BeanSelectionStrategy} is set.
+	 * 
+	 * @param implementMethodInfo
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans, not {@code null} nor empty.
+	 * @return
+	 */
+	protected Object selectImplementorBean(
+			ImplementMethodInfo implementMethodInfo,
+			Collection<?> implementorBeans)
+	{
+		if (this.beanSelectionStrategy != null)
+			return this.beanSelectionStrategy.select(implementMethodInfo,
+					implementorBeans);
+
+		if (implementorBeans instanceof List<?>)
+			return ((List<?>) implementorBeans).get(0);
+
+		return implementorBeans.iterator().next();
+	}
+
+	/**
+	 * Return if the beans of given {@linkplain ImplementMethodInfo}'s
+	 * <i>implementor</i> should be selected by the
+	 * {@linkplain BeanSelectionStrategy} after evaluating.
+	 * <p>
+	 * It is {@code true} only if a {@linkplain BeanSelectionStrategy} is set
+	 * and the <i>implement method</i> is neither {@code static} nor has
+	 * validity or priority method, which means all its beans are equally
+	 * valid.
+	 * </p>
+	 * 
+	 * @param implementMethodInfo
+	 * @return
+	 */
+	protected boolean isImplementorBeanSelectable(
+			ImplementMethodInfo implementMethodInfo)
+	{
+		return (this.beanSelectionStrategy != null
+				&& !implementMethodInfo.hasValidityMethod()
+				&& !implementMethodInfo.hasPriorityMethod()
+				&& !isStaticImplementMethod(implementMethodInfo));
+	}
+
+	/**
+	 * Create {@linkplain ImplementeeMethodInvocation}.
+	 * <p>
+	 * The {@linkplain BeanSelectionStrategy} is notified before and after
+	 * the created one is invoked, if set.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param implementMethodInfo
+	 * @param implementorBean
+	 * @return
+	 */
+	protected ImplementeeMethodInvocation createImplementeeMethodInvocation(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams, ImplementMethodInfo implementMethodInfo,
+			Object implementorBean)
+	{
+		if (this.beanSelectionStrategy == null || implementorBean == null)
+			return new DefaultImplementeeMethodInvocation(implementation,
+					implementInfo, invocationParams, implementMethodInfo,
+					implementorBean);
+		else
+			return new BeanSelectionImplementeeMethodInvocation(
+					implementation, implementInfo, invocationParams,
+					implementMethodInfo, implementorBean,
+					this.beanSelectionStrategy);
+	}
+
 	/**
 	 * Return if {@linkplain ImplementMethodInfo#getImplementMethod()} is
 	 * {@code static} method.
@@ -98,6 +469,75 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 		return Modifier.isStatic(implementMethodInfo.getImplementMethod().getModifiers());
 	}
 
+	/**
+	 * Invoke <i>implement method</i>.
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param implementMethodInfo
+	 * @param invocationParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Object invokeImplementMethod(Implementation<?> implementation,
+			ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo,
+			Object[] invocationParams, Object implementorBean)
+			throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+
+		if (dispatchMetrics == null)
+			return doInvokeImplementMethod(implementMethodInfo,
+					invocationParams, implementorBean);
+
+		long start = System.nanoTime();
+
+		try
+		{
+			return doInvokeImplementMethod(implementMethodInfo,
+					invocationParams, implementorBean);
+		}
+		finally
+		{
+			dispatchMetrics.recordTarget(implementMethodInfo,
+					System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Do invoke <i>implement method</i>, without recording.
+	 * 
+	 * @param implementMethodInfo
+	 * @param invocationParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected Object doInvokeImplementMethod(
+			ImplementMethodInfo implementMethodInfo, Object[] invocationParams,
+			Object implementorBean) throws Throwable
+	{
+		BeanSelectionStrategy beanSelectionStrategy = this.beanSelectionStrategy;
+
+		if (beanSelectionStrategy == null || implementorBean == null)
+			return implementMethodInfo.invoke(implementorBean,
+					invocationParams);
+
+		beanSelectionStrategy.beforeInvoke(implementorBean);
+
+		try
+		{
+			return implementMethodInfo.invoke(implementorBean,
+					invocationParams);
+		}
+		finally
+		{
+			beanSelectionStrategy.afterInvoke(implementorBean);
+		}
+	}
+
 	/**
 	 * Invoke validity method.
 	 * 
@@ -115,6 +555,83 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 			ImplementMethodInfo implementMethodInfo,
 			Method validityMethod,
 			Object[] validityParams, Object implementorBean) throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+		boolean valid;
+
+		if (dispatchMetrics == null)
+			valid = invokeValidityMethodWithResultCache(implementMethodInfo,
+					validityMethod, validityParams, implementorBean);
+		else
+		{
+			long start = System.nanoTime();
+
+			try
+			{
+				valid = invokeValidityMethodWithResultCache(
+						implementMethodInfo, validityMethod, validityParams,
+						implementorBean);
+			}
+			finally
+			{
+				dispatchMetrics.recordValidity(implementMethodInfo,
+						System.nanoTime() - start);
+			}
+		}
+
+		this.invocationListener.validityEvaluated(implementInfo,
+				implementMethodInfo, implementorBean, valid);
+
+		return valid;
+	}
+
+	/**
+	 * Invoke validity method with result caching, without recording.
+	 * 
+	 * @param implementMethodInfo
+	 * @param validityMethod
+	 * @param validityParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected boolean invokeValidityMethodWithResultCache(
+			ImplementMethodInfo implementMethodInfo, Method validityMethod,
+			Object[] validityParams, Object implementorBean) throws Throwable
+	{
+		Cache<Object, Object> resultCache = implementMethodInfo
+				.getValidityResultCache();
+
+		if (resultCache == null)
+			return doInvokeValidityMethod(validityMethod, validityParams,
+					implementorBean);
+
+		MethodResultCacheKey key = new MethodResultCacheKey(implementorBean,
+				implementMethodInfo.getValidityCacheScope(), validityParams);
+
+		Boolean valid = (Boolean) resultCache.get(key);
+
+		if (valid == null)
+		{
+			valid = doInvokeValidityMethod(validityMethod, validityParams,
+					implementorBean);
+			resultCache.put(key, valid);
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Do invoke validity method, without result caching.
+	 * 
+	 * @param validityMethod
+	 * @param validityParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected boolean doInvokeValidityMethod(Method validityMethod,
+			Object[] validityParams, Object implementorBean) throws Throwable
 	{
 		if (!validityMethod.isAccessible())
 			validityMethod.setAccessible(true);
@@ -124,6 +641,9 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 
 	/**
 	 * Invoke priority method.
+	 * <p>
+	 * The result is limited by {@linkplain ImplementMethodInfo#limitPriority(int)}.
+	 * </p>
 	 * 
 	 * @param implementation
 	 * @param implementInfo
@@ -139,6 +659,85 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 			ImplementMethodInfo implementMethodInfo,
 			Method priorityMethod, Object[] priorityParams,
 			Object implementorBean) throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+		int priority;
+
+		if (dispatchMetrics == null)
+			priority = invokePriorityMethodWithResultCache(implementMethodInfo,
+					priorityMethod, priorityParams, implementorBean);
+		else
+		{
+			long start = System.nanoTime();
+
+			try
+			{
+				priority = invokePriorityMethodWithResultCache(
+						implementMethodInfo, priorityMethod, priorityParams,
+						implementorBean);
+			}
+			finally
+			{
+				dispatchMetrics.recordPriority(implementMethodInfo,
+						System.nanoTime() - start);
+			}
+		}
+
+		priority = implementMethodInfo.limitPriority(priority);
+
+		this.invocationListener.priorityEvaluated(implementInfo,
+				implementMethodInfo, implementorBean, priority);
+
+		return priority;
+	}
+
+	/**
+	 * Invoke priority method with result caching, without recording.
+	 * 
+	 * @param implementMethodInfo
+	 * @param priorityMethod
+	 * @param priorityParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected int invokePriorityMethodWithResultCache(
+			ImplementMethodInfo implementMethodInfo, Method priorityMethod,
+			Object[] priorityParams, Object implementorBean) throws Throwable
+	{
+		Cache<Object, Object> resultCache = implementMethodInfo
+				.getPriorityResultCache();
+
+		if (resultCache == null)
+			return doInvokePriorityMethod(priorityMethod, priorityParams,
+					implementorBean);
+
+		MethodResultCacheKey key = new MethodResultCacheKey(implementorBean,
+				implementMethodInfo.getPriorityCacheScope(), priorityParams);
+
+		Integer priority = (Integer) resultCache.get(key);
+
+		if (priority == null)
+		{
+			priority = doInvokePriorityMethod(priorityMethod, priorityParams,
+					implementorBean);
+			resultCache.put(key, priority);
+		}
+
+		return priority;
+	}
+
+	/**
+	 * Do invoke priority method, without result caching.
+	 * 
+	 * @param priorityMethod
+	 * @param priorityParams
+	 * @param implementorBean
+	 * @return
+	 * @throws Throwable
+	 */
+	protected int doInvokePriorityMethod(Method priorityMethod,
+			Object[] priorityParams, Object implementorBean) throws Throwable
 	{
 		if (!priorityMethod.isAccessible())
 			priorityMethod.setAccessible(true);
@@ -189,7 +788,7 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 				if (myParamType.isPrimitive())
 					return false;
 			}
-			else
+			else if (myParamType != myInvocationParamType)
 			{
 				if (!toWrapperType(myParamType)
 						.isAssignableFrom(toWrapperType(myInvocationParamType)))
@@ -434,11 +1033,16 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 	protected Class<?>[] getCachedActualImplementMethodParamTypes(
 			ImplementMethodInfo implementMethodInfo)
 	{
-		return this.implementMethodParamTypes.get(implementMethodInfo);
+		return this.implementMethodParamTypes
+				.get(new ImplementMethodInfoKey(implementMethodInfo, null));
 	}
 
 	/**
 	 * Cache actual <i>implement method</i> parameter types.
+	 * <p>
+	 * Keys whose {@linkplain ImplementMethodInfo} is garbage collected are
+	 * removed first.
+	 * </p>
 	 * 
 	 * @param implementMethodInfo
 	 * @param actualImplementMethodParamTypes
@@ -447,7 +1051,16 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 			ImplementMethodInfo implementMethodInfo,
 			Class<?>[] actualImplementMethodParamTypes)
 	{
-		this.implementMethodParamTypes.put(implementMethodInfo,
+		Reference<? extends ImplementMethodInfo> reference;
+
+		while ((reference = this.clearedImplementMethodInfoQueue
+				.poll()) != null)
+			this.implementMethodParamTypes
+					.remove((ImplementMethodInfoKey) reference);
+
+		this.implementMethodParamTypes.put(
+				new ImplementMethodInfoKey(implementMethodInfo,
+						this.clearedImplementMethodInfoQueue),
 				actualImplementMethodParamTypes);
 	}
 
@@ -476,6 +1089,77 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 		return classes;
 	}
 
+	/**
+	 * Extract type array of the invocation parameters of given
+	 * {@linkplain ImplementInfo}.
+	 * <p>
+	 * For parameters which are primitive in the <i>implementee method</i>, the
+	 * primitive type is used instead of the wrapper type, without calling
+	 * {@code getClass()}, for their runtime types are always the same.
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @return
+	 * @see ImplementInfo#getPrimitiveParamTypes()
+	 */
+	protected Class<?>[] extractTypes(ImplementInfo implementInfo,
+			Object[] invocationParams)
+	{
+		Class<?>[] primitiveParamTypes = implementInfo
+				.getPrimitiveParamTypes();
+
+		if (primitiveParamTypes.length == 0 || invocationParams == null
+				|| invocationParams.length != primitiveParamTypes.length)
+			return extractTypes(invocationParams);
+
+		return extractInvocationParamTypes(implementInfo, invocationParams);
+	}
+
+	/**
+	 * Extract type array of the invocation parameters of given
+	 * {@linkplain ImplementInfo}, the same as
+	 * {@linkplain #extractTypes(ImplementInfo, Object[])}.
+	 * <p>
+	 * It is static, so that callers outside the factory, eg.
+	 * {@linkplain ProxyImplementeeInvocationSupport#invokeBatch(Method, List)}
+	 * , can key invocations by the same types.
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @return
+	 */
+	protected static Class<?>[] extractInvocationParamTypes(
+			ImplementInfo implementInfo, Object[] invocationParams)
+	{
+		if (invocationParams == null)
+			return EMPTY_CLASS_ARRAY;
+
+		Class<?>[] primitiveParamTypes = implementInfo
+				.getPrimitiveParamTypes();
+
+		if (invocationParams.length != primitiveParamTypes.length)
+			primitiveParamTypes = null;
+
+		Class<?>[] classes = new Class<?>[invocationParams.length];
+
+		for (int i = 0; i < invocationParams.length; i++)
+		{
+			Object invocationParam = invocationParams[i];
+
+			if (invocationParam == null)
+				classes[i] = null;
+			else if (primitiveParamTypes != null
+					&& primitiveParamTypes[i] != null)
+				classes[i] = primitiveParamTypes[i];
+			else
+				classes[i] = invocationParam.getClass();
+		}
+
+		return classes;
+	}
+
 	/**
 	 * Copy array by indexes.
 	 * <P>
@@ -538,4 +1222,165 @@ public abstract class AbstractImplementeeMethodInvocationFactory
 	{
 		return TypeUtil.toWrapperType(type);
 	}
+
+	/**
+	 * Cache key of validity and priority method results.
+	 * <p>
+	 * It consists of the <i>implementor</i> bean, which is compared by
+	 * reference, and the method parameter types (for
+	 * {@linkplain CacheScope#PER_TYPE}) or values (for
+	 * {@linkplain CacheScope#PER_VALUE}).
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-23
+	 *
+	 */
+	protected static class MethodResultCacheKey
+	{
+		private final Object implementorBean;
+
+		private final Object[] params;
+
+		private final int hash;
+
+		public MethodResultCacheKey(Object implementorBean,
+				CacheScope cacheScope, Object[] params)
+		{
+			super();
+			this.implementorBean = implementorBean;
+
+			if (CacheScope.PER_TYPE.equals(cacheScope))
+			{
+				Object[] types = new Object[params.length];
+
+				for (int i = 0; i < params.length; i++)
+					types[i] = (params[i] == null ? null
+							: params[i].getClass());
+
+				this.params = types;
+			}
+			else
+				this.params = params.clone();
+
+			this.hash = 31 * System.identityHashCode(implementorBean)
+					+ Arrays.hashCode(this.params);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof MethodResultCacheKey))
+				return false;
+
+			MethodResultCacheKey other = (MethodResultCacheKey) obj;
+
+			return (this.implementorBean == other.implementorBean
+					&& this.hash == other.hash
+					&& Arrays.equals(this.params, other.params));
+		}
+	}
+
+	/**
+	 * {@linkplain DefaultImplementeeMethodInvocation} which notifies the
+	 * {@linkplain BeanSelectionStrategy} before and after invoking.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-29
+	 *
+	 */
+	protected static class BeanSelectionImplementeeMethodInvocation
+			extends DefaultImplementeeMethodInvocation
+	{
+		private final BeanSelectionStrategy beanSelectionStrategy;
+
+		public BeanSelectionImplementeeMethodInvocation(
+				Implementation<?> implementation, ImplementInfo implementInfo,
+				Object[] invocationParams,
+				ImplementMethodInfo implementMethodInfo,
+				Object implementorBean,
+				BeanSelectionStrategy beanSelectionStrategy)
+		{
+			super(implementation, implementInfo, invocationParams,
+					implementMethodInfo, implementorBean);
+			this.beanSelectionStrategy = beanSelectionStrategy;
+		}
+
+		public BeanSelectionStrategy getBeanSelectionStrategy()
+		{
+			return beanSelectionStrategy;
+		}
+
+		@Override
+		public Object invoke() throws Throwable
+		{
+			Object implementorBean = getImplementorBean();
+
+			this.beanSelectionStrategy.beforeInvoke(implementorBean);
+
+			try
+			{
+				return super.invoke();
+			}
+			finally
+			{
+				this.beanSelectionStrategy.afterInvoke(implementorBean);
+			}
+		}
+	}
+
+	/**
+	 * Key of {@linkplain ImplementMethodInfo} which holds it weakly and is
+	 * compared by its identity.
+	 * <p>
+	 * After the {@linkplain ImplementMethodInfo} is garbage collected, the key
+	 * equals to nothing but itself.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class ImplementMethodInfoKey
+			extends WeakReference<ImplementMethodInfo>
+	{
+		/** the identity hash code of the ImplementMethodInfo */
+		private final int hash;
+
+		public ImplementMethodInfoKey(ImplementMethodInfo implementMethodInfo,
+				ReferenceQueue<? super ImplementMethodInfo> queue)
+		{
+			super(implementMethodInfo, queue);
+			this.hash = System.identityHashCode(implementMethodInfo);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof ImplementMethodInfoKey))
+				return false;
+
+			ImplementMethodInfo implementMethodInfo = get();
+
+			return (implementMethodInfo != null
+					&& implementMethodInfo == ((ImplementMethodInfoKey) obj)
+							.get());
+		}
+	}
 }
@@ -0,0 +1,67 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Abstract {@linkplain InvocationListener}.
+ * <p>
+ * It does nothing for all events, sub classes can override the ones they
+ * care.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public abstract class AbstractInvocationListener implements InvocationListener
+{
+	public AbstractInvocationListener()
+	{
+		super();
+	}
+
+	@Override
+	public void routingStarted(ImplementInfo implementInfo,
+			Object[] invocationParams)
+	{
+	}
+
+	@Override
+	public void validityEvaluated(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			boolean valid)
+	{
+	}
+
+	@Override
+	public void priorityEvaluated(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			int priority)
+	{
+	}
+
+	@Override
+	public void routingEnded(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean)
+	{
+	}
+
+	@Override
+	public void invocationCompleted(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			Object result, Throwable throwable)
+	{
+	}
+}
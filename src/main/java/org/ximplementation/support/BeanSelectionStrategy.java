@@ -0,0 +1,67 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Collection;
+
+/**
+ * Strategy for selecting one of the <i>implementor</i> beans.
+ * <p>
+ * It is used by {@linkplain ImplementeeMethodInvocationFactory}s when an
+ * <i>implementor</i> has more than one beans and they are all equally valid
+ * for invoking an <i>implement method</i>, that is the <i>implement
+ * method</i> has neither validity nor priority method. So traffic can be
+ * spread among the beans.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ * @see RoundRobinBeanSelectionStrategy
+ * @see WeightedRandomBeanSelectionStrategy
+ * @see LeastInFlightBeanSelectionStrategy
+ */
+public interface BeanSelectionStrategy
+{
+	/**
+	 * Select one of the <i>implementor</i> beans.
+	 * 
+	 * @param implementMethodInfo
+	 *            The {@linkplain ImplementMethodInfo} to be invoked.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans, not {@code null} nor empty.
+	 * @return The selected <i>implementor</i> bean.
+	 */
+	Object select(ImplementMethodInfo implementMethodInfo,
+			Collection<?> implementorBeans);
+
+	/**
+	 * Called before the <i>implement method</i> is invoked on the
+	 * <i>implementor</i> bean.
+	 * 
+	 * @param implementorBean
+	 */
+	void beforeInvoke(Object implementorBean);
+
+	/**
+	 * Called after the <i>implement method</i> is invoked on the
+	 * <i>implementor</i> bean, whether it returns normally or throws.
+	 * 
+	 * @param implementorBean
+	 */
+	void afterInvoke(Object implementorBean);
+}
@@ -0,0 +1,403 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded {@linkplain Cache}.
+ * <p>
+ * When it is full, a victim is selected by the CLOCK algorithm, in which a
+ * cached value that is got recently survives a few more rounds. The new value
+ * is then admitted only if its key is requested more frequently than the
+ * victim's key recently, which is estimated by a small count-min
+ * {@linkplain FrequencySketch}. So one-off keys can not flush out the hot ones.
+ * </p>
+ * <p>
+ * {@linkplain #get(Object)} is lock free, {@linkplain #put(Object, Object)} is
+ * serialized by a lock. The frequency counters are updated without
+ * synchronization and thus are approximate. A removed node is only marked in
+ * the CLOCK queue and purged when the marked ones outnumber the cached ones.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class BoundedCache<K, V> implements Cache<K, V>
+{
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	/** max reference count of a cached value for CLOCK algorithm */
+	protected static final int MAX_REFERENCE = 3;
+
+	private final int maxSize;
+
+	private final ConcurrentHashMap<K, Node<K, V>> map;
+
+	/** CLOCK queue of the nodes */
+	private final ConcurrentLinkedQueue<Node<K, V>> clock = new ConcurrentLinkedQueue<Node<K, V>>();
+
+	/** count of the removed nodes still in CLOCK queue, guarded by lock */
+	private int removedCount = 0;
+
+	private final FrequencySketch sketch;
+
+	private final Object evictionLock = new Object();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	public BoundedCache()
+	{
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Create a {@code BoundedCache} instance.
+	 * 
+	 * @param maxSize
+	 *            The max count of cached values, must be positive.
+	 */
+	public BoundedCache(int maxSize)
+	{
+		super();
+
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("[maxSize] must be positive");
+
+		this.maxSize = maxSize;
+		this.map = new ConcurrentHashMap<K, Node<K, V>>(
+				Math.min(maxSize, DEFAULT_MAX_SIZE));
+		this.sketch = new FrequencySketch(maxSize);
+	}
+
+	/**
+	 * Get the max count of cached values.
+	 * 
+	 * @return
+	 */
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	@Override
+	public V get(K key)
+	{
+		this.sketch.increment(key.hashCode());
+
+		Node<K, V> node = this.map.get(key);
+
+		if (node == null)
+		{
+			this.missCount.increment();
+			return null;
+		}
+
+		node.reference();
+		this.hitCount.increment();
+
+		return node.value;
+	}
+
+	@Override
+	public void put(K key, V value)
+	{
+		synchronized (this.evictionLock)
+		{
+			Node<K, V> node = this.map.get(key);
+
+			if (node != null)
+			{
+				node.value = value;
+				return;
+			}
+
+			if (this.map.size() >= this.maxSize)
+			{
+				Node<K, V> victim = selectVictim();
+
+				if (victim != null)
+				{
+					if (this.sketch.frequency(key.hashCode()) <= this.sketch
+							.frequency(victim.key.hashCode()))
+					{
+						// not admitted, the victim keeps cached
+						this.clock.offer(victim);
+						return;
+					}
+
+					this.map.remove(victim.key);
+					this.evictionCount.increment();
+				}
+			}
+
+			node = new Node<K, V>(key, value);
+
+			this.map.put(key, node);
+			this.clock.offer(node);
+		}
+	}
+
+	@Override
+	public void remove(K key)
+	{
+		synchronized (this.evictionLock)
+		{
+			Node<K, V> node = this.map.remove(key);
+
+			if (node == null)
+				return;
+
+			node.removed = true;
+			this.removedCount++;
+
+			// keep the CLOCK queue at most twice the size
+			if (this.removedCount > this.map.size())
+				purgeRemoved();
+		}
+	}
+
+	@Override
+	public void clear()
+	{
+		synchronized (this.evictionLock)
+		{
+			this.map.clear();
+			this.clock.clear();
+			this.removedCount = 0;
+		}
+	}
+
+	@Override
+	public int size()
+	{
+		return this.map.size();
+	}
+
+	/**
+	 * Get the length of the CLOCK queue, including the removed nodes not purged
+	 * yet.
+	 * 
+	 * @return
+	 */
+	protected int getClockLength()
+	{
+		return this.clock.size();
+	}
+
+	@Override
+	public CacheStatistics getStatistics()
+	{
+		return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(),
+				this.evictionCount.sum());
+	}
+
+	/**
+	 * Select a victim node by CLOCK algorithm, it is removed from the CLOCK
+	 * queue. It must be called with the lock held.
+	 * 
+	 * @return The victim node, {@code null} if none.
+	 */
+	protected Node<K, V> selectVictim()
+	{
+		Node<K, V> node = null;
+
+		while ((node = this.clock.poll()) != null)
+		{
+			if (node.removed)
+			{
+				this.removedCount--;
+				continue;
+			}
+
+			if (node.referenceCount > 0)
+			{
+				node.referenceCount--;
+				this.clock.offer(node);
+			}
+			else
+				return node;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Remove the removed nodes from the CLOCK queue. It must be called with the
+	 * lock held.
+	 */
+	protected void purgeRemoved()
+	{
+		Iterator<Node<K, V>> it = this.clock.iterator();
+
+		while (it.hasNext())
+		{
+			if (it.next().removed)
+				it.remove();
+		}
+
+		this.removedCount = 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [maxSize=" + maxSize + ", size="
+				+ size() + "]";
+	}
+
+	/**
+	 * Cached value node.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	protected static class Node<K, V>
+	{
+		final K key;
+
+		volatile V value;
+
+		/** reference count for CLOCK algorithm */
+		volatile int referenceCount = 0;
+
+		/** if removed from the map, guarded by lock */
+		boolean removed = false;
+
+		public Node(K key, V value)
+		{
+			super();
+			this.key = key;
+			this.value = value;
+		}
+
+		/**
+		 * Mark this node as referenced.
+		 */
+		public void reference()
+		{
+			if (this.referenceCount < MAX_REFERENCE)
+				this.referenceCount++;
+		}
+	}
+
+	/**
+	 * Count-min sketch for estimating recent key frequency.
+	 * <p>
+	 * Each key is counted in 4 counters of at most 15, and all counters are
+	 * halved after a sample period, so the estimation reflects the recent
+	 * requests.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	protected static class FrequencySketch
+	{
+		private static final int[] SEEDS = { 0x97cb3127, 0xc3a5c85c,
+				0x9e3779b9, 0x85ebca6b };
+
+		private static final int MAX_COUNT = 15;
+
+		private final int[] table;
+
+		private final int mask;
+
+		private final int samplePeriod;
+
+		private int sampleCount = 0;
+
+		public FrequencySketch(int maxSize)
+		{
+			super();
+
+			int width = 64;
+			while (width < maxSize && width < (1 << 24))
+				width <<= 1;
+
+			this.table = new int[width];
+			this.mask = width - 1;
+			this.samplePeriod = width * 10;
+		}
+
+		/**
+		 * Increment the frequency of the given hash.
+		 * 
+		 * @param hash
+		 */
+		public void increment(int hash)
+		{
+			int[] table = this.table;
+
+			for (int i = 0; i < SEEDS.length; i++)
+			{
+				int index = indexOf(hash, i);
+
+				if (table[index] < MAX_COUNT)
+					table[index]++;
+			}
+
+			if (++this.sampleCount >= this.samplePeriod)
+				age();
+		}
+
+		/**
+		 * Get the estimated frequency of the given hash.
+		 * 
+		 * @param hash
+		 * @return
+		 */
+		public int frequency(int hash)
+		{
+			int frequency = MAX_COUNT;
+
+			for (int i = 0; i < SEEDS.length; i++)
+				frequency = Math.min(frequency, this.table[indexOf(hash, i)]);
+
+			return frequency;
+		}
+
+		/**
+		 * Halve all counters.
+		 */
+		protected void age()
+		{
+			int[] table = this.table;
+
+			for (int i = 0; i < table.length; i++)
+				table[i] >>>= 1;
+
+			this.sampleCount = 0;
+		}
+
+		protected int indexOf(int hash, int i)
+		{
+			int h = (hash ^ (hash >>> 16)) * SEEDS[i];
+			h ^= (h >>> 15);
+
+			return (h & this.mask);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Cache used by {@linkplain ImplementeeMethodInvocationFactory} for storing
+ * static invocation info.
+ * <p>
+ * Implementations must be thread-safe.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ * @see BoundedCache
+ * @see ConcurrentMapCache
+ */
+public interface Cache<K, V>
+{
+	/**
+	 * Get the cached value for given key.
+	 * 
+	 * @param key
+	 * @return The cached value, {@code null} if none.
+	 */
+	V get(K key);
+
+	/**
+	 * Cache the value with given key.
+	 * <p>
+	 * Implementations may decide not to cache it, eg. the cache is full.
+	 * </p>
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	void put(K key, V value);
+
+	/**
+	 * Remove the cached value for given key.
+	 * 
+	 * @param key
+	 */
+	void remove(K key);
+
+	/**
+	 * Remove all cached values.
+	 */
+	void clear();
+
+	/**
+	 * Get the count of cached values.
+	 * 
+	 * @return
+	 */
+	int size();
+
+	/**
+	 * Get the statistics of this cache.
+	 * 
+	 * @return
+	 */
+	CacheStatistics getStatistics();
+}
@@ -0,0 +1,91 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Statistics snapshot of {@linkplain Cache}.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class CacheStatistics
+{
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+	public CacheStatistics(long hitCount, long missCount, long evictionCount)
+	{
+		super();
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+
+	/**
+	 * Get the count of {@linkplain Cache#get(Object)} which returns a cached
+	 * value.
+	 * 
+	 * @return
+	 */
+	public long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * Get the count of {@linkplain Cache#get(Object)} which returns
+	 * {@code null}.
+	 * 
+	 * @return
+	 */
+	public long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * Get the count of cached values evicted for making room for new ones.
+	 * 
+	 * @return
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * Get the hit rate, {@code 1.0} if no request.
+	 * 
+	 * @return
+	 */
+	public double getHitRate()
+	{
+		long requestCount = this.hitCount + this.missCount;
+
+		return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [hitCount=" + hitCount
+				+ ", missCount=" + missCount + ", evictionCount="
+				+ evictionCount + "]";
+	}
+}
@@ -14,15 +14,22 @@
 
 package org.ximplementation.support;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Cached {@linkplain ImplementeeMethodInvocationFactory}.
@@ -31,6 +38,54 @@ import java.util.concurrent.ConcurrentHashMap;
  * {@linkplain SimpleImplementeeMethodInvocationFactory} except caching some
  * static process info for performance (eg. <i>implement method</i> parameter
  * type validity checking and priority evaluation).
+ * </p>
+ * <p>
+ * Besides the shared cache map, an {@linkplain InlineCache} which holds the
+ * last few invocation parameter types and their static process info is kept
+ * for each {@linkplain ImplementInfo}, so invocations with the recently seen
+ * parameter types need neither allocation nor map lookup.
+ * </p>
+ * <p>
+ * When both caches miss, a {@linkplain CandidateIndex} kept for the
+ * {@linkplain ImplementInfo} is used for evaluating, which is a bitset
+ * intersection of the candidates valid for each parameter followed by a linear
+ * pass over the candidates in precomputed priority order.
+ * </p>
+ * <p>
+ * The shared caches are {@linkplain BoundedCache}s by default and can be
+ * replaced by any {@linkplain Cache} implementation. Keys put into the shared
+ * static info cache hold their {@linkplain Implementation},
+ * {@linkplain ImplementInfo} and invocation parameter types weakly (see
+ * {@linkplain WeakStaticInvocationInputInfo}), and keys whose
+ * {@linkplain Implementation} or {@linkplain ImplementInfo} is garbage
+ * collected are removed on the next put, so the cache does not keep them and
+ * the class loaders of their <i>implementor</i>s alive. The invocation parameter types of the keys are
+ * interned {@linkplain TypeSignature}s, and keys are compared by identity of
+ * their {@code TypeSignature}s, {@linkplain ImplementInfo}s and
+ * {@linkplain Implementation}s.
+ * </p>
+ * <p>
+ * The {@linkplain InlineCache}s and {@linkplain CandidateIndex}es are held by
+ * this factory in an {@linkplain ImplementInfoCachesTable}, which references
+ * the {@linkplain ImplementInfo}s weakly and by identity, so factories sharing
+ * an {@linkplain Implementation} do not overwrite each other's.
+ * </p>
+ * <p>
+ * All the caches are stamped with the epoch of this factory and of the
+ * {@linkplain ImplementInfo} when built, and discarded on reading if either is
+ * advanced. So after implementors or beans change, only the affected ones
+ * need to be invalidated, by
+ * {@linkplain #invalidate(ImplementInfo)},
+ * {@linkplain #invalidate(Implementation, Class)} or
+ * {@linkplain #invalidateAll()}, the others stay warm.
+ * </p>
+ * <p>
+ * If a {@linkplain ForkJoinPool} is set by
+ * {@linkplain #setParallelEvaluationPool(ForkJoinPool)}, validity and priority
+ * methods of more than {@linkplain #getParallelEvaluationThreshold()}
+ * candidates are evaluated in parallel in it, and the result is selected in
+ * the same order as the sequential evaluation.
+ * </p>
  * 
  * @author earthangry@gmail.com
  * @date 2016-12-6
@@ -39,13 +94,227 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CachedImplementeeMethodInvocationFactory
 		extends AbstractImplementeeMethodInvocationFactory
 {
-	private ConcurrentHashMap<StaticInvocationInputInfo, StaticInvocationProcessInfo> cachedStaticValidAndDescPrioritizeds = new ConcurrentHashMap<StaticInvocationInputInfo, StaticInvocationProcessInfo>();
+	private Cache<StaticInvocationInputInfo, StaticInvocationProcessInfo> cachedStaticValidAndDescPrioritizeds = new BoundedCache<StaticInvocationInputInfo, StaticInvocationProcessInfo>();
+
+	/** the inline cache size of each ImplementInfo, 0 for disabled */
+	private int inlineCacheSize = 4;
+
+	/** the queue of cleared references of the shared cache keys */
+	private final ReferenceQueue<Object> clearedKeyQueue = new ReferenceQueue<Object>();
+
+	/** the inline caches and candidate indexes of ImplementInfos */
+	private final ImplementInfoCachesTable implementInfoCachesTable = new ImplementInfoCachesTable();
+
+	/** the epoch, advanced by invalidateAll() */
+	private volatile int epoch = 0;
+
+	/** the pool for evaluating candidates in parallel, null for disabled */
+	private ForkJoinPool parallelEvaluationPool;
+
+	/** the candidate count above which to evaluate in parallel */
+	private int parallelEvaluationThreshold = 16;
 
 	public CachedImplementeeMethodInvocationFactory()
 	{
 		super();
 	}
 
+	public CachedImplementeeMethodInvocationFactory(
+			InvocationListener invocationListener)
+	{
+		super(invocationListener);
+	}
+
+	/**
+	 * Get the cache of {@linkplain StaticInvocationProcessInfo}s.
+	 * 
+	 * @return
+	 */
+	public Cache<StaticInvocationInputInfo, StaticInvocationProcessInfo> getCachedStaticValidAndDescPrioritizeds()
+	{
+		return cachedStaticValidAndDescPrioritizeds;
+	}
+
+	/**
+	 * Set the cache of {@linkplain StaticInvocationProcessInfo}s.
+	 * <p>
+	 * A {@linkplain BoundedCache} is used by default.
+	 * </p>
+	 * 
+	 * @param cachedStaticValidAndDescPrioritizeds
+	 */
+	public void setCachedStaticValidAndDescPrioritizeds(
+			Cache<StaticInvocationInputInfo, StaticInvocationProcessInfo> cachedStaticValidAndDescPrioritizeds)
+	{
+		this.cachedStaticValidAndDescPrioritizeds = cachedStaticValidAndDescPrioritizeds;
+	}
+
+	/**
+	 * Get the {@linkplain InlineCache} size of each {@linkplain ImplementInfo}.
+	 * 
+	 * @return
+	 */
+	public int getInlineCacheSize()
+	{
+		return inlineCacheSize;
+	}
+
+	/**
+	 * Set the {@linkplain InlineCache} size of each {@linkplain ImplementInfo},
+	 * {@code 0} for disabling inline cache.
+	 * 
+	 * @param inlineCacheSize
+	 */
+	public void setInlineCacheSize(int inlineCacheSize)
+	{
+		this.inlineCacheSize = inlineCacheSize;
+	}
+
+	/**
+	 * Get the {@linkplain ForkJoinPool} for evaluating candidates in
+	 * parallel.
+	 * 
+	 * @return The {@linkplain ForkJoinPool}, {@code null} if parallel
+	 *         evaluation is disabled.
+	 */
+	public ForkJoinPool getParallelEvaluationPool()
+	{
+		return parallelEvaluationPool;
+	}
+
+	/**
+	 * Set the {@linkplain ForkJoinPool} for evaluating candidates in
+	 * parallel, {@code null} for disabling parallel evaluation, which is the
+	 * default.
+	 * <p>
+	 * Validity and priority methods, and the {@linkplain InvocationListener}
+	 * if set, are called in the pool threads then, so they must be
+	 * thread-safe.
+	 * </p>
+	 * 
+	 * @param parallelEvaluationPool
+	 */
+	public void setParallelEvaluationPool(
+			ForkJoinPool parallelEvaluationPool)
+	{
+		this.parallelEvaluationPool = parallelEvaluationPool;
+	}
+
+	/**
+	 * Get the candidate count above which to evaluate in parallel.
+	 * 
+	 * @return
+	 */
+	public int getParallelEvaluationThreshold()
+	{
+		return parallelEvaluationThreshold;
+	}
+
+	/**
+	 * Set the candidate count above which to evaluate in parallel, its
+	 * default value is {@code 16}.
+	 * 
+	 * @param parallelEvaluationThreshold
+	 */
+	public void setParallelEvaluationThreshold(
+			int parallelEvaluationThreshold)
+	{
+		this.parallelEvaluationThreshold = parallelEvaluationThreshold;
+	}
+
+	/**
+	 * Get the epoch of this factory.
+	 * 
+	 * @return
+	 */
+	public int getEpoch()
+	{
+		return epoch;
+	}
+
+	/**
+	 * Invalidate the caches of given {@linkplain ImplementInfo}.
+	 * <p>
+	 * Its epoch is advanced, and its validity and priority method result
+	 * caches are cleared. Call it after modifying the {@code ImplementInfo}.
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 */
+	public void invalidate(ImplementInfo implementInfo)
+	{
+		implementInfo.advanceEpoch();
+
+		ImplementMethodInfo[] implementMethodInfos = implementInfo
+				.getImplementMethodInfos();
+
+		if (implementMethodInfos != null)
+		{
+			for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
+				implementMethodInfo.clearResultCaches();
+		}
+	}
+
+	/**
+	 * Invalidate the caches of the {@linkplain ImplementInfo}s in given
+	 * {@linkplain Implementation} which have <i>implement method</i> of given
+	 * <i>implementor</i>.
+	 * <p>
+	 * Call it after the beans of the <i>implementor</i> change, so cached
+	 * validity and priority method results of the removed or modified beans
+	 * are discarded, or after the <i>implement method</i>s of the
+	 * <i>implementor</i> are modified.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementor
+	 */
+	public void invalidate(Implementation<?> implementation,
+			Class<?> implementor)
+	{
+		ImplementInfo[] implementInfos = implementation.getImplementInfos();
+
+		if (implementInfos == null)
+			return;
+
+		for (ImplementInfo implementInfo : implementInfos)
+		{
+			ImplementMethodInfo[] implementMethodInfos = implementInfo
+					.getImplementMethodInfos();
+
+			if (implementMethodInfos == null)
+				continue;
+
+			for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
+			{
+				if (implementMethodInfo.getImplementor() == implementor)
+				{
+					invalidate(implementInfo);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Invalidate all caches of this factory.
+	 * <p>
+	 * Its epoch is advanced and the shared cache is cleared. Note that
+	 * validity and priority method result caches are attached to
+	 * {@linkplain ImplementMethodInfo}s, which are not known by this
+	 * factory, use {@linkplain #invalidate(ImplementInfo)} for clearing them.
+	 * </p>
+	 */
+	public void invalidateAll()
+	{
+		synchronized (this)
+		{
+			this.epoch = this.epoch + 1;
+		}
+
+		this.cachedStaticValidAndDescPrioritizeds.clear();
+	}
+
 	@Override
 	public ImplementeeMethodInvocation get(
 			Implementation<?> implementation, Method implementeeMethod,
@@ -54,24 +323,30 @@ public class CachedImplementeeMethodInvocationFactory
 	{
 		ImplementInfo implementInfo = findImplementInfo(implementation,
 				implementeeMethod);
-	
-		if (implementInfo == null || !implementInfo.hasImplementMethodInfo())
+
+		if (implementInfo == null)
 			return null;
-	
-		Class<?>[] invocationParamTypes = extractTypes(invocationParams);
 
-		StaticInvocationInputInfo invocationCacheKey = new StaticInvocationInputInfo(implementation, implementInfo,
-				invocationParamTypes);
-		StaticInvocationProcessInfo invocationCacheValue = getCachedStaticValidAndDescPrioritizeds(
-				invocationCacheKey);
+		return get(implementation, implementInfo, invocationParams,
+				implementorBeanFactory);
+	}
+
+	@Override
+	public ImplementeeMethodInvocation get(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		if (!implementInfo.hasImplementMethodInfo())
+			return null;
+
+		InlineCacheEntry invocationCacheEntry = getInvocationCacheEntry(
+				implementation, implementInfo, invocationParams);
+
+		Class<?>[] invocationParamTypes = invocationCacheEntry
+				.getInvocationParamTypes();
+		StaticInvocationProcessInfo invocationCacheValue = invocationCacheEntry
+				.getStaticInvocationProcessInfo();
 
-		if (invocationCacheValue == null)
-		{
-			invocationCacheValue = evalStaticInvocationProcessInfo(implementation, implementInfo,
-					invocationParamTypes);
-			cacheStaticValidAndDescPrioritizeds(invocationCacheKey, invocationCacheValue);
-		}
-	
 		ImplementMethodInfo[] staticValidAndDescPrioritizeds = invocationCacheValue
 				.getStaticValidAndDescPrioritizeds();
 
@@ -92,600 +367,2651 @@ public class CachedImplementeeMethodInvocationFactory
 			return createByEvaluatingFromValidAndDescPrioritizeds(implementation,
 					implementInfo, invocationParams,
 					invocationParamTypes, staticValidAndDescPrioritizeds,
+					invocationCacheValue.getRemainingPriorityUpperBounds(),
 					implementorBeanFactory);
 		}
 	}
 
 	/**
-	 * Evaluate {@linkplain StaticInvocationProcessInfo}.
-	 * 
-	 * @param implementation
-	 * @param implementInfo
-	 * @param invocationParamTypes
-	 * @return
+	 * {@inheritDoc}
+	 * <p>
+	 * It selects and invokes the <i>implement method</i> in one step, no
+	 * {@linkplain ImplementeeMethodInvocation} is created, and nothing is
+	 * allocated if the invocation parameter types hit the
+	 * {@linkplain InlineCache}.
+	 * </p>
+	 * <p>
+	 * If a {@linkplain DispatchMetrics} is active or an
+	 * {@linkplain InvocationListener} other than
+	 * {@linkplain InvocationListener#NO_OP} is set, it selects by
+	 * {@linkplain #get(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * and then invokes instead, so that the routing can be observed.
+	 * </p>
 	 */
-	protected StaticInvocationProcessInfo evalStaticInvocationProcessInfo(Implementation<?> implementation,
-			ImplementInfo implementInfo,
-			Class<?>[] invocationParamTypes)
+	@Override
+	public Object invoke(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
 	{
-		List<ImplementMethodInfo> staticValidAndDescPrioritizeds = new ArrayList<ImplementMethodInfo>();
-		boolean validityMethodPresents = false;
-		boolean priorityMethodPresents = false;
-	
-		if(implementInfo.hasImplementMethodInfo())
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
+		InvocationListener invocationListener = this.invocationListener;
+
+		if (dispatchMetrics != null
+				|| invocationListener != InvocationListener.NO_OP)
+			return invokeObserved(dispatchMetrics, invocationListener,
+					implementation, implementInfo, invocationParams,
+					implementorBeanFactory);
+
+		if (!implementInfo.hasImplementMethodInfo())
+			throw noValidImplementMethodException(implementInfo);
+
+		StaticInvocationProcessInfo invocationCacheValue = getInvocationCacheEntry(
+				implementation, implementInfo, invocationParams)
+						.getStaticInvocationProcessInfo();
+
+		ImplementMethodInfo[] staticValidAndDescPrioritizeds = invocationCacheValue
+				.getStaticValidAndDescPrioritizeds();
+
+		if (staticValidAndDescPrioritizeds == null
+				|| staticValidAndDescPrioritizeds.length == 0)
+			throw noValidImplementMethodException(implementInfo);
+
+		if (!invocationCacheValue.isValidityMethodPresents()
+				&& !invocationCacheValue.isPriorityMethodPresents())
 		{
-			ImplementMethodInfo[] implementMethodInfos = implementInfo
-					.getImplementMethodInfos();
-			
-			for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
-			{
-				// ignore parameter type not valid
-				if (!isImplementMethodParamTypeValid(implementation,
-						implementInfo, implementMethodInfo,
-						invocationParamTypes))
-					continue;
-	
-				if (!validityMethodPresents
-						&& implementMethodInfo.hasValidityMethod())
-					validityMethodPresents = true;
-	
-				if (!priorityMethodPresents
-						&& implementMethodInfo.hasPriorityMethod())
-					priorityMethodPresents = true;
-	
-				staticValidAndDescPrioritizeds.add(implementMethodInfo);
-			}
+			return invokeBySelectingFromValidAndDescPrioritizeds(
+					implementation, implementInfo, invocationParams,
+					staticValidAndDescPrioritizeds, implementorBeanFactory);
+		}
+		else
+		{
+			return invokeByEvaluatingFromValidAndDescPrioritizeds(
+					implementation, implementInfo, invocationParams,
+					staticValidAndDescPrioritizeds,
+					invocationCacheValue.getRemainingPriorityUpperBounds(),
+					implementorBeanFactory);
 		}
-		
-		ImplementMethodInfo[] staticValidAndDescPrioritizedAry = staticValidAndDescPrioritizeds.toArray(
-				new ImplementMethodInfo[staticValidAndDescPrioritizeds.size()]);
-	
-		// sort by static priority
-		sortByStaticPriority(implementation, implementInfo,
-				invocationParamTypes, staticValidAndDescPrioritizedAry);
-	
-		return new StaticInvocationProcessInfo(staticValidAndDescPrioritizedAry,
-				validityMethodPresents, priorityMethodPresents);
 	}
 
 	/**
-	 * Create {@linkplain ImplementeeMethodInvocation} by selecting from valid
-	 * and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * Get the {@linkplain InlineCacheEntry} for given invocation parameters.
+	 * <p>
+	 * It first finds in the {@linkplain InlineCache} of the
+	 * {@code implementInfo}, then in the shared cache map, and evaluates the
+	 * {@linkplain StaticInvocationProcessInfo} if both missed.
+	 * </p>
 	 * 
 	 * @param implementation
 	 * @param implementInfo
 	 * @param invocationParams
-	 * @param invocationParamTypes
-	 * @param validAndDescPrioritizeds
-	 * @param implementorBeanFactory
 	 * @return
 	 */
-	protected ImplementeeMethodInvocation createBySelectingFromValidAndDescPrioritizeds(
+	protected InlineCacheEntry getInvocationCacheEntry(
 			Implementation<?> implementation, ImplementInfo implementInfo,
-			Object[] invocationParams,
-			Class<?>[] invocationParamTypes,
-			ImplementMethodInfo[] validAndDescPrioritizeds,
-			ImplementorBeanFactory implementorBeanFactory)
+			Object[] invocationParams)
 	{
-		ImplementMethodInfo finalMethodInfo = null;
-		Collection<?> finalBeans = null;
+		DispatchMetrics dispatchMetrics = getActiveDispatchMetrics();
 
-		// make sure get only once for the same implementor
-		Map<Class<?>, Collection<?>> cachedImplementorBeans = new HashMap<Class<?>, Collection<?>>();
+		InlineCache inlineCache = getInlineCache(implementation,
+				implementInfo);
 
-		for (int i = 0; i < validAndDescPrioritizeds.length; i++)
+		if (inlineCache != null)
 		{
-			ImplementMethodInfo myMethodInfo = validAndDescPrioritizeds[i];
-			
-			if(isStaticImplementMethod(myMethodInfo))
-			{
-				finalMethodInfo = myMethodInfo;
-				break;
-			}
-			
-			Collection<?> myBeans = getImplementorBeansWithCache(cachedImplementorBeans, implementorBeanFactory,
-					myMethodInfo.getImplementor());
+			InlineCacheEntry inlineCacheEntry = inlineCache
+					.find(invocationParams);
 
-			if (myBeans != null && !myBeans.isEmpty())
+			if (inlineCacheEntry != null)
 			{
-				finalMethodInfo = myMethodInfo;
-				finalBeans = myBeans;
+				if (dispatchMetrics != null)
+					dispatchMetrics.recordInlineCacheHit(
+							implementInfo.getImplementeeMethod());
 
-				break;
+				return inlineCacheEntry;
 			}
 		}
 
-		if (finalMethodInfo == null)
-			return null;
+		Class<?>[] invocationParamTypes = extractTypes(implementInfo,
+				invocationParams);
 
-		Object finalBean = (finalBeans == null ? null : getRandomElement(finalBeans));
+		StaticInvocationInputInfo invocationCacheKey = new StaticInvocationInputInfo(
+				implementation, implementInfo, invocationParamTypes);
+		StaticInvocationProcessInfo invocationCacheValue = getCachedStaticValidAndDescPrioritizeds(
+				invocationCacheKey);
 
-		return new DefaultImplementeeMethodInvocation(implementation,
-				implementInfo, invocationParams, finalMethodInfo,
-				finalBean);
+		if (dispatchMetrics != null)
+		{
+			if (invocationCacheValue == null)
+				dispatchMetrics.recordCacheMiss(
+						implementInfo.getImplementeeMethod());
+			else
+				dispatchMetrics.recordSharedCacheHit(
+						implementInfo.getImplementeeMethod());
+		}
+
+		if (invocationCacheValue == null)
+		{
+			// read before evaluating, so it is stale if invalidated meanwhile
+			int epoch = this.epoch;
+			int implementInfoEpoch = implementInfo.getEpoch();
+
+			invocationCacheValue = evalStaticInvocationProcessInfo(
+					implementation, implementInfo, invocationParamTypes);
+			invocationCacheValue.setEpoch(epoch, implementInfoEpoch);
+
+			cacheStaticValidAndDescPrioritizeds(invocationCacheKey,
+					invocationCacheValue);
+		}
+
+		InlineCacheEntry inlineCacheEntry = new InlineCacheEntry(
+				invocationParamTypes, invocationCacheValue);
+
+		if (inlineCache != null)
+			inlineCache.add(inlineCacheEntry);
+
+		return inlineCacheEntry;
 	}
 
 	/**
-	 * Create {@linkplain ImplementeeMethodInvocation} by evaluating from valid
-	 * and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * Evaluate {@linkplain StaticInvocationProcessInfo}.
 	 * 
 	 * @param implementation
 	 * @param implementInfo
-	 * @param invocationParams
 	 * @param invocationParamTypes
-	 * @param validAndDescPrioritizeds
-	 * @param implementorBeanFactory
 	 * @return
-	 * @throws Throwable
 	 */
-	protected ImplementeeMethodInvocation createByEvaluatingFromValidAndDescPrioritizeds(
-			Implementation<?> implementation, ImplementInfo implementInfo,
-			Object[] invocationParams,
-			Class<?>[] invocationParamTypes,
-			ImplementMethodInfo[] validAndDescPrioritizeds,
-			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	protected StaticInvocationProcessInfo evalStaticInvocationProcessInfo(Implementation<?> implementation,
+			ImplementInfo implementInfo,
+			Class<?>[] invocationParamTypes)
 	{
-		ImplementMethodInfo implementMethodInfo = null;
-		Object implementorBean = null;
-		int priority = Integer.MIN_VALUE;
-		
-		// make sure get only once for the same implementor
-		Map<Class<?>, Collection<?>> cachedImplementorBeans = new HashMap<Class<?>, Collection<?>>();
-	
-		for (ImplementMethodInfo myImplementMethodInfo : validAndDescPrioritizeds)
+		if (implementInfo.hasImplementMethodInfo())
 		{
-			Collection<?> implementorBeans = null;
+			CandidateIndex candidateIndex = getCandidateIndex(implementation,
+					implementInfo);
 
-			if (isStaticImplementMethod(myImplementMethodInfo))
-				implementorBeans = ONE_NULL_IMPLEMENTOR_FOR_LOOP;
-			else
-				implementorBeans = getImplementorBeansWithCache(cachedImplementorBeans, implementorBeanFactory,
-						myImplementMethodInfo.getImplementor());
-
-			if (implementorBeans == null || implementorBeans.isEmpty())
-				continue;
-	
-			Method validityMethod = myImplementMethodInfo.getValidityMethod();
-			Object[] validityMethodParams = myImplementMethodInfo
-					.getValidityParams(invocationParams);
-			Method priorityMethod = myImplementMethodInfo.getPriorityMethod();
-			Object[] priorityMethodParams = myImplementMethodInfo
-					.getPriorityParams(invocationParams);
-	
-			for (Object myImplementorBean : implementorBeans)
-			{
-				if (validityMethod != null)
-				{
-					boolean isValid = invokeValidityMethod(implementation,
-							implementInfo, myImplementMethodInfo,
-							validityMethod, validityMethodParams,
-							myImplementorBean);
-	
-					if (!isValid)
-						continue;
-				}
-	
-				int myPriority = myImplementMethodInfo.getPriorityValue();
-	
-				if (priorityMethod != null)
-				{
-					myPriority = invokePriorityMethod(implementation,
-							implementInfo, myImplementMethodInfo,
-							myImplementMethodInfo.getPriorityMethod(),
-							priorityMethodParams, myImplementorBean);
-				}
-	
-				boolean replace = false;
-	
-				if (implementMethodInfo == null)
-					replace = true;
-				else
-					replace = (myPriority > priority);
-	
-				if (replace)
-				{
-					implementMethodInfo = myImplementMethodInfo;
-					implementorBean = myImplementorBean;
-					priority = myPriority;
-				}
-			}
+			if (candidateIndex.getParamCount() == invocationParamTypes.length)
+				return evalStaticInvocationProcessInfoByIndex(implementation,
+						implementInfo, candidateIndex, invocationParamTypes);
 		}
-	
-		return (implementMethodInfo == null ? null
-				: new DefaultImplementeeMethodInvocation(implementation,
-						implementInfo,
-						invocationParams,
-						implementMethodInfo, implementorBean));
+
+		return evalStaticInvocationProcessInfoByScanning(implementation,
+				implementInfo, invocationParamTypes);
 	}
 
 	/**
-	 * Sort {@linkplain ImplementMethodInfo} array by static priority.
+	 * Evaluate {@linkplain StaticInvocationProcessInfo} by the
+	 * {@linkplain CandidateIndex}.
 	 * 
 	 * @param implementation
 	 * @param implementInfo
+	 * @param candidateIndex
 	 * @param invocationParamTypes
-	 * @param implementMethodInfos
+	 * @return
 	 */
-	protected void sortByStaticPriority(Implementation<?> implementation,
-			ImplementInfo implementInfo,
-			Class<?>[] invocationParamTypes,
-			ImplementMethodInfo[] implementMethodInfos)
+	protected StaticInvocationProcessInfo evalStaticInvocationProcessInfoByIndex(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			CandidateIndex candidateIndex, Class<?>[] invocationParamTypes)
 	{
-		Arrays.sort(implementMethodInfos,
-				new StaticPriorityComparator(implementation,
-						implementInfo, invocationParamTypes));
+		long[] bits = candidateIndex.getValidBits().clone();
+
+		for (int i = 0; i < invocationParamTypes.length; i++)
+		{
+			long[] myBits = getCandidateBits(candidateIndex, i,
+					invocationParamTypes[i]);
+
+			for (int j = 0; j < bits.length; j++)
+				bits[j] &= myBits[j];
+		}
+
+		int count = 0;
+		for (int j = 0; j < bits.length; j++)
+			count += Long.bitCount(bits[j]);
+
+		ImplementMethodInfo[] candidates = candidateIndex.getCandidates();
+		ImplementMethodInfo[] staticValidAndDescPrioritizeds = new ImplementMethodInfo[count];
+		boolean validityMethodPresents = false;
+		boolean priorityMethodPresents = false;
+
+		int index = 0;
+
+		for (int j = 0; j < bits.length; j++)
+		{
+			long word = bits[j];
+
+			while (word != 0)
+			{
+				ImplementMethodInfo implementMethodInfo = candidates[(j << 6)
+						+ Long.numberOfTrailingZeros(word)];
+
+				if (!validityMethodPresents
+						&& implementMethodInfo.hasValidityMethod())
+					validityMethodPresents = true;
+
+				if (!priorityMethodPresents
+						&& implementMethodInfo.hasPriorityMethod())
+					priorityMethodPresents = true;
+
+				staticValidAndDescPrioritizeds[index++] = implementMethodInfo;
+
+				word &= (word - 1);
+			}
+		}
+
+		if (!candidateIndex.isPrioritized())
+			sortByStaticPriority(implementation, implementInfo,
+					invocationParamTypes, staticValidAndDescPrioritizeds);
+
+		return new StaticInvocationProcessInfo(staticValidAndDescPrioritizeds,
+				validityMethodPresents, priorityMethodPresents);
 	}
 
 	/**
-	 * Get randon one element.
+	 * Get the bitset of candidates in {@linkplain CandidateIndex} whose
+	 * parameter at the given position is valid for the given invocation
+	 * parameter type, compute and cache it if not yet.
 	 * 
-	 * @param objs
+	 * @param candidateIndex
+	 * @param paramIndex
+	 *            The <i>implementee method</i> parameter position.
+	 * @param invocationParamType
+	 *            The invocation parameter type, may be {@code null}.
 	 * @return
 	 */
-	protected Object getRandomElement(Collection<?> objs)
+	protected long[] getCandidateBits(CandidateIndex candidateIndex,
+			int paramIndex, Class<?> invocationParamType)
 	{
-		if (objs == null || objs.isEmpty())
-			return null;
+		if (invocationParamType == null)
+			return candidateIndex.getNullBits(paramIndex);
 
-		if (objs instanceof List<?>)
-			return ((List<?>) objs).get(0);
+		long[] bits = candidateIndex.getTypeBits(paramIndex,
+				invocationParamType);
 
-		for (Object obj : objs)
-			return obj;
+		if (bits != null)
+			return bits;
 
-		return null;
+		Class<?>[] paramTypes = candidateIndex.getParamTypes(paramIndex);
+		Class<?> wrapperType = toWrapperType(invocationParamType);
+
+		bits = new long[candidateIndex.getValidBits().length];
+
+		for (int i = 0; i < paramTypes.length; i++)
+		{
+			Class<?> paramType = paramTypes[i];
+
+			if (paramType == null
+					|| toWrapperType(paramType).isAssignableFrom(wrapperType))
+				bits[i >>> 6] |= (1L << i);
+		}
+
+		candidateIndex.putTypeBits(paramIndex, invocationParamType, bits);
+
+		return bits;
 	}
 
 	/**
-	 * Get cached {@linkplain StaticInvocationProcessInfo} for given
-	 * {@linkplain StaticInvocationInputInfo}, {@code null} if none.
+	 * Get the {@linkplain CandidateIndex} of this factory for the given
+	 * {@linkplain ImplementInfo}, build and keep a new one if none or stale.
+	 * <p>
+	 * If the {@code ImplementInfo} is already used with another
+	 * {@linkplain Implementation}, a new one is built but not kept.
+	 * </p>
 	 * 
-	 * @param key
+	 * @param implementation
+	 * @param implementInfo
 	 * @return
 	 */
-	protected StaticInvocationProcessInfo getCachedStaticValidAndDescPrioritizeds(
-			StaticInvocationInputInfo key)
+	protected CandidateIndex getCandidateIndex(
+			Implementation<?> implementation, ImplementInfo implementInfo)
 	{
-		return this.cachedStaticValidAndDescPrioritizeds.get(key);
+		ImplementInfoCaches implementInfoCaches = getImplementInfoCaches(
+				implementation, implementInfo);
+
+		if (implementInfoCaches != null)
+		{
+			CandidateIndex candidateIndex = implementInfoCaches
+					.getCandidateIndex();
+
+			if (candidateIndex != null && candidateIndex.isCurrent(this.epoch,
+					implementInfo.getEpoch()))
+				return candidateIndex;
+		}
+
+		CandidateIndex candidateIndex = buildCandidateIndex(implementation,
+				implementInfo);
+
+		if (implementInfoCaches != null)
+			implementInfoCaches.setCandidateIndex(candidateIndex);
+
+		return candidateIndex;
 	}
 
 	/**
-	 * Cache {@linkplain StaticInvocationProcessInfo} with
-	 * {@linkplain StaticInvocationInputInfo} as key.
+	 * Build {@linkplain CandidateIndex} for an {@linkplain ImplementInfo}.
+	 * <p>
+	 * The static priority does not depend on the invocation parameter types,
+	 * so all <i>implement method</i>s are sorted once, and filtering the
+	 * sorted candidates gets the same order as sorting the filtered ones if
+	 * the sorted order is consistent (see
+	 * {@linkplain #isStaticPriorityOrdered(Implementation, ImplementInfo, Class[], ImplementMethodInfo[], ImplementMethodInfo[])}
+	 * ). Otherwise, the candidates are kept in their original order and the
+	 * filtered ones are sorted for each evaluation.
+	 * </p>
 	 * 
-	 * @param key
-	 * @param value
+	 * @param implementation
+	 * @param implementInfo
+	 * @return
 	 */
-	protected void cacheStaticValidAndDescPrioritizeds(
-			StaticInvocationInputInfo key, StaticInvocationProcessInfo value)
+	protected CandidateIndex buildCandidateIndex(
+			Implementation<?> implementation, ImplementInfo implementInfo)
 	{
-		this.cachedStaticValidAndDescPrioritizeds.put(key, value);
+		Class<?>[] implementeeParamTypes = implementInfo.getImplementeeMethod()
+				.getParameterTypes();
+		int paramCount = implementeeParamTypes.length;
+
+		// read before building, so it is stale if invalidated meanwhile
+		int epoch = this.epoch;
+		int implementInfoEpoch = implementInfo.getEpoch();
+
+		ImplementMethodInfo[] implementMethodInfos = implementInfo
+				.getImplementMethodInfos();
+		ImplementMethodInfo[] candidates = implementMethodInfos.clone();
+
+		sortByStaticPriority(implementation, implementInfo,
+				implementeeParamTypes, candidates);
+
+		boolean prioritized = isStaticPriorityOrdered(implementation,
+				implementInfo, implementeeParamTypes, implementMethodInfos,
+				candidates);
+
+		if (!prioritized)
+			candidates = implementMethodInfos.clone();
+
+		int words = (candidates.length + 63) >>> 6;
+
+		long[] validBits = new long[words];
+		Class<?>[][] paramTypes = new Class<?>[paramCount][candidates.length];
+		long[][] nullBits = new long[paramCount][words];
+
+		for (int i = 0; i < candidates.length; i++)
+		{
+			Class<?>[] myParamTypes = getActualImplementMethodParamTypes(
+					implementation, implementInfo, candidates[i]);
+			int[] myParamIndexes = candidates[i].getParamIndexes();
+
+			if (myParamTypes != null && myParamTypes.length > 0)
+			{
+				// never valid
+				if (myParamTypes.length > paramCount)
+					continue;
+
+				for (int j = 0; j < myParamTypes.length; j++)
+					paramTypes[myParamIndexes[j]][i] = myParamTypes[j];
+			}
+
+			validBits[i >>> 6] |= (1L << i);
+		}
+
+		// null invocation parameter is invalid for primitive parameter
+		for (int i = 0; i < paramCount; i++)
+		{
+			for (int j = 0; j < candidates.length; j++)
+			{
+				Class<?> paramType = paramTypes[i][j];
+
+				if (paramType == null || !paramType.isPrimitive())
+					nullBits[i][j >>> 6] |= (1L << j);
+			}
+		}
+
+		CandidateIndex candidateIndex = new CandidateIndex(candidates,
+				prioritized, validBits, paramTypes, nullBits);
+		candidateIndex.setEpoch(epoch, implementInfoEpoch);
+
+		return candidateIndex;
 	}
 
 	/**
-	 * Static priority comparator.
+	 * Return if the static priority sorted <i>implement method</i>s are
+	 * consistently ordered, that is, for each pair, the comparison is
+	 * symmetric, and the former is either higher than the latter or the same
+	 * but also former in the original order.
+	 * <p>
+	 * The comparison is not always transitive for <i>implement method</i>s with
+	 * different parameters, in which case sorting a subset may not get the same
+	 * order as the sorted whole set.
+	 * </p>
 	 * 
-	 * @author earthangry@gmail.com
-	 * @date 2016-12-6
-	 *
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParamTypes
+	 * @param implementMethodInfos
+	 *            The <i>implement method</i>s in original order.
+	 * @param sorteds
+	 *            The sorted <i>implement method</i>s.
+	 * @return
 	 */
-	private class StaticPriorityComparator
-			implements Comparator<ImplementMethodInfo>
+	protected boolean isStaticPriorityOrdered(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Class<?>[] invocationParamTypes,
+			ImplementMethodInfo[] implementMethodInfos,
+			ImplementMethodInfo[] sorteds)
 	{
-		private Implementation<?> implementation;
-		private ImplementInfo implementInfo;
-		private Class<?>[] invocationParamTypes;
+		Map<ImplementMethodInfo, Integer> originalIndexes = new IdentityHashMap<ImplementMethodInfo, Integer>();
+		for (int i = 0; i < implementMethodInfos.length; i++)
+			originalIndexes.put(implementMethodInfos[i], i);
 
-		public StaticPriorityComparator(Implementation<?> implementation,
-				ImplementInfo implementInfo,
-				Class<?>[] invocationParamTypes)
-		{
-			super();
-			this.implementation = implementation;
-			this.implementInfo = implementInfo;
-			this.invocationParamTypes = invocationParamTypes;
-		}
+		StaticPriorityComparator comparator = new StaticPriorityComparator(
+				implementation, implementInfo, invocationParamTypes);
 
-		@Override
-		public int compare(ImplementMethodInfo a, ImplementMethodInfo b)
+		for (int i = 0; i < sorteds.length; i++)
 		{
-			int re = a.getPriorityValue() - b.getPriorityValue();
-
-			if (re == 0)
+			for (int j = i + 1; j < sorteds.length; j++)
 			{
-				re = compareImplementMethodInfoPriority(this.implementation,
-						this.implementInfo,
-						this.invocationParamTypes,
-						a, b);
-			}
+				int re = comparator.compare(sorteds[i], sorteds[j]);
 
-			return (0 - re);
+				if (re > 0)
+					return false;
+
+				if (Integer.signum(re) != -Integer
+						.signum(comparator.compare(sorteds[j], sorteds[i])))
+					return false;
+
+				if (re == 0 && originalIndexes.get(sorteds[i]) > originalIndexes
+						.get(sorteds[j]))
+					return false;
+			}
 		}
+
+		return true;
 	}
 
 	/**
-	 * Static invocation input info.
-	 * <p>
-	 * It encapsulates the static input info of an <i>implementee method</i>
-	 * invocation and is used with {@linkplain StaticInvocationProcessInfo} as a
-	 * pair for caching static info of an <i>implementee method</i> invocation.
-	 * </p>
+	 * Evaluate {@linkplain StaticInvocationProcessInfo} by checking every
+	 * <i>implement method</i> and sorting the valid ones.
 	 * 
-	 * @author earthangry@gmail.com
-	 * @date 2016-12-6
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParamTypes
+	 * @return
+	 */
+	protected StaticInvocationProcessInfo evalStaticInvocationProcessInfoByScanning(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Class<?>[] invocationParamTypes)
+	{
+		List<ImplementMethodInfo> staticValidAndDescPrioritizeds = new ArrayList<ImplementMethodInfo>();
+		boolean validityMethodPresents = false;
+		boolean priorityMethodPresents = false;
+	
+		if(implementInfo.hasImplementMethodInfo())
+		{
+			ImplementMethodInfo[] implementMethodInfos = implementInfo
+					.getImplementMethodInfos();
+			
+			for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
+			{
+				// ignore parameter type not valid
+				if (!isImplementMethodParamTypeValid(implementation,
+						implementInfo, implementMethodInfo,
+						invocationParamTypes))
+					continue;
+	
+				if (!validityMethodPresents
+						&& implementMethodInfo.hasValidityMethod())
+					validityMethodPresents = true;
+	
+				if (!priorityMethodPresents
+						&& implementMethodInfo.hasPriorityMethod())
+					priorityMethodPresents = true;
+	
+				staticValidAndDescPrioritizeds.add(implementMethodInfo);
+			}
+		}
+		
+		ImplementMethodInfo[] staticValidAndDescPrioritizedAry = staticValidAndDescPrioritizeds.toArray(
+				new ImplementMethodInfo[staticValidAndDescPrioritizeds.size()]);
+	
+		// sort by static priority
+		sortByStaticPriority(implementation, implementInfo,
+				invocationParamTypes, staticValidAndDescPrioritizedAry);
+	
+		return new StaticInvocationProcessInfo(staticValidAndDescPrioritizedAry,
+				validityMethodPresents, priorityMethodPresents);
+	}
+
+	/**
+	 * Create {@linkplain ImplementeeMethodInvocation} by selecting from valid
+	 * and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param invocationParamTypes
+	 * @param validAndDescPrioritizeds
+	 * @param implementorBeanFactory
+	 * @return
+	 */
+	protected ImplementeeMethodInvocation createBySelectingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			Class<?>[] invocationParamTypes,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			ImplementorBeanFactory implementorBeanFactory)
+	{
+		ImplementMethodInfo finalMethodInfo = null;
+		Collection<?> finalBeans = null;
+
+		for (int i = 0; i < validAndDescPrioritizeds.length; i++)
+		{
+			ImplementMethodInfo myMethodInfo = validAndDescPrioritizeds[i];
+			
+			if(isStaticImplementMethod(myMethodInfo))
+			{
+				finalMethodInfo = myMethodInfo;
+				break;
+			}
+
+			// make sure get only once for the same implementor
+			if (isImplementorPreceded(validAndDescPrioritizeds, i))
+				continue;
+
+			Collection<?> myBeans = implementorBeanFactory
+					.getImplementorBeans(myMethodInfo.getImplementor());
+
+			if (myBeans != null && !myBeans.isEmpty())
+			{
+				finalMethodInfo = myMethodInfo;
+				finalBeans = myBeans;
+
+				break;
+			}
+		}
+
+		if (finalMethodInfo == null)
+			return null;
+
+		Object finalBean = (finalBeans == null ? null
+				: selectImplementorBean(finalMethodInfo, finalBeans));
+
+		return createImplementeeMethodInvocation(implementation,
+				implementInfo, invocationParams, finalMethodInfo,
+				finalBean);
+	}
+
+	/**
+	 * Create {@linkplain ImplementeeMethodInvocation} by evaluating from valid
+	 * and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param invocationParamTypes
+	 * @param validAndDescPrioritizeds
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ImplementeeMethodInvocation createByEvaluatingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			Class<?>[] invocationParamTypes,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		return createByEvaluatingFromValidAndDescPrioritizeds(implementation,
+				implementInfo, invocationParams, invocationParamTypes,
+				validAndDescPrioritizeds,
+				evalRemainingPriorityUpperBounds(validAndDescPrioritizeds),
+				implementorBeanFactory);
+	}
+
+	/**
+	 * Create {@linkplain ImplementeeMethodInvocation} by evaluating from valid
+	 * and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * <p>
+	 * The evaluation stops as soon as no remaining <i>implement method</i>
+	 * may have a higher priority than the selected one, and an <i>implement
+	 * method</i> is skipped, without invoking its validity or priority method,
+	 * if it may not have a higher priority either.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param invocationParamTypes
+	 * @param validAndDescPrioritizeds
+	 * @param remainingPriorityUpperBounds
+	 *            The
+	 *            {@linkplain #evalRemainingPriorityUpperBounds(ImplementMethodInfo[])}
+	 *            result of {@code validAndDescPrioritizeds}.
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ImplementeeMethodInvocation createByEvaluatingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			Class<?>[] invocationParamTypes,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			int[] remainingPriorityUpperBounds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		EvaluationResult result = evalFromValidAndDescPrioritizeds(
+				implementation, implementInfo, invocationParams,
+				validAndDescPrioritizeds, remainingPriorityUpperBounds,
+				implementorBeanFactory);
+
+		if (result == null)
+			return null;
+
+		return createImplementeeMethodInvocation(implementation,
+				implementInfo, invocationParams,
+				result.getImplementMethodInfo(), result.getImplementorBean());
+	}
+
+	/**
+	 * Invoke the <i>implement method</i> selected from valid and descendent
+	 * prioritized {@linkplain ImplementMethodInfo} array.
+	 * <p>
+	 * The selecting rule is the same as
+	 * {@linkplain #createBySelectingFromValidAndDescPrioritizeds(Implementation, ImplementInfo, Object[], Class[], ImplementMethodInfo[], ImplementorBeanFactory)}
+	 * .
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param validAndDescPrioritizeds
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws UnsupportedOperationException
+	 *             If no valid <i>implement method</i> found.
+	 * @throws Throwable
+	 */
+	protected Object invokeBySelectingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		for (int i = 0; i < validAndDescPrioritizeds.length; i++)
+		{
+			ImplementMethodInfo myMethodInfo = validAndDescPrioritizeds[i];
+
+			if (isStaticImplementMethod(myMethodInfo))
+				return invokeImplementMethod(implementation, implementInfo,
+						myMethodInfo, invocationParams, null);
+
+			// make sure get only once for the same implementor
+			if (isImplementorPreceded(validAndDescPrioritizeds, i))
+				continue;
+
+			Collection<?> myBeans = implementorBeanFactory
+					.getImplementorBeans(myMethodInfo.getImplementor());
+
+			if (myBeans != null && !myBeans.isEmpty())
+				return invokeImplementMethod(implementation, implementInfo,
+						myMethodInfo, invocationParams,
+						selectImplementorBean(myMethodInfo, myBeans));
+		}
+
+		throw noValidImplementMethodException(implementInfo);
+	}
+
+	/**
+	 * Invoke the <i>implement method</i> evaluated from valid and descendent
+	 * prioritized {@linkplain ImplementMethodInfo} array.
+	 * <p>
+	 * The evaluating rule is the same as
+	 * {@linkplain #createByEvaluatingFromValidAndDescPrioritizeds(Implementation, ImplementInfo, Object[], Class[], ImplementMethodInfo[], ImplementorBeanFactory)}
+	 * .
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param validAndDescPrioritizeds
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws UnsupportedOperationException
+	 *             If no valid <i>implement method</i> found.
+	 * @throws Throwable
+	 */
+	protected Object invokeByEvaluatingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		return invokeByEvaluatingFromValidAndDescPrioritizeds(implementation,
+				implementInfo, invocationParams, validAndDescPrioritizeds,
+				evalRemainingPriorityUpperBounds(validAndDescPrioritizeds),
+				implementorBeanFactory);
+	}
+
+	/**
+	 * Invoke the <i>implement method</i> evaluated from valid and descendent
+	 * prioritized {@linkplain ImplementMethodInfo} array.
+	 * <p>
+	 * The evaluating rule is the same as
+	 * {@linkplain #createByEvaluatingFromValidAndDescPrioritizeds(Implementation, ImplementInfo, Object[], Class[], ImplementMethodInfo[], int[], ImplementorBeanFactory)}
+	 * .
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param validAndDescPrioritizeds
+	 * @param remainingPriorityUpperBounds
+	 * @param implementorBeanFactory
+	 * @return
+	 * @throws UnsupportedOperationException
+	 *             If no valid <i>implement method</i> found.
+	 * @throws Throwable
+	 */
+	protected Object invokeByEvaluatingFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			int[] remainingPriorityUpperBounds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		EvaluationResult result = evalFromValidAndDescPrioritizeds(
+				implementation, implementInfo, invocationParams,
+				validAndDescPrioritizeds, remainingPriorityUpperBounds,
+				implementorBeanFactory);
+
+		if (result == null)
+			throw noValidImplementMethodException(implementInfo);
+
+		return invokeImplementMethod(implementation, implementInfo,
+				result.getImplementMethodInfo(), invocationParams,
+				result.getImplementorBean());
+	}
+
+	/**
+	 * Evaluate the <i>implement method</i> and <i>implementor</i> bean from
+	 * valid and descendent prioritized {@linkplain ImplementMethodInfo} array.
+	 * <p>
+	 * The evaluation stops as soon as no remaining <i>implement method</i>
+	 * may have a higher priority than the selected one, and an <i>implement
+	 * method</i> is skipped, without invoking its validity or priority method,
+	 * if it may not have a higher priority either. It is evaluated by
+	 * {@linkplain #evalInParallel(Implementation, ImplementInfo, Object[], ImplementMethodInfo[], int[], ImplementorBeanFactory)}
+	 * if {@linkplain #isParallelEvaluation(ImplementMethodInfo[])}.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param validAndDescPrioritizeds
+	 * @param remainingPriorityUpperBounds
+	 *            The
+	 *            {@linkplain #evalRemainingPriorityUpperBounds(ImplementMethodInfo[])}
+	 *            result of {@code validAndDescPrioritizeds}.
+	 * @param implementorBeanFactory
+	 * @return The result, {@code null} if none is valid.
+	 * @throws Throwable
+	 */
+	protected EvaluationResult evalFromValidAndDescPrioritizeds(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			int[] remainingPriorityUpperBounds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		if (isParallelEvaluation(validAndDescPrioritizeds))
+			return evalInParallel(implementation, implementInfo,
+					invocationParams, validAndDescPrioritizeds,
+					remainingPriorityUpperBounds, implementorBeanFactory);
+
+		ImplementMethodInfo implementMethodInfo = null;
+		Object implementorBean = null;
+		int priority = Integer.MIN_VALUE;
+		Collection<?> finalBeans = null;
+
+		// make sure get only once for the same implementor
+		Map<Class<?>, Collection<?>> cachedImplementorBeans = new HashMap<Class<?>, Collection<?>>();
+
+		for (int i = 0; i < validAndDescPrioritizeds.length; i++)
+		{
+			// none of the remaining can be higher
+			if (implementMethodInfo != null
+					&& priority >= remainingPriorityUpperBounds[i])
+				break;
+
+			ImplementMethodInfo myImplementMethodInfo = validAndDescPrioritizeds[i];
+			int myPriorityUpperBound = myImplementMethodInfo
+					.getPriorityUpperBound();
+
+			if (implementMethodInfo != null && priority >= myPriorityUpperBound)
+				continue;
+
+			Collection<?> implementorBeans = null;
+
+			if (isStaticImplementMethod(myImplementMethodInfo))
+				implementorBeans = ONE_NULL_IMPLEMENTOR_FOR_LOOP;
+			else
+				implementorBeans = getImplementorBeansWithCache(
+						cachedImplementorBeans, implementorBeanFactory,
+						myImplementMethodInfo.getImplementor());
+
+			if (implementorBeans == null || implementorBeans.isEmpty())
+				continue;
+
+			Method validityMethod = myImplementMethodInfo.getValidityMethod();
+			Object[] validityMethodParams = (validityMethod == null ? null
+					: myImplementMethodInfo.getValidityParams(invocationParams));
+			Method priorityMethod = myImplementMethodInfo.getPriorityMethod();
+			Object[] priorityMethodParams = (priorityMethod == null ? null
+					: myImplementMethodInfo.getPriorityParams(invocationParams));
+
+			for (Object myImplementorBean : implementorBeans)
+			{
+				if (validityMethod != null)
+				{
+					boolean isValid = invokeValidityMethod(implementation,
+							implementInfo, myImplementMethodInfo,
+							validityMethod, validityMethodParams,
+							myImplementorBean);
+
+					if (!isValid)
+						continue;
+				}
+
+				int myPriority = myImplementMethodInfo.getPriorityValue();
+
+				if (priorityMethod != null)
+				{
+					myPriority = invokePriorityMethod(implementation,
+							implementInfo, myImplementMethodInfo,
+							priorityMethod, priorityMethodParams,
+							myImplementorBean);
+				}
+
+				if (implementMethodInfo == null || myPriority > priority)
+				{
+					implementMethodInfo = myImplementMethodInfo;
+					implementorBean = myImplementorBean;
+					priority = myPriority;
+					finalBeans = implementorBeans;
+				}
+
+				// none of the remaining beans can be higher
+				if (priority >= myPriorityUpperBound)
+					break;
+			}
+		}
+
+		if (implementMethodInfo == null)
+			return null;
+
+		if (isImplementorBeanSelectable(implementMethodInfo))
+			implementorBean = selectImplementorBean(implementMethodInfo,
+					finalBeans);
+
+		return new EvaluationResult(implementMethodInfo, implementorBean);
+	}
+
+	/**
+	 * Returns if the given candidates should be evaluated in parallel.
+	 * 
+	 * @param validAndDescPrioritizeds
+	 * @return
+	 */
+	protected boolean isParallelEvaluation(
+			ImplementMethodInfo[] validAndDescPrioritizeds)
+	{
+		return (this.parallelEvaluationPool != null
+				&& validAndDescPrioritizeds.length > this.parallelEvaluationThreshold);
+	}
+
+	/**
+	 * Evaluate validity and priority methods of all candidates in parallel in
+	 * the {@linkplain #getParallelEvaluationPool()}, and select the result.
+	 * <p>
+	 * <i>Implementor</i> beans are got in the caller thread. The evaluated
+	 * results are then walked in the sequential evaluation order with the
+	 * same stopping and skipping rules, so the selected one, and the thrown
+	 * one if any evaluation throws, are the same as the sequential
+	 * evaluation's.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParams
+	 * @param validAndDescPrioritizeds
+	 * @param remainingPriorityUpperBounds
+	 * @param implementorBeanFactory
+	 * @return The result, {@code null} if none is valid.
+	 * @throws Throwable
+	 */
+	protected EvaluationResult evalInParallel(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementMethodInfo[] validAndDescPrioritizeds,
+			int[] remainingPriorityUpperBounds,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		List<ImplementMethodInfo> implementMethodInfos = new ArrayList<ImplementMethodInfo>();
+		List<Object> implementorBeans = new ArrayList<Object>();
+		List<Collection<?>> implementorBeanses = new ArrayList<Collection<?>>();
+		List<Integer> candidateIndexes = new ArrayList<Integer>();
+
+		// make sure get only once for the same implementor
+		Map<Class<?>, Collection<?>> cachedImplementorBeans = new HashMap<Class<?>, Collection<?>>();
+
+		for (int i = 0; i < validAndDescPrioritizeds.length; i++)
+		{
+			ImplementMethodInfo myImplementMethodInfo = validAndDescPrioritizeds[i];
+			Collection<?> myBeans = null;
+
+			if (isStaticImplementMethod(myImplementMethodInfo))
+				myBeans = ONE_NULL_IMPLEMENTOR_FOR_LOOP;
+			else
+				myBeans = getImplementorBeansWithCache(cachedImplementorBeans,
+						implementorBeanFactory,
+						myImplementMethodInfo.getImplementor());
+
+			if (myBeans == null || myBeans.isEmpty())
+				continue;
+
+			for (Object myBean : myBeans)
+			{
+				implementMethodInfos.add(myImplementMethodInfo);
+				implementorBeans.add(myBean);
+				implementorBeanses.add(myBeans);
+				candidateIndexes.add(i);
+			}
+		}
+
+		EvaluationTask task = new EvaluationTask(implementation,
+				implementInfo, invocationParams,
+				implementMethodInfos.toArray(
+						new ImplementMethodInfo[implementMethodInfos.size()]),
+				implementorBeans.toArray(), 0, implementMethodInfos.size());
+
+		this.parallelEvaluationPool.invoke(task);
+
+		int selected = -1;
+		int priority = Integer.MIN_VALUE;
+
+		for (int i = 0; i < task.valids.length; i++)
+		{
+			// the same as the sequential evaluation
+			if (selected >= 0 && priority >= remainingPriorityUpperBounds[candidateIndexes
+					.get(i)])
+				break;
+
+			if (selected >= 0 && priority >= implementMethodInfos.get(i)
+					.getPriorityUpperBound())
+				continue;
+
+			if (task.throwns[i] != null)
+				throw task.throwns[i];
+
+			if (task.valids[i] && (selected < 0 || task.priorities[i] > priority))
+			{
+				selected = i;
+				priority = task.priorities[i];
+			}
+		}
+
+		if (selected < 0)
+			return null;
+
+		ImplementMethodInfo implementMethodInfo = implementMethodInfos
+				.get(selected);
+		Object implementorBean = implementorBeans.get(selected);
+
+		if (isImplementorBeanSelectable(implementMethodInfo))
+			implementorBean = selectImplementorBean(implementMethodInfo,
+					implementorBeanses.get(selected));
+
+		return new EvaluationResult(implementMethodInfo, implementorBean);
+	}
+
+	/**
+	 * Evaluate the highest priority each of the given
+	 * {@linkplain ImplementMethodInfo}s and the ones after it may have.
+	 * <p>
+	 * The element at {@code i} of the returned array is the max
+	 * {@linkplain ImplementMethodInfo#getPriorityUpperBound()} of the elements
+	 * from {@code i} to the end.
+	 * </p>
+	 * 
+	 * @param implementMethodInfos
+	 * @return
+	 */
+	protected static int[] evalRemainingPriorityUpperBounds(
+			ImplementMethodInfo[] implementMethodInfos)
+	{
+		int[] bounds = new int[implementMethodInfos.length];
+		int bound = Integer.MIN_VALUE;
+
+		for (int i = implementMethodInfos.length - 1; i >= 0; i--)
+		{
+			bound = Math.max(bound,
+					implementMethodInfos[i].getPriorityUpperBound());
+			bounds[i] = bound;
+		}
+
+		return bounds;
+	}
+
+	/**
+	 * Returns if the <i>implementor</i> of the element at {@code index} is the
+	 * same as a preceding non {@code static} element's, which means its
+	 * <i>implementor</i> beans are already got.
+	 * 
+	 * @param implementMethodInfos
+	 * @param index
+	 * @return
+	 */
+	protected boolean isImplementorPreceded(
+			ImplementMethodInfo[] implementMethodInfos, int index)
+	{
+		Class<?> implementor = implementMethodInfos[index].getImplementor();
+
+		for (int i = 0; i < index; i++)
+		{
+			ImplementMethodInfo implementMethodInfo = implementMethodInfos[i];
+
+			if (implementMethodInfo.getImplementor() == implementor
+					&& !isStaticImplementMethod(implementMethodInfo))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Sort {@linkplain ImplementMethodInfo} array by static priority.
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @param invocationParamTypes
+	 * @param implementMethodInfos
+	 */
+	protected void sortByStaticPriority(Implementation<?> implementation,
+			ImplementInfo implementInfo,
+			Class<?>[] invocationParamTypes,
+			ImplementMethodInfo[] implementMethodInfos)
+	{
+		Arrays.sort(implementMethodInfos,
+				new StaticPriorityComparator(implementation,
+						implementInfo, invocationParamTypes));
+	}
+
+	/**
+	 * Get randon one element.
+	 * 
+	 * @param objs
+	 * @return
+	 * @deprecated It is not called any more, the <i>implementor</i> bean is
+	 *             selected by {@linkplain BeanSelectionStrategy}, or the
+	 *             first one if none, set it by
+	 *             {@linkplain #setBeanSelectionStrategy(BeanSelectionStrategy)}
+	 *             instead of overriding this.
+	 */
+	@Deprecated
+	protected Object getRandomElement(Collection<?> objs)
+	{
+		if (objs == null || objs.isEmpty())
+			return null;
+
+		if (objs instanceof List<?>)
+			return ((List<?>) objs).get(0);
+
+		for (Object obj : objs)
+			return obj;
+
+		return null;
+	}
+
+	/**
+	 * Get cached {@linkplain StaticInvocationProcessInfo} for given
+	 * {@linkplain StaticInvocationInputInfo}, {@code null} if none or it is
+	 * stale.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	protected StaticInvocationProcessInfo getCachedStaticValidAndDescPrioritizeds(
+			StaticInvocationInputInfo key)
+	{
+		StaticInvocationProcessInfo value = this.cachedStaticValidAndDescPrioritizeds
+				.get(key);
+
+		if (value != null && !value.isCurrent(this.epoch,
+				key.getImplementInfo().getEpoch()))
+			return null;
+
+		return value;
+	}
+
+	/**
+	 * Cache {@linkplain StaticInvocationProcessInfo} with
+	 * {@linkplain StaticInvocationInputInfo} as key.
+	 * <p>
+	 * The key is cached as a {@linkplain WeakStaticInvocationInputInfo}. The
+	 * value is stamped with the current epochs if not yet. Keys cleared since
+	 * the last put are removed first, see
+	 * {@linkplain #expungeClearedKeys()}.
+	 * </p>
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	protected void cacheStaticValidAndDescPrioritizeds(
+			StaticInvocationInputInfo key, StaticInvocationProcessInfo value)
+	{
+		if (!value.hasEpoch())
+			value.setEpoch(this.epoch, key.getImplementInfo().getEpoch());
+
+		expungeClearedKeys();
+
+		this.cachedStaticValidAndDescPrioritizeds.put(
+				new WeakStaticInvocationInputInfo(key, this.clearedKeyQueue),
+				value);
+	}
+
+	/**
+	 * Remove the keys whose {@linkplain Implementation} or
+	 * {@linkplain ImplementInfo} is garbage collected from the shared cache.
+	 * <p>
+	 * The cached values reference the <i>implement method</i>s, so without
+	 * this, they and their <i>implementor</i>s' class loaders are kept alive
+	 * until the cleared keys are evicted.
+	 * </p>
+	 */
+	protected void expungeClearedKeys()
+	{
+		Reference<?> reference;
+
+		while ((reference = this.clearedKeyQueue.poll()) != null)
+		{
+			WeakStaticInvocationInputInfo key = ((KeyReference<?>) reference)
+					.getKey();
+
+			this.cachedStaticValidAndDescPrioritizeds.remove(key);
+		}
+	}
+
+	/**
+	 * Get the {@linkplain InlineCache} of this factory for the given
+	 * {@linkplain ImplementInfo}, create and keep a new one if none or stale.
+	 * <p>
+	 * Returns {@code null} if inline cache is disabled or the
+	 * {@code ImplementInfo} is already used with another
+	 * {@linkplain Implementation}.
+	 * </p>
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @return
+	 */
+	protected InlineCache getInlineCache(Implementation<?> implementation,
+			ImplementInfo implementInfo)
+	{
+		if (this.inlineCacheSize <= 0)
+			return null;
+
+		ImplementInfoCaches implementInfoCaches = getImplementInfoCaches(
+				implementation, implementInfo);
+
+		if (implementInfoCaches == null)
+			return null;
+
+		InlineCache inlineCache = implementInfoCaches.getInlineCache();
+		int epoch = this.epoch;
+		int implementInfoEpoch = implementInfo.getEpoch();
+
+		if (inlineCache != null
+				&& inlineCache.isCurrent(epoch, implementInfoEpoch))
+			return inlineCache;
+
+		inlineCache = new InlineCache(this.inlineCacheSize);
+		inlineCache.setEpoch(epoch, implementInfoEpoch);
+		implementInfoCaches.setInlineCache(inlineCache);
+
+		return inlineCache;
+	}
+
+	/**
+	 * Get the {@linkplain ImplementInfoCaches} of this factory for the given
+	 * {@linkplain ImplementInfo}, create and keep a new one if none.
+	 * 
+	 * @param implementation
+	 * @param implementInfo
+	 * @return The {@linkplain ImplementInfoCaches}, {@code null} if the
+	 *         {@code ImplementInfo} is already used with another
+	 *         {@linkplain Implementation}.
+	 */
+	protected ImplementInfoCaches getImplementInfoCaches(
+			Implementation<?> implementation, ImplementInfo implementInfo)
+	{
+		ImplementInfoCaches implementInfoCaches = this.implementInfoCachesTable
+				.get(implementation, implementInfo);
+
+		return (implementInfoCaches.isOf(implementation) ? implementInfoCaches
+				: null);
+	}
+
+	/**
+	 * Selected <i>implement method</i> and <i>implementor</i> bean of
+	 * {@linkplain CachedImplementeeMethodInvocationFactory#evalFromValidAndDescPrioritizeds(Implementation, ImplementInfo, Object[], ImplementMethodInfo[], int[], ImplementorBeanFactory)}
+	 * and
+	 * {@linkplain CachedImplementeeMethodInvocationFactory#evalInParallel(Implementation, ImplementInfo, Object[], ImplementMethodInfo[], int[], ImplementorBeanFactory)}
+	 * .
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class EvaluationResult
+	{
+		private final ImplementMethodInfo implementMethodInfo;
+
+		private final Object implementorBean;
+
+		public EvaluationResult(ImplementMethodInfo implementMethodInfo,
+				Object implementorBean)
+		{
+			super();
+			this.implementMethodInfo = implementMethodInfo;
+			this.implementorBean = implementorBean;
+		}
+
+		public ImplementMethodInfo getImplementMethodInfo()
+		{
+			return implementMethodInfo;
+		}
+
+		public Object getImplementorBean()
+		{
+			return implementorBean;
+		}
+	}
+
+	/**
+	 * Task evaluating validity and priority methods of a range of
+	 * <i>implement method</i> and <i>implementor</i> bean pairs, each pair is
+	 * evaluated in its own sub task.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected class EvaluationTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Implementation<?> implementation;
+
+		private final ImplementInfo implementInfo;
+
+		private final Object[] invocationParams;
+
+		private final ImplementMethodInfo[] implementMethodInfos;
+
+		private final Object[] implementorBeans;
+
+		private final int from;
+
+		private final int to;
+
+		/** if each pair is valid, shared by all sub tasks */
+		private final boolean[] valids;
+
+		/** the priority of each pair, shared by all sub tasks */
+		private final int[] priorities;
+
+		/** the thrown of each pair, shared by all sub tasks */
+		private final Throwable[] throwns;
+
+		public EvaluationTask(Implementation<?> implementation,
+				ImplementInfo implementInfo, Object[] invocationParams,
+				ImplementMethodInfo[] implementMethodInfos,
+				Object[] implementorBeans, int from, int to)
+		{
+			this(implementation, implementInfo, invocationParams,
+					implementMethodInfos, implementorBeans, from, to,
+					new boolean[implementMethodInfos.length],
+					new int[implementMethodInfos.length],
+					new Throwable[implementMethodInfos.length]);
+		}
+
+		protected EvaluationTask(Implementation<?> implementation,
+				ImplementInfo implementInfo, Object[] invocationParams,
+				ImplementMethodInfo[] implementMethodInfos,
+				Object[] implementorBeans, int from, int to, boolean[] valids,
+				int[] priorities, Throwable[] throwns)
+		{
+			super();
+			this.implementation = implementation;
+			this.implementInfo = implementInfo;
+			this.invocationParams = invocationParams;
+			this.implementMethodInfos = implementMethodInfos;
+			this.implementorBeans = implementorBeans;
+			this.from = from;
+			this.to = to;
+			this.valids = valids;
+			this.priorities = priorities;
+			this.throwns = throwns;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (this.to - this.from > 1)
+			{
+				int middle = (this.from + this.to) >>> 1;
+
+				invokeAll(
+						new EvaluationTask(this.implementation,
+								this.implementInfo, this.invocationParams,
+								this.implementMethodInfos,
+								this.implementorBeans, this.from, middle,
+								this.valids, this.priorities, this.throwns),
+						new EvaluationTask(this.implementation,
+								this.implementInfo, this.invocationParams,
+								this.implementMethodInfos,
+								this.implementorBeans, middle, this.to,
+								this.valids, this.priorities, this.throwns));
+			}
+			else if (this.to > this.from)
+			{
+				try
+				{
+					evaluate(this.from);
+				}
+				catch (Throwable t)
+				{
+					this.throwns[this.from] = t;
+				}
+			}
+		}
+
+		protected void evaluate(int index) throws Throwable
+		{
+			ImplementMethodInfo implementMethodInfo = this.implementMethodInfos[index];
+			Object implementorBean = this.implementorBeans[index];
+
+			Method validityMethod = implementMethodInfo.getValidityMethod();
+
+			if (validityMethod != null && !invokeValidityMethod(
+					this.implementation, this.implementInfo,
+					implementMethodInfo, validityMethod,
+					implementMethodInfo.getValidityParams(this.invocationParams),
+					implementorBean))
+				return;
+
+			Method priorityMethod = implementMethodInfo.getPriorityMethod();
+
+			this.priorities[index] = (priorityMethod == null
+					? implementMethodInfo.getPriorityValue()
+					: invokePriorityMethod(this.implementation,
+							this.implementInfo, implementMethodInfo,
+							priorityMethod,
+							implementMethodInfo.getPriorityParams(
+									this.invocationParams),
+							implementorBean));
+			this.valids[index] = true;
+		}
+	}
+
+	/**
+	 * Static priority comparator.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2016-12-6
+	 *
+	 */
+	private class StaticPriorityComparator
+			implements Comparator<ImplementMethodInfo>
+	{
+		private Implementation<?> implementation;
+		private ImplementInfo implementInfo;
+		private Class<?>[] invocationParamTypes;
+
+		public StaticPriorityComparator(Implementation<?> implementation,
+				ImplementInfo implementInfo,
+				Class<?>[] invocationParamTypes)
+		{
+			super();
+			this.implementation = implementation;
+			this.implementInfo = implementInfo;
+			this.invocationParamTypes = invocationParamTypes;
+		}
+
+		@Override
+		public int compare(ImplementMethodInfo a, ImplementMethodInfo b)
+		{
+			int re = a.getPriorityValue() - b.getPriorityValue();
+
+			if (re == 0)
+			{
+				re = compareImplementMethodInfoPriority(this.implementation,
+						this.implementInfo,
+						this.invocationParamTypes,
+						a, b);
+			}
+
+			return (0 - re);
+		}
+	}
+
+	/**
+	 * Static invocation input info.
+	 * <p>
+	 * It encapsulates the static input info of an <i>implementee method</i>
+	 * invocation and is used with {@linkplain StaticInvocationProcessInfo} as a
+	 * pair for caching static info of an <i>implementee method</i> invocation.
+	 * </p>
+	 * <p>
+	 * Its invocation parameter types are interned as a
+	 * {@linkplain TypeSignature}, and it equals to another one only if they
+	 * have the same {@code TypeSignature}, {@linkplain ImplementInfo} and
+	 * {@linkplain Implementation} instances.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2016-12-6
+	 *
+	 */
+	protected static class StaticInvocationInputInfo
+	{
+		/** the Implementation of the invocation */
+		private Implementation<?> implementation;
+
+		/** the ImplementInfo of the invocation */
+		private ImplementInfo implementInfo;
+
+		/** the invocation parameter types */
+		private Class<?>[] invocationParamTypes;
+
+		/** the interned invocation parameter types */
+		private TypeSignature invocationParamTypeSignature;
+
+		public StaticInvocationInputInfo()
+		{
+			super();
+		}
+
+		public StaticInvocationInputInfo(Implementation<?> implementation,
+				ImplementInfo implementInfo,
+				Class<?>[] invocationParamTypes)
+		{
+			super();
+			this.implementation = implementation;
+			this.implementInfo = implementInfo;
+			setInvocationParamTypes(invocationParamTypes);
+		}
+
+		/**
+		 * Get the Implementation of the invocation.
+		 * 
+		 * @return
+		 */
+		public Implementation<?> getImplementation()
+		{
+			return implementation;
+		}
+
+		/**
+		 * Set the Implementation of the invocation.
+		 * 
+		 * @param implementation
+		 */
+		public void setImplementation(Implementation<?> implementation)
+		{
+			this.implementation = implementation;
+		}
+
+		/**
+		 * Get the ImplementInfo of the invocation.
+		 * 
+		 * @return
+		 */
+		public ImplementInfo getImplementInfo()
+		{
+			return implementInfo;
+		}
+
+		/**
+		 * Set the ImplementInfo of the invocation.
+		 * 
+		 * @param implementInfo
+		 */
+		public void setImplementInfo(ImplementInfo implementInfo)
+		{
+			this.implementInfo = implementInfo;
+		}
+
+		/**
+		 * Get the <i>implementee method</i> invocation parameter types.
+		 * 
+		 * @return
+		 */
+		public Class<?>[] getInvocationParamTypes()
+		{
+			return invocationParamTypes;
+		}
+
+		/**
+		 * Set the <i>implementee method</i> invocation parameter types.
+		 * 
+		 * @param invocationParamTypes
+		 */
+		public void setInvocationParamTypes(Class<?>[] invocationParamTypes)
+		{
+			this.invocationParamTypes = invocationParamTypes;
+			this.invocationParamTypeSignature = (invocationParamTypes == null
+					? null : TypeSignature.valueOf(invocationParamTypes));
+		}
+
+		/**
+		 * Get the interned <i>implementee method</i> invocation parameter
+		 * types.
+		 * 
+		 * @return
+		 */
+		public TypeSignature getInvocationParamTypeSignature()
+		{
+			return invocationParamTypeSignature;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+
+			// result = prime * result
+			// + ((implementInfo == null) ? 0 : implementInfo.hashCode());
+			// result = prime * result + ((implementation == null) ? 0
+			// : implementation.hashCode());
+
+			// XXX DO NOT use generated hash code logic above, bad performance
+
+			ImplementInfo implementInfo = getImplementInfo();
+			TypeSignature invocationParamTypeSignature = getInvocationParamTypeSignature();
+
+			result = prime * result + ((implementInfo == null) ? 0
+					: System.identityHashCode(implementInfo));
+
+			result = prime * result + ((invocationParamTypeSignature == null)
+					? 0 : invocationParamTypeSignature.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			// may be compared with WeakStaticInvocationInputInfo
+			if (!(obj instanceof StaticInvocationInputInfo))
+				return false;
+			StaticInvocationInputInfo other = (StaticInvocationInputInfo) obj;
+			if (getInvocationParamTypeSignature() != other
+					.getInvocationParamTypeSignature())
+				return false;
+			if (getImplementInfo() != other.getImplementInfo())
+				return false;
+			if (getImplementation() != other.getImplementation())
+				return false;
+			return true;
+		}
+	}
+
+	/**
+	 * {@linkplain StaticInvocationInputInfo} which holds its
+	 * {@linkplain Implementation}, {@linkplain ImplementInfo} and invocation
+	 * parameter types weakly.
+	 * <p>
+	 * It is used as the key in the shared cache, so that the key does not keep
+	 * them alive. After any of them is garbage collected, it equals to nothing
+	 * but itself and is never hit again. If it is created with a
+	 * {@linkplain ReferenceQueue}, its cleared {@linkplain KeyReference}s are
+	 * enqueued, by which the factory removes it from the cache, see
+	 * {@linkplain CachedImplementeeMethodInvocationFactory#expungeClearedKeys()}
+	 * , so its value is not kept alive either. Keys cleared by a garbage
+	 * collected invocation parameter type are left to the cache eviction.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	protected static class WeakStaticInvocationInputInfo
+			extends StaticInvocationInputInfo
+	{
+		private final WeakReference<Implementation<?>> implementationRef;
+
+		private final WeakReference<ImplementInfo> implementInfoRef;
+
+		/** holds the invocation parameter types weakly */
+		private final TypeSignature invocationParamTypeSignature;
+
+		/** the hash code computed when created */
+		private final int hash;
+
+		public WeakStaticInvocationInputInfo(StaticInvocationInputInfo info)
+		{
+			this(info, null);
+		}
+
+		/**
+		 * Create with a {@linkplain ReferenceQueue} for the
+		 * {@linkplain KeyReference}s of the {@linkplain Implementation} and
+		 * {@linkplain ImplementInfo}.
+		 * 
+		 * @param info
+		 * @param queue
+		 *            The queue, may be {@code null}.
+		 */
+		public WeakStaticInvocationInputInfo(StaticInvocationInputInfo info,
+				ReferenceQueue<Object> queue)
+		{
+			super();
+
+			Implementation<?> implementation = info.getImplementation();
+			ImplementInfo implementInfo = info.getImplementInfo();
+
+			this.implementationRef = (implementation == null ? null
+					: new KeyReference<Implementation<?>>(implementation,
+							this, queue));
+			this.implementInfoRef = (implementInfo == null ? null
+					: new KeyReference<ImplementInfo>(implementInfo, this,
+							queue));
+
+			this.invocationParamTypeSignature = info
+					.getInvocationParamTypeSignature();
+
+			this.hash = info.hashCode();
+		}
+
+		@Override
+		public Implementation<?> getImplementation()
+		{
+			return (this.implementationRef == null ? null
+					: this.implementationRef.get());
+		}
+
+		@Override
+		public void setImplementation(Implementation<?> implementation)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ImplementInfo getImplementInfo()
+		{
+			return (this.implementInfoRef == null ? null
+					: this.implementInfoRef.get());
+		}
+
+		@Override
+		public void setImplementInfo(ImplementInfo implementInfo)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Class<?>[] getInvocationParamTypes()
+		{
+			return (this.invocationParamTypeSignature == null ? null
+					: this.invocationParamTypeSignature.getTypes());
+		}
+
+		@Override
+		public TypeSignature getInvocationParamTypeSignature()
+		{
+			return invocationParamTypeSignature;
+		}
+
+		@Override
+		public void setInvocationParamTypes(Class<?>[] invocationParamTypes)
+		{
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Returns if any of the weakly held objects is garbage collected.
+		 * 
+		 * @return
+		 */
+		public boolean isCleared()
+		{
+			if (this.implementationRef != null
+					&& this.implementationRef.get() == null)
+				return true;
+
+			if (this.implementInfoRef != null
+					&& this.implementInfoRef.get() == null)
+				return true;
+
+			return (this.invocationParamTypeSignature != null
+					&& this.invocationParamTypeSignature.isStale());
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+
+			if (isCleared())
+				return false;
+
+			return super.equals(obj);
+		}
+	}
+
+	/**
+	 * {@linkplain WeakReference} held by a
+	 * {@linkplain WeakStaticInvocationInputInfo}, which references back the
+	 * key for removing it from the cache after enqueued.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class KeyReference<T> extends WeakReference<T>
+	{
+		private final WeakStaticInvocationInputInfo key;
+
+		public KeyReference(T referent, WeakStaticInvocationInputInfo key,
+				ReferenceQueue<Object> queue)
+		{
+			super(referent, queue);
+			this.key = key;
+		}
+
+		/**
+		 * Get the key which holds this reference.
+		 * 
+		 * @return
+		 */
+		public WeakStaticInvocationInputInfo getKey()
+		{
+			return key;
+		}
+	}
+
+	/**
+	 * Static invocation process info.
+	 * <p>
+	 * It encapsulates the static process info of an <i>implementee method</i>
+	 * invocation and is used with {@linkplain StaticInvocationInputInfo} as a
+	 * pair for caching static info of an <i>implementee method</i> invocation.
+	 * </p>
+	 * <p>
+	 * Each element in {@linkplain #getStaticValidAndDescPrioritizeds()} 's
+	 * {@linkplain ImplementMethodInfo#getImplementMethod()} parameter types are
+	 * valid to the corresponding
+	 * {@linkplain StaticInvocationInputInfo#getInvocationParamTypes()}.
+	 * </p>
+	 * <p>
+	 * The preceding element in
+	 * {@linkplain #getStaticValidAndDescPrioritizeds()} 's static priority is
+	 * higher than subsequent element to the corresponding
+	 * {@linkplain StaticInvocationInputInfo#getInvocationParamTypes()} (eg.
+	 * {@linkplain ImplementMethodInfo#getPriorityValue()} is higher or
+	 * {@linkplain ImplementMethodInfo#getImplementMethod()} parameter types are
+	 * closer).
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2016-12-6
+	 *
+	 */
+	protected static class StaticInvocationProcessInfo
+	{
+		/** the static valid and descendent prioritized ImplementMethodInfo */
+		private ImplementMethodInfo[] staticValidAndDescPrioritizeds;
+
+		/**
+		 * if validity method presents in any of above
+		 * staticValidAndDescPrioritizeds
+		 */
+		private boolean validityMethodPresents;
+
+		/**
+		 * if priority method presents in any of above
+		 * staticValidAndDescPrioritizeds
+		 */
+		private boolean priorityMethodPresents;
+
+		/** the factory epoch built at, -1 for not set */
+		private int epoch = -1;
+
+		/** the ImplementInfo epoch built at */
+		private int implementInfoEpoch;
+
+		/**
+		 * the highest priority of each of above staticValidAndDescPrioritizeds
+		 * and the ones after, null for not evaluated yet
+		 */
+		private volatile int[] remainingPriorityUpperBounds;
+
+		public StaticInvocationProcessInfo()
+		{
+			super();
+		}
+
+		public StaticInvocationProcessInfo(
+				ImplementMethodInfo[] staticValidAndDescPrioritizeds,
+				boolean validityMethodPresents,
+				boolean priorityMethodPresents)
+		{
+			super();
+			this.staticValidAndDescPrioritizeds = staticValidAndDescPrioritizeds;
+			this.validityMethodPresents = validityMethodPresents;
+			this.priorityMethodPresents = priorityMethodPresents;
+		}
+
+		/**
+		 * Get the highest priority each of the
+		 * {@linkplain #getStaticValidAndDescPrioritizeds()} and the ones after
+		 * it may have, evaluate it if not yet.
+		 * 
+		 * @return
+		 * @see CachedImplementeeMethodInvocationFactory#evalRemainingPriorityUpperBounds(ImplementMethodInfo[])
+		 */
+		public int[] getRemainingPriorityUpperBounds()
+		{
+			int[] remainingPriorityUpperBounds = this.remainingPriorityUpperBounds;
+
+			if (remainingPriorityUpperBounds == null)
+			{
+				remainingPriorityUpperBounds = evalRemainingPriorityUpperBounds(
+						this.staticValidAndDescPrioritizeds);
+				this.remainingPriorityUpperBounds = remainingPriorityUpperBounds;
+			}
+
+			return remainingPriorityUpperBounds;
+		}
+
+		/**
+		 * Set the epochs of the factory and the {@linkplain ImplementInfo}
+		 * this info is built at.
+		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
+		 */
+		public void setEpoch(int epoch, int implementInfoEpoch)
+		{
+			this.epoch = epoch;
+			this.implementInfoEpoch = implementInfoEpoch;
+		}
+
+		/**
+		 * Returns if this info is built at the given epochs.
+		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
+		 * @return
+		 */
+		public boolean isCurrent(int epoch, int implementInfoEpoch)
+		{
+			return (this.epoch == epoch
+					&& this.implementInfoEpoch == implementInfoEpoch);
+		}
+
+		/**
+		 * Returns if the epochs are set.
+		 * 
+		 * @return
+		 */
+		public boolean hasEpoch()
+		{
+			return (this.epoch >= 0);
+		}
+
+		/**
+		 * Get the static valid and descendent prioritized
+		 * {@linkplain ImplementMethodInfo}s.
+		 * 
+		 * @return
+		 */
+		public ImplementMethodInfo[] getStaticValidAndDescPrioritizeds()
+		{
+			return staticValidAndDescPrioritizeds;
+		}
+
+		/**
+		 * Set the static valid and descendent prioritized
+		 * {@linkplain ImplementMethodInfo}s.
+		 * 
+		 * @param staticValidAndDescPrioritizeds
+		 */
+		public void setStaticValidAndDescPrioritizeds(
+				ImplementMethodInfo[] staticValidAndDescPrioritizeds)
+		{
+			this.staticValidAndDescPrioritizeds = staticValidAndDescPrioritizeds;
+			this.remainingPriorityUpperBounds = null;
+		}
+
+		/**
+		 * Returns if validity method presents in any of the
+		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
+		 * <p>
+		 * If {@code true}, validity should be checked again for every
+		 * invocation.
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public boolean isValidityMethodPresents()
+		{
+			return validityMethodPresents;
+		}
+
+		/**
+		 * Set if validity method presents in any of the
+		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
+		 * 
+		 * @param validityMethodPresents
+		 */
+		public void setValidityMethodPresents(boolean validityMethodPresents)
+		{
+			this.validityMethodPresents = validityMethodPresents;
+		}
+
+		/**
+		 * Returns if priority method presents in any of the
+		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
+		 * <p>
+		 * If {@code true}, priority should be checked again for every
+		 * invocation.
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public boolean isPriorityMethodPresents()
+		{
+			return priorityMethodPresents;
+		}
+
+		/**
+		 * Set if priority method presents in any of the
+		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
+		 * 
+		 * @param priorityMethodPresents
+		 */
+		public void setPriorityMethodPresents(boolean priorityMethodPresents)
+		{
+			this.priorityMethodPresents = priorityMethodPresents;
+		}
+	}
+
+	/**
+	 * Inline cache of an {@linkplain ImplementInfo}.
+	 * <p>
+	 * It holds a fixed number of invocation parameter types and their
+	 * {@linkplain StaticInvocationProcessInfo}s, which are compared with the
+	 * invocation parameters' classes by reference, so a cache hit neither
+	 * allocates nor computes hash code. When it is full, the oldest entry is
+	 * replaced.
+	 * </p>
+	 * <p>
+	 * It is thread-safe since its entries are immutable, concurrent adding may
+	 * lose an entry, which only causes a later cache miss.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-20
+	 *
+	 */
+	protected static class InlineCache
+	{
+		private final InlineCacheEntry[] entries;
+
+		/** the next position to add */
+		private int next = 0;
+
+		/** the factory epoch built at */
+		private int epoch;
+
+		/** the ImplementInfo epoch built at */
+		private int implementInfoEpoch;
+
+		public InlineCache(int size)
+		{
+			super();
+			this.entries = new InlineCacheEntry[size];
+		}
+
+		/**
+		 * Set the epochs of the factory and the {@linkplain ImplementInfo}
+		 * this cache is built at.
+		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
+		 */
+		public void setEpoch(int epoch, int implementInfoEpoch)
+		{
+			this.epoch = epoch;
+			this.implementInfoEpoch = implementInfoEpoch;
+		}
+
+		/**
+		 * Returns if this cache is built at the given epochs.
+		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
+		 * @return
+		 */
+		public boolean isCurrent(int epoch, int implementInfoEpoch)
+		{
+			return (this.epoch == epoch
+					&& this.implementInfoEpoch == implementInfoEpoch);
+		}
+
+		/**
+		 * Find the entry whose parameter types are the same as the classes of
+		 * the given invocation parameters.
+		 * 
+		 * @param invocationParams
+		 * @return The entry, {@code null} if none.
+		 */
+		public InlineCacheEntry find(Object[] invocationParams)
+		{
+			InlineCacheEntry[] entries = this.entries;
+
+			for (int i = 0; i < entries.length; i++)
+			{
+				InlineCacheEntry entry = entries[i];
+
+				if (entry == null)
+					return null;
+
+				if (entry.matches(invocationParams))
+					return entry;
+			}
+
+			return null;
+		}
+
+		/**
+		 * Add an entry.
+		 * 
+		 * @param entry
+		 */
+		public void add(InlineCacheEntry entry)
+		{
+			int next = this.next;
+
+			if (next < 0 || next >= this.entries.length)
+				next = 0;
+
+			this.entries[next] = entry;
+			this.next = next + 1;
+		}
+	}
+
+	/**
+	 * Entry of {@linkplain InlineCache}.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-20
+	 *
+	 */
+	protected static class InlineCacheEntry
+	{
+		/** the invocation parameter types */
+		private final Class<?>[] invocationParamTypes;
+
+		private final StaticInvocationProcessInfo staticInvocationProcessInfo;
+
+		public InlineCacheEntry(Class<?>[] invocationParamTypes,
+				StaticInvocationProcessInfo staticInvocationProcessInfo)
+		{
+			super();
+			this.invocationParamTypes = invocationParamTypes;
+			this.staticInvocationProcessInfo = staticInvocationProcessInfo;
+		}
+
+		/**
+		 * Get the invocation parameter types.
+		 * 
+		 * @return
+		 */
+		public Class<?>[] getInvocationParamTypes()
+		{
+			return invocationParamTypes;
+		}
+
+		/**
+		 * Get the {@linkplain StaticInvocationProcessInfo} for the invocation
+		 * parameter types.
+		 * 
+		 * @return
+		 */
+		public StaticInvocationProcessInfo getStaticInvocationProcessInfo()
+		{
+			return staticInvocationProcessInfo;
+		}
+
+		/**
+		 * Returns if the classes of the given invocation parameters are the
+		 * same as the invocation parameter types.
+		 * <p>
+		 * For primitive invocation parameter types, see
+		 * {@linkplain AbstractImplementeeMethodInvocationFactory#extractTypes(ImplementInfo, Object[])}
+		 * , the classes are not checked.
+		 * </p>
+		 * 
+		 * @param invocationParams
+		 * @return
+		 */
+		public boolean matches(Object[] invocationParams)
+		{
+			Class<?>[] invocationParamTypes = this.invocationParamTypes;
+
+			int length = (invocationParams == null ? 0
+					: invocationParams.length);
+
+			if (invocationParamTypes.length != length)
+				return false;
+
+			for (int i = 0; i < length; i++)
+			{
+				Object invocationParam = invocationParams[i];
+				Class<?> myInvocationParamType = invocationParamTypes[i];
+
+				if (invocationParam == null)
+				{
+					if (myInvocationParamType != null)
+						return false;
+				}
+				else if (myInvocationParamType == null)
+					return false;
+				else if (!myInvocationParamType.isPrimitive()
+						&& myInvocationParamType != invocationParam.getClass())
+					return false;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * <i>Implement method</i> candidate index of an {@linkplain ImplementInfo}.
+	 * <p>
+	 * It holds all <i>implement method</i>s in static priority order (or in
+	 * original order if not consistently orderable, see
+	 * {@linkplain #isPrioritized()}), and for each <i>implementee method</i>
+	 * parameter position, the bitsets of candidates valid for {@code null} and
+	 * for each seen invocation parameter type. Bit {@code i} of a bitset is for
+	 * the {@code i}th candidate.
+	 * </p>
+	 * <p>
+	 * It is thread-safe, the bitsets of parameter types are held in
+	 * synchronized weak key maps so the index does not keep their class
+	 * loaders alive.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-22
 	 *
 	 */
-	protected static class StaticInvocationInputInfo
+	protected static class CandidateIndex
 	{
-		/** the Implementation of the invocation */
-		private Implementation<?> implementation;
+		/** the candidates */
+		private final ImplementMethodInfo[] candidates;
 
-		/** the ImplementInfo of the invocation */
-		private ImplementInfo implementInfo;
+		/** if the candidates are in static priority order */
+		private final boolean prioritized;
 
-		/** the invocation parameter types */
-		private Class<?>[] invocationParamTypes;
+		/** candidates valid for some invocation parameter types */
+		private final long[] validBits;
 
-		public StaticInvocationInputInfo()
+		/**
+		 * the candidate parameter types by parameter position, null if the
+		 * candidate does not have the parameter
+		 */
+		private final Class<?>[][] paramTypes;
+
+		/** candidates valid for null by parameter position */
+		private final long[][] nullBits;
+
+		/** candidates valid for invocation parameter types by position */
+		private final Map<Class<?>, long[]>[] typeBits;
+
+		/** the factory epoch built at */
+		private int epoch;
+
+		/** the ImplementInfo epoch built at */
+		private int implementInfoEpoch;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		public CandidateIndex(ImplementMethodInfo[] candidates,
+				boolean prioritized, long[] validBits, Class<?>[][] paramTypes,
+				long[][] nullBits)
 		{
 			super();
+			this.candidates = candidates;
+			this.prioritized = prioritized;
+			this.validBits = validBits;
+			this.paramTypes = paramTypes;
+			this.nullBits = nullBits;
+			this.typeBits = new Map[paramTypes.length];
+
+			for (int i = 0; i < this.typeBits.length; i++)
+				this.typeBits[i] = Collections.synchronizedMap(
+						new WeakHashMap<Class<?>, long[]>());
 		}
 
-		public StaticInvocationInputInfo(Implementation<?> implementation,
-				ImplementInfo implementInfo,
-				Class<?>[] invocationParamTypes)
+		/**
+		 * Set the epochs of the factory and the {@linkplain ImplementInfo}
+		 * this index is built at.
+		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
+		 */
+		public void setEpoch(int epoch, int implementInfoEpoch)
 		{
-			super();
-			this.implementation = implementation;
-			this.implementInfo = implementInfo;
-			this.invocationParamTypes = invocationParamTypes;
+			this.epoch = epoch;
+			this.implementInfoEpoch = implementInfoEpoch;
 		}
 
 		/**
-		 * Get the Implementation of the invocation.
+		 * Returns if this index is built at the given epochs.
 		 * 
+		 * @param epoch
+		 * @param implementInfoEpoch
 		 * @return
 		 */
-		public Implementation<?> getImplementation()
+		public boolean isCurrent(int epoch, int implementInfoEpoch)
 		{
-			return implementation;
+			return (this.epoch == epoch
+					&& this.implementInfoEpoch == implementInfoEpoch);
 		}
 
 		/**
-		 * Set the Implementation of the invocation.
+		 * Get the <i>implementee method</i> parameter count.
 		 * 
-		 * @param implementation
+		 * @return
 		 */
-		public void setImplementation(Implementation<?> implementation)
+		public int getParamCount()
 		{
-			this.implementation = implementation;
+			return this.paramTypes.length;
 		}
 
 		/**
-		 * Get the ImplementInfo of the invocation.
+		 * Get the candidates.
 		 * 
 		 * @return
 		 */
-		public ImplementInfo getImplementInfo()
+		public ImplementMethodInfo[] getCandidates()
 		{
-			return implementInfo;
+			return candidates;
 		}
 
 		/**
-		 * Set the ImplementInfo of the invocation.
+		 * Return if the candidates are in static priority order, if not, the
+		 * filtered candidates should be sorted.
 		 * 
-		 * @param implementInfo
+		 * @return
 		 */
-		public void setImplementInfo(ImplementInfo implementInfo)
+		public boolean isPrioritized()
 		{
-			this.implementInfo = implementInfo;
+			return prioritized;
 		}
 
 		/**
-		 * Get the <i>implementee method</i> invocation parameter types.
+		 * Get the bitset of candidates which may be valid, the others have
+		 * more parameters than the <i>implementee method</i>.
 		 * 
 		 * @return
 		 */
-		public Class<?>[] getInvocationParamTypes()
+		public long[] getValidBits()
 		{
-			return invocationParamTypes;
+			return validBits;
 		}
 
 		/**
-		 * Set the <i>implementee method</i> invocation parameter types.
+		 * Get the candidate parameter types at the given parameter position,
+		 * the element is {@code null} if the candidate does not have the
+		 * parameter.
 		 * 
-		 * @param invocationParamTypes
+		 * @param paramIndex
+		 * @return
 		 */
-		public void setInvocationParamTypes(Class<?>[] invocationParamTypes)
+		public Class<?>[] getParamTypes(int paramIndex)
 		{
-			this.invocationParamTypes = invocationParamTypes;
+			return this.paramTypes[paramIndex];
 		}
 
-		@Override
-		public int hashCode()
+		/**
+		 * Get the bitset of candidates valid for {@code null} at the given
+		 * parameter position.
+		 * 
+		 * @param paramIndex
+		 * @return
+		 */
+		public long[] getNullBits(int paramIndex)
 		{
-			final int prime = 31;
-			int result = 1;
-
-			// result = prime * result
-			// + ((implementInfo == null) ? 0 : implementInfo.hashCode());
-			// result = prime * result + ((implementation == null) ? 0
-			// : implementation.hashCode());
-
-			// XXX DO NOT use generated hash code logic above, bad performance
-
-			result = prime * result + ((implementInfo == null) ? 0
-					: implementInfo.getImplementeeMethod().hashCode());
+			return this.nullBits[paramIndex];
+		}
 
-			result = prime * result
-					+ Arrays.hashCode(invocationParamTypes);
-			return result;
+		/**
+		 * Get the bitset of candidates valid for the given invocation
+		 * parameter type at the given parameter position.
+		 * 
+		 * @param paramIndex
+		 * @param invocationParamType
+		 * @return The bitset, {@code null} if not computed yet.
+		 */
+		public long[] getTypeBits(int paramIndex, Class<?> invocationParamType)
+		{
+			return this.typeBits[paramIndex].get(invocationParamType);
 		}
 
-		@Override
-		public boolean equals(Object obj)
+		/**
+		 * Put the bitset of candidates valid for the given invocation
+		 * parameter type at the given parameter position.
+		 * 
+		 * @param paramIndex
+		 * @param invocationParamType
+		 * @param bits
+		 */
+		public void putTypeBits(int paramIndex, Class<?> invocationParamType,
+				long[] bits)
 		{
-			if (this == obj)
-				return true;
-			if (obj == null)
-				return false;
-			if (getClass() != obj.getClass())
-				return false;
-			StaticInvocationInputInfo other = (StaticInvocationInputInfo) obj;
-			if (implementInfo == null)
-			{
-				if (other.implementInfo != null)
-					return false;
-			}
-			else if (!implementInfo.equals(other.implementInfo))
-				return false;
-			if (implementation == null)
-			{
-				if (other.implementation != null)
-					return false;
-			}
-			else if (!implementation.equals(other.implementation))
-				return false;
-			if (!Arrays.equals(invocationParamTypes,
-					other.invocationParamTypes))
-				return false;
-			return true;
+			this.typeBits[paramIndex].put(invocationParamType, bits);
 		}
 	}
 
 	/**
-	 * Static invocation process info.
-	 * <p>
-	 * It encapsulates the static process info of an <i>implementee method</i>
-	 * invocation and is used with {@linkplain StaticInvocationInputInfo} as a
-	 * pair for caching static info of an <i>implementee method</i> invocation.
-	 * </p>
-	 * <p>
-	 * Each element in {@linkplain #getStaticValidAndDescPrioritizeds()} 's
-	 * {@linkplain ImplementMethodInfo#getImplementMethod()} parameter types are
-	 * valid to the corresponding
-	 * {@linkplain StaticInvocationInputInfo#getInvocationParamTypes()}.
-	 * </p>
+	 * Caches of a {@linkplain CachedImplementeeMethodInvocationFactory} for an
+	 * {@linkplain ImplementInfo}.
 	 * <p>
-	 * The preceding element in
-	 * {@linkplain #getStaticValidAndDescPrioritizeds()} 's static priority is
-	 * higher than subsequent element to the corresponding
-	 * {@linkplain StaticInvocationInputInfo#getInvocationParamTypes()} (eg.
-	 * {@linkplain ImplementMethodInfo#getPriorityValue()} is higher or
-	 * {@linkplain ImplementMethodInfo#getImplementMethod()} parameter types are
-	 * closer).
+	 * It references the {@linkplain ImplementInfo} and its
+	 * {@linkplain Implementation} weakly, and its caches reference neither of
+	 * them, so it does not keep them alive.
 	 * </p>
 	 * 
 	 * @author earthangry@gmail.com
-	 * @date 2016-12-6
+	 * @date 2017-3-30
 	 *
 	 */
-	protected static class StaticInvocationProcessInfo
+	protected static class ImplementInfoCaches
+			extends WeakReference<ImplementInfo>
 	{
-		/** the static valid and descendent prioritized ImplementMethodInfo */
-		private ImplementMethodInfo[] staticValidAndDescPrioritizeds;
+		private final WeakReference<Implementation<?>> implementationRef;
+
+		/** the identity hash code of the ImplementInfo */
+		private final int hash;
+
+		private volatile InlineCache inlineCache;
+
+		private volatile CandidateIndex candidateIndex;
+
+		public ImplementInfoCaches(Implementation<?> implementation,
+				ImplementInfo implementInfo, int hash,
+				ReferenceQueue<? super ImplementInfo> queue)
+		{
+			super(implementInfo, queue);
+			this.implementationRef = new WeakReference<Implementation<?>>(
+					implementation);
+			this.hash = hash;
+		}
 
 		/**
-		 * if validity method presents in any of above
-		 * staticValidAndDescPrioritizeds
+		 * Returns if the {@linkplain ImplementInfo} is used with the given
+		 * {@linkplain Implementation}.
+		 * 
+		 * @param implementation
+		 * @return
 		 */
-		private boolean validityMethodPresents;
+		public boolean isOf(Implementation<?> implementation)
+		{
+			return (this.implementationRef.get() == implementation);
+		}
 
 		/**
-		 * if priority method presents in any of above
-		 * staticValidAndDescPrioritizeds
+		 * Returns if the {@linkplain ImplementInfo} or its
+		 * {@linkplain Implementation} is garbage collected.
+		 * 
+		 * @return
 		 */
-		private boolean priorityMethodPresents;
+		public boolean isCleared()
+		{
+			return (get() == null || this.implementationRef.get() == null);
+		}
 
-		public StaticInvocationProcessInfo()
+		/**
+		 * Get the {@linkplain InlineCache}.
+		 * 
+		 * @return The {@linkplain InlineCache}, {@code null} if none.
+		 */
+		public InlineCache getInlineCache()
 		{
-			super();
+			return inlineCache;
 		}
 
-		public StaticInvocationProcessInfo(
-				ImplementMethodInfo[] staticValidAndDescPrioritizeds,
-				boolean validityMethodPresents,
-				boolean priorityMethodPresents)
+		public void setInlineCache(InlineCache inlineCache)
 		{
-			super();
-			this.staticValidAndDescPrioritizeds = staticValidAndDescPrioritizeds;
-			this.validityMethodPresents = validityMethodPresents;
-			this.priorityMethodPresents = priorityMethodPresents;
+			this.inlineCache = inlineCache;
 		}
 
 		/**
-		 * Get the static valid and descendent prioritized
-		 * {@linkplain ImplementMethodInfo}s.
+		 * Get the {@linkplain CandidateIndex}.
 		 * 
-		 * @return
+		 * @return The {@linkplain CandidateIndex}, {@code null} if none.
 		 */
-		public ImplementMethodInfo[] getStaticValidAndDescPrioritizeds()
+		public CandidateIndex getCandidateIndex()
 		{
-			return staticValidAndDescPrioritizeds;
+			return candidateIndex;
+		}
+
+		public void setCandidateIndex(CandidateIndex candidateIndex)
+		{
+			this.candidateIndex = candidateIndex;
 		}
 
 		/**
-		 * Set the static valid and descendent prioritized
-		 * {@linkplain ImplementMethodInfo}s.
+		 * Release the caches.
+		 */
+		public void clearCaches()
+		{
+			this.inlineCache = null;
+			this.candidateIndex = null;
+		}
+	}
+
+	/**
+	 * Identity hash table of {@linkplain ImplementInfoCaches}.
+	 * <p>
+	 * It is an open addressing table read without locking, so finding the
+	 * {@linkplain ImplementInfoCaches} of an {@linkplain ImplementInfo}
+	 * neither allocates nor synchronizes. Adding is synchronized, in which the
+	 * caches of garbage collected {@linkplain ImplementInfo}s are released,
+	 * and the cleared entries are removed when the table is rebuilt.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class ImplementInfoCachesTable
+	{
+		private static final int INITIAL_CAPACITY = 16;
+
+		private final ReferenceQueue<ImplementInfo> queue = new ReferenceQueue<ImplementInfo>();
+
+		private volatile ImplementInfoCaches[] slots = new ImplementInfoCaches[INITIAL_CAPACITY];
+
+		/** the count of the entries in slots */
+		private int count = 0;
+
+		public ImplementInfoCachesTable()
+		{
+			super();
+		}
+
+		/**
+		 * Get the count of the entries, including cleared ones not removed
+		 * yet.
 		 * 
-		 * @param staticValidAndDescPrioritizeds
+		 * @return
 		 */
-		public void setStaticValidAndDescPrioritizeds(
-				ImplementMethodInfo[] staticValidAndDescPrioritizeds)
+		public synchronized int getCount()
 		{
-			this.staticValidAndDescPrioritizeds = staticValidAndDescPrioritizeds;
+			return count;
 		}
 
 		/**
-		 * Returns if validity method presents in any of the
-		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
-		 * <p>
-		 * If {@code true}, validity should be checked again for every
-		 * invocation.
-		 * </p>
+		 * Get the {@linkplain ImplementInfoCaches} of the given
+		 * {@linkplain ImplementInfo}, create and add one for the given
+		 * {@linkplain Implementation} if none.
 		 * 
+		 * @param implementation
+		 * @param implementInfo
 		 * @return
 		 */
-		public boolean isValidityMethodPresents()
+		public ImplementInfoCaches get(Implementation<?> implementation,
+				ImplementInfo implementInfo)
 		{
-			return validityMethodPresents;
+			int hash = System.identityHashCode(implementInfo);
+
+			ImplementInfoCaches implementInfoCaches = find(this.slots,
+					implementInfo, hash);
+
+			if (implementInfoCaches != null)
+				return implementInfoCaches;
+
+			synchronized (this)
+			{
+				implementInfoCaches = find(this.slots, implementInfo, hash);
+
+				if (implementInfoCaches != null)
+					return implementInfoCaches;
+
+				expunge();
+
+				if ((this.count + 1) * 2 > this.slots.length)
+					rebuild();
+
+				implementInfoCaches = new ImplementInfoCaches(implementation,
+						implementInfo, hash, this.queue);
+
+				ImplementInfoCaches[] slots = this.slots;
+				slots[indexOf(slots, hash)] = implementInfoCaches;
+				this.count++;
+
+				return implementInfoCaches;
+			}
 		}
 
 		/**
-		 * Set if validity method presents in any of the
-		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
+		 * Find the {@linkplain ImplementInfoCaches} of given
+		 * {@linkplain ImplementInfo} in given slots.
 		 * 
-		 * @param validityMethodPresents
+		 * @param slots
+		 * @param implementInfo
+		 * @param hash
+		 * @return The {@linkplain ImplementInfoCaches}, {@code null} if none
+		 *         or cleared.
 		 */
-		public void setValidityMethodPresents(boolean validityMethodPresents)
+		protected ImplementInfoCaches find(ImplementInfoCaches[] slots,
+				ImplementInfo implementInfo, int hash)
 		{
-			this.validityMethodPresents = validityMethodPresents;
+			int mask = slots.length - 1;
+
+			for (int i = hash & mask;; i = (i + 1) & mask)
+			{
+				ImplementInfoCaches implementInfoCaches = slots[i];
+
+				if (implementInfoCaches == null)
+					return null;
+
+				if (implementInfoCaches.hash == hash
+						&& implementInfoCaches.get() == implementInfo
+						&& !implementInfoCaches.isCleared())
+					return implementInfoCaches;
+			}
 		}
 
 		/**
-		 * Returns if priority method presents in any of the
-		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
-		 * <p>
-		 * If {@code true}, priority should be checked again for every
-		 * invocation.
-		 * </p>
+		 * Get the first empty slot index for given hash code.
 		 * 
+		 * @param slots
+		 * @param hash
 		 * @return
 		 */
-		public boolean isPriorityMethodPresents()
+		protected int indexOf(ImplementInfoCaches[] slots, int hash)
 		{
-			return priorityMethodPresents;
+			int mask = slots.length - 1;
+			int i = hash & mask;
+
+			while (slots[i] != null)
+				i = (i + 1) & mask;
+
+			return i;
 		}
 
 		/**
-		 * Set if priority method presents in any of the
-		 * {@linkplain #getStaticValidAndDescPrioritizeds()}.
-		 * 
-		 * @param priorityMethodPresents
+		 * Release the caches of the garbage collected
+		 * {@linkplain ImplementInfo}s.
 		 */
-		public void setPriorityMethodPresents(boolean priorityMethodPresents)
+		protected void expunge()
 		{
-			this.priorityMethodPresents = priorityMethodPresents;
+			Reference<? extends ImplementInfo> reference;
+
+			while ((reference = this.queue.poll()) != null)
+				((ImplementInfoCaches) reference).clearCaches();
+		}
+
+		/**
+		 * Rebuild the slots without cleared entries, the capacity is grown or
+		 * shrunk for keeping the live ones at most a quarter.
+		 */
+		protected void rebuild()
+		{
+			ImplementInfoCaches[] slots = this.slots;
+
+			int liveCount = 0;
+
+			for (ImplementInfoCaches implementInfoCaches : slots)
+			{
+				if (implementInfoCaches != null
+						&& !implementInfoCaches.isCleared())
+					liveCount++;
+			}
+
+			int capacity = INITIAL_CAPACITY;
+
+			while (capacity < (liveCount + 1) * 4)
+				capacity <<= 1;
+
+			ImplementInfoCaches[] newSlots = new ImplementInfoCaches[capacity];
+
+			for (ImplementInfoCaches implementInfoCaches : slots)
+			{
+				if (implementInfoCaches == null)
+					continue;
+
+				if (implementInfoCaches.isCleared())
+					implementInfoCaches.clearCaches();
+				else
+					newSlots[indexOf(newSlots,
+							implementInfoCaches.hash)] = implementInfoCaches;
+			}
+
+			this.count = liveCount;
+			this.slots = newSlots;
 		}
 	}
 }
@@ -0,0 +1,797 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Concurrent editable <i>implementor</i> bean factory.
+ * <p>
+ * It has the same editing methods as
+ * {@linkplain EditableImplementorBeanFactory}, but is thread-safe, so beans
+ * can be added and removed while <i>implementee</i> beans are invoked. Every
+ * modification publishes a new immutable version atomically, so
+ * {@linkplain #getImplementorBeans(Class)} is lock-free and returns a snapshot
+ * which is never changed afterwards. Several modifications can be published
+ * as one version by {@linkplain #modify(Modification)}.
+ * </p>
+ * <p>
+ * Modifications are serialized and copy the changed bean lists, so it is
+ * suitable for frequent reading and infrequent modifying. Each bean list has
+ * a hash index, {@linkplain #contains(Class, Object)} and finding the bean to
+ * remove take constant time.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class ConcurrentImplementorBeanFactory implements ImplementorBeanFactory
+{
+	private volatile Version version = new Version(0,
+			Collections.<Class<?>, BeanList> emptyMap());
+
+	private final Object modifyLock = new Object();
+
+	public ConcurrentImplementorBeanFactory()
+	{
+		super();
+	}
+
+	/**
+	 * Add <i>implementor</i> beans.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 */
+	public void add(final Object... implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.add(implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Add <i>implementor</i> beans.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 */
+	public void add(final Collection<?> implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.add(implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Add <i>implementor</i> beans for given <i>implementor</i>.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 */
+	public void add(final Class<?> implementor,
+			final Object... implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.add(implementor, implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Add <i>implementor</i> beans for given <i>implementor</i>.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 */
+	public void add(final Class<?> implementor,
+			final Collection<?> implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.add(implementor, implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Append <i>implementor</i> bean.
+	 * <p>
+	 * The <i>implementor</i> bean will not be added if the <i>implementor</i>
+	 * {@code implementorBean.getClass()} is not added before.
+	 * </p>
+	 * 
+	 * @param implementorBean
+	 *            The <i>implementor</i> bean to be added.
+	 * @return {@code true} if appended, {@code false} if not.
+	 */
+	public boolean append(Object implementorBean)
+	{
+		return append(implementorBean.getClass(), implementorBean);
+	}
+
+	/**
+	 * Append <i>implementor</i> beans for given <i>implementor</i>.
+	 * <p>
+	 * The <i>implementor</i> beans will not be added if the <i>implementor</i>
+	 * is not added before.
+	 * </p>
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 * @return {@code true} if appended, {@code false} if not.
+	 */
+	public boolean append(Class<?> implementor, Object... implementorBeans)
+	{
+		return append(implementor, Arrays.asList(implementorBeans));
+	}
+
+	/**
+	 * Append <i>implementor</i> beans for given <i>implementor</i>.
+	 * <p>
+	 * The <i>implementor</i> beans will not be added if the <i>implementor</i>
+	 * is not added before.
+	 * </p>
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be added.
+	 * @return {@code true} if appended, {@code false} if not.
+	 */
+	public boolean append(final Class<?> implementor,
+			final Collection<?> implementorBeans)
+	{
+		final boolean[] appended = { false };
+
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				appended[0] = editor.append(implementor, implementorBeans);
+			}
+		});
+
+		return appended[0];
+	}
+
+	/**
+	 * Remove <i>implementor</i> beans.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be removed.
+	 */
+	public void remove(final Object... implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.remove(implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Remove <i>implementor</i> beans.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be removed.
+	 */
+	public void remove(final Collection<?> implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.remove(implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Remove <i>implementor</i> beans for given <i>implementor</i>.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be removed.
+	 */
+	public void remove(final Class<?> implementor,
+			final Object... implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.remove(implementor, implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Remove <i>implementor</i> beans for given <i>implementor</i>.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be removed.
+	 */
+	public void remove(final Class<?> implementor,
+			final Collection<?> implementorBeans)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.remove(implementor, implementorBeans);
+			}
+		});
+	}
+
+	/**
+	 * Clear given <i>implementor</i> and its beans.
+	 * <p>
+	 * After clear, the {@linkplain #exists(Class)} will return {@code false}.
+	 * </p>
+	 * 
+	 * @param implementor
+	 */
+	public void clear(final Class<?> implementor)
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.clear(implementor);
+			}
+		});
+	}
+
+	/**
+	 * Clear all <i>implementor</i>s and their beans.
+	 */
+	public void clear()
+	{
+		modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.clear();
+			}
+		});
+	}
+
+	/**
+	 * Do modifications and publish them as one new version atomically.
+	 * <p>
+	 * Modifications are serialized, readers see either all or none of them.
+	 * No new version is published if nothing is changed or the modification
+	 * throws.
+	 * </p>
+	 * 
+	 * @param modification
+	 */
+	public void modify(Modification modification)
+	{
+		synchronized (this.modifyLock)
+		{
+			Version current = this.version;
+
+			Editor editor = new Editor(current.beanListsMap);
+
+			modification.modify(editor);
+
+			if (editor.isModified())
+				this.version = new Version(current.number + 1,
+						Collections.unmodifiableMap(editor.beanListsMap));
+		}
+	}
+
+	/**
+	 * Return if given <i>implementor</i> bean is added.
+	 * 
+	 * @param implementorBean
+	 *            The <i>implementor</i> bean to be checked.
+	 * @return {@code true} if yes, {@code false} if no.
+	 */
+	public boolean contains(Object implementorBean)
+	{
+		return contains(implementorBean.getClass(), implementorBean);
+	}
+
+	/**
+	 * Return if given <i>implementor</i> bean is added.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @param implementorBean
+	 *            The <i>implementor</i> bean to be checked.
+	 * @return {@code true} if yes, {@code false} if no.
+	 */
+	public boolean contains(Class<?> implementor, Object implementorBean)
+	{
+		BeanList beanList = this.version.beanListsMap.get(implementor);
+
+		return (beanList != null && beanList.contains(implementorBean));
+	}
+
+	/**
+	 * Return if given <i>implementor</i> is existing.
+	 * <p>
+	 * An <i>implementor</i> is existing if its bean has been added and it has
+	 * not been cleared.
+	 * </p>
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i> to be checked.
+	 * @return {@code true} if yes, {@code false} if no.
+	 */
+	public boolean exists(Class<?> implementor)
+	{
+		return this.version.beanListsMap.containsKey(implementor);
+	}
+
+	/**
+	 * Get all the <i>implementor</i>s of current version.
+	 * 
+	 * @return
+	 */
+	public Set<Class<?>> getAllImplementors()
+	{
+		return this.version.beanListsMap.keySet();
+	}
+
+	/**
+	 * Get <i>implementor</i> beans list of current version for given
+	 * <i>implementor</i>.
+	 * 
+	 * @param implementor
+	 *            The <i>implementor</i>.
+	 * @return The unmodifiable <i>implementor</i> beans list, {@code null} if
+	 *         none.
+	 */
+	public List<Object> get(Class<?> implementor)
+	{
+		return this.version.beanListsMap.get(implementor);
+	}
+
+	/**
+	 * Get the size.
+	 * 
+	 * @return
+	 */
+	public int size()
+	{
+		return this.version.beanListsMap.size();
+	}
+
+	/**
+	 * Get the current version number, it is increased by each published
+	 * modification.
+	 * 
+	 * @return
+	 */
+	public long getVersion()
+	{
+		return this.version.number;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Collection<T> getImplementorBeans(Class<T> implementor)
+	{
+		return (Collection<T>) this.version.beanListsMap.get(implementor);
+	}
+
+	/**
+	 * Create an instance by <i>implementor</i> beans array.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be built.
+	 * @return
+	 */
+	public static ConcurrentImplementorBeanFactory valueOf(
+			Object... implementorBeans)
+	{
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		factory.add(implementorBeans);
+
+		return factory;
+	}
+
+	/**
+	 * Create an instance by <i>implementor</i> beans collection.
+	 * 
+	 * @param implementorBeans
+	 *            The <i>implementor</i> beans to be built.
+	 * @return
+	 */
+	public static ConcurrentImplementorBeanFactory valueOf(
+			Collection<?> implementorBeans)
+	{
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		factory.add(implementorBeans);
+
+		return factory;
+	}
+
+	/**
+	 * Create an instance by <i>implementor</i> beans map.
+	 * 
+	 * @param implementorBeansMap
+	 *            The <i>implementor</i> beans map to be built.
+	 * @return
+	 */
+	public static ConcurrentImplementorBeanFactory valueOf(
+			final Map<Class<?>, ? extends Collection<?>> implementorBeansMap)
+	{
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		factory.modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				for (Map.Entry<Class<?>, ? extends Collection<?>> entry : implementorBeansMap
+						.entrySet())
+				{
+					editor.add(entry.getKey(), entry.getValue());
+				}
+			}
+		});
+
+		return factory;
+	}
+
+	/**
+	 * Modification of {@linkplain ConcurrentImplementorBeanFactory}.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 * @see ConcurrentImplementorBeanFactory#modify(Modification)
+	 */
+	public static interface Modification
+	{
+		/**
+		 * Do modifications by the {@linkplain Editor}.
+		 * 
+		 * @param editor
+		 */
+		void modify(Editor editor);
+	}
+
+	/**
+	 * Editor of a working copy of the current version.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	public static class Editor
+	{
+		private final Map<Class<?>, BeanList> beanListsMap;
+
+		private boolean modified = false;
+
+		protected Editor(Map<Class<?>, BeanList> beanListsMap)
+		{
+			super();
+			this.beanListsMap = new HashMap<Class<?>, BeanList>(beanListsMap);
+		}
+
+		public void add(Object... implementorBeans)
+		{
+			for (Object implementorBean : implementorBeans)
+				add(implementorBean.getClass(), implementorBean);
+		}
+
+		public void add(Collection<?> implementorBeans)
+		{
+			for (Object implementorBean : implementorBeans)
+				add(implementorBean.getClass(), implementorBean);
+		}
+
+		public void add(Class<?> implementor, Object... implementorBeans)
+		{
+			add(implementor, Arrays.asList(implementorBeans));
+		}
+
+		public void add(Class<?> implementor, Collection<?> implementorBeans)
+		{
+			BeanList beanList = this.beanListsMap.get(implementor);
+
+			setBeanList(implementor, (beanList == null
+					? BeanList.EMPTY : beanList).add(implementorBeans));
+		}
+
+		public boolean append(Class<?> implementor,
+				Collection<?> implementorBeans)
+		{
+			BeanList beanList = this.beanListsMap.get(implementor);
+
+			if (beanList == null)
+				return false;
+
+			setBeanList(implementor, beanList.add(implementorBeans));
+
+			return true;
+		}
+
+		public void remove(Object... implementorBeans)
+		{
+			for (Object implementorBean : implementorBeans)
+				remove(implementorBean.getClass(), implementorBean);
+		}
+
+		public void remove(Collection<?> implementorBeans)
+		{
+			for (Object implementorBean : implementorBeans)
+				remove(implementorBean.getClass(), implementorBean);
+		}
+
+		public void remove(Class<?> implementor, Object... implementorBeans)
+		{
+			remove(implementor, Arrays.asList(implementorBeans));
+		}
+
+		public void remove(Class<?> implementor,
+				Collection<?> implementorBeans)
+		{
+			BeanList beanList = this.beanListsMap.get(implementor);
+
+			if (beanList == null)
+				return;
+
+			BeanList removed = beanList.remove(implementorBeans);
+
+			if (removed != beanList)
+				setBeanList(implementor, removed);
+		}
+
+		public void clear(Class<?> implementor)
+		{
+			if (this.beanListsMap.remove(implementor) != null)
+				this.modified = true;
+		}
+
+		public void clear()
+		{
+			if (!this.beanListsMap.isEmpty())
+			{
+				this.beanListsMap.clear();
+				this.modified = true;
+			}
+		}
+
+		public boolean contains(Class<?> implementor, Object implementorBean)
+		{
+			BeanList beanList = this.beanListsMap.get(implementor);
+
+			return (beanList != null && beanList.contains(implementorBean));
+		}
+
+		public boolean exists(Class<?> implementor)
+		{
+			return this.beanListsMap.containsKey(implementor);
+		}
+
+		public List<Object> get(Class<?> implementor)
+		{
+			return this.beanListsMap.get(implementor);
+		}
+
+		public boolean isModified()
+		{
+			return modified;
+		}
+
+		protected void setBeanList(Class<?> implementor, BeanList beanList)
+		{
+			this.beanListsMap.put(implementor, beanList);
+			this.modified = true;
+		}
+	}
+
+	/**
+	 * A published version.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	protected static class Version
+	{
+		protected final long number;
+
+		protected final Map<Class<?>, BeanList> beanListsMap;
+
+		public Version(long number, Map<Class<?>, BeanList> beanListsMap)
+		{
+			super();
+			this.number = number;
+			this.beanListsMap = beanListsMap;
+		}
+	}
+
+	/**
+	 * Immutable bean list with a hash index of bean counts.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-28
+	 *
+	 */
+	protected static class BeanList extends AbstractList<Object>
+			implements RandomAccess
+	{
+		protected static final BeanList EMPTY = new BeanList(new Object[0],
+				new HashMap<Object, Integer>());
+
+		private final Object[] beans;
+
+		private final Map<Object, Integer> counts;
+
+		protected BeanList(Object[] beans, Map<Object, Integer> counts)
+		{
+			super();
+			this.beans = beans;
+			this.counts = counts;
+		}
+
+		@Override
+		public Object get(int index)
+		{
+			return this.beans[index];
+		}
+
+		@Override
+		public int size()
+		{
+			return this.beans.length;
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			return this.counts.containsKey(o);
+		}
+
+		/**
+		 * Return a new list with the beans appended.
+		 * 
+		 * @param beans
+		 * @return
+		 */
+		public BeanList add(Collection<?> beans)
+		{
+			Object[] newBeans = Arrays.copyOf(this.beans,
+					this.beans.length + beans.size());
+			Map<Object, Integer> newCounts = new HashMap<Object, Integer>(
+					this.counts);
+
+			int i = this.beans.length;
+			for (Object bean : beans)
+			{
+				newBeans[i++] = bean;
+				increase(newCounts, bean, 1);
+			}
+
+			return new BeanList(newBeans, newCounts);
+		}
+
+		/**
+		 * Return a new list with the first occurrences of the beans removed.
+		 * 
+		 * @param beans
+		 * @return A new list, or this list if none is contained.
+		 */
+		public BeanList remove(Collection<?> beans)
+		{
+			Map<Object, Integer> removeCounts = null;
+
+			for (Object bean : beans)
+			{
+				Integer count = this.counts.get(bean);
+
+				if (count == null)
+					continue;
+
+				if (removeCounts == null)
+					removeCounts = new HashMap<Object, Integer>();
+
+				Integer removeCount = removeCounts.get(bean);
+
+				if (removeCount == null || removeCount < count)
+					increase(removeCounts, bean, 1);
+			}
+
+			if (removeCounts == null)
+				return this;
+
+			Map<Object, Integer> newCounts = new HashMap<Object, Integer>(
+					this.counts);
+			Object[] newBeans = new Object[this.beans.length];
+			int size = 0;
+
+			for (Object bean : this.beans)
+			{
+				Integer removeCount = removeCounts.get(bean);
+
+				if (removeCount != null && removeCount > 0)
+				{
+					removeCounts.put(bean, removeCount - 1);
+					increase(newCounts, bean, -1);
+				}
+				else
+					newBeans[size++] = bean;
+			}
+
+			return new BeanList(Arrays.copyOf(newBeans, size), newCounts);
+		}
+
+		protected static void increase(Map<Object, Integer> counts,
+				Object bean, int delta)
+		{
+			Integer count = counts.get(bean);
+			int newCount = (count == null ? 0 : count) + delta;
+
+			if (newCount <= 0)
+				counts.remove(bean);
+			else
+				counts.put(bean, newCount);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unbounded {@linkplain Cache} based on {@linkplain ConcurrentHashMap}.
+ * <p>
+ * It never evicts, so it should only be used when the count of keys is known
+ * to be limited.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class ConcurrentMapCache<K, V> implements Cache<K, V>
+{
+	private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<K, V>();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	public ConcurrentMapCache()
+	{
+		super();
+	}
+
+	@Override
+	public V get(K key)
+	{
+		V value = this.map.get(key);
+
+		if (value == null)
+			this.missCount.increment();
+		else
+			this.hitCount.increment();
+
+		return value;
+	}
+
+	@Override
+	public void put(K key, V value)
+	{
+		this.map.put(key, value);
+	}
+
+	@Override
+	public void remove(K key)
+	{
+		this.map.remove(key);
+	}
+
+	@Override
+	public void clear()
+	{
+		this.map.clear();
+	}
+
+	@Override
+	public int size()
+	{
+		return this.map.size();
+	}
+
+	@Override
+	public CacheStatistics getStatistics()
+	{
+		return new CacheStatistics(this.hitCount.sum(), this.missCount.sum(),
+				0);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [size=" + size() + "]";
+	}
+}
@@ -14,10 +14,13 @@
 
 package org.ximplementation.support;
 
-import java.lang.reflect.Method;
-
 /**
  * Default {@linkplain ImplementeeMethodInvocation}.
+ * <p>
+ * It invokes the <i>implement method</i> by
+ * {@linkplain ImplementMethodInfo#invoke(Object, Object[])}, exceptions thrown
+ * by the <i>implement method</i> are thrown directly.
+ * </p>
  * 
  * @author earthangry@gmail.com
  * @date 2016-8-15
@@ -180,15 +183,7 @@ public class DefaultImplementeeMethodInvocation
 	@Override
 	public Object invoke() throws Throwable
 	{
-		Object[] myInvocationParams = this.implementMethodInfo
-				.getParams(this.invocationParams);
-
-		Method implementMethod = this.implementMethodInfo.getImplementMethod();
-
-		if (!implementMethod.isAccessible())
-			implementMethod.setAccessible(true);
-
-		return implementMethod.invoke(this.implementorBean,
-				myInvocationParams);
+		return this.implementMethodInfo.invoke(this.implementorBean,
+				this.invocationParams);
 	}
 }
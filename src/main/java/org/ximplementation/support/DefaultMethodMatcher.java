@@ -50,15 +50,42 @@ public class DefaultMethodMatcher implements MethodMatcher
 	 */
 	protected boolean doMatch(MethodPattern methodPattern,
 			Method method, Class<?> clazz)
+	{
+		String fullMethodName = method.getDeclaringClass().getName() + "."
+				+ method.getName();
+
+		Class<?>[] paramTypes = method.getParameterTypes();
+		String[] paramClassNames = new String[paramTypes.length];
+
+		for (int i = 0; i < paramTypes.length; i++)
+			paramClassNames[i] = toReadableClassName(paramTypes[i]);
+
+		return doMatch(methodPattern, fullMethodName, paramClassNames);
+	}
+
+	/**
+	 * Do match check by names.
+	 * <p>
+	 * It is also used by {@linkplain ImplementationMetadataProcessor} at
+	 * compile time, when no {@linkplain Method} is available.
+	 * </p>
+	 * 
+	 * @param methodPattern
+	 * @param fullMethodName
+	 *            The declaring class name and the method name, joined with
+	 *            {@code '.'}.
+	 * @param paramClassNames
+	 *            The readable class names of the method parameters.
+	 * @return
+	 */
+	protected boolean doMatch(MethodPattern methodPattern,
+			String fullMethodName, String[] paramClassNames)
 	{
 		String namePattern = methodPattern.getNamePattern();
 
 		if (namePattern == null || namePattern.isEmpty())
 			return false;
 
-		String fullMethodName = method.getDeclaringClass().getName() + "."
-				+ method.getName();
-
 		if (!fullMethodName.endsWith(namePattern))
 			return false;
 
@@ -68,17 +95,12 @@ public class DefaultMethodMatcher implements MethodMatcher
 		if (paramPatterns == null)
 			return true;
 
-		Class<?>[] paramTypes = method.getParameterTypes();
-		
-		if (paramTypes.length != paramPatterns.length)
+		if (paramClassNames.length != paramPatterns.length)
 			return false;
 
-		for (int i = 0; i < paramTypes.length; i++)
+		for (int i = 0; i < paramClassNames.length; i++)
 		{
-			String paramClassName = toReadableClassName(paramTypes[i]);
-			String paramPattern = paramPatterns[i];
-
-			if (!paramClassName.endsWith(paramPattern))
+			if (!paramClassNames[i].endsWith(paramPatterns[i]))
 				return false;
 		}
 
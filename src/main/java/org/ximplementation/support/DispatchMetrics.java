@@ -0,0 +1,467 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.ximplementation.support.AbstractImplementeeMethodInvocationFactory.ImplementMethodInfoKey;
+
+/**
+ * Dispatch metrics of {@linkplain AbstractImplementeeMethodInvocationFactory}.
+ * <p>
+ * It records invocation counts, routing latency, cache hits and
+ * <i>implement method</i> not found failures for each <i>implementee
+ * method</i>, and target, validity and priority latency for each
+ * <i>implement method</i>. All recording is lock-free.
+ * </p>
+ * <p>
+ * Set it to an {@linkplain AbstractImplementeeMethodInvocationFactory} to
+ * enable recording, nothing is recorded nor timed if it is not set or is
+ * {@linkplain #setEnabled(boolean) disabled}. It can be exported by
+ * {@linkplain #registerMBean(String)}.
+ * </p>
+ * <p>
+ * The <i>implement method</i> metrics reference their
+ * {@linkplain ImplementMethodInfo}s weakly and by identity, the ones whose
+ * {@code ImplementMethodInfo} is garbage collected, e.g. after re-resolving,
+ * are removed when new ones are created.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class DispatchMetrics implements DispatchMetricsMXBean
+{
+	/** the domain and type part of the registered MBean name */
+	public static final String OBJECT_NAME_PREFIX = "org.ximplementation:type=DispatchMetrics,name=";
+
+	private volatile boolean enabled = true;
+
+	private final ConcurrentMap<Method, ImplementeeMethodMetrics> implementeeMethodMetricses = new ConcurrentHashMap<Method, ImplementeeMethodMetrics>();
+
+	private final ConcurrentMap<ImplementMethodInfoKey, ImplementMethodMetrics> implementMethodMetricses = new ConcurrentHashMap<ImplementMethodInfoKey, ImplementMethodMetrics>();
+
+	/** the queue of cleared implementMethodMetricses keys */
+	private final ReferenceQueue<ImplementMethodInfo> clearedImplementMethodInfoQueue = new ReferenceQueue<ImplementMethodInfo>();
+
+	public DispatchMetrics()
+	{
+		super();
+	}
+
+	@Override
+	public boolean isEnabled()
+	{
+		return enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled)
+	{
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Record an <i>implementee method</i> invocation and its routing latency.
+	 * 
+	 * @param implementeeMethod
+	 * @param nanos
+	 */
+	public void recordRouting(Method implementeeMethod, long nanos)
+	{
+		ImplementeeMethodMetrics metrics = getImplementeeMethodMetrics(
+				implementeeMethod);
+
+		metrics.invocationCount.increment();
+		metrics.routingLatency.record(nanos);
+	}
+
+	/**
+	 * Record an <i>implementee method</i> invocation failed for no valid
+	 * <i>implement method</i>.
+	 * 
+	 * @param implementeeMethod
+	 */
+	public void recordNoValidImplementMethod(Method implementeeMethod)
+	{
+		getImplementeeMethodMetrics(implementeeMethod).noValidImplementMethodCount
+				.increment();
+	}
+
+	/**
+	 * Record a dispatch info inline cache hit.
+	 * 
+	 * @param implementeeMethod
+	 */
+	public void recordInlineCacheHit(Method implementeeMethod)
+	{
+		getImplementeeMethodMetrics(implementeeMethod).inlineCacheHitCount
+				.increment();
+	}
+
+	/**
+	 * Record a dispatch info shared cache hit.
+	 * 
+	 * @param implementeeMethod
+	 */
+	public void recordSharedCacheHit(Method implementeeMethod)
+	{
+		getImplementeeMethodMetrics(implementeeMethod).sharedCacheHitCount
+				.increment();
+	}
+
+	/**
+	 * Record a dispatch info cache miss.
+	 * 
+	 * @param implementeeMethod
+	 */
+	public void recordCacheMiss(Method implementeeMethod)
+	{
+		getImplementeeMethodMetrics(implementeeMethod).cacheMissCount
+				.increment();
+	}
+
+	/**
+	 * Record an <i>implement method</i> invocation and its latency.
+	 * 
+	 * @param implementMethodInfo
+	 * @param nanos
+	 */
+	public void recordTarget(ImplementMethodInfo implementMethodInfo,
+			long nanos)
+	{
+		ImplementMethodMetrics metrics = getImplementMethodMetrics(
+				implementMethodInfo);
+
+		metrics.invocationCount.increment();
+		metrics.targetLatency.record(nanos);
+	}
+
+	/**
+	 * Record a validity method evaluation latency.
+	 * 
+	 * @param implementMethodInfo
+	 * @param nanos
+	 */
+	public void recordValidity(ImplementMethodInfo implementMethodInfo,
+			long nanos)
+	{
+		getImplementMethodMetrics(implementMethodInfo).validityLatency
+				.record(nanos);
+	}
+
+	/**
+	 * Record a priority method evaluation latency.
+	 * 
+	 * @param implementMethodInfo
+	 * @param nanos
+	 */
+	public void recordPriority(ImplementMethodInfo implementMethodInfo,
+			long nanos)
+	{
+		getImplementMethodMetrics(implementMethodInfo).priorityLatency
+				.record(nanos);
+	}
+
+	@Override
+	public long getInvocationCount()
+	{
+		long count = 0;
+
+		for (ImplementeeMethodMetrics metrics : this.implementeeMethodMetricses
+				.values())
+			count += metrics.invocationCount.sum();
+
+		return count;
+	}
+
+	@Override
+	public long getNoValidImplementMethodCount()
+	{
+		long count = 0;
+
+		for (ImplementeeMethodMetrics metrics : this.implementeeMethodMetricses
+				.values())
+			count += metrics.noValidImplementMethodCount.sum();
+
+		return count;
+	}
+
+	@Override
+	public List<ImplementeeMethodStatistics> getImplementeeMethodStatistics()
+	{
+		List<ImplementeeMethodStatistics> statisticses = new ArrayList<ImplementeeMethodStatistics>();
+
+		for (ImplementeeMethodMetrics metrics : this.implementeeMethodMetricses
+				.values())
+			statisticses.add(metrics.getStatistics());
+
+		return statisticses;
+	}
+
+	/**
+	 * Get the statistics of the given <i>implementee method</i>.
+	 * 
+	 * @param implementeeMethod
+	 * @return The statistics, {@code null} if nothing recorded.
+	 */
+	public ImplementeeMethodStatistics getImplementeeMethodStatistics(
+			Method implementeeMethod)
+	{
+		ImplementeeMethodMetrics metrics = this.implementeeMethodMetricses
+				.get(implementeeMethod);
+
+		return (metrics == null ? null : metrics.getStatistics());
+	}
+
+	@Override
+	public List<ImplementMethodStatistics> getImplementMethodStatistics()
+	{
+		List<ImplementMethodStatistics> statisticses = new ArrayList<ImplementMethodStatistics>();
+
+		for (ImplementMethodMetrics metrics : this.implementMethodMetricses
+				.values())
+			statisticses.add(metrics.getStatistics());
+
+		return statisticses;
+	}
+
+	/**
+	 * Get the statistics of the given <i>implement method</i>.
+	 * 
+	 * @param implementMethodInfo
+	 * @return The statistics, {@code null} if nothing recorded.
+	 */
+	public ImplementMethodStatistics getImplementMethodStatistics(
+			ImplementMethodInfo implementMethodInfo)
+	{
+		ImplementMethodMetrics metrics = this.implementMethodMetricses
+				.get(new ImplementMethodInfoKey(implementMethodInfo, null));
+
+		return (metrics == null ? null : metrics.getStatistics());
+	}
+
+	@Override
+	public void reset()
+	{
+		this.implementeeMethodMetricses.clear();
+		this.implementMethodMetricses.clear();
+	}
+
+	/**
+	 * Register this as an MBean to the platform {@linkplain MBeanServer}.
+	 * 
+	 * @param name
+	 *            The {@code name} key value of the MBean name.
+	 * @return The registered MBean name.
+	 * @throws JMException
+	 */
+	public ObjectName registerMBean(String name) throws JMException
+	{
+		ObjectName objectName = new ObjectName(
+				OBJECT_NAME_PREFIX + ObjectName.quote(name));
+
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+				objectName);
+
+		return objectName;
+	}
+
+	/**
+	 * Unregister the MBean registered by {@linkplain #registerMBean(String)}.
+	 * 
+	 * @param objectName
+	 * @throws JMException
+	 */
+	public void unregisterMBean(ObjectName objectName) throws JMException
+	{
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+	}
+
+	/**
+	 * Get the metrics of the given <i>implementee method</i>, create it if
+	 * absent.
+	 * 
+	 * @param implementeeMethod
+	 * @return
+	 */
+	protected ImplementeeMethodMetrics getImplementeeMethodMetrics(
+			Method implementeeMethod)
+	{
+		ImplementeeMethodMetrics metrics = this.implementeeMethodMetricses
+				.get(implementeeMethod);
+
+		if (metrics == null)
+		{
+			metrics = new ImplementeeMethodMetrics(implementeeMethod);
+
+			ImplementeeMethodMetrics previous = this.implementeeMethodMetricses
+					.putIfAbsent(implementeeMethod, metrics);
+
+			if (previous != null)
+				metrics = previous;
+		}
+
+		return metrics;
+	}
+
+	/**
+	 * Get the metrics of the given <i>implement method</i>, create it if
+	 * absent.
+	 * <p>
+	 * The metrics whose {@linkplain ImplementMethodInfo} is garbage collected
+	 * are removed before creating.
+	 * </p>
+	 * 
+	 * @param implementMethodInfo
+	 * @return
+	 */
+	protected ImplementMethodMetrics getImplementMethodMetrics(
+			ImplementMethodInfo implementMethodInfo)
+	{
+		ImplementMethodMetrics metrics = this.implementMethodMetricses
+				.get(new ImplementMethodInfoKey(implementMethodInfo, null));
+
+		if (metrics == null)
+		{
+			Reference<? extends ImplementMethodInfo> reference;
+
+			while ((reference = this.clearedImplementMethodInfoQueue
+					.poll()) != null)
+				this.implementMethodMetricses.remove(reference);
+
+			metrics = new ImplementMethodMetrics(implementMethodInfo);
+
+			ImplementMethodMetrics previous = this.implementMethodMetricses
+					.putIfAbsent(new ImplementMethodInfoKey(
+							implementMethodInfo,
+							this.clearedImplementMethodInfoQueue), metrics);
+
+			if (previous != null)
+				metrics = previous;
+		}
+
+		return metrics;
+	}
+
+	/**
+	 * Mutable metrics of an <i>implementee method</i>.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class ImplementeeMethodMetrics
+	{
+		private final Method implementeeMethod;
+
+		private final LongAdder invocationCount = new LongAdder();
+
+		private final LongAdder noValidImplementMethodCount = new LongAdder();
+
+		private final LongAdder inlineCacheHitCount = new LongAdder();
+
+		private final LongAdder sharedCacheHitCount = new LongAdder();
+
+		private final LongAdder cacheMissCount = new LongAdder();
+
+		private final LatencyHistogram routingLatency = new LatencyHistogram();
+
+		public ImplementeeMethodMetrics(Method implementeeMethod)
+		{
+			super();
+			this.implementeeMethod = implementeeMethod;
+		}
+
+		public Method getImplementeeMethod()
+		{
+			return implementeeMethod;
+		}
+
+		public ImplementeeMethodStatistics getStatistics()
+		{
+			return new ImplementeeMethodStatistics(
+					this.implementeeMethod.toString(),
+					this.invocationCount.sum(),
+					this.noValidImplementMethodCount.sum(),
+					this.inlineCacheHitCount.sum(),
+					this.sharedCacheHitCount.sum(), this.cacheMissCount.sum(),
+					this.routingLatency.getStatistics());
+		}
+	}
+
+	/**
+	 * Mutable metrics of an <i>implement method</i>.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class ImplementMethodMetrics
+	{
+		private final String implementor;
+
+		private final String implementMethod;
+
+		private final LongAdder invocationCount = new LongAdder();
+
+		private final LatencyHistogram targetLatency = new LatencyHistogram();
+
+		private final LatencyHistogram validityLatency = new LatencyHistogram();
+
+		private final LatencyHistogram priorityLatency = new LatencyHistogram();
+
+		public ImplementMethodMetrics(ImplementMethodInfo implementMethodInfo)
+		{
+			super();
+			this.implementor = implementMethodInfo.getImplementor().getName();
+			this.implementMethod = implementMethodInfo.getImplementMethod()
+					.toString();
+		}
+
+		public String getImplementor()
+		{
+			return implementor;
+		}
+
+		public String getImplementMethod()
+		{
+			return implementMethod;
+		}
+
+		public ImplementMethodStatistics getStatistics()
+		{
+			return new ImplementMethodStatistics(this.implementor,
+					this.implementMethod,
+					this.invocationCount.sum(),
+					this.targetLatency.getStatistics(),
+					this.validityLatency.getStatistics(),
+					this.priorityLatency.getStatistics());
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.List;
+
+/**
+ * Management interface of {@linkplain DispatchMetrics}.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public interface DispatchMetricsMXBean
+{
+	/**
+	 * Return if recording is enabled.
+	 * 
+	 * @return
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Enable or disable recording.
+	 * 
+	 * @param enabled
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Get the total count of <i>implementee method</i> invocations.
+	 * 
+	 * @return
+	 */
+	long getInvocationCount();
+
+	/**
+	 * Get the total count of invocations failed for no valid <i>implement
+	 * method</i>.
+	 * 
+	 * @return
+	 */
+	long getNoValidImplementMethodCount();
+
+	/**
+	 * Get the statistics of all recorded <i>implementee method</i>s.
+	 * 
+	 * @return
+	 */
+	List<ImplementeeMethodStatistics> getImplementeeMethodStatistics();
+
+	/**
+	 * Get the statistics of all recorded <i>implement method</i>s.
+	 * 
+	 * @return
+	 */
+	List<ImplementMethodStatistics> getImplementMethodStatistics();
+
+	/**
+	 * Discard all recorded data.
+	 */
+	void reset();
+}
@@ -0,0 +1,704 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementee bean builder based on runtime generated classes.
+ * <p>
+ * It generates one concrete class for each <i>implementee</i>, which extends
+ * {@linkplain GeneratedImplementee} and implements the <i>implementee</i>
+ * interface. Each <i>implementee method</i> of the generated class has its own
+ * dispatch slot which is bound to its {@linkplain ImplementInfo} when
+ * building, so the invocation goes to the
+ * {@linkplain ImplementeeMethodInvocationFactory} directly, without the JDK
+ * {@linkplain java.lang.reflect.Proxy} invocation handler overhead.
+ * </p>
+ * <p>
+ * If the <i>implementee</i> or any of its method return types is not
+ * {@code public}, a JDK {@linkplain java.lang.reflect.Proxy} <i>implementee</i>
+ * bean will be built as {@linkplain ProxyImplementeeBeanBuilder} does instead.
+ * </p>
+ * <p>
+ * Note that the <i>implementee</i> bean also implements the
+ * {@linkplain ProxyImplementee} interface for token.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-2
+ * 
+ */
+public class GeneratedImplementeeBeanBuilder extends ProxyImplementeeBeanBuilder
+{
+	private static final AtomicInteger GENERATED_CLASS_COUNTER = new AtomicInteger();
+
+	/**
+	 * generated class info of each implementee, stored in the implementee
+	 * class, so it does not keep the implementee class loader alive
+	 */
+	private final ClassValue<GeneratedClassInfo> generatedClassInfos = new ClassValue<GeneratedClassInfo>()
+	{
+		@Override
+		protected GeneratedClassInfo computeValue(Class<?> implementee)
+		{
+			return generateClassInfo(implementee);
+		}
+	};
+
+	public GeneratedImplementeeBeanBuilder()
+	{
+		super();
+	}
+
+	@Override
+	protected <T> T doBuild(Implementation<T> implementation,
+			ImplementorBeanFactory implementorBeanFactory)
+	{
+		Class<?> implementee = implementation.getImplementee();
+		if (!implementee.isInterface())
+			throw new IllegalArgumentException("[implementee] must be an interface");
+
+		GeneratedClassInfo generatedClassInfo = getGeneratedClassInfo(
+				implementee);
+
+		if (generatedClassInfo == null)
+			return super.doBuild(implementation, implementorBeanFactory);
+
+		GeneratedImplementee generatedImplementee = null;
+
+		try
+		{
+			generatedImplementee = (GeneratedImplementee) generatedClassInfo
+					.getGeneratedClass().getDeclaredConstructor().newInstance();
+		}
+		catch (InvocationTargetException e)
+		{
+			throw new IllegalStateException(
+					"Create instance of generated class for [" + implementee
+							+ "] failed",
+					e.getCause());
+		}
+		catch (Exception e)
+		{
+			throw new IllegalStateException(
+					"Create instance of generated class for [" + implementee
+							+ "] failed",
+					e);
+		}
+
+		GeneratedImplementeeInvocationSupport invocationSupport = new GeneratedImplementeeInvocationSupport(
+				implementation, implementorBeanFactory,
+				getImplementeeMethodInvocationFactory(),
+				generatedClassInfo.getImplementeeMethods());
+		invocationSupport.setExecutor(getExecutor());
+
+		generatedImplementee.setInvocationSupport(invocationSupport);
+
+		@SuppressWarnings("unchecked")
+		T bean = (T) generatedImplementee;
+
+		return bean;
+	}
+
+	/**
+	 * Get the {@linkplain GeneratedClassInfo} for given <i>implementee</i>,
+	 * generate it if not generated yet.
+	 * <p>
+	 * It is cached in a {@linkplain ClassValue}, which may generate more than
+	 * once for concurrent first calls, but only one is kept.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @return The {@code GeneratedClassInfo}, {@code null} if the
+	 *         <i>implementee</i> can not be generated.
+	 */
+	protected GeneratedClassInfo getGeneratedClassInfo(Class<?> implementee)
+	{
+		return this.generatedClassInfos.get(implementee);
+	}
+
+	/**
+	 * Generate {@linkplain GeneratedClassInfo} for given <i>implementee</i>.
+	 * 
+	 * @param implementee
+	 * @return The {@code GeneratedClassInfo}, {@code null} if the
+	 *         <i>implementee</i> can not be generated.
+	 */
+	protected GeneratedClassInfo generateClassInfo(Class<?> implementee)
+	{
+		if (!isGeneratable(implementee))
+			return null;
+
+		Method[] implementeeMethods = getGeneratedImplementeeMethods(
+				implementee);
+
+		for (Method implementeeMethod : implementeeMethods)
+		{
+			if (!isGeneratable(implementeeMethod))
+				return null;
+		}
+
+		String className = GeneratedImplementee.class.getName() + "$"
+				+ implementee.getSimpleName() + "$"
+				+ GENERATED_CLASS_COUNTER.incrementAndGet();
+
+		byte[] classBytes = new ImplementeeClassGenerator(className,
+				GeneratedImplementee.class, implementee, implementeeMethods)
+						.generate();
+
+		GeneratedClassLoader classLoader = new GeneratedClassLoader(
+				implementee.getClassLoader());
+
+		Class<?> generatedClass = classLoader.defineClass(className,
+				classBytes);
+
+		return new GeneratedClassInfo(generatedClass, implementeeMethods);
+	}
+
+	/**
+	 * Get all <i>implementee method</i>s to be generated in the generated
+	 * class.
+	 * <p>
+	 * {@code equals(Object)}, {@code hashCode()} and {@code toString()} are
+	 * excluded, methods with the same signature (inherited from multiple
+	 * super interfaces) are generated only once.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @return
+	 */
+	protected Method[] getGeneratedImplementeeMethods(Class<?> implementee)
+	{
+		List<Method> implementeeMethods = new ArrayList<Method>();
+		Set<String> signatures = new HashSet<String>();
+
+		for (Method method : implementee.getMethods())
+		{
+			if (Modifier.isStatic(method.getModifiers()))
+				continue;
+
+			if (isObjectMethod(method))
+				continue;
+
+			String signature = method.getName()
+					+ ImplementeeClassGenerator.toDescriptor(method);
+
+			if (signatures.add(signature))
+				implementeeMethods.add(method);
+		}
+
+		return implementeeMethods
+				.toArray(new Method[implementeeMethods.size()]);
+	}
+
+	/**
+	 * Return if the given method is one of the {@code public} methods of
+	 * {@linkplain Object}.
+	 * 
+	 * @param method
+	 * @return
+	 */
+	protected boolean isObjectMethod(Method method)
+	{
+		try
+		{
+			Object.class.getMethod(method.getName(),
+					method.getParameterTypes());
+
+			return true;
+		}
+		catch (NoSuchMethodException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Return if the given method is declared in
+	 * {@linkplain GeneratedImplementee} or its super class with the same
+	 * signature.
+	 * 
+	 * @param method
+	 * @return
+	 */
+	protected boolean isGeneratedImplementeeMethod(Method method)
+	{
+		Class<?> clazz = GeneratedImplementee.class;
+
+		while (clazz != null)
+		{
+			try
+			{
+				Method myMethod = clazz.getDeclaredMethod(method.getName(),
+						method.getParameterTypes());
+
+				if (!Modifier.isPrivate(myMethod.getModifiers()))
+					return true;
+			}
+			catch (NoSuchMethodException e)
+			{
+			}
+
+			clazz = clazz.getSuperclass();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Return if a class can be generated for the given <i>implementee</i>.
+	 * <p>
+	 * The generated class is defined in another class loader, so only
+	 * {@code public} <i>implementee</i> can be accessed.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @return
+	 */
+	protected boolean isGeneratable(Class<?> implementee)
+	{
+		return isPublic(implementee);
+	}
+
+	/**
+	 * Return if the given <i>implementee method</i> can be generated.
+	 * <p>
+	 * Its return type must be {@code public} for casting, and it must not
+	 * clash with the methods of {@linkplain GeneratedImplementee}.
+	 * </p>
+	 * 
+	 * @param implementeeMethod
+	 * @return
+	 */
+	protected boolean isGeneratable(Method implementeeMethod)
+	{
+		return isPublic(implementeeMethod.getReturnType())
+				&& !isGeneratedImplementeeMethod(implementeeMethod);
+	}
+
+	/**
+	 * Return if the given type and all of its enclosing classes are
+	 * {@code public}.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	protected boolean isPublic(Class<?> type)
+	{
+		while (type.isArray())
+			type = type.getComponentType();
+
+		for (Class<?> myType = type; myType != null; myType = myType
+				.getEnclosingClass())
+		{
+			if (!Modifier.isPublic(myType.getModifiers()))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Generated class info.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-2
+	 * 
+	 */
+	protected static class GeneratedClassInfo
+	{
+		/** the generated class */
+		private final Class<?> generatedClass;
+
+		/** the implementee methods, indexed by dispatch slot */
+		private final Method[] implementeeMethods;
+
+		public GeneratedClassInfo(Class<?> generatedClass,
+				Method[] implementeeMethods)
+		{
+			super();
+			this.generatedClass = generatedClass;
+			this.implementeeMethods = implementeeMethods;
+		}
+
+		/**
+		 * Get the generated class.
+		 * 
+		 * @return
+		 */
+		public Class<?> getGeneratedClass()
+		{
+			return generatedClass;
+		}
+
+		/**
+		 * Get the <i>implementee method</i>s, indexed by dispatch slot.
+		 * 
+		 * @return
+		 */
+		public Method[] getImplementeeMethods()
+		{
+			return implementeeMethods;
+		}
+	}
+
+	/**
+	 * Class loader for generated classes.
+	 * <p>
+	 * Its parent is the <i>implementee</i>'s class loader, and it can load
+	 * classes of this framework also.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-2
+	 * 
+	 */
+	protected static class GeneratedClassLoader extends ClassLoader
+	{
+		public GeneratedClassLoader(ClassLoader parent)
+		{
+			super(parent);
+		}
+
+		/**
+		 * Define a class.
+		 * 
+		 * @param name
+		 * @param classBytes
+		 * @return
+		 */
+		public Class<?> defineClass(String name, byte[] classBytes)
+		{
+			return defineClass(name, classBytes, 0, classBytes.length);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException
+		{
+			return Class.forName(name, false,
+					GeneratedImplementee.class.getClassLoader());
+		}
+	}
+
+	/**
+	 * Super class of all generated <i>implementee</i> classes.
+	 * <p>
+	 * Note that for {@code equals(Object)}, {@code hashCode()} and
+	 * {@code toString()} methods, it will call its
+	 * {@linkplain GeneratedImplementeeInvocationSupport}'s methods.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-2
+	 * 
+	 */
+	public static abstract class GeneratedImplementee implements ProxyImplementee
+	{
+		private GeneratedImplementeeInvocationSupport invocationSupport;
+
+		protected GeneratedImplementee()
+		{
+			super();
+		}
+
+		/**
+		 * Get the {@linkplain GeneratedImplementeeInvocationSupport}.
+		 * 
+		 * @return
+		 */
+		protected final GeneratedImplementeeInvocationSupport getInvocationSupport()
+		{
+			return invocationSupport;
+		}
+
+		/**
+		 * Set the {@linkplain GeneratedImplementeeInvocationSupport}.
+		 * 
+		 * @param invocationSupport
+		 */
+		final void setInvocationSupport(
+				GeneratedImplementeeInvocationSupport invocationSupport)
+		{
+			this.invocationSupport = invocationSupport;
+		}
+
+		/**
+		 * Dispatch an <i>implementee method</i> invocation, it is called by
+		 * each generated <i>implementee method</i>.
+		 * 
+		 * @param slot
+		 *            The dispatch slot of the <i>implementee method</i>.
+		 * @param parameters
+		 *            The parameters of the <i>implementee method</i>.
+		 * @return
+		 * @throws Throwable
+		 */
+		protected final Object dispatch(int slot, Object[] parameters)
+				throws Throwable
+		{
+			return this.invocationSupport.invoke(slot, parameters);
+		}
+
+		@Override
+		public final int hashCode()
+		{
+			return GeneratedImplementee.class.hashCode() * 13
+					+ this.invocationSupport.hashCode();
+		}
+
+		@Override
+		public final boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof GeneratedImplementee))
+				return false;
+
+			GeneratedImplementee other = (GeneratedImplementee) obj;
+
+			return this.invocationSupport.equals(other.invocationSupport);
+		}
+
+		@Override
+		public final String toString()
+		{
+			return this.invocationSupport.toString();
+		}
+	}
+
+	/**
+	 * Invocation support for generated <i>implementee</i>.
+	 * <p>
+	 * It binds each dispatch slot to its {@linkplain ImplementInfo} when
+	 * created.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-2
+	 * 
+	 */
+	public static class GeneratedImplementeeInvocationSupport
+			extends ProxyImplementeeInvocationSupport
+	{
+		/** the implementee methods, indexed by dispatch slot */
+		private Method[] implementeeMethods;
+
+		/** the ImplementInfos, indexed by dispatch slot */
+		private ImplementInfo[] implementInfos;
+
+		public GeneratedImplementeeInvocationSupport()
+		{
+			super();
+		}
+
+		public GeneratedImplementeeInvocationSupport(
+				Implementation<?> implementation,
+				ImplementorBeanFactory implementorBeanFactory,
+				ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory,
+				Method[] implementeeMethods)
+		{
+			super(implementation, implementorBeanFactory,
+					implementeeMethodInvocationFactory);
+			this.implementeeMethods = implementeeMethods;
+
+			// bind on first invocation for not resolving all up front
+			if (implementation instanceof LazyImplementation<?>)
+				this.implementInfos = new ImplementInfo[implementeeMethods.length];
+			else
+				this.implementInfos = bindImplementInfos(implementation,
+						implementeeMethods);
+		}
+
+		/**
+		 * Get the <i>implementee method</i>s, indexed by dispatch slot.
+		 * 
+		 * @return
+		 */
+		public Method[] getImplementeeMethods()
+		{
+			return implementeeMethods;
+		}
+
+		/**
+		 * Get the {@linkplain ImplementInfo}s, indexed by dispatch slot.
+		 * <p>
+		 * For {@linkplain LazyImplementation}, the element is {@code null}
+		 * until the first invocation of the slot.
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public ImplementInfo[] getImplementInfos()
+		{
+			return implementInfos;
+		}
+
+		/**
+		 * Invoke the <i>implementee method</i> of the given dispatch slot.
+		 * <p>
+		 * As JDK {@linkplain java.lang.reflect.Proxy} does, checked exceptions
+		 * not declared by the <i>implementee method</i> are wrapped in
+		 * {@linkplain UndeclaredThrowableException}.
+		 * </p>
+		 * 
+		 * @param slot
+		 *            The dispatch slot.
+		 * @param parameters
+		 *            The parameters of the <i>implementee method</i>.
+		 * @return The <i>implementee method</i> invocation result.
+		 * @throws Throwable
+		 */
+		public Object invoke(int slot, Object[] parameters) throws Throwable
+		{
+			ImplementInfo implementInfo = this.implementInfos[slot];
+
+			if (implementInfo == null)
+			{
+				implementInfo = bindImplementInfo(getImplementation(),
+						this.implementeeMethods[slot]);
+				this.implementInfos[slot] = implementInfo;
+			}
+
+			try
+			{
+				return invoke(implementInfo, parameters);
+			}
+			catch (RuntimeException e)
+			{
+				throw e;
+			}
+			catch (Error e)
+			{
+				throw e;
+			}
+			catch (Throwable t)
+			{
+				for (Class<?> exceptionType : this.implementeeMethods[slot]
+						.getExceptionTypes())
+				{
+					if (exceptionType.isInstance(t))
+						throw t;
+				}
+
+				throw new UndeclaredThrowableException(t);
+			}
+		}
+
+		/**
+		 * Bind {@linkplain ImplementInfo} for each dispatch slot.
+		 * <p>
+		 * If no {@code ImplementInfo} is found for an <i>implementee
+		 * method</i>, an empty one is bound to its slot.
+		 * </p>
+		 * 
+		 * @param implementation
+		 * @param implementeeMethods
+		 * @return
+		 */
+		protected ImplementInfo[] bindImplementInfos(
+				Implementation<?> implementation, Method[] implementeeMethods)
+		{
+			ImplementInfo[] implementInfos = new ImplementInfo[implementeeMethods.length];
+
+			for (int i = 0; i < implementeeMethods.length; i++)
+				implementInfos[i] = bindImplementInfo(implementation,
+						implementeeMethods[i]);
+
+			return implementInfos;
+		}
+
+		/**
+		 * Bind {@linkplain ImplementInfo} for an <i>implementee method</i>.
+		 * 
+		 * @param implementation
+		 * @param implementeeMethod
+		 * @return
+		 */
+		protected ImplementInfo bindImplementInfo(
+				Implementation<?> implementation, Method implementeeMethod)
+		{
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(implementeeMethod);
+
+			// overridden in sub interface with the same signature
+			if (implementInfo == null)
+				implementInfo = findImplementInfoBySignature(implementation,
+						implementeeMethod);
+
+			if (implementInfo == null)
+				implementInfo = new ImplementInfo(implementeeMethod);
+
+			return implementInfo;
+		}
+
+		/**
+		 * Find {@linkplain ImplementInfo} whose <i>implementee method</i> has
+		 * the same name and parameter types with the given one.
+		 * 
+		 * @param implementation
+		 * @param implementeeMethod
+		 * @return The {@code ImplementInfo}, {@code null} if none.
+		 */
+		protected ImplementInfo findImplementInfoBySignature(
+				Implementation<?> implementation, Method implementeeMethod)
+		{
+			// not resolve all
+			if (implementation instanceof LazyImplementation<?>)
+			{
+				Method[] myMethods = ((LazyImplementation<?>) implementation)
+						.getImplementeeMethods();
+
+				for (int i = 0; i < myMethods.length; i++)
+				{
+					if (myMethods[i].getName()
+							.equals(implementeeMethod.getName())
+							&& Arrays.equals(myMethods[i].getParameterTypes(),
+									implementeeMethod.getParameterTypes()))
+						return implementation.getImplementInfo(i);
+				}
+
+				return null;
+			}
+
+			ImplementInfo[] implementInfos = implementation
+					.getImplementInfos();
+
+			if (implementInfos == null)
+				return null;
+
+			for (ImplementInfo implementInfo : implementInfos)
+			{
+				Method myMethod = implementInfo.getImplementeeMethod();
+
+				if (myMethod.getName().equals(implementeeMethod.getName())
+						&& Arrays.equals(myMethod.getParameterTypes(),
+								implementeeMethod.getParameterTypes()))
+					return implementInfo;
+			}
+
+			return null;
+		}
+	}
+}
@@ -24,6 +24,11 @@ import java.util.Arrays;
  * It contains an array of {@linkplain ImplementMethodInfo}s, which each element
  * describes the <i>implement method</i> info of the <i>implementee method</i>.
  * </p>
+ * <p>
+ * Its epoch is advanced whenever its {@code ImplementMethodInfo}s change,
+ * {@linkplain ImplementeeMethodInvocationFactory}s compare it with the epoch
+ * their caches were built at for discarding stale ones.
+ * </p>
  * 
  * @author earthangry@gmail.com
  * @date 2015-12-5
@@ -33,11 +38,19 @@ public class ImplementInfo implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
+	private static final Class<?>[] NO_PRIMITIVE_PARAM_TYPES = new Class<?>[0];
+
 	/** implementee method */
 	private Method implementeeMethod;
 
 	private ImplementMethodInfo[] implementMethodInfos;
 
+	/** the epoch, advanced when the implement method infos change */
+	private transient volatile int epoch;
+
+	/** primitive parameter types of the implementee method */
+	private transient volatile Class<?>[] primitiveParamTypes;
+
 	public ImplementInfo()
 	{
 		super();
@@ -89,6 +102,49 @@ public class ImplementInfo implements Serializable
 	public void setImplementeeMethod(Method implementeeMethod)
 	{
 		this.implementeeMethod = implementeeMethod;
+		this.primitiveParamTypes = null;
+	}
+
+	/**
+	 * Get the primitive parameter types of the <i>implementee method</i>.
+	 * <p>
+	 * The element is the primitive parameter type at the same position of the
+	 * <i>implementee method</i>, {@code null} if that parameter is not
+	 * primitive. The array is {@code 0} length if the <i>implementee
+	 * method</i> has no primitive parameter, or is {@code null}.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Class<?>[] getPrimitiveParamTypes()
+	{
+		Class<?>[] primitiveParamTypes = this.primitiveParamTypes;
+
+		if (primitiveParamTypes == null)
+		{
+			primitiveParamTypes = NO_PRIMITIVE_PARAM_TYPES;
+
+			if (this.implementeeMethod != null)
+			{
+				Class<?>[] paramTypes = this.implementeeMethod
+						.getParameterTypes();
+
+				for (int i = 0; i < paramTypes.length; i++)
+				{
+					if (paramTypes[i].isPrimitive())
+					{
+						if (primitiveParamTypes.length == 0)
+							primitiveParamTypes = new Class<?>[paramTypes.length];
+
+						primitiveParamTypes[i] = paramTypes[i];
+					}
+				}
+			}
+
+			this.primitiveParamTypes = primitiveParamTypes;
+		}
+
+		return primitiveParamTypes;
 	}
 
 	/**
@@ -109,6 +165,30 @@ public class ImplementInfo implements Serializable
 	public void setImplementMethodInfos(ImplementMethodInfo[] implementMethodInfos)
 	{
 		this.implementMethodInfos = implementMethodInfos;
+		advanceEpoch();
+	}
+
+	/**
+	 * Get the epoch.
+	 * 
+	 * @return
+	 */
+	public int getEpoch()
+	{
+		return epoch;
+	}
+
+	/**
+	 * Advance the epoch, so caches built for the current epoch are discarded.
+	 * <p>
+	 * It is called by {@linkplain #setImplementMethodInfos(ImplementMethodInfo[])}
+	 * , and should be called after the {@code ImplementMethodInfo}s are
+	 * modified in place.
+	 * </p>
+	 */
+	public synchronized void advanceEpoch()
+	{
+		this.epoch = this.epoch + 1;
 	}
 
 	/**
@@ -15,9 +15,14 @@
 package org.ximplementation.support;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.ximplementation.CacheScope;
 import org.ximplementation.Priority;
 
 /**
@@ -52,12 +57,24 @@ public class ImplementMethodInfo implements Serializable
 	/** implement method parameter indexes */
 	private int[] paramIndexes;
 
+	/** implement method handle */
+	private transient MethodHandle methodHandle;
+
 	/** validity method */
 	private Method validityMethod;
 
 	/** validity method parameter indexes */
 	private int[] validityParamIndexes;
 
+	/** validity method result cache scope */
+	private CacheScope validityCacheScope = CacheScope.NONE;
+
+	/** validity method result cache size */
+	private int validityCacheSize = CacheScope.DEFAULT_CACHE_SIZE;
+
+	/** validity method result cache */
+	private transient volatile Cache<Object, Object> validityResultCache;
+
 	/** priority value */
 	private int priorityValue = Priority.DEFAULT;
 
@@ -67,6 +84,24 @@ public class ImplementMethodInfo implements Serializable
 	/** priority method parameter indexes */
 	private int[] priorityParamIndexes;
 
+	/** priority method result cache scope */
+	private CacheScope priorityCacheScope = CacheScope.NONE;
+
+	/** priority method result cache size */
+	private int priorityCacheSize = CacheScope.DEFAULT_CACHE_SIZE;
+
+	/** priority method result cache */
+	private transient volatile Cache<Object, Object> priorityResultCache;
+
+	/** priority method result min value */
+	private int priorityMin = Integer.MIN_VALUE;
+
+	/** priority method result max value */
+	private int priorityMax = Integer.MAX_VALUE;
+
+	/** batch method */
+	private Method batchMethod;
+
 	/**
 	 * Create an {@code ImplementMethodInfo} instance.
 	 */
@@ -189,6 +224,33 @@ public class ImplementMethodInfo implements Serializable
 		this.paramIndexes = paramIndexes;
 	}
 
+	/**
+	 * Get the {@linkplain MethodHandle} of the <i>implement method</i>.
+	 * <p>
+	 * Its type is {@code (Object, Object[])Object}, the first parameter is the
+	 * <i>implementor</i> bean ({@code null} for {@code static} <i>implement
+	 * method</i>), the second parameter is the <i>implementee method</i>
+	 * invocation parameters, which are remapped by
+	 * {@linkplain #getParamIndexes()} in the handle itself.
+	 * </p>
+	 * 
+	 * @return The {@code MethodHandle}, {@code null} if none.
+	 */
+	public MethodHandle getMethodHandle()
+	{
+		return methodHandle;
+	}
+
+	/**
+	 * Set the {@linkplain MethodHandle} of the <i>implement method</i>.
+	 * 
+	 * @param methodHandle
+	 */
+	public void setMethodHandle(MethodHandle methodHandle)
+	{
+		this.methodHandle = methodHandle;
+	}
+
 	/**
 	 * Get the parameter array of this <i>implement method</i> for given
 	 * <i>implementee method</i> invocation parameters.
@@ -204,6 +266,53 @@ public class ImplementMethodInfo implements Serializable
 		return copyArrayByIndex(invocationParams, this.paramIndexes);
 	}
 
+	/**
+	 * Invoke this <i>implement method</i> for given <i>implementee method</i>
+	 * invocation parameters.
+	 * <p>
+	 * It invokes the {@linkplain #getMethodHandle()} if presents, otherwise,
+	 * invokes the <i>implement method</i> reflectively. Exceptions thrown by
+	 * the <i>implement method</i> are thrown directly in both ways.
+	 * </p>
+	 * 
+	 * @param implementorBean
+	 *            The <i>implementor</i> bean, {@code null} for {@code static}
+	 *            <i>implement method</i>.
+	 * @param invocationParams
+	 *            The <i>implementee method</i> invocation parameters.
+	 * @return The <i>implement method</i> invocation result.
+	 * @throws Throwable
+	 */
+	public Object invoke(Object implementorBean, Object[] invocationParams)
+			throws Throwable
+	{
+		MethodHandle methodHandle = this.methodHandle;
+
+		if (methodHandle != null)
+		{
+			Object[] myInvocationParams = (invocationParams == null
+					? EMPTY_PARAMS : invocationParams);
+
+			return (Object) methodHandle.invokeExact(implementorBean,
+					myInvocationParams);
+		}
+
+		Object[] myInvocationParams = getParams(invocationParams);
+
+		if (!this.implementMethod.isAccessible())
+			this.implementMethod.setAccessible(true);
+
+		try
+		{
+			return this.implementMethod.invoke(implementorBean,
+					myInvocationParams);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw e.getTargetException();
+		}
+	}
+
 	/**
 	 * Return if the <i>implement method</i> has a validity method.
 	 * 
@@ -256,6 +365,72 @@ public class ImplementMethodInfo implements Serializable
 		this.validityParamIndexes = validityParamIndexes;
 	}
 
+	/**
+	 * Get the cache scope of the validity method result.
+	 * 
+	 * @return
+	 */
+	public CacheScope getValidityCacheScope()
+	{
+		return validityCacheScope;
+	}
+
+	/**
+	 * Set the cache scope of the validity method result.
+	 * 
+	 * @param validityCacheScope
+	 */
+	public void setValidityCacheScope(CacheScope validityCacheScope)
+	{
+		this.validityCacheScope = validityCacheScope;
+		this.validityResultCache = null;
+	}
+
+	/**
+	 * Get the max count of cached validity method results.
+	 * 
+	 * @return
+	 */
+	public int getValidityCacheSize()
+	{
+		return validityCacheSize;
+	}
+
+	/**
+	 * Set the max count of cached validity method results.
+	 * 
+	 * @param validityCacheSize
+	 */
+	public void setValidityCacheSize(int validityCacheSize)
+	{
+		this.validityCacheSize = validityCacheSize;
+		this.validityResultCache = null;
+	}
+
+	/**
+	 * Get the validity method result cache, create it if not yet.
+	 * 
+	 * @return The cache, {@code null} if
+	 *         {@linkplain #getValidityCacheScope()} is
+	 *         {@linkplain CacheScope#NONE}.
+	 */
+	public Cache<Object, Object> getValidityResultCache()
+	{
+		if (this.validityCacheScope == null
+				|| CacheScope.NONE.equals(this.validityCacheScope))
+			return null;
+
+		Cache<Object, Object> cache = this.validityResultCache;
+
+		if (cache == null)
+		{
+			cache = new BoundedCache<Object, Object>(this.validityCacheSize);
+			this.validityResultCache = cache;
+		}
+
+		return cache;
+	}
+
 	/**
 	 * Get the parameter array of the validity method for given <i>implementee
 	 * method</i> invocation parameters.
@@ -344,6 +519,223 @@ public class ImplementMethodInfo implements Serializable
 		this.priorityParamIndexes = priorityParamIndexes;
 	}
 
+	/**
+	 * Get the cache scope of the priority method result.
+	 * 
+	 * @return
+	 */
+	public CacheScope getPriorityCacheScope()
+	{
+		return priorityCacheScope;
+	}
+
+	/**
+	 * Set the cache scope of the priority method result.
+	 * 
+	 * @param priorityCacheScope
+	 */
+	public void setPriorityCacheScope(CacheScope priorityCacheScope)
+	{
+		this.priorityCacheScope = priorityCacheScope;
+		this.priorityResultCache = null;
+	}
+
+	/**
+	 * Get the max count of cached priority method results.
+	 * 
+	 * @return
+	 */
+	public int getPriorityCacheSize()
+	{
+		return priorityCacheSize;
+	}
+
+	/**
+	 * Set the max count of cached priority method results.
+	 * 
+	 * @param priorityCacheSize
+	 */
+	public void setPriorityCacheSize(int priorityCacheSize)
+	{
+		this.priorityCacheSize = priorityCacheSize;
+		this.priorityResultCache = null;
+	}
+
+	/**
+	 * Get the min value of the priority method result.
+	 * 
+	 * @return
+	 */
+	public int getPriorityMin()
+	{
+		return priorityMin;
+	}
+
+	/**
+	 * Set the min value of the priority method result.
+	 * 
+	 * @param priorityMin
+	 */
+	public void setPriorityMin(int priorityMin)
+	{
+		this.priorityMin = priorityMin;
+	}
+
+	/**
+	 * Get the max value of the priority method result.
+	 * 
+	 * @return
+	 */
+	public int getPriorityMax()
+	{
+		return priorityMax;
+	}
+
+	/**
+	 * Set the max value of the priority method result.
+	 * 
+	 * @param priorityMax
+	 */
+	public void setPriorityMax(int priorityMax)
+	{
+		this.priorityMax = priorityMax;
+	}
+
+	/**
+	 * Get the highest priority the <i>implement method</i> may have, that is
+	 * {@linkplain #getPriorityMax()} if it has a priority method,
+	 * {@linkplain #getPriorityValue()} if not.
+	 * 
+	 * @return
+	 */
+	public int getPriorityUpperBound()
+	{
+		return (this.priorityMethod == null ? this.priorityValue
+				: this.priorityMax);
+	}
+
+	/**
+	 * Limit the given priority method result between
+	 * {@linkplain #getPriorityMin()} and {@linkplain #getPriorityMax()}.
+	 * 
+	 * @param priority
+	 * @return
+	 */
+	public int limitPriority(int priority)
+	{
+		if (priority < this.priorityMin)
+			return this.priorityMin;
+
+		if (priority > this.priorityMax)
+			return this.priorityMax;
+
+		return priority;
+	}
+
+	/**
+	 * Return if the <i>implement method</i> has a batch method.
+	 * 
+	 * @return
+	 */
+	public boolean hasBatchMethod()
+	{
+		return (this.batchMethod != null);
+	}
+
+	/**
+	 * Get the batch method for the <i>implement method</i>.
+	 * 
+	 * @return The batch method, {@code null} if none.
+	 */
+	public Method getBatchMethod()
+	{
+		return batchMethod;
+	}
+
+	/**
+	 * Set the batch method for the <i>implement method</i>.
+	 * 
+	 * @param batchMethod
+	 */
+	public void setBatchMethod(Method batchMethod)
+	{
+		this.batchMethod = batchMethod;
+	}
+
+	/**
+	 * Invoke the batch method for given <i>implementee method</i> invocation
+	 * parameters list.
+	 * <p>
+	 * Each element of the list passed to the batch method is the parameter
+	 * array of this <i>implement method</i>, as
+	 * {@linkplain #getParams(Object[])}. Exceptions thrown by the batch method
+	 * are thrown directly.
+	 * </p>
+	 * 
+	 * @param implementorBean
+	 *            The <i>implementor</i> bean, {@code null} for {@code static}
+	 *            batch method.
+	 * @param invocationParamses
+	 *            The <i>implementee method</i> invocation parameters list.
+	 * @return The batch method invocation result.
+	 * @throws Throwable
+	 */
+	public Object invokeBatch(Object implementorBean,
+			List<Object[]> invocationParamses) throws Throwable
+	{
+		List<Object[]> paramses = new ArrayList<Object[]>(
+				invocationParamses.size());
+
+		for (Object[] invocationParams : invocationParamses)
+			paramses.add(getParams(invocationParams));
+
+		if (!this.batchMethod.isAccessible())
+			this.batchMethod.setAccessible(true);
+
+		try
+		{
+			return this.batchMethod.invoke(implementorBean, paramses);
+		}
+		catch (InvocationTargetException e)
+		{
+			throw e.getTargetException();
+		}
+	}
+
+	/**
+	 * Get the priority method result cache, create it if not yet.
+	 * 
+	 * @return The cache, {@code null} if
+	 *         {@linkplain #getPriorityCacheScope()} is
+	 *         {@linkplain CacheScope#NONE}.
+	 */
+	public Cache<Object, Object> getPriorityResultCache()
+	{
+		if (this.priorityCacheScope == null
+				|| CacheScope.NONE.equals(this.priorityCacheScope))
+			return null;
+
+		Cache<Object, Object> cache = this.priorityResultCache;
+
+		if (cache == null)
+		{
+			cache = new BoundedCache<Object, Object>(this.priorityCacheSize);
+			this.priorityResultCache = cache;
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Discard the validity and priority method result caches, new ones are
+	 * created when needed.
+	 */
+	public void clearResultCaches()
+	{
+		this.validityResultCache = null;
+		this.priorityResultCache = null;
+	}
+
 	/**
 	 * Get the parameter array of the priority method for given <i>implementee
 	 * method</i> invocation parameters.
@@ -0,0 +1,122 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Invocation statistics snapshot of an <i>implement method</i>.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ * @see DispatchMetrics
+ */
+public class ImplementMethodStatistics
+{
+	private final String implementor;
+
+	private final String implementMethod;
+
+	private final long invocationCount;
+
+	private final LatencyStatistics targetLatency;
+
+	private final LatencyStatistics validityLatency;
+
+	private final LatencyStatistics priorityLatency;
+
+	public ImplementMethodStatistics(String implementor,
+			String implementMethod, long invocationCount,
+			LatencyStatistics targetLatency, LatencyStatistics validityLatency,
+			LatencyStatistics priorityLatency)
+	{
+		super();
+		this.implementor = implementor;
+		this.implementMethod = implementMethod;
+		this.invocationCount = invocationCount;
+		this.targetLatency = targetLatency;
+		this.validityLatency = validityLatency;
+		this.priorityLatency = priorityLatency;
+	}
+
+	/**
+	 * Get the <i>implementor</i> name.
+	 * 
+	 * @return
+	 */
+	public String getImplementor()
+	{
+		return implementor;
+	}
+
+	/**
+	 * Get the <i>implement method</i> description.
+	 * 
+	 * @return
+	 */
+	public String getImplementMethod()
+	{
+		return implementMethod;
+	}
+
+	/**
+	 * Get the count of invocations.
+	 * 
+	 * @return
+	 */
+	public long getInvocationCount()
+	{
+		return invocationCount;
+	}
+
+	/**
+	 * Get the latency of invoking the <i>implement method</i>.
+	 * 
+	 * @return
+	 */
+	public LatencyStatistics getTargetLatency()
+	{
+		return targetLatency;
+	}
+
+	/**
+	 * Get the latency of evaluating the validity method, including the
+	 * result cache lookup.
+	 * 
+	 * @return
+	 */
+	public LatencyStatistics getValidityLatency()
+	{
+		return validityLatency;
+	}
+
+	/**
+	 * Get the latency of evaluating the priority method, including the
+	 * result cache lookup.
+	 * 
+	 * @return
+	 */
+	public LatencyStatistics getPriorityLatency()
+	{
+		return priorityLatency;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [implementor=" + implementor
+				+ ", implementMethod=" + implementMethod
+				+ ", invocationCount=" + invocationCount + ", targetLatency="
+				+ targetLatency + "]";
+	}
+}
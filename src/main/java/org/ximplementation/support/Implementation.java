@@ -17,7 +17,9 @@ package org.ximplementation.support;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -28,6 +30,16 @@ import java.util.Set;
  * s.
  * </p>
  * <p>
+ * An index from <i>implementee method</i> to its position in the array is kept,
+ * so {@linkplain #getImplementInfo(Method)} is a hash lookup instead of a
+ * linear scan. Callers that invoke the same <i>implementee method</i>
+ * repeatedly can also get its index once by
+ * {@linkplain #getImplementInfoIndex(Method)} and then use
+ * {@linkplain #getImplementInfo(int)}. The index is built when the array is
+ * set, so the array returned by {@linkplain #getImplementInfos()} must not be
+ * modified in place without setting it again.
+ * </p>
+ * <p>
  * Instances of this class can be created by {@linkplain ImplementationResolver}
  * .
  * </p>
@@ -47,6 +59,9 @@ public class Implementation<T> implements Serializable
 	/** implement info */
 	private ImplementInfo[] implementInfos;
 
+	/** implementee method to implement info index */
+	private transient volatile Map<Method, Integer> implementInfoIndexes;
+
 	public Implementation()
 	{
 		super();
@@ -57,6 +72,7 @@ public class Implementation<T> implements Serializable
 		super();
 		this.implementee = implementee;
 		this.implementInfos = implementInfos;
+		this.implementInfoIndexes = indexImplementInfos(implementInfos);
 	}
 
 	/**
@@ -81,6 +97,10 @@ public class Implementation<T> implements Serializable
 
 	/**
 	 * Get the {@code ImplementInfo}s about the <i>implementee</i>.
+	 * <p>
+	 * The returned array is not copied, do not modify it in place without
+	 * setting it again by {@linkplain #setImplementInfos(ImplementInfo[])}.
+	 * </p>
 	 * 
 	 * @return
 	 */
@@ -91,12 +111,18 @@ public class Implementation<T> implements Serializable
 
 	/**
 	 * Set the {@code ImplementInfo}s about the <i>implementee</i>.
+	 * <p>
+	 * The <i>implementee method</i> index is built from the given array, so
+	 * the array should not be modified in place afterwards; if it is, call
+	 * this method again with it for rebuilding the index.
+	 * </p>
 	 * 
 	 * @param implementInfos
 	 */
 	public void setImplementInfos(ImplementInfo[] implementInfos)
 	{
 		this.implementInfos = implementInfos;
+		this.implementInfoIndexes = indexImplementInfos(implementInfos);
 	}
 
 	/**
@@ -109,16 +135,46 @@ public class Implementation<T> implements Serializable
 	 */
 	public ImplementInfo getImplementInfo(Method implementeeMethod)
 	{
-		if (this.implementInfos == null)
-			return null;
+		int index = getImplementInfoIndex(implementeeMethod);
+
+		return (index < 0 ? null : getImplementInfo(index));
+	}
 
-		for (ImplementInfo implementInfo : this.implementInfos)
+	/**
+	 * Get the index of the {@code ImplementInfo} for given <i>implementee</i>
+	 * method in {@linkplain #getImplementInfos()}.
+	 * 
+	 * @param implementeeMethod
+	 *            The <i>implementee method</i> int the <i>implementee</i>.
+	 * @return The index, {@code -1} if no.
+	 */
+	public int getImplementInfoIndex(Method implementeeMethod)
+	{
+		Map<Method, Integer> implementInfoIndexes = this.implementInfoIndexes;
+
+		// deserialized
+		if (implementInfoIndexes == null)
 		{
-			if (implementInfo.getImplementeeMethod().equals(implementeeMethod))
-				return implementInfo;
+			implementInfoIndexes = indexImplementInfos(this.implementInfos);
+			this.implementInfoIndexes = implementInfoIndexes;
 		}
 
-		return null;
+		Integer index = implementInfoIndexes.get(implementeeMethod);
+
+		return (index == null ? -1 : index.intValue());
+	}
+
+	/**
+	 * Get the {@code ImplementInfo} at given index of
+	 * {@linkplain #getImplementInfos()}.
+	 * 
+	 * @param index
+	 *            The index got by {@linkplain #getImplementInfoIndex(Method)}.
+	 * @return The {@code ImplementInfo}.
+	 */
+	public ImplementInfo getImplementInfo(int index)
+	{
+		return this.implementInfos[index];
 	}
 
 	/**
@@ -130,10 +186,12 @@ public class Implementation<T> implements Serializable
 	{
 		Set<Class<?>> implementors = new HashSet<Class<?>>();
 
-		if (this.implementInfos == null)
+		ImplementInfo[] implementInfos = getImplementInfos();
+
+		if (implementInfos == null)
 			return implementors;
 
-		for (ImplementInfo implementInfo : this.implementInfos)
+		for (ImplementInfo implementInfo : implementInfos)
 		{
 			if (!implementInfo.hasImplementMethodInfo())
 				continue;
@@ -150,6 +208,37 @@ public class Implementation<T> implements Serializable
 		return implementors;
 	}
 
+	/**
+	 * Build the <i>implementee method</i> index map for given
+	 * {@code ImplementInfo}s.
+	 * <p>
+	 * The first one wins if more than one {@code ImplementInfo} has the same
+	 * <i>implementee method</i>.
+	 * </p>
+	 * 
+	 * @param implementInfos
+	 * @return
+	 */
+	protected Map<Method, Integer> indexImplementInfos(
+			ImplementInfo[] implementInfos)
+	{
+		if (implementInfos == null)
+			return new HashMap<Method, Integer>(2);
+
+		Map<Method, Integer> implementInfoIndexes = new HashMap<Method, Integer>(
+				implementInfos.length * 2);
+
+		for (int i = 0; i < implementInfos.length; i++)
+		{
+			Method implementeeMethod = implementInfos[i].getImplementeeMethod();
+
+			if (!implementInfoIndexes.containsKey(implementeeMethod))
+				implementInfoIndexes.put(implementeeMethod, i);
+		}
+
+		return implementInfoIndexes;
+	}
+
 	@Override
 	public int hashCode()
 	{
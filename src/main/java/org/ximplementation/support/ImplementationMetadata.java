@@ -0,0 +1,628 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ximplementation.Index;
+import org.ximplementation.Priority;
+import org.ximplementation.Validity;
+
+/**
+ * Precomputed metadata for {@linkplain ImplementationResolver}.
+ * <p>
+ * It is generated by {@linkplain ImplementationMetadataProcessor} at compile
+ * time, into the {@linkplain #RESOURCE_NAME} resource, and loaded by
+ * {@linkplain #load(ClassLoader)} at runtime. When set by
+ * {@linkplain ImplementationResolver#setMetadata(ImplementationMetadata)}, the
+ * resolver uses it instead of scanning reflectively for:
+ * </p>
+ * <ul>
+ * <li>the {@linkplain Validity#value()} and {@linkplain Priority#value()}
+ * method references, which are matched in the class hierarchy at compile
+ * time;</li>
+ * <li>the {@linkplain Index} parameter indexes of methods.</li>
+ * </ul>
+ * <p>
+ * Classes which are not in the metadata are resolved reflectively as before.
+ * The metadata must be generated from the same compilation as the classes in
+ * use.
+ * </p>
+ * <p>
+ * The resource is a UTF-8 text file, each line is a tab separated record :
+ * </p>
+ * <ul>
+ * <li><code>C &lt;class-name&gt;</code> : starts a class, the following
+ * records belong to it;</li>
+ * <li><code>M &lt;method-name&gt; &lt;param-types&gt; &lt;param-indexes&gt;</code>
+ * : a method with {@linkplain Index} parameters;</li>
+ * <li><code>R &lt;pattern&gt; &lt;class-name&gt; &lt;method-name&gt; &lt;param-types&gt;</code>
+ * : a method pattern and the method it references.</li>
+ * </ul>
+ * <p>
+ * Class names are {@linkplain Class#getName()}, and parameter types are comma
+ * separated {@linkplain Class#getName()} with array type to
+ * {@code "Type[]"}.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-25
+ *
+ */
+public class ImplementationMetadata
+{
+	/** the resource name of the metadata */
+	public static final String RESOURCE_NAME = "META-INF/ximplementation/implementation.metadata";
+
+	protected static final String HEADER = "#ximplementation metadata";
+
+	protected static final String RECORD_CLASS = "C";
+
+	protected static final String RECORD_METHOD = "M";
+
+	protected static final String RECORD_REFERENCE = "R";
+
+	private Map<String, ClassMetadata> classMetadatas = new LinkedHashMap<String, ClassMetadata>();
+
+	public ImplementationMetadata()
+	{
+		super();
+	}
+
+	/**
+	 * Get the {@linkplain ClassMetadata}, {@code null} if not present.
+	 * 
+	 * @param className
+	 * @return
+	 */
+	public ClassMetadata getClassMetadata(String className)
+	{
+		return this.classMetadatas.get(className);
+	}
+
+	/**
+	 * Get all {@linkplain ClassMetadata}s.
+	 * 
+	 * @return
+	 */
+	public Collection<ClassMetadata> getClassMetadatas()
+	{
+		return Collections.unmodifiableCollection(this.classMetadatas.values());
+	}
+
+	/**
+	 * Add a {@linkplain ClassMetadata}, it replaces the existing one of the
+	 * same class.
+	 * 
+	 * @param classMetadata
+	 */
+	public void addClassMetadata(ClassMetadata classMetadata)
+	{
+		this.classMetadatas.put(classMetadata.getName(), classMetadata);
+	}
+
+	/**
+	 * Add all {@linkplain ClassMetadata}s of another metadata.
+	 * 
+	 * @param metadata
+	 */
+	public void addAll(ImplementationMetadata metadata)
+	{
+		this.classMetadatas.putAll(metadata.classMetadatas);
+	}
+
+	/**
+	 * Find the method referenced by the pattern in the given class.
+	 * 
+	 * @param clazz
+	 * @param pattern
+	 * @return The method, {@code null} if the class or the pattern is not
+	 *         present in the metadata, or the method is not found.
+	 */
+	public Method findMethod(Class<?> clazz, String pattern)
+	{
+		ClassMetadata classMetadata = this.classMetadatas.get(clazz.getName());
+
+		if (classMetadata == null)
+			return null;
+
+		MethodMetadata reference = classMetadata.getReference(pattern);
+
+		if (reference == null)
+			return null;
+
+		Class<?> declaringClass = findClass(clazz,
+				reference.getDeclaringClassName());
+
+		if (declaringClass == null)
+			return null;
+
+		for (Method method : declaringClass.getDeclaredMethods())
+		{
+			if (!method.isSynthetic() && reference.matches(method))
+				return method;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the {@linkplain Index} parameter indexes of the method.
+	 * 
+	 * @param method
+	 * @return The parameter indexes, {@code null} if the declaring class of
+	 *         the method is not present in the metadata.
+	 */
+	public int[] getParamIndexes(Method method)
+	{
+		ClassMetadata classMetadata = this.classMetadatas
+				.get(method.getDeclaringClass().getName());
+
+		if (classMetadata == null)
+			return null;
+
+		MethodMetadata methodMetadata = classMetadata.getMethod(method);
+
+		if (methodMetadata != null)
+			return methodMetadata.getParamIndexes().clone();
+
+		int[] paramIndexes = new int[method.getParameterTypes().length];
+		for (int i = 0; i < paramIndexes.length; i++)
+			paramIndexes[i] = i;
+
+		return paramIndexes;
+	}
+
+	/**
+	 * Write this metadata.
+	 * 
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void write(Writer writer) throws IOException
+	{
+		writer.write(HEADER);
+		writer.write('\n');
+
+		for (ClassMetadata classMetadata : this.classMetadatas.values())
+		{
+			writeRecord(writer, RECORD_CLASS, classMetadata.getName());
+
+			for (List<MethodMetadata> methodMetadatas : classMetadata.methods
+					.values())
+			{
+				for (MethodMetadata methodMetadata : methodMetadatas)
+				{
+					writeRecord(writer, RECORD_METHOD,
+							methodMetadata.getName(),
+							joinNames(methodMetadata.getParamTypeNames()),
+							joinIndexes(methodMetadata.getParamIndexes()));
+				}
+			}
+
+			for (Map.Entry<String, MethodMetadata> entry : classMetadata.references
+					.entrySet())
+			{
+				MethodMetadata reference = entry.getValue();
+
+				writeRecord(writer, RECORD_REFERENCE, entry.getKey(),
+						reference.getDeclaringClassName(),
+						reference.getName(),
+						joinNames(reference.getParamTypeNames()));
+			}
+		}
+
+		writer.flush();
+	}
+
+	/**
+	 * Read metadata.
+	 * 
+	 * @param reader
+	 * @return
+	 * @throws IOException
+	 */
+	public static ImplementationMetadata read(Reader reader)
+			throws IOException
+	{
+		ImplementationMetadata metadata = new ImplementationMetadata();
+
+		BufferedReader bufferedReader = new BufferedReader(reader);
+
+		ClassMetadata classMetadata = null;
+		String line = null;
+		int lineNumber = 0;
+
+		while ((line = bufferedReader.readLine()) != null)
+		{
+			lineNumber++;
+
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+
+			String[] fields = line.split("\t", -1);
+			String record = fields[0];
+
+			if (RECORD_CLASS.equals(record) && fields.length == 2)
+			{
+				classMetadata = new ClassMetadata(fields[1]);
+				metadata.addClassMetadata(classMetadata);
+			}
+			else if (RECORD_METHOD.equals(record) && fields.length == 4
+					&& classMetadata != null)
+			{
+				classMetadata.addMethod(new MethodMetadata(
+						classMetadata.getName(), fields[1],
+						splitNames(fields[2]), splitIndexes(fields[3])));
+			}
+			else if (RECORD_REFERENCE.equals(record) && fields.length == 5
+					&& classMetadata != null)
+			{
+				classMetadata.addReference(fields[1], new MethodMetadata(
+						fields[2], fields[3], splitNames(fields[4]), null));
+			}
+			else
+				throw new IOException("Line " + lineNumber
+						+ " : illegal metadata record [" + line + "]");
+		}
+
+		return metadata;
+	}
+
+	/**
+	 * Load all {@linkplain #RESOURCE_NAME} resources in the
+	 * {@linkplain ClassLoader}.
+	 * 
+	 * @param classLoader
+	 * @return
+	 * @throws IOException
+	 */
+	public static ImplementationMetadata load(ClassLoader classLoader)
+			throws IOException
+	{
+		ImplementationMetadata metadata = new ImplementationMetadata();
+
+		Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+
+		while (resources.hasMoreElements())
+		{
+			InputStream in = resources.nextElement().openStream();
+
+			try
+			{
+				metadata.addAll(read(new InputStreamReader(in, "UTF-8")));
+			}
+			finally
+			{
+				in.close();
+			}
+		}
+
+		return metadata;
+	}
+
+	/**
+	 * Get the name of a type used in metadata, with array type to
+	 * {@code "Type[]"}.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public static String getTypeName(Class<?> type)
+	{
+		if (!type.isArray())
+			return type.getName();
+
+		return getTypeName(type.getComponentType()) + "[]";
+	}
+
+	/**
+	 * Find the class with the given name in the hierarchy of a class.
+	 * 
+	 * @param clazz
+	 * @param className
+	 * @return
+	 */
+	protected static Class<?> findClass(Class<?> clazz, String className)
+	{
+		if (clazz.getName().equals(className))
+			return clazz;
+
+		Class<?> superClass = clazz.getSuperclass();
+		if (superClass != null)
+		{
+			Class<?> re = findClass(superClass, className);
+
+			if (re != null)
+				return re;
+		}
+
+		for (Class<?> superInterface : clazz.getInterfaces())
+		{
+			Class<?> re = findClass(superInterface, className);
+
+			if (re != null)
+				return re;
+		}
+
+		return null;
+	}
+
+	protected static void writeRecord(Writer writer, String... fields)
+			throws IOException
+	{
+		for (int i = 0; i < fields.length; i++)
+		{
+			if (i > 0)
+				writer.write('\t');
+
+			writer.write(fields[i]);
+		}
+
+		writer.write('\n');
+	}
+
+	protected static String joinNames(String[] names)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < names.length; i++)
+		{
+			if (i > 0)
+				sb.append(',');
+
+			sb.append(names[i]);
+		}
+
+		return sb.toString();
+	}
+
+	protected static String joinIndexes(int[] indexes)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < indexes.length; i++)
+		{
+			if (i > 0)
+				sb.append(',');
+
+			sb.append(indexes[i]);
+		}
+
+		return sb.toString();
+	}
+
+	protected static String[] splitNames(String str)
+	{
+		return (str.isEmpty() ? new String[0] : str.split(","));
+	}
+
+	protected static int[] splitIndexes(String str)
+	{
+		String[] strs = splitNames(str);
+		int[] indexes = new int[strs.length];
+
+		for (int i = 0; i < strs.length; i++)
+			indexes[i] = Integer.parseInt(strs[i]);
+
+		return indexes;
+	}
+
+	/**
+	 * Metadata of a class.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-25
+	 *
+	 */
+	public static class ClassMetadata
+	{
+		private final String name;
+
+		/** the methods with {@linkplain Index} parameters by name */
+		private final Map<String, List<MethodMetadata>> methods = new LinkedHashMap<String, List<MethodMetadata>>();
+
+		/** the referenced methods by pattern */
+		private final Map<String, MethodMetadata> references = new LinkedHashMap<String, MethodMetadata>();
+
+		public ClassMetadata(String name)
+		{
+			super();
+			this.name = name;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Add a method with {@linkplain Index} parameters.
+		 * 
+		 * @param methodMetadata
+		 */
+		public void addMethod(MethodMetadata methodMetadata)
+		{
+			List<MethodMetadata> methodMetadatas = this.methods
+					.get(methodMetadata.getName());
+
+			if (methodMetadatas == null)
+			{
+				methodMetadatas = new ArrayList<MethodMetadata>(1);
+				this.methods.put(methodMetadata.getName(), methodMetadatas);
+			}
+
+			methodMetadatas.add(methodMetadata);
+		}
+
+		/**
+		 * Get the {@linkplain MethodMetadata} of a method with
+		 * {@linkplain Index} parameters, {@code null} if not present.
+		 * 
+		 * @param method
+		 * @return
+		 */
+		public MethodMetadata getMethod(Method method)
+		{
+			List<MethodMetadata> methodMetadatas = this.methods
+					.get(method.getName());
+
+			if (methodMetadatas == null)
+				return null;
+
+			for (MethodMetadata methodMetadata : methodMetadatas)
+			{
+				if (methodMetadata.matches(method))
+					return methodMetadata;
+			}
+
+			return null;
+		}
+
+		/**
+		 * Add the method referenced by a pattern.
+		 * 
+		 * @param pattern
+		 * @param reference
+		 */
+		public void addReference(String pattern, MethodMetadata reference)
+		{
+			this.references.put(pattern, reference);
+		}
+
+		/**
+		 * Get the method referenced by a pattern, {@code null} if not
+		 * present.
+		 * 
+		 * @param pattern
+		 * @return
+		 */
+		public MethodMetadata getReference(String pattern)
+		{
+			return this.references.get(pattern);
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [name=" + name
+					+ ", methods=" + methods + ", references=" + references
+					+ "]";
+		}
+	}
+
+	/**
+	 * Metadata of a method.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-25
+	 *
+	 */
+	public static class MethodMetadata
+	{
+		private final String declaringClassName;
+
+		private final String name;
+
+		private final String[] paramTypeNames;
+
+		private final int[] paramIndexes;
+
+		public MethodMetadata(String declaringClassName, String name,
+				String[] paramTypeNames, int[] paramIndexes)
+		{
+			super();
+			this.declaringClassName = declaringClassName;
+			this.name = name;
+			this.paramTypeNames = paramTypeNames;
+			this.paramIndexes = paramIndexes;
+		}
+
+		public String getDeclaringClassName()
+		{
+			return declaringClassName;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public String[] getParamTypeNames()
+		{
+			return paramTypeNames;
+		}
+
+		/**
+		 * Get the parameter indexes, {@code null} for a referenced method.
+		 * 
+		 * @return
+		 */
+		public int[] getParamIndexes()
+		{
+			return paramIndexes;
+		}
+
+		/**
+		 * Return if the method name and parameter types match the given
+		 * method.
+		 * 
+		 * @param method
+		 * @return
+		 */
+		public boolean matches(Method method)
+		{
+			if (!this.name.equals(method.getName()))
+				return false;
+
+			Class<?>[] paramTypes = method.getParameterTypes();
+
+			if (paramTypes.length != this.paramTypeNames.length)
+				return false;
+
+			for (int i = 0; i < paramTypes.length; i++)
+			{
+				if (!this.paramTypeNames[i].equals(getTypeName(paramTypes[i])))
+					return false;
+			}
+
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [declaringClassName="
+					+ declaringClassName + ", name=" + name
+					+ ", paramTypeNames=" + Arrays.toString(paramTypeNames)
+					+ ", paramIndexes=" + Arrays.toString(paramIndexes) + "]";
+		}
+	}
+}
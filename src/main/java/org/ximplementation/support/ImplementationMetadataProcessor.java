@@ -0,0 +1,639 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.ximplementation.Batch;
+import org.ximplementation.CacheScope;
+import org.ximplementation.Implement;
+import org.ximplementation.Implementor;
+import org.ximplementation.Index;
+import org.ximplementation.NotImplement;
+import org.ximplementation.Priority;
+import org.ximplementation.Validity;
+import org.ximplementation.support.DefaultMethodMatcher.MethodPattern;
+import org.ximplementation.support.ImplementationMetadata.ClassMetadata;
+import org.ximplementation.support.ImplementationMetadata.MethodMetadata;
+
+/**
+ * Annotation processor which generates {@linkplain ImplementationMetadata} at
+ * compile time.
+ * <p>
+ * It reads the {@linkplain Implementor}, {@linkplain Implement},
+ * {@linkplain Validity}, {@linkplain Priority}, {@linkplain Batch},
+ * {@linkplain Index} and {@linkplain NotImplement} annotations of the compiled
+ * classes, and writes the {@linkplain ImplementationMetadata#RESOURCE_NAME}
+ * resource into the class output. For {@linkplain Implementor} annotated classes, it also writes
+ * the {@linkplain IndexedImplementorManager#RESOURCE_NAME} resource, with all
+ * the <i>implementee</i>s resolved as
+ * {@linkplain ImplementorManager#resolveImplementees(Class)}. It reports these
+ * problems at build time :
+ * </p>
+ * <ul>
+ * <li>illegal {@linkplain DefaultMethodMatcher} method patterns, as
+ * errors;</li>
+ * <li>duplicate {@linkplain Index} values and illegal cache sizes, as
+ * errors;</li>
+ * <li>{@linkplain Validity}, {@linkplain Priority} and {@linkplain Batch}
+ * method patterns which reference no method in the class hierarchy, as
+ * warnings, for the method may be provided by sub classes.</li>
+ * </ul>
+ * <p>
+ * Method references are matched in source order, and then the super class and
+ * interfaces, with {@linkplain DefaultMethodMatcher} rules.
+ * </p>
+ * <p>
+ * It is not registered as a service, add it to the compiler explicitly, for
+ * example, {@code javac -processor org.ximplementation.support.ImplementationMetadataProcessor}
+ * .
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-25
+ *
+ */
+public class ImplementationMetadataProcessor extends AbstractProcessor
+{
+	private DefaultMethodMatcher methodMatcher = new DefaultMethodMatcher();
+
+	private ImplementationMetadata metadata = new ImplementationMetadata();
+
+	/** the key is implementor name, the value is its implementee names */
+	private Map<String, Set<String>> implementeeNamesMap = new LinkedHashMap<String, Set<String>>();
+
+	private Set<String> processedClassNames = new HashSet<String>();
+
+	public ImplementationMetadataProcessor()
+	{
+		super();
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes()
+	{
+		Set<String> types = new LinkedHashSet<String>();
+
+		types.add(Implementor.class.getName());
+		types.add(Implement.class.getName());
+		types.add(Validity.class.getName());
+		types.add(Priority.class.getName());
+		types.add(Batch.class.getName());
+		types.add(Index.class.getName());
+		types.add(NotImplement.class.getName());
+
+		return types;
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv)
+	{
+		Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+
+		for (TypeElement annotation : annotations)
+		{
+			for (Element element : roundEnv
+					.getElementsAnnotatedWith(annotation))
+			{
+				TypeElement type = getEnclosingType(element);
+
+				if (type != null)
+					types.add(type);
+			}
+		}
+
+		for (TypeElement type : types)
+			processType(type);
+
+		if (roundEnv.processingOver())
+		{
+			writeMetadata();
+			writeImplementorIndex();
+		}
+
+		// not claimed, other processors may handle them too
+		return false;
+	}
+
+	/**
+	 * Process a class.
+	 * 
+	 * @param type
+	 */
+	protected void processType(TypeElement type)
+	{
+		String className = getBinaryName(type);
+
+		if (!this.processedClassNames.add(className))
+			return;
+
+		ClassMetadata classMetadata = new ClassMetadata(className);
+
+		for (ExecutableElement method : ElementFilter
+				.methodsIn(type.getEnclosedElements()))
+		{
+			processMethod(type, classMetadata, method);
+		}
+
+		this.metadata.addClassMetadata(classMetadata);
+
+		if (type.getAnnotation(Implementor.class) != null)
+			this.implementeeNamesMap.put(className, resolveImplementees(type));
+	}
+
+	/**
+	 * Resolve all <i>implementee</i> names of an <i>implementor</i>, the same
+	 * as {@linkplain ImplementorManager#resolveImplementees(Class)}.
+	 * 
+	 * @param implementor
+	 * @return
+	 */
+	protected Set<String> resolveImplementees(TypeElement implementor)
+	{
+		Set<String> implementees = new LinkedHashSet<String>();
+
+		Queue<TypeElement> beSupereds = new LinkedList<TypeElement>();
+
+		beSupereds.addAll(getAnnotationImplementees(implementor));
+		beSupereds.addAll(getDirectSuperTypes(implementor));
+
+		TypeElement beSupered = null;
+		while ((beSupered = beSupereds.poll()) != null)
+		{
+			if (implementees.add(getBinaryName(beSupered)))
+				beSupereds.addAll(getDirectSuperTypes(beSupered));
+		}
+
+		return implementees;
+	}
+
+	/**
+	 * Get <i>implementee</i>s by {@linkplain Implementor} annotation, excluding
+	 * the default {@linkplain Object}.
+	 * 
+	 * @param implementor
+	 * @return
+	 */
+	protected List<TypeElement> getAnnotationImplementees(
+			TypeElement implementor)
+	{
+		List<TypeElement> implementees = new ArrayList<TypeElement>();
+
+		List<? extends TypeMirror> typeMirrors = null;
+
+		try
+		{
+			implementor.getAnnotation(Implementor.class).value();
+		}
+		catch (MirroredTypesException e)
+		{
+			typeMirrors = e.getTypeMirrors();
+		}
+
+		if (typeMirrors == null)
+			return implementees;
+
+		for (TypeMirror typeMirror : typeMirrors)
+		{
+			if (typeMirror.getKind() == TypeKind.DECLARED)
+				implementees.add(
+						(TypeElement) ((DeclaredType) typeMirror).asElement());
+		}
+
+		if (implementees.size() == 1 && Object.class.getName()
+				.equals(getBinaryName(implementees.get(0))))
+			implementees.clear();
+
+		return implementees;
+	}
+
+	/**
+	 * Get the super class and interfaces.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	protected List<TypeElement> getDirectSuperTypes(TypeElement type)
+	{
+		List<TypeElement> superTypes = new ArrayList<TypeElement>();
+
+		for (TypeMirror superInterface : type.getInterfaces())
+			superTypes.add(
+					(TypeElement) ((DeclaredType) superInterface).asElement());
+
+		TypeMirror superClass = type.getSuperclass();
+		if (superClass.getKind() == TypeKind.DECLARED)
+			superTypes.add((TypeElement) ((DeclaredType) superClass).asElement());
+
+		return superTypes;
+	}
+
+	/**
+	 * Process a method.
+	 * 
+	 * @param type
+	 * @param classMetadata
+	 * @param method
+	 */
+	protected void processMethod(TypeElement type,
+			ClassMetadata classMetadata, ExecutableElement method)
+	{
+		Implement implement = method.getAnnotation(Implement.class);
+
+		if (implement != null && !implement.value().isEmpty())
+			parseMethodPattern(method, "@Implement", implement.value());
+
+		int[] paramIndexes = getParamIndexes(method);
+
+		if (paramIndexes != null)
+			classMetadata.addMethod(new MethodMetadata(classMetadata.getName(),
+					method.getSimpleName().toString(), getParamTypeNames(method),
+					paramIndexes));
+
+		Validity validity = method.getAnnotation(Validity.class);
+
+		if (validity != null)
+		{
+			checkCacheSize(method, "@Validity", validity.cacheScope(),
+					validity.cacheSize());
+			processReference(type, classMetadata, method, "@Validity",
+					validity.value());
+		}
+
+		Priority priority = method.getAnnotation(Priority.class);
+
+		if (priority != null)
+		{
+			if (!priority.value().isEmpty())
+			{
+				checkCacheSize(method, "@Priority", priority.cacheScope(),
+						priority.cacheSize());
+
+				if (priority.min() > priority.max())
+					this.processingEnv.getMessager().printMessage(Kind.ERROR,
+							"@Priority : The min must not be greater than max",
+							method);
+
+				processReference(type, classMetadata, method, "@Priority",
+						priority.value());
+			}
+		}
+
+		Batch batch = method.getAnnotation(Batch.class);
+
+		if (batch != null)
+			processReference(type, classMetadata, method, "@Batch",
+					batch.value());
+	}
+
+	/**
+	 * Process a method pattern reference.
+	 * 
+	 * @param type
+	 * @param classMetadata
+	 * @param method
+	 * @param annotationName
+	 * @param pattern
+	 */
+	protected void processReference(TypeElement type,
+			ClassMetadata classMetadata, ExecutableElement method,
+			String annotationName, String pattern)
+	{
+		MethodPattern methodPattern = parseMethodPattern(method,
+				annotationName, pattern);
+
+		if (methodPattern == null)
+			return;
+
+		ExecutableElement reference = findMethod(type, methodPattern);
+
+		if (reference == null)
+		{
+			this.processingEnv.getMessager().printMessage(Kind.WARNING,
+					"No method is found for [" + annotationName + "(\""
+							+ pattern + "\")] reference in class ["
+							+ getBinaryName(type) + "] or its ancestors",
+					method);
+			return;
+		}
+
+		classMetadata.addReference(pattern,
+				new MethodMetadata(
+						getBinaryName((TypeElement) reference
+								.getEnclosingElement()),
+						reference.getSimpleName().toString(),
+						getParamTypeNames(reference), null));
+	}
+
+	/**
+	 * Parse a method pattern, report an error if illegal.
+	 * 
+	 * @param method
+	 * @param annotationName
+	 * @param pattern
+	 * @return The parsed pattern, {@code null} if illegal.
+	 */
+	protected MethodPattern parseMethodPattern(ExecutableElement method,
+			String annotationName, String pattern)
+	{
+		try
+		{
+			return this.methodMatcher.parseMethodPattern(pattern);
+		}
+		catch (IllegalMethodPatternException e)
+		{
+			this.processingEnv.getMessager().printMessage(Kind.ERROR,
+					annotationName + " : " + e.getMessage(), method);
+
+			return null;
+		}
+	}
+
+	/**
+	 * Find the method matched by the pattern in the class hierarchy.
+	 * 
+	 * @param type
+	 * @param methodPattern
+	 * @return The matched method, {@code null} if no.
+	 */
+	protected ExecutableElement findMethod(TypeElement type,
+			MethodPattern methodPattern)
+	{
+		String className = getBinaryName(type);
+
+		for (ExecutableElement method : ElementFilter
+				.methodsIn(type.getEnclosedElements()))
+		{
+			if (this.methodMatcher.doMatch(methodPattern,
+					className + "." + method.getSimpleName(),
+					getParamTypeNames(method)))
+				return method;
+		}
+
+		ExecutableElement method = null;
+
+		// methods in super class
+		TypeMirror superClass = type.getSuperclass();
+		if (superClass.getKind() == TypeKind.DECLARED)
+			method = findMethod(
+					(TypeElement) ((DeclaredType) superClass).asElement(),
+					methodPattern);
+
+		if (method != null)
+			return method;
+
+		// methods in super interfaces
+		for (TypeMirror superInterface : type.getInterfaces())
+		{
+			method = findMethod(
+					(TypeElement) ((DeclaredType) superInterface).asElement(),
+					methodPattern);
+
+			if (method != null)
+				return method;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the {@linkplain Index} parameter indexes of a method, report an
+	 * error if duplicate.
+	 * 
+	 * @param method
+	 * @return The parameter indexes, {@code null} if no {@linkplain Index}
+	 *         parameter or duplicate.
+	 */
+	protected int[] getParamIndexes(ExecutableElement method)
+	{
+		List<? extends VariableElement> params = method.getParameters();
+
+		int[] paramIndexes = new int[params.size()];
+		boolean indexed = false;
+
+		for (int i = 0; i < paramIndexes.length; i++)
+		{
+			Index index = params.get(i).getAnnotation(Index.class);
+
+			paramIndexes[i] = (index == null ? i : index.value());
+			indexed = (indexed || index != null);
+
+			for (int j = 0; j < i; j++)
+			{
+				if (paramIndexes[j] == paramIndexes[i])
+				{
+					this.processingEnv.getMessager().printMessage(Kind.ERROR,
+							"The " + i
+									+ "-th parameter index should not be duplicate with the "
+									+ j + "-th parameter index of value ["
+									+ paramIndexes[i] + "]",
+							params.get(i));
+
+					return null;
+				}
+			}
+		}
+
+		return (indexed ? paramIndexes : null);
+	}
+
+	/**
+	 * Check the result cache size, report an error if illegal.
+	 * 
+	 * @param method
+	 * @param annotationName
+	 * @param cacheScope
+	 * @param cacheSize
+	 */
+	protected void checkCacheSize(ExecutableElement method,
+			String annotationName, CacheScope cacheScope, int cacheSize)
+	{
+		if (!CacheScope.NONE.equals(cacheScope) && cacheSize <= 0)
+			this.processingEnv.getMessager().printMessage(Kind.ERROR,
+					annotationName + " : The cache size must be positive",
+					method);
+	}
+
+	/**
+	 * Write the metadata resource.
+	 */
+	protected void writeMetadata()
+	{
+		if (this.metadata.getClassMetadatas().isEmpty())
+			return;
+
+		try
+		{
+			FileObject resource = this.processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "",
+					ImplementationMetadata.RESOURCE_NAME);
+
+			Writer writer = new OutputStreamWriter(
+					resource.openOutputStream(), "UTF-8");
+
+			try
+			{
+				this.metadata.write(writer);
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		catch (IOException e)
+		{
+			this.processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Failed to write [" + ImplementationMetadata.RESOURCE_NAME
+							+ "] : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Write the <i>implementor</i> index resource.
+	 */
+	protected void writeImplementorIndex()
+	{
+		if (this.implementeeNamesMap.isEmpty())
+			return;
+
+		try
+		{
+			FileObject resource = this.processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "",
+					IndexedImplementorManager.RESOURCE_NAME);
+
+			Writer writer = new OutputStreamWriter(
+					resource.openOutputStream(), "UTF-8");
+
+			try
+			{
+				IndexedImplementorManager.writeIndex(writer,
+						this.implementeeNamesMap);
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		catch (IOException e)
+		{
+			this.processingEnv.getMessager().printMessage(Kind.ERROR,
+					"Failed to write [" + IndexedImplementorManager.RESOURCE_NAME
+							+ "] : " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Get the class which declares or is the element.
+	 * 
+	 * @param element
+	 * @return
+	 */
+	protected TypeElement getEnclosingType(Element element)
+	{
+		while (element != null)
+		{
+			ElementKind kind = element.getKind();
+
+			if (kind.isClass() || kind.isInterface())
+				return (TypeElement) element;
+
+			element = element.getEnclosingElement();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Get the parameter type names of a method, same as
+	 * {@linkplain ImplementationMetadata#getTypeName(Class)}.
+	 * 
+	 * @param method
+	 * @return
+	 */
+	protected String[] getParamTypeNames(ExecutableElement method)
+	{
+		List<? extends VariableElement> params = method.getParameters();
+
+		String[] names = new String[params.size()];
+
+		for (int i = 0; i < names.length; i++)
+			names[i] = getTypeName(params.get(i).asType());
+
+		return names;
+	}
+
+	/**
+	 * Get the erased type name, same as
+	 * {@linkplain ImplementationMetadata#getTypeName(Class)}.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	protected String getTypeName(TypeMirror type)
+	{
+		TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+
+		if (erasure.getKind() == TypeKind.ARRAY)
+			return getTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+		else if (erasure.getKind() == TypeKind.DECLARED)
+			return getBinaryName(
+					(TypeElement) ((DeclaredType) erasure).asElement());
+		else
+			return erasure.toString();
+	}
+
+	protected String getBinaryName(TypeElement type)
+	{
+		return this.processingEnv.getElementUtils().getBinaryName(type)
+				.toString();
+	}
+}
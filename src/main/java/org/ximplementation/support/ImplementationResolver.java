@@ -15,6 +15,9 @@
 package org.ximplementation.support;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -24,12 +27,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 
+import org.ximplementation.Batch;
+import org.ximplementation.CacheScope;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
 import org.ximplementation.Index;
@@ -47,6 +57,21 @@ import org.ximplementation.Validity;
  * ). And, {@code static} methods in <i>implementor</i> is allowed.
  * </p>
  * <p>
+ * Resolving can be parallelized by setting a {@linkplain ForkJoinPool} (see
+ * {@linkplain #setForkJoinPool(ForkJoinPool)}), the work is then spread across
+ * <i>implementee</i> methods and <i>implementor</i>s, and the resolved
+ * {@linkplain Implementation} is exactly the same as the sequential one.
+ * </p>
+ * <p>
+ * Reflective scanning can be reduced by setting the
+ * {@linkplain ImplementationMetadata} generated at compile time by
+ * {@linkplain ImplementationMetadataProcessor} (see
+ * {@linkplain #setMetadata(ImplementationMetadata)}), and resolving can be
+ * skipped on restarts by re-linking from a persistent
+ * {@linkplain ImplementationSnapshot} (see
+ * {@linkplain #setSnapshot(ImplementationSnapshot)}).
+ * </p>
+ * <p>
  * Note that this class is thread-safe and can be accessed by multiple threads.
  * </p>
  * 
@@ -60,6 +85,29 @@ public class ImplementationResolver
 
 	private MethodMatcher methodMatcher = new DefaultMethodMatcher();
 
+	/** the default value of {@linkplain #getParallelThreshold()} */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+	/**
+	 * the max count of <i>implementee</i> method and <i>implementor</i> pairs
+	 * resolved in one parallel task
+	 */
+	protected static final int PARALLEL_TASK_SIZE = 8;
+
+	/** the pool for parallel resolving, null for sequential resolving */
+	private ForkJoinPool forkJoinPool = null;
+
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+	/** if resolving lazily */
+	private boolean lazy = false;
+
+	/** the precomputed metadata, null for reflective resolving only */
+	private ImplementationMetadata metadata = null;
+
+	/** the snapshot to re-link from and add to, null for none */
+	private ImplementationSnapshot snapshot = null;
+
 	public ImplementationResolver()
 	{
 		super();
@@ -85,6 +133,140 @@ public class ImplementationResolver
 		this.methodMatcher = methodMatcher;
 	}
 
+	/**
+	 * Get the {@linkplain ForkJoinPool} for parallel resolving.
+	 * 
+	 * @return The {@code ForkJoinPool}, {@code null} if resolving
+	 *         sequentially.
+	 */
+	public ForkJoinPool getForkJoinPool()
+	{
+		return forkJoinPool;
+	}
+
+	/**
+	 * Set the {@linkplain ForkJoinPool} for parallel resolving.
+	 * <p>
+	 * Resolving is sequential by default, set a {@code ForkJoinPool} (e.g.
+	 * {@code new ForkJoinPool()}) to enable parallel resolving.
+	 * </p>
+	 * 
+	 * @param forkJoinPool
+	 *            The {@code ForkJoinPool}, {@code null} for sequential
+	 *            resolving.
+	 */
+	public void setForkJoinPool(ForkJoinPool forkJoinPool)
+	{
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Get the min count of <i>implementee</i> method and <i>implementor</i>
+	 * pairs for resolving an <i>implementee</i> in parallel.
+	 * 
+	 * @return
+	 */
+	public int getParallelThreshold()
+	{
+		return parallelThreshold;
+	}
+
+	/**
+	 * Set the min count of <i>implementee</i> method and <i>implementor</i>
+	 * pairs for resolving an <i>implementee</i> in parallel, smaller
+	 * <i>implementee</i>s are resolved sequentially because the parallel
+	 * overhead is not worthy.
+	 * 
+	 * @param parallelThreshold
+	 */
+	public void setParallelThreshold(int parallelThreshold)
+	{
+		this.parallelThreshold = parallelThreshold;
+	}
+
+	/**
+	 * Return if resolving lazily.
+	 * 
+	 * @return
+	 */
+	public boolean isLazy()
+	{
+		return lazy;
+	}
+
+	/**
+	 * Set if resolving lazily.
+	 * <p>
+	 * If {@code true}, {@linkplain LazyImplementation}s are returned, whose
+	 * {@linkplain ImplementInfo}s are resolved on first use of each
+	 * <i>implementee method</i>, and resolving errors are thrown then, unless
+	 * {@linkplain LazyImplementation#validate()} is called up front. The
+	 * default value is {@code false}.
+	 * </p>
+	 * 
+	 * @param lazy
+	 */
+	public void setLazy(boolean lazy)
+	{
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Get the precomputed {@linkplain ImplementationMetadata}.
+	 * 
+	 * @return
+	 */
+	public ImplementationMetadata getMetadata()
+	{
+		return metadata;
+	}
+
+	/**
+	 * Set the precomputed {@linkplain ImplementationMetadata}.
+	 * <p>
+	 * If set, the method references and parameter indexes of the classes in it
+	 * are got from it instead of scanning reflectively, other classes are
+	 * still resolved reflectively. The method references are only used with
+	 * {@linkplain DefaultMethodMatcher}, for they are matched by its rules at
+	 * compile time. The default value is {@code null}.
+	 * </p>
+	 * 
+	 * @param metadata
+	 * @see ImplementationMetadata#load(ClassLoader)
+	 */
+	public void setMetadata(ImplementationMetadata metadata)
+	{
+		this.metadata = metadata;
+	}
+
+	/**
+	 * Get the {@linkplain ImplementationSnapshot}.
+	 * 
+	 * @return
+	 */
+	public ImplementationSnapshot getSnapshot()
+	{
+		return snapshot;
+	}
+
+	/**
+	 * Set the {@linkplain ImplementationSnapshot}.
+	 * <p>
+	 * If set, {@linkplain Implementation}s whose fingerprint matches are
+	 * re-linked from it instead of resolving, and the resolved ones are added
+	 * to it, except {@linkplain LazyImplementation}s. The default value is
+	 * {@code null}.
+	 * </p>
+	 * 
+	 * @param snapshot
+	 * @see ImplementationSnapshot#read(java.io.InputStream)
+	 * @see ImplementationSnapshot#write(java.io.OutputStream)
+	 */
+	public void setSnapshot(ImplementationSnapshot snapshot)
+	{
+		this.snapshot = snapshot;
+	}
+
 	/**
 	 * Resolve the {@code Implementation} for an <i>implementee</i> and its
 	 * <i>implementor</i>s.
@@ -125,6 +307,60 @@ public class ImplementationResolver
 		return doResolve(implementee, implementors);
 	}
 
+	/**
+	 * Resolve the {@code Implementation}s for all <i>implementee</i>s in an
+	 * {@linkplain ImplementorManager}.
+	 * <p>
+	 * All <i>implementee</i>s are resolved in one parallel pass if
+	 * {@linkplain #getForkJoinPool()} is set.
+	 * </p>
+	 * 
+	 * @param implementorManager
+	 *            The {@code ImplementorManager} to be resolved.
+	 * @return The {@code Implementation} map, the key is <i>implementee</i>,
+	 *         in the order of {@linkplain ImplementorManager#getAllImplementees()}.
+	 * @throws ImplementationResolveException
+	 */
+	public Map<Class<?>, Implementation<?>> resolve(
+			ImplementorManager implementorManager)
+			throws ImplementationResolveException
+	{
+		Set<Class<?>> allImplementees = implementorManager.getAllImplementees();
+
+		Class<?>[] implementees = new Class<?>[allImplementees.size()];
+		allImplementees.toArray(implementees);
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Set<Class<?>>[] implementorss = new Set[implementees.length];
+		for (int i = 0; i < implementees.length; i++)
+			implementorss[i] = implementorManager.get(implementees[i]);
+
+		Implementation<?>[] implementations = new Implementation<?>[implementees.length];
+
+		if (this.forkJoinPool == null)
+		{
+			for (int i = 0; i < implementees.length; i++)
+				implementations[i] = doResolve(implementees[i],
+						implementorss[i]);
+		}
+		else
+		{
+			RuntimeException[] exceptions = new RuntimeException[implementees.length];
+
+			invokeParallelTask(new ImplementationsResolveTask(implementees,
+					implementorss, implementations, exceptions));
+
+			throwFirstException(exceptions);
+		}
+
+		Map<Class<?>, Implementation<?>> re = new LinkedHashMap<Class<?>, Implementation<?>>();
+
+		for (int i = 0; i < implementees.length; i++)
+			re.put(implementees[i], implementations[i]);
+
+		return re;
+	}
+
 	/**
 	 * Do resolving.
 	 * 
@@ -137,19 +373,41 @@ public class ImplementationResolver
 			Set<Class<?>> implementors)
 			throws ImplementationResolveException
 	{
-		Implementation<T> implementation = new Implementation<T>();
+		if (this.snapshot != null)
+		{
+			Implementation<T> implementation = this.snapshot.link(this,
+					implementee, implementors);
 
-		List<ImplementInfo> implementInfos = new ArrayList<ImplementInfo>();
+			if (implementation != null)
+				return implementation;
+		}
 
 		Collection<Method> implementeeMethods = getImplementeeMethods(
 				implementee);
 
-		for (Method implementeeMethod : implementeeMethods)
+		if (this.lazy)
+			return new LazyImplementation<T>(this, implementee,
+					new LinkedHashSet<Class<?>>(implementors),
+					implementeeMethods);
+
+		Implementation<T> implementation = new Implementation<T>();
+
+		List<ImplementInfo> implementInfos = new ArrayList<ImplementInfo>();
+
+		if (isResolveParallel(implementeeMethods, implementors))
 		{
-			ImplementInfo implementInfo = resolveImplementInfo(implementee, implementeeMethods, implementeeMethod,
-					implementors);
+			resolveImplementInfosParallel(implementee, implementeeMethods,
+					implementors, implementInfos);
+		}
+		else
+		{
+			for (Method implementeeMethod : implementeeMethods)
+			{
+				ImplementInfo implementInfo = resolveImplementInfo(implementee,
+						implementeeMethods, implementeeMethod, implementors);
 
-			implementInfos.add(implementInfo);
+				implementInfos.add(implementInfo);
+			}
 		}
 
 		ImplementInfo[] implementInfoArray = new ImplementInfo[implementInfos.size()];
@@ -158,11 +416,142 @@ public class ImplementationResolver
 		implementation.setImplementee(implementee);
 		implementation.setImplementInfos(implementInfoArray);
 
+		if (this.snapshot != null)
+			this.snapshot.add(implementation, implementors);
+
 		return implementation;
 	}
 
+	/**
+	 * Return if the <i>implementee</i> should be resolved in parallel.
+	 * 
+	 * @param implementeeMethods
+	 * @param implementors
+	 * @return
+	 */
+	protected boolean isResolveParallel(Collection<Method> implementeeMethods,
+			Set<Class<?>> implementors)
+	{
+		if (this.forkJoinPool == null)
+			return false;
+
+		long pairs = (long) implementeeMethods.size() * implementors.size();
+
+		return pairs >= this.parallelThreshold;
+	}
+
+	/**
+	 * Resolve {@linkplain ImplementInfo}s in parallel.
+	 * <p>
+	 * Each <i>implementee</i> method and <i>implementor</i> pair is resolved
+	 * by {@linkplain #resolveImplementMethodInfo(Class, Collection, Method, Class)}
+	 * in {@linkplain #getForkJoinPool()}, the results are then merged in the
+	 * same order as {@linkplain #resolveImplementInfo(Class, Collection, Method, Set)}
+	 * does, and the first exception in that order is thrown, so the result is
+	 * exactly the same as resolving sequentially.
+	 * </p>
+	 * <p>
+	 * Note that {@linkplain #resolveImplementInfo(Class, Collection, Method, Set)}
+	 * is not called, each {@code ImplementInfo} is built by
+	 * {@linkplain #buildImplementInfo(Class, Method, List)} as it does, so sub
+	 * classes should override that to customize {@code ImplementInfo}s.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @param implementeeMethods
+	 * @param implementors
+	 * @param implementInfos
+	 *            The list for adding the resolved {@code ImplementInfo}s.
+	 */
+	protected void resolveImplementInfosParallel(Class<?> implementee,
+			Collection<Method> implementeeMethods, Set<Class<?>> implementors,
+			List<ImplementInfo> implementInfos)
+	{
+		Method[] methods = new Method[implementeeMethods.size()];
+		implementeeMethods.toArray(methods);
+
+		List<Class<?>> validImplementors = new ArrayList<Class<?>>(
+				implementors.size());
+		for (Class<?> implementor : implementors)
+		{
+			if (isImplementor(implementee, implementor))
+				validImplementors.add(implementor);
+		}
+
+		Class<?>[] implementorArray = new Class<?>[validImplementors.size()];
+		validImplementors.toArray(implementorArray);
+
+		int count = methods.length * implementorArray.length;
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		Collection<ImplementMethodInfo>[] results = new Collection[count];
+		RuntimeException[] exceptions = new RuntimeException[count];
+
+		invokeParallelTask(new ImplementMethodInfosResolveTask(implementee,
+				implementeeMethods, methods, implementorArray, results,
+				exceptions, 0, count));
+
+		throwFirstException(exceptions);
+
+		for (int i = 0; i < methods.length; i++)
+		{
+			List<ImplementMethodInfo> implementMethodInfos = new ArrayList<ImplementMethodInfo>();
+
+			for (int j = 0; j < implementorArray.length; j++)
+			{
+				Collection<ImplementMethodInfo> myImplementMethodInfos = results[i
+						* implementorArray.length + j];
+
+				if (myImplementMethodInfos != null
+						&& !myImplementMethodInfos.isEmpty())
+					implementMethodInfos.addAll(myImplementMethodInfos);
+			}
+
+			implementInfos.add(buildImplementInfo(implementee, methods[i],
+					implementMethodInfos));
+		}
+	}
+
+	/**
+	 * Invoke a parallel task in {@linkplain #getForkJoinPool()}.
+	 * <p>
+	 * The task is invoked directly if current thread is already running in the
+	 * pool, e.g. resolving an <i>implementee</i> inside
+	 * {@linkplain #resolve(ImplementorManager)}.
+	 * </p>
+	 * 
+	 * @param task
+	 */
+	protected void invokeParallelTask(ForkJoinTask<?> task)
+	{
+		if (ForkJoinTask.getPool() == this.forkJoinPool)
+			task.invoke();
+		else
+			this.forkJoinPool.invoke(task);
+	}
+
+	/**
+	 * Throw the first not {@code null} exception, if any.
+	 * 
+	 * @param exceptions
+	 */
+	protected void throwFirstException(RuntimeException[] exceptions)
+	{
+		for (RuntimeException exception : exceptions)
+		{
+			if (exception != null)
+				throw exception;
+		}
+	}
+
 	/**
 	 * Resolve {@linkplain ImplementInfo}.
+	 * <p>
+	 * It is not called when resolving in parallel, see
+	 * {@linkplain #resolveImplementInfosParallel(Class, Collection, Set, List)}
+	 * , override {@linkplain #buildImplementInfo(Class, Method, List)} to
+	 * customize {@code ImplementInfo}s for both.
+	 * </p>
 	 * 
 	 * @param implementee
 	 * @param implementeeMethods
@@ -174,8 +563,6 @@ public class ImplementationResolver
 			Collection<Method> implementeeMethods, Method implementeeMethod,
 			Set<Class<?>> implementors)
 	{
-		ImplementInfo implementInfo = new ImplementInfo(implementeeMethod);
-
 		List<ImplementMethodInfo> implementMethodInfos = new ArrayList<ImplementMethodInfo>();
 
 		for (Class<?> implementor : implementors)
@@ -190,6 +577,30 @@ public class ImplementationResolver
 				implementMethodInfos.addAll(myImplementMethodInfos);
 		}
 
+		return buildImplementInfo(implementee, implementeeMethod,
+				implementMethodInfos);
+	}
+
+	/**
+	 * Build {@linkplain ImplementInfo} from the resolved
+	 * {@linkplain ImplementMethodInfo}s.
+	 * <p>
+	 * It is called both when resolving sequentially and in parallel.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @param implementeeMethod
+	 * @param implementMethodInfos
+	 *            The resolved {@code ImplementMethodInfo}s of all
+	 *            <i>implementor</i>s, in order.
+	 * @return
+	 */
+	protected ImplementInfo buildImplementInfo(Class<?> implementee,
+			Method implementeeMethod,
+			List<ImplementMethodInfo> implementMethodInfos)
+	{
+		ImplementInfo implementInfo = new ImplementInfo(implementeeMethod);
+
 		ImplementMethodInfo[] implementMethodInfoArray = new ImplementMethodInfo[implementMethodInfos.size()];
 		implementMethodInfos.toArray(implementMethodInfoArray);
 
@@ -265,6 +676,8 @@ public class ImplementationResolver
 		resolveImplementMethodInfoParamIndexes(implementee, implementeeMethod, implementMethodInfo);
 		resolveImplementMethodInfoValidity(implementee, implementeeMethod, implementMethodInfo);
 		resolveImplementMethodInfoPriority(implementee, implementeeMethod, implementMethodInfo);
+		resolveImplementMethodInfoBatch(implementee, implementeeMethod, implementMethodInfo);
+		resolveImplementMethodInfoMethodHandle(implementee, implementeeMethod, implementMethodInfo);
 	}
 
 	/**
@@ -316,6 +729,27 @@ public class ImplementationResolver
 		implementMethodInfo.setParamIndexes(paramIndexes);
 	}
 
+	/**
+	 * Check the result cache size of a validity or priority method.
+	 * 
+	 * @param implementor
+	 * @param method
+	 * @param cacheScope
+	 * @param cacheSize
+	 * @throws ImplementationResolveException
+	 *             If {@code cacheScope} is not {@linkplain CacheScope#NONE}
+	 *             and {@code cacheSize} is not positive.
+	 */
+	protected void checkCacheSize(Class<?> implementor, Method method,
+			CacheScope cacheScope, int cacheSize)
+			throws ImplementationResolveException
+	{
+		if (!CacheScope.NONE.equals(cacheScope) && cacheSize <= 0)
+			throw new ImplementationResolveException("Class ["
+					+ implementor.getName() + "] : The cache size of method ["
+					+ method + "] must be positive");
+	}
+
 	/**
 	 * Resolve {@linkplain ImplementMethodInfo} 's
 	 * {@linkplain ImplementMethodInfo#getValidityMethod()} and
@@ -369,8 +803,61 @@ public class ImplementationResolver
 
 			int[] validityParamIndexes = getMethodParamIndexes(implementor, validityMethod);
 
+			checkCacheSize(implementor, validityMethod, validity.cacheScope(),
+					validity.cacheSize());
+
 			implementMethodInfo.setValidityMethod(validityMethod);
 			implementMethodInfo.setValidityParamIndexes(validityParamIndexes);
+			implementMethodInfo.setValidityCacheScope(validity.cacheScope());
+			implementMethodInfo.setValidityCacheSize(validity.cacheSize());
+		}
+	}
+
+	/**
+	 * Resolve {@linkplain ImplementMethodInfo} 's
+	 * {@linkplain ImplementMethodInfo#getBatchMethod()} property.
+	 * 
+	 * @param implementee
+	 * @param implementeeMethod
+	 * @param implementMethodInfo
+	 */
+	protected void resolveImplementMethodInfoBatch(Class<?> implementee, Method implementeeMethod,
+			ImplementMethodInfo implementMethodInfo)
+	{
+		Class<?> implementor = implementMethodInfo.getImplementor();
+		Method implementMethod = implementMethodInfo.getImplementMethod();
+
+		Batch batch = getAnnotation(implementMethod, Batch.class);
+
+		if (batch != null)
+		{
+			String batchMethodMatcher = batch.value();
+
+			Method batchMethod = findMethod(implementor, batchMethodMatcher);
+
+			if (batchMethod == null)
+				throw new ImplementationResolveException("Class [" + implementor
+						+ "] : No method is found for [@Batch(\"" + batchMethodMatcher + "\")] reference");
+
+			if (Modifier.isStatic(implementMethod.getModifiers())
+					&& !Modifier.isStatic(batchMethod.getModifiers()))
+				throw new ImplementationResolveException("Class [" + implementor.getName() + "] : Batch method ["
+						+ batchMethod + "] must be static, because the implement method ["
+						+ implementMethod + "] is static");
+
+			Class<?>[] paramTypes = batchMethod.getParameterTypes();
+
+			if (paramTypes.length != 1 || !paramTypes[0].isAssignableFrom(List.class))
+				throw new ImplementationResolveException("Class [" + implementor.getName() + "] : Batch method ["
+						+ batchMethod + "] must have only one parameter of [" + List.class.getSimpleName()
+						+ "] type");
+
+			if (!void.class.equals(implementeeMethod.getReturnType())
+					&& !List.class.isAssignableFrom(batchMethod.getReturnType()))
+				throw new ImplementationResolveException("Class [" + implementor.getName() + "] : Batch method ["
+						+ batchMethod + "] must return [" + List.class.getSimpleName() + "] type");
+
+			implementMethodInfo.setBatchMethod(batchMethod);
 		}
 	}
 
@@ -437,11 +924,123 @@ public class ImplementationResolver
 									+ implementee.getName() + "]");
 
 				priorityParamIndexes = getMethodParamIndexes(implementor, priorityMethod);
+
+				checkCacheSize(implementor, priorityMethod,
+						priority.cacheScope(), priority.cacheSize());
+
+				if (priority.min() > priority.max())
+					throw new ImplementationResolveException(
+							"Class [" + implementor.getName()
+									+ "] : [@Priority(min=" + priority.min()
+									+ ", max=" + priority.max()
+									+ ")] of [" + implementMethod
+									+ "] must not have min greater than max");
 			}
 
 			implementMethodInfo.setPriorityValue(priorityValue);
 			implementMethodInfo.setPriorityMethod(priorityMethod);
 			implementMethodInfo.setPriorityParamIndexes(priorityParamIndexes);
+			implementMethodInfo.setPriorityCacheScope(priority.cacheScope());
+			implementMethodInfo.setPriorityCacheSize(priority.cacheSize());
+			implementMethodInfo.setPriorityMin(priority.min());
+			implementMethodInfo.setPriorityMax(priority.max());
+		}
+	}
+
+	/**
+	 * Resolve {@linkplain ImplementMethodInfo} 's
+	 * {@linkplain ImplementMethodInfo#getMethodHandle()} property.
+	 * <p>
+	 * It must be called after
+	 * {@linkplain #resolveImplementMethodInfoParamIndexes(Class, Method, ImplementMethodInfo)}
+	 * .
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @param implementeeMethod
+	 * @param implementMethodInfo
+	 */
+	protected void resolveImplementMethodInfoMethodHandle(Class<?> implementee, Method implementeeMethod,
+			ImplementMethodInfo implementMethodInfo)
+	{
+		MethodHandle methodHandle = createImplementMethodHandle(implementeeMethod, implementMethodInfo);
+
+		implementMethodInfo.setMethodHandle(methodHandle);
+	}
+
+	/**
+	 * Create the {@linkplain MethodHandle} of type
+	 * {@code (Object, Object[])Object} for the <i>implement method</i>, whose
+	 * parameters are the <i>implementor</i> bean and the <i>implementee
+	 * method</i> invocation parameters.
+	 * <p>
+	 * The {@linkplain ImplementMethodInfo#getParamIndexes()} remapping is
+	 * applied by {@linkplain MethodHandles#permuteArguments(MethodHandle, MethodType, int...)}
+	 * , so no parameter array copying is needed when invoking.
+	 * </p>
+	 * 
+	 * @param implementeeMethod
+	 * @param implementMethodInfo
+	 * @return The {@code MethodHandle}, {@code null} if the <i>implement
+	 *         method</i> is not accessible.
+	 */
+	protected MethodHandle createImplementMethodHandle(Method implementeeMethod,
+			ImplementMethodInfo implementMethodInfo)
+	{
+		Method implementMethod = implementMethodInfo.getImplementMethod();
+
+		MethodHandle methodHandle = unreflect(implementMethod);
+
+		if (methodHandle == null)
+			return null;
+
+		int[] paramIndexes = implementMethodInfo.getParamIndexes();
+		int invocationParamCount = implementeeMethod.getParameterTypes().length;
+
+		// static implement method has no implementor bean argument
+		if (Modifier.isStatic(implementMethod.getModifiers()))
+			methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+
+		// (Object, Object, ...)Object
+		methodHandle = methodHandle.asType(MethodType.genericMethodType(paramIndexes.length + 1));
+
+		int[] reorder = new int[paramIndexes.length + 1];
+		reorder[0] = 0;
+		for (int i = 0; i < paramIndexes.length; i++)
+			reorder[i + 1] = paramIndexes[i] + 1;
+
+		// (Object, Object ...[invocationParamCount])Object
+		methodHandle = MethodHandles.permuteArguments(methodHandle,
+				MethodType.genericMethodType(invocationParamCount + 1), reorder);
+
+		// (Object, Object[])Object
+		return methodHandle.asSpreader(Object[].class, invocationParamCount);
+	}
+
+	/**
+	 * Get the fixed arity {@linkplain MethodHandle} of the method.
+	 * 
+	 * @param method
+	 * @return The {@code MethodHandle}, {@code null} if the method is not
+	 *         accessible.
+	 */
+	protected MethodHandle unreflect(Method method)
+	{
+		try
+		{
+			if (!method.isAccessible())
+				method.setAccessible(true);
+
+			return MethodHandles.lookup().unreflect(method).asFixedArity();
+		}
+		catch (IllegalAccessException e)
+		{
+			return null;
+		}
+		catch (RuntimeException e)
+		{
+			// eg. java.lang.reflect.InaccessibleObjectException since Java 9
+			return null;
 		}
 	}
 
@@ -900,6 +1499,15 @@ public class ImplementationResolver
 	 */
 	protected Method findMethod(Class<?> clazz, String matcher)
 	{
+		if (this.metadata != null
+				&& DefaultMethodMatcher.class.equals(this.methodMatcher.getClass()))
+		{
+			Method method = this.metadata.findMethod(clazz, matcher);
+
+			if (method != null)
+				return method;
+		}
+
 		Method[] myMethods = clazz.getDeclaredMethods();
 
 		for (Method myMethod : myMethods)
@@ -947,6 +1555,14 @@ public class ImplementationResolver
 	 */
 	protected int[] getMethodParamIndexes(Class<?> clazz, Method method)
 	{
+		if (this.metadata != null)
+		{
+			int[] paramIndexes = this.metadata.getParamIndexes(method);
+
+			if (paramIndexes != null)
+				return paramIndexes;
+		}
+
 		Annotation[][] paramAnnotationss = method.getParameterAnnotations();
 
 		int[] paramIndexes = new int[paramAnnotationss.length];
@@ -1050,4 +1666,157 @@ public class ImplementationResolver
 		return TypeUtil.isOverriddenEquals(superTypeParam, subTypeParam,
 				subTypeParams);
 	}
+
+	/**
+	 * The task for resolving {@linkplain ImplementMethodInfo}s of a range of
+	 * <i>implementee</i> method and <i>implementor</i> pairs.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-21
+	 *
+	 */
+	protected class ImplementMethodInfosResolveTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?> implementee;
+
+		private final Collection<Method> implementeeMethods;
+
+		private final Method[] methods;
+
+		private final Class<?>[] implementors;
+
+		private final Collection<ImplementMethodInfo>[] results;
+
+		private final RuntimeException[] exceptions;
+
+		private final int start;
+
+		private final int end;
+
+		public ImplementMethodInfosResolveTask(Class<?> implementee,
+				Collection<Method> implementeeMethods, Method[] methods,
+				Class<?>[] implementors,
+				Collection<ImplementMethodInfo>[] results,
+				RuntimeException[] exceptions, int start, int end)
+		{
+			super();
+			this.implementee = implementee;
+			this.implementeeMethods = implementeeMethods;
+			this.methods = methods;
+			this.implementors = implementors;
+			this.results = results;
+			this.exceptions = exceptions;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (this.end - this.start <= PARALLEL_TASK_SIZE)
+			{
+				for (int i = this.start; i < this.end; i++)
+				{
+					Method implementeeMethod = this.methods[i
+							/ this.implementors.length];
+					Class<?> implementor = this.implementors[i
+							% this.implementors.length];
+
+					try
+					{
+						this.results[i] = resolveImplementMethodInfo(
+								this.implementee, this.implementeeMethods,
+								implementeeMethod, implementor);
+					}
+					catch (RuntimeException e)
+					{
+						this.exceptions[i] = e;
+					}
+				}
+			}
+			else
+			{
+				int middle = (this.start + this.end) >>> 1;
+
+				invokeAll(
+						new ImplementMethodInfosResolveTask(this.implementee,
+								this.implementeeMethods, this.methods,
+								this.implementors, this.results,
+								this.exceptions, this.start, middle),
+						new ImplementMethodInfosResolveTask(this.implementee,
+								this.implementeeMethods, this.methods,
+								this.implementors, this.results,
+								this.exceptions, middle, this.end));
+			}
+		}
+	}
+
+	/**
+	 * The task for resolving {@linkplain Implementation}s of
+	 * <i>implementee</i>s.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-21
+	 *
+	 */
+	protected class ImplementationsResolveTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?>[] implementees;
+
+		private final Set<Class<?>>[] implementorss;
+
+		private final Implementation<?>[] implementations;
+
+		private final RuntimeException[] exceptions;
+
+		public ImplementationsResolveTask(Class<?>[] implementees,
+				Set<Class<?>>[] implementorss,
+				Implementation<?>[] implementations,
+				RuntimeException[] exceptions)
+		{
+			super();
+			this.implementees = implementees;
+			this.implementorss = implementorss;
+			this.implementations = implementations;
+			this.exceptions = exceptions;
+		}
+
+		@Override
+		protected void compute()
+		{
+			List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(
+					this.implementees.length);
+
+			for (int i = 0; i < this.implementees.length; i++)
+			{
+				final int index = i;
+
+				tasks.add(new RecursiveAction()
+				{
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected void compute()
+					{
+						try
+						{
+							implementations[index] = doResolve(
+									implementees[index],
+									implementorss[index]);
+						}
+						catch (RuntimeException e)
+						{
+							exceptions[index] = e;
+						}
+					}
+				});
+			}
+
+			invokeAll(tasks);
+		}
+	}
 }
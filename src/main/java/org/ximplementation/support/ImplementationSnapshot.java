@@ -0,0 +1,759 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ximplementation.CacheScope;
+import org.ximplementation.support.ImplementationMetadata.MethodMetadata;
+
+/**
+ * Persistent snapshot of resolved {@linkplain Implementation}s.
+ * <p>
+ * {@linkplain Implementation}s can not be serialized for they hold
+ * {@linkplain Method}s, so this class stores them in a compact binary format
+ * by class names and method descriptors, together with a fingerprint of the
+ * class bytes of the <i>implementee</i>, the <i>implementor</i>s and all their
+ * ancestors. When set by
+ * {@linkplain ImplementationResolver#setSnapshot(ImplementationSnapshot)}, the
+ * resolver re-links the stored {@linkplain Implementation} in one pass instead
+ * of resolving if the fingerprint matches, and adds the ones it resolves.
+ * </p>
+ * <p>
+ * Class bytes are read by {@linkplain Class#getResourceAsStream(String)},
+ * {@linkplain Implementation}s of classes without available bytes, such as
+ * generated ones, are never stored.
+ * </p>
+ * <p>
+ * Note that this class is thread-safe and can be accessed by multiple threads.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-27
+ *
+ */
+public class ImplementationSnapshot
+{
+	protected static final int MAGIC = 0x58494D53;
+
+	protected static final int VERSION = 4;
+
+	protected static final String FINGERPRINT_ALGORITHM = "SHA-1";
+
+	protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	/** the key is from implementee and implementor names */
+	private ConcurrentMap<String, byte[]> entries = new ConcurrentHashMap<String, byte[]>();
+
+	/**
+	 * the class bytes digests, stored in each class, so they do not keep the
+	 * class loaders alive
+	 */
+	private final ClassValue<byte[]> classDigests = new ClassValue<byte[]>()
+	{
+		@Override
+		protected byte[] computeValue(Class<?> clazz)
+		{
+			return digestClass(clazz);
+		}
+	};
+
+	public ImplementationSnapshot()
+	{
+		super();
+	}
+
+	/**
+	 * Get the count of stored {@linkplain Implementation}s.
+	 * 
+	 * @return
+	 */
+	public int size()
+	{
+		return this.entries.size();
+	}
+
+	/**
+	 * Return if there is a stored {@linkplain Implementation} for the
+	 * <i>implementee</i> and <i>implementor</i>s.
+	 * 
+	 * @param implementee
+	 * @param implementors
+	 * @return
+	 */
+	public boolean contains(Class<?> implementee,
+			Collection<Class<?>> implementors)
+	{
+		return this.entries.containsKey(getKey(implementee, implementors));
+	}
+
+	/**
+	 * Add a resolved {@linkplain Implementation}.
+	 * 
+	 * @param implementation
+	 * @param implementors
+	 *            The <i>implementor</i>s it is resolved from.
+	 * @return {@code true} if added, {@code false} if the class bytes are not
+	 *         available.
+	 */
+	public boolean add(Implementation<?> implementation,
+			Collection<Class<?>> implementors)
+	{
+		byte[] fingerprint = fingerprint(implementation.getImplementee(),
+				implementors);
+
+		if (fingerprint == null)
+			return false;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try
+		{
+			EntryWriter writer = new EntryWriter(new DataOutputStream(bytes));
+			writer.write(implementation, fingerprint);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+
+		this.entries.put(
+				getKey(implementation.getImplementee(), implementors),
+				bytes.toByteArray());
+
+		return true;
+	}
+
+	/**
+	 * Re-link the stored {@linkplain Implementation} for the
+	 * <i>implementee</i> and <i>implementor</i>s.
+	 * 
+	 * @param resolver
+	 *            The resolver to resolve the derived properties of
+	 *            {@linkplain ImplementMethodInfo}s.
+	 * @param implementee
+	 * @param implementors
+	 * @return The {@linkplain Implementation}, {@code null} if not stored, the
+	 *         fingerprint does not match, or any class or method is not found.
+	 */
+	public <T> Implementation<T> link(ImplementationResolver resolver,
+			Class<T> implementee, Collection<Class<?>> implementors)
+	{
+		byte[] entry = this.entries.get(getKey(implementee, implementors));
+
+		if (entry == null)
+			return null;
+
+		try
+		{
+			EntryReader reader = new EntryReader(
+					new DataInputStream(new ByteArrayInputStream(entry)),
+					resolver, implementee, implementors);
+
+			return reader.read(
+					fingerprint(implementee, implementors));
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Write all stored {@linkplain Implementation}s.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(OutputStream out) throws IOException
+	{
+		DataOutputStream dataOut = new DataOutputStream(out);
+
+		Map<String, byte[]> entries = new TreeMap<String, byte[]>(
+				this.entries);
+
+		dataOut.writeInt(MAGIC);
+		dataOut.writeInt(VERSION);
+		dataOut.writeInt(entries.size());
+
+		for (Map.Entry<String, byte[]> entry : entries.entrySet())
+		{
+			dataOut.writeUTF(entry.getKey());
+			dataOut.writeInt(entry.getValue().length);
+			dataOut.write(entry.getValue());
+		}
+
+		dataOut.flush();
+	}
+
+	/**
+	 * Read a snapshot.
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 *             If it is not a snapshot or the version is not supported.
+	 */
+	public static ImplementationSnapshot read(InputStream in)
+			throws IOException
+	{
+		DataInputStream dataIn = new DataInputStream(in);
+
+		if (dataIn.readInt() != MAGIC)
+			throw new IOException("Not an implementation snapshot");
+
+		int version = dataIn.readInt();
+
+		if (version != VERSION)
+			throw new IOException(
+					"Unsupported implementation snapshot version [" + version
+							+ "]");
+
+		ImplementationSnapshot snapshot = new ImplementationSnapshot();
+
+		int count = dataIn.readInt();
+
+		for (int i = 0; i < count; i++)
+		{
+			String key = dataIn.readUTF();
+			byte[] entry = new byte[dataIn.readInt()];
+			dataIn.readFully(entry);
+
+			snapshot.entries.put(key, entry);
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Get the fingerprint of the class bytes of the <i>implementee</i>, the
+	 * <i>implementor</i>s and all their ancestors.
+	 * 
+	 * @param implementee
+	 * @param implementors
+	 * @return The fingerprint, {@code null} if any class bytes are not
+	 *         available.
+	 */
+	protected byte[] fingerprint(Class<?> implementee,
+			Collection<Class<?>> implementors)
+	{
+		Map<String, Class<?>> classes = new TreeMap<String, Class<?>>();
+
+		collectClasses(implementee, classes);
+		for (Class<?> implementor : implementors)
+			collectClasses(implementor, classes);
+
+		MessageDigest digest = createMessageDigest();
+
+		for (Map.Entry<String, Class<?>> entry : classes.entrySet())
+		{
+			byte[] classDigest = getClassDigest(entry.getValue());
+
+			if (classDigest == null)
+				return null;
+
+			digest.update(entry.getKey().getBytes(UTF_8));
+			digest.update(classDigest);
+		}
+
+		return digest.digest();
+	}
+
+	/**
+	 * Collect the class and all its ancestors.
+	 * 
+	 * @param clazz
+	 * @param classes
+	 */
+	protected void collectClasses(Class<?> clazz, Map<String, Class<?>> classes)
+	{
+		if (classes.put(clazz.getName(), clazz) != null)
+			return;
+
+		Class<?> superClass = clazz.getSuperclass();
+		if (superClass != null)
+			collectClasses(superClass, classes);
+
+		for (Class<?> superInterface : clazz.getInterfaces())
+			collectClasses(superInterface, classes);
+	}
+
+	/**
+	 * Get the digest of the class bytes.
+	 * <p>
+	 * It is cached in a {@linkplain ClassValue}, so the cache does not keep
+	 * the class or its class loader alive.
+	 * </p>
+	 * 
+	 * @param clazz
+	 * @return The digest, {@code null} if the class bytes are not available.
+	 */
+	protected byte[] getClassDigest(Class<?> clazz)
+	{
+		return this.classDigests.get(clazz);
+	}
+
+	/**
+	 * Compute the digest of the class bytes, without caching.
+	 * 
+	 * @param clazz
+	 * @return The digest, {@code null} if the class bytes are not available.
+	 */
+	protected byte[] digestClass(Class<?> clazz)
+	{
+		String name = clazz.getName();
+		InputStream in = clazz.getResourceAsStream(
+				"/" + name.replace('.', '/') + ".class");
+
+		if (in == null)
+			return null;
+
+		try
+		{
+			MessageDigest digest = createMessageDigest();
+
+			byte[] buffer = new byte[4096];
+			int len = 0;
+			while ((len = in.read(buffer)) != -1)
+				digest.update(buffer, 0, len);
+
+			return digest.digest();
+		}
+		catch (IOException e)
+		{
+			return null;
+		}
+		finally
+		{
+			try
+			{
+				in.close();
+			}
+			catch (IOException e)
+			{
+			}
+		}
+	}
+
+	protected MessageDigest createMessageDigest()
+	{
+		try
+		{
+			return MessageDigest.getInstance(FINGERPRINT_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Get the key of an <i>implementee</i> and its <i>implementor</i>s.
+	 * 
+	 * @param implementee
+	 * @param implementors
+	 * @return
+	 */
+	protected static String getKey(Class<?> implementee,
+			Collection<Class<?>> implementors)
+	{
+		String[] implementorNames = new String[implementors.size()];
+
+		int i = 0;
+		for (Class<?> implementor : implementors)
+			implementorNames[i++] = implementor.getName();
+
+		Arrays.sort(implementorNames);
+
+		StringBuilder key = new StringBuilder(implementee.getName());
+		key.append(':');
+
+		for (int j = 0; j < implementorNames.length; j++)
+		{
+			if (j > 0)
+				key.append(',');
+
+			key.append(implementorNames[j]);
+		}
+
+		return key.toString();
+	}
+
+	/**
+	 * Writer of an {@linkplain Implementation} entry, strings are written only
+	 * once and then referenced by {@code int} index.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-27
+	 *
+	 */
+	protected static class EntryWriter
+	{
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+		public EntryWriter(DataOutputStream out)
+		{
+			super();
+			this.out = out;
+		}
+
+		public void write(Implementation<?> implementation, byte[] fingerprint)
+				throws IOException
+		{
+			this.out.writeShort(fingerprint.length);
+			this.out.write(fingerprint);
+
+			ImplementInfo[] implementInfos = implementation.getImplementInfos();
+
+			this.out.writeInt(implementInfos.length);
+
+			for (ImplementInfo implementInfo : implementInfos)
+			{
+				writeMethod(implementInfo.getImplementeeMethod());
+
+				ImplementMethodInfo[] implementMethodInfos = implementInfo
+						.getImplementMethodInfos();
+
+				this.out.writeInt(implementMethodInfos.length);
+
+				for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
+					writeImplementMethodInfo(implementMethodInfo);
+			}
+
+			this.out.flush();
+		}
+
+		protected void writeImplementMethodInfo(
+				ImplementMethodInfo implementMethodInfo) throws IOException
+		{
+			writeString(implementMethodInfo.getImplementor().getName());
+			writeMethod(implementMethodInfo.getImplementMethod());
+			writeIndexes(implementMethodInfo.getParamIndexes());
+
+			this.out.writeBoolean(implementMethodInfo.hasValidityMethod());
+			if (implementMethodInfo.hasValidityMethod())
+			{
+				writeMethod(implementMethodInfo.getValidityMethod());
+				writeIndexes(implementMethodInfo.getValidityParamIndexes());
+			}
+			this.out.writeByte(
+					implementMethodInfo.getValidityCacheScope().ordinal());
+			this.out.writeInt(implementMethodInfo.getValidityCacheSize());
+
+			this.out.writeInt(implementMethodInfo.getPriorityValue());
+			this.out.writeBoolean(implementMethodInfo.hasPriorityMethod());
+			if (implementMethodInfo.hasPriorityMethod())
+			{
+				writeMethod(implementMethodInfo.getPriorityMethod());
+				writeIndexes(implementMethodInfo.getPriorityParamIndexes());
+			}
+			this.out.writeByte(
+					implementMethodInfo.getPriorityCacheScope().ordinal());
+			this.out.writeInt(implementMethodInfo.getPriorityCacheSize());
+			this.out.writeInt(implementMethodInfo.getPriorityMin());
+			this.out.writeInt(implementMethodInfo.getPriorityMax());
+
+			this.out.writeBoolean(implementMethodInfo.hasBatchMethod());
+			if (implementMethodInfo.hasBatchMethod())
+				writeMethod(implementMethodInfo.getBatchMethod());
+		}
+
+		protected void writeMethod(Method method) throws IOException
+		{
+			writeString(method.getDeclaringClass().getName());
+			writeString(method.getName());
+
+			Class<?>[] paramTypes = method.getParameterTypes();
+
+			this.out.writeShort(paramTypes.length);
+			for (Class<?> paramType : paramTypes)
+				writeString(ImplementationMetadata.getTypeName(paramType));
+		}
+
+		protected void writeIndexes(int[] indexes) throws IOException
+		{
+			this.out.writeShort(indexes.length);
+			for (int index : indexes)
+				this.out.writeShort(index);
+		}
+
+		protected void writeString(String str) throws IOException
+		{
+			Integer index = this.strings.get(str);
+
+			if (index != null)
+				this.out.writeInt(index);
+			else
+			{
+				this.out.writeInt(-1);
+				this.out.writeUTF(str);
+				this.strings.put(str, this.strings.size());
+			}
+		}
+	}
+
+	/**
+	 * Reader of an {@linkplain Implementation} entry, it re-links classes and
+	 * methods while reading.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-27
+	 *
+	 */
+	protected static class EntryReader
+	{
+		private final DataInputStream in;
+
+		private final ImplementationResolver resolver;
+
+		private final Class<?> implementee;
+
+		private final Map<String, Class<?>> implementors = new HashMap<String, Class<?>>();
+
+		private final List<String> strings = new ArrayList<String>();
+
+		private final Map<Class<?>, Method[]> declaredMethods = new HashMap<Class<?>, Method[]>();
+
+		public EntryReader(DataInputStream in, ImplementationResolver resolver,
+				Class<?> implementee, Collection<Class<?>> implementors)
+		{
+			super();
+			this.in = in;
+			this.resolver = resolver;
+			this.implementee = implementee;
+
+			for (Class<?> implementor : implementors)
+				this.implementors.put(implementor.getName(), implementor);
+		}
+
+		/**
+		 * Read and re-link.
+		 * 
+		 * @param fingerprint
+		 *            The current fingerprint.
+		 * @return The {@linkplain Implementation}, {@code null} if the
+		 *         fingerprint does not match, or any class or method is not
+		 *         found.
+		 * @throws IOException
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> Implementation<T> read(byte[] fingerprint)
+				throws IOException
+		{
+			byte[] storedFingerprint = new byte[this.in.readShort()];
+			this.in.readFully(storedFingerprint);
+
+			if (fingerprint == null
+					|| !Arrays.equals(fingerprint, storedFingerprint))
+				return null;
+
+			ImplementInfo[] implementInfos = new ImplementInfo[this.in
+					.readInt()];
+
+			for (int i = 0; i < implementInfos.length; i++)
+			{
+				Method implementeeMethod = readMethod(this.implementee);
+
+				if (implementeeMethod == null)
+					return null;
+
+				ImplementMethodInfo[] implementMethodInfos = new ImplementMethodInfo[this.in
+						.readInt()];
+
+				for (int j = 0; j < implementMethodInfos.length; j++)
+				{
+					implementMethodInfos[j] = readImplementMethodInfo(
+							implementeeMethod);
+
+					if (implementMethodInfos[j] == null)
+						return null;
+				}
+
+				implementInfos[i] = new ImplementInfo(implementeeMethod,
+						implementMethodInfos);
+			}
+
+			Implementation<T> implementation = new Implementation<T>();
+			implementation.setImplementee((Class<T>) this.implementee);
+			implementation.setImplementInfos(implementInfos);
+
+			return implementation;
+		}
+
+		protected ImplementMethodInfo readImplementMethodInfo(
+				Method implementeeMethod) throws IOException
+		{
+			Class<?> implementor = this.implementors.get(readString());
+
+			if (implementor == null)
+				return null;
+
+			Method implementMethod = readMethod(implementor);
+
+			if (implementMethod == null)
+				return null;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, implementMethod);
+			implementMethodInfo.setParamIndexes(readIndexes());
+
+			if (this.in.readBoolean())
+			{
+				Method validityMethod = readMethod(implementor);
+
+				if (validityMethod == null)
+					return null;
+
+				implementMethodInfo.setValidityMethod(validityMethod);
+				implementMethodInfo.setValidityParamIndexes(readIndexes());
+			}
+			implementMethodInfo.setValidityCacheScope(readCacheScope());
+			implementMethodInfo.setValidityCacheSize(this.in.readInt());
+
+			implementMethodInfo.setPriorityValue(this.in.readInt());
+			if (this.in.readBoolean())
+			{
+				Method priorityMethod = readMethod(implementor);
+
+				if (priorityMethod == null)
+					return null;
+
+				implementMethodInfo.setPriorityMethod(priorityMethod);
+				implementMethodInfo.setPriorityParamIndexes(readIndexes());
+			}
+			implementMethodInfo.setPriorityCacheScope(readCacheScope());
+			implementMethodInfo.setPriorityCacheSize(this.in.readInt());
+			implementMethodInfo.setPriorityMin(this.in.readInt());
+			implementMethodInfo.setPriorityMax(this.in.readInt());
+
+			if (this.in.readBoolean())
+			{
+				Method batchMethod = readMethod(implementor);
+
+				if (batchMethod == null)
+					return null;
+
+				implementMethodInfo.setBatchMethod(batchMethod);
+			}
+
+			this.resolver.resolveImplementMethodInfoParamTypes(
+					this.implementee, implementeeMethod, implementMethodInfo);
+			this.resolver.resolveImplementMethodInfoGenericParamTypes(
+					this.implementee, implementeeMethod, implementMethodInfo);
+			this.resolver.resolveImplementMethodInfoMethodHandle(
+					this.implementee, implementeeMethod, implementMethodInfo);
+
+			return implementMethodInfo;
+		}
+
+		/**
+		 * Read a method declared in the class or its ancestors.
+		 * 
+		 * @param clazz
+		 * @return The method, {@code null} if not found.
+		 * @throws IOException
+		 */
+		protected Method readMethod(Class<?> clazz) throws IOException
+		{
+			String declaringClassName = readString();
+			String name = readString();
+			String[] paramTypeNames = new String[this.in.readShort()];
+			for (int i = 0; i < paramTypeNames.length; i++)
+				paramTypeNames[i] = readString();
+
+			Class<?> declaringClass = ImplementationMetadata.findClass(clazz,
+					declaringClassName);
+
+			if (declaringClass == null)
+				return null;
+
+			MethodMetadata methodMetadata = new MethodMetadata(
+					declaringClassName, name, paramTypeNames, null);
+
+			Method[] methods = this.declaredMethods.get(declaringClass);
+
+			if (methods == null)
+			{
+				methods = declaringClass.getDeclaredMethods();
+				this.declaredMethods.put(declaringClass, methods);
+			}
+
+			for (Method method : methods)
+			{
+				if (!method.isSynthetic() && methodMetadata.matches(method))
+					return method;
+			}
+
+			return null;
+		}
+
+		protected int[] readIndexes() throws IOException
+		{
+			int[] indexes = new int[this.in.readShort()];
+			for (int i = 0; i < indexes.length; i++)
+				indexes[i] = this.in.readShort();
+
+			return indexes;
+		}
+
+		protected CacheScope readCacheScope() throws IOException
+		{
+			int ordinal = this.in.readByte();
+			CacheScope[] cacheScopes = CacheScope.values();
+
+			if (ordinal < 0 || ordinal >= cacheScopes.length)
+				throw new IOException("Illegal cache scope [" + ordinal + "]");
+
+			return cacheScopes[ordinal];
+		}
+
+		protected String readString() throws IOException
+		{
+			int index = this.in.readInt();
+
+			if (index >= this.strings.size())
+				throw new IOException("Illegal string index [" + index + "]");
+
+			if (index >= 0)
+				return this.strings.get(index);
+
+			String str = this.in.readUTF();
+			this.strings.add(str);
+
+			return str;
+		}
+	}
+}
@@ -0,0 +1,581 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class file generator for <i>implementee</i> beans built by
+ * {@linkplain GeneratedImplementeeBeanBuilder}.
+ * <p>
+ * The generated class extends
+ * {@linkplain GeneratedImplementeeBeanBuilder.GeneratedImplementee} and
+ * implements the <i>implementee</i> interface, each <i>implementee method</i>
+ * in it just packs its parameters and calls
+ * {@code dispatch(slot, parameters)} with its own constant slot index. The
+ * generated code has no branch, so no stack map frame is needed.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-2
+ * 
+ */
+class ImplementeeClassGenerator
+{
+	private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+
+	private static final int CLASS_FILE_MAJOR_VERSION = 50;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	private static final int ACONST_NULL = 0x01;
+	private static final int ICONST_0 = 0x03;
+	private static final int BIPUSH = 0x10;
+	private static final int SIPUSH = 0x11;
+	private static final int LDC_W = 0x13;
+	private static final int ILOAD = 0x15;
+	private static final int LLOAD = 0x16;
+	private static final int FLOAD = 0x17;
+	private static final int DLOAD = 0x18;
+	private static final int ALOAD = 0x19;
+	private static final int ALOAD_0 = 0x2A;
+	private static final int AASTORE = 0x53;
+	private static final int POP = 0x57;
+	private static final int DUP = 0x59;
+	private static final int IRETURN = 0xAC;
+	private static final int LRETURN = 0xAD;
+	private static final int FRETURN = 0xAE;
+	private static final int DRETURN = 0xAF;
+	private static final int ARETURN = 0xB0;
+	private static final int RETURN = 0xB1;
+	private static final int INVOKEVIRTUAL = 0xB6;
+	private static final int INVOKESPECIAL = 0xB7;
+	private static final int INVOKESTATIC = 0xB8;
+	private static final int ANEWARRAY = 0xBD;
+	private static final int CHECKCAST = 0xC0;
+
+	/** max operand stack : this, slot, array, array, index, long/double */
+	private static final int MAX_STACK = 7;
+
+	private static final String OBJECT_INTERNAL_NAME = "java/lang/Object";
+
+	private static final String DISPATCH_METHOD_NAME = "dispatch";
+
+	private static final String DISPATCH_METHOD_DESCRIPTOR = "(I[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private final String className;
+
+	private final String superClassName;
+
+	private final Class<?> implementee;
+
+	private final Method[] implementeeMethods;
+
+	private final List<byte[]> constantPool = new ArrayList<byte[]>();
+
+	private final Map<String, Integer> constantPoolIndexes = new HashMap<String, Integer>();
+
+	/**
+	 * Create a {@code ImplementeeClassGenerator} instance.
+	 * 
+	 * @param className
+	 *            The binary name of the class to be generated.
+	 * @param superClass
+	 *            The super class of the class to be generated.
+	 * @param implementee
+	 *            The <i>implementee</i> interface.
+	 * @param implementeeMethods
+	 *            The <i>implementee method</i>s to be generated, the array
+	 *            index of each element is its dispatch slot.
+	 */
+	public ImplementeeClassGenerator(String className, Class<?> superClass,
+			Class<?> implementee, Method[] implementeeMethods)
+	{
+		super();
+		this.className = toInternalName(className);
+		this.superClassName = toInternalName(superClass.getName());
+		this.implementee = implementee;
+		this.implementeeMethods = implementeeMethods;
+	}
+
+	/**
+	 * Generate the class file bytes.
+	 * 
+	 * @return
+	 */
+	public byte[] generate()
+	{
+		try
+		{
+			return doGenerate();
+		}
+		catch (IOException e)
+		{
+			// never happens for ByteArrayOutputStream
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Do generate the class file bytes.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	protected byte[] doGenerate() throws IOException
+	{
+		int thisClassIndex = classConstant(this.className);
+		int superClassIndex = classConstant(this.superClassName);
+		int implementeeIndex = classConstant(
+				toInternalName(this.implementee.getName()));
+		int codeIndex = utf8Constant("Code");
+
+		List<byte[]> methods = new ArrayList<byte[]>();
+
+		methods.add(generateConstructor(codeIndex));
+
+		for (int i = 0; i < this.implementeeMethods.length; i++)
+			methods.add(generateMethod(codeIndex, i,
+					this.implementeeMethods[i]));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeInt(CLASS_FILE_MAGIC);
+		out.writeShort(0);
+		out.writeShort(CLASS_FILE_MAJOR_VERSION);
+
+		out.writeShort(this.constantPool.size() + 1);
+		for (byte[] constant : this.constantPool)
+			out.write(constant);
+
+		out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		out.writeShort(thisClassIndex);
+		out.writeShort(superClassIndex);
+
+		// interfaces
+		out.writeShort(1);
+		out.writeShort(implementeeIndex);
+
+		// fields
+		out.writeShort(0);
+
+		out.writeShort(methods.size());
+		for (byte[] method : methods)
+			out.write(method);
+
+		// attributes
+		out.writeShort(0);
+
+		out.flush();
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Generate the public no-argument constructor.
+	 * 
+	 * @param codeIndex
+	 * @return
+	 * @throws IOException
+	 */
+	protected byte[] generateConstructor(int codeIndex) throws IOException
+	{
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+		code.write(ALOAD_0);
+		code.write(INVOKESPECIAL);
+		writeShort(code,
+				methodConstant(this.superClassName, "<init>", "()V"));
+		code.write(RETURN);
+
+		return methodInfo(ACC_PUBLIC, "<init>", "()V", codeIndex, 1, 1,
+				code.toByteArray());
+	}
+
+	/**
+	 * Generate an <i>implementee method</i> which dispatches to the given
+	 * slot.
+	 * 
+	 * @param codeIndex
+	 * @param slot
+	 * @param implementeeMethod
+	 * @return
+	 * @throws IOException
+	 */
+	protected byte[] generateMethod(int codeIndex, int slot,
+			Method implementeeMethod) throws IOException
+	{
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+		Class<?>[] paramTypes = implementeeMethod.getParameterTypes();
+
+		code.write(ALOAD_0);
+		pushInt(code, slot);
+
+		int maxLocals = 1;
+
+		if (paramTypes.length == 0)
+			code.write(ACONST_NULL);
+		else
+		{
+			pushInt(code, paramTypes.length);
+			code.write(ANEWARRAY);
+			writeShort(code, classConstant(OBJECT_INTERNAL_NAME));
+
+			for (int i = 0; i < paramTypes.length; i++)
+			{
+				Class<?> paramType = paramTypes[i];
+
+				code.write(DUP);
+				pushInt(code, i);
+				code.write(loadOpcode(paramType));
+				code.write(maxLocals);
+
+				if (paramType.isPrimitive())
+				{
+					Class<?> wrapperType = TypeUtil.toWrapperType(paramType);
+
+					code.write(INVOKESTATIC);
+					writeShort(code, methodConstant(
+							toInternalName(wrapperType.getName()), "valueOf",
+							"(" + toDescriptor(paramType) + ")"
+									+ toDescriptor(wrapperType)));
+				}
+
+				code.write(AASTORE);
+
+				maxLocals += (paramType == long.class
+						|| paramType == double.class ? 2 : 1);
+			}
+		}
+
+		code.write(INVOKEVIRTUAL);
+		writeShort(code, methodConstant(this.superClassName,
+				DISPATCH_METHOD_NAME, DISPATCH_METHOD_DESCRIPTOR));
+
+		Class<?> returnType = implementeeMethod.getReturnType();
+
+		if (void.class.equals(returnType))
+		{
+			code.write(POP);
+			code.write(RETURN);
+		}
+		else if (returnType.isPrimitive())
+		{
+			Class<?> wrapperType = TypeUtil.toWrapperType(returnType);
+			String wrapperName = toInternalName(wrapperType.getName());
+
+			code.write(CHECKCAST);
+			writeShort(code, classConstant(wrapperName));
+			code.write(INVOKEVIRTUAL);
+			writeShort(code, methodConstant(wrapperName,
+					returnType.getName() + "Value",
+					"()" + toDescriptor(returnType)));
+			code.write(returnOpcode(returnType));
+		}
+		else
+		{
+			if (!Object.class.equals(returnType))
+			{
+				code.write(CHECKCAST);
+				writeShort(code, classConstant(toClassConstantName(returnType)));
+			}
+
+			code.write(ARETURN);
+		}
+
+		return methodInfo(ACC_PUBLIC, implementeeMethod.getName(),
+				toDescriptor(implementeeMethod), codeIndex, MAX_STACK,
+				maxLocals, code.toByteArray());
+	}
+
+	/**
+	 * Build a {@code method_info} structure with only {@code Code}
+	 * attribute.
+	 * 
+	 * @param access
+	 * @param name
+	 * @param descriptor
+	 * @param codeIndex
+	 * @param maxStack
+	 * @param maxLocals
+	 * @param code
+	 * @return
+	 * @throws IOException
+	 */
+	protected byte[] methodInfo(int access, String name, String descriptor,
+			int codeIndex, int maxStack, int maxLocals, byte[] code)
+			throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		out.writeShort(access);
+		out.writeShort(utf8Constant(name));
+		out.writeShort(utf8Constant(descriptor));
+
+		// attributes : Code only
+		out.writeShort(1);
+		out.writeShort(codeIndex);
+		out.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.length);
+		out.write(code);
+		// exception table
+		out.writeShort(0);
+		// code attributes
+		out.writeShort(0);
+
+		out.flush();
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Push an {@code int} constant onto the operand stack.
+	 * 
+	 * @param code
+	 * @param value
+	 * @throws IOException
+	 */
+	protected void pushInt(ByteArrayOutputStream code, int value)
+			throws IOException
+	{
+		if (value >= -1 && value <= 5)
+			code.write(ICONST_0 + value);
+		else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE)
+		{
+			code.write(BIPUSH);
+			code.write(value);
+		}
+		else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE)
+		{
+			code.write(SIPUSH);
+			writeShort(code, value);
+		}
+		else
+		{
+			code.write(LDC_W);
+			writeShort(code, integerConstant(value));
+		}
+	}
+
+	protected int utf8Constant(String value) throws IOException
+	{
+		String key = "U" + value;
+
+		Integer index = this.constantPoolIndexes.get(key);
+
+		if (index != null)
+			return index;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(CONSTANT_UTF8);
+		out.writeUTF(value);
+		out.flush();
+
+		return addConstant(key, bytes.toByteArray());
+	}
+
+	protected int integerConstant(int value) throws IOException
+	{
+		String key = "I" + value;
+
+		Integer index = this.constantPoolIndexes.get(key);
+
+		if (index != null)
+			return index;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(CONSTANT_INTEGER);
+		out.writeInt(value);
+		out.flush();
+
+		return addConstant(key, bytes.toByteArray());
+	}
+
+	protected int classConstant(String internalName) throws IOException
+	{
+		String key = "C" + internalName;
+
+		Integer index = this.constantPoolIndexes.get(key);
+
+		if (index != null)
+			return index;
+
+		int nameIndex = utf8Constant(internalName);
+
+		return addConstant(key, new byte[] { CONSTANT_CLASS,
+				(byte) (nameIndex >> 8), (byte) nameIndex });
+	}
+
+	protected int methodConstant(String ownerInternalName, String name,
+			String descriptor) throws IOException
+	{
+		String key = "M" + ownerInternalName + "." + name + descriptor;
+
+		Integer index = this.constantPoolIndexes.get(key);
+
+		if (index != null)
+			return index;
+
+		int ownerIndex = classConstant(ownerInternalName);
+		int nameIndex = utf8Constant(name);
+		int descriptorIndex = utf8Constant(descriptor);
+
+		String ntKey = "N" + name + descriptor;
+		Integer ntIndex = this.constantPoolIndexes.get(ntKey);
+
+		if (ntIndex == null)
+			ntIndex = addConstant(ntKey,
+					new byte[] { CONSTANT_NAME_AND_TYPE,
+							(byte) (nameIndex >> 8), (byte) nameIndex,
+							(byte) (descriptorIndex >> 8),
+							(byte) descriptorIndex });
+
+		return addConstant(key,
+				new byte[] { CONSTANT_METHODREF, (byte) (ownerIndex >> 8),
+						(byte) ownerIndex, (byte) (ntIndex >> 8),
+						(byte) (int) ntIndex });
+	}
+
+	protected int addConstant(String key, byte[] constant)
+	{
+		this.constantPool.add(constant);
+
+		int index = this.constantPool.size();
+
+		this.constantPoolIndexes.put(key, index);
+
+		return index;
+	}
+
+	protected void writeShort(ByteArrayOutputStream out, int value)
+	{
+		out.write((value >> 8) & 0xFF);
+		out.write(value & 0xFF);
+	}
+
+	protected int loadOpcode(Class<?> type)
+	{
+		if (!type.isPrimitive())
+			return ALOAD;
+		else if (long.class.equals(type))
+			return LLOAD;
+		else if (float.class.equals(type))
+			return FLOAD;
+		else if (double.class.equals(type))
+			return DLOAD;
+		else
+			return ILOAD;
+	}
+
+	protected int returnOpcode(Class<?> type)
+	{
+		if (!type.isPrimitive())
+			return ARETURN;
+		else if (long.class.equals(type))
+			return LRETURN;
+		else if (float.class.equals(type))
+			return FRETURN;
+		else if (double.class.equals(type))
+			return DRETURN;
+		else
+			return IRETURN;
+	}
+
+	/**
+	 * Get the method descriptor of the given method.
+	 * 
+	 * @param method
+	 * @return
+	 */
+	public static String toDescriptor(Method method)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		sb.append('(');
+
+		for (Class<?> paramType : method.getParameterTypes())
+			sb.append(toDescriptor(paramType));
+
+		sb.append(')');
+		sb.append(toDescriptor(method.getReturnType()));
+
+		return sb.toString();
+	}
+
+	/**
+	 * Get the field descriptor of the given type.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public static String toDescriptor(Class<?> type)
+	{
+		if (type.isArray())
+			return toInternalName(type.getName());
+		else if (!type.isPrimitive())
+			return "L" + toInternalName(type.getName()) + ";";
+		else if (boolean.class.equals(type))
+			return "Z";
+		else if (byte.class.equals(type))
+			return "B";
+		else if (char.class.equals(type))
+			return "C";
+		else if (short.class.equals(type))
+			return "S";
+		else if (int.class.equals(type))
+			return "I";
+		else if (long.class.equals(type))
+			return "J";
+		else if (float.class.equals(type))
+			return "F";
+		else if (double.class.equals(type))
+			return "D";
+		else
+			return "V";
+	}
+
+	protected static String toClassConstantName(Class<?> type)
+	{
+		// array class constant uses its descriptor
+		return toInternalName(type.getName());
+	}
+
+	protected static String toInternalName(String binaryName)
+	{
+		return binaryName.replace('.', '/');
+	}
+}
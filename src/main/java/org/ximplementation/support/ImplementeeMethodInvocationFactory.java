@@ -48,4 +48,63 @@ public interface ImplementeeMethodInvocationFactory
 			Method implementeeMethod, Object[] invocationParams,
 			ImplementorBeanFactory implementorBeanFactory)
 			throws Throwable;
+
+	/**
+	 * Get {@linkplain ImplementeeMethodInvocation} for given
+	 * {@linkplain ImplementInfo} which is already found in the
+	 * {@linkplain Implementation}.
+	 * <p>
+	 * Callers that invoke the same <i>implementee method</i> repeatedly can
+	 * find its {@code ImplementInfo} once and use this method to avoid looking
+	 * it up for every invocation.
+	 * </p>
+	 * 
+	 * @param implementation
+	 *            The {@code Implementation} for the <i>implementee</i>.
+	 * @param implementInfo
+	 *            The {@code ImplementInfo} of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param invocationParams
+	 *            The invocation parameters of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param implementorBeanFactory
+	 *            The {@code ImplementorBeanFactory} for the <i>implementee</i>.
+	 * @return The {@code ImplementeeMethodInvocation} instance, {@code null} if
+	 *         no.
+	 * @throws Throwable
+	 */
+	ImplementeeMethodInvocation get(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory)
+			throws Throwable;
+
+	/**
+	 * Invoke the <i>implementee method</i> of given {@linkplain ImplementInfo}
+	 * directly.
+	 * <p>
+	 * It is the same as invoking the {@linkplain ImplementeeMethodInvocation}
+	 * got by
+	 * {@linkplain #get(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * , but implementations may avoid creating the intermediate objects.
+	 * </p>
+	 * 
+	 * @param implementation
+	 *            The {@code Implementation} for the <i>implementee</i>.
+	 * @param implementInfo
+	 *            The {@code ImplementInfo} of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param invocationParams
+	 *            The invocation parameters of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param implementorBeanFactory
+	 *            The {@code ImplementorBeanFactory} for the <i>implementee</i>.
+	 * @return The <i>implementee method</i> invocation result.
+	 * @throws UnsupportedOperationException
+	 *             If no valid <i>implement method</i> found.
+	 * @throws Throwable
+	 */
+	Object invoke(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory)
+			throws Throwable;
 }
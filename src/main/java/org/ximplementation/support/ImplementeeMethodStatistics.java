@@ -0,0 +1,138 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Dispatch statistics snapshot of an <i>implementee method</i>.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ * @see DispatchMetrics
+ */
+public class ImplementeeMethodStatistics
+{
+	private final String implementeeMethod;
+
+	private final long invocationCount;
+
+	private final long noValidImplementMethodCount;
+
+	private final long inlineCacheHitCount;
+
+	private final long sharedCacheHitCount;
+
+	private final long cacheMissCount;
+
+	private final LatencyStatistics routingLatency;
+
+	public ImplementeeMethodStatistics(String implementeeMethod,
+			long invocationCount, long noValidImplementMethodCount,
+			long inlineCacheHitCount, long sharedCacheHitCount,
+			long cacheMissCount, LatencyStatistics routingLatency)
+	{
+		super();
+		this.implementeeMethod = implementeeMethod;
+		this.invocationCount = invocationCount;
+		this.noValidImplementMethodCount = noValidImplementMethodCount;
+		this.inlineCacheHitCount = inlineCacheHitCount;
+		this.sharedCacheHitCount = sharedCacheHitCount;
+		this.cacheMissCount = cacheMissCount;
+		this.routingLatency = routingLatency;
+	}
+
+	/**
+	 * Get the <i>implementee method</i> description.
+	 * 
+	 * @return
+	 */
+	public String getImplementeeMethod()
+	{
+		return implementeeMethod;
+	}
+
+	/**
+	 * Get the count of invocations.
+	 * 
+	 * @return
+	 */
+	public long getInvocationCount()
+	{
+		return invocationCount;
+	}
+
+	/**
+	 * Get the count of invocations failed for no valid <i>implement
+	 * method</i>.
+	 * 
+	 * @return
+	 */
+	public long getNoValidImplementMethodCount()
+	{
+		return noValidImplementMethodCount;
+	}
+
+	/**
+	 * Get the count of dispatch info found in the inline cache.
+	 * 
+	 * @return
+	 */
+	public long getInlineCacheHitCount()
+	{
+		return inlineCacheHitCount;
+	}
+
+	/**
+	 * Get the count of dispatch info found in the shared cache.
+	 * 
+	 * @return
+	 */
+	public long getSharedCacheHitCount()
+	{
+		return sharedCacheHitCount;
+	}
+
+	/**
+	 * Get the count of dispatch info evaluated for missing in caches.
+	 * 
+	 * @return
+	 */
+	public long getCacheMissCount()
+	{
+		return cacheMissCount;
+	}
+
+	/**
+	 * Get the latency of selecting the <i>implement method</i> and
+	 * <i>implementor</i> bean, excluding invoking it.
+	 * 
+	 * @return
+	 */
+	public LatencyStatistics getRoutingLatency()
+	{
+		return routingLatency;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [implementeeMethod="
+				+ implementeeMethod + ", invocationCount=" + invocationCount
+				+ ", noValidImplementMethodCount="
+				+ noValidImplementMethodCount + ", inlineCacheHitCount="
+				+ inlineCacheHitCount + ", sharedCacheHitCount="
+				+ sharedCacheHitCount + ", cacheMissCount=" + cacheMissCount
+				+ ", routingLatency=" + routingLatency + "]";
+	}
+}
@@ -0,0 +1,315 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.ximplementation.Implementor;
+
+/**
+ * The <i>implementor</i> manager backed by <i>implementor</i> indexes.
+ * <p>
+ * The indexes are the {@linkplain #RESOURCE_NAME} resources generated by
+ * {@linkplain ImplementationMetadataProcessor} at compile time for
+ * {@linkplain Implementor} annotated classes. The <i>implementor</i> classes
+ * are loaded without initializing only when their <i>implementee</i> is
+ * requested first by {@linkplain #get(Class)} or
+ * {@linkplain #hasImplementor(Class)}, and all are loaded by
+ * {@linkplain #getAllImplementees()}.
+ * </p>
+ * <p>
+ * Each line of the resource is an <i>implementor</i> name and its comma
+ * separated <i>implementee</i> names, separated by a tab, all names are
+ * {@linkplain Class#getName()}.
+ * </p>
+ * <p>
+ * {@linkplain #get(Class)}, {@linkplain #hasImplementor(Class)} and
+ * {@linkplain #getAllImplementees()} are synchronized, so they can be called
+ * concurrently. The {@code add} and {@code remove} methods are not, like
+ * {@linkplain ImplementorManager}, they must not be called concurrently with
+ * any other.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-26
+ *
+ */
+public class IndexedImplementorManager extends ImplementorManager
+{
+	/** the resource name of the implementor index */
+	public static final String RESOURCE_NAME = "META-INF/ximplementation/implementors";
+
+	private ClassLoader classLoader;
+
+	/** the key is implementee name, the value is its implementor names */
+	private Map<String, Set<String>> implementorNamesMap;
+
+	private Set<String> loadedImplementeeNames = new HashSet<String>();
+
+	/**
+	 * Create an {@code IndexedImplementorManager}.
+	 * 
+	 * @param classLoader
+	 *            The {@linkplain ClassLoader} to load classes.
+	 * @param implementorNamesMap
+	 *            The key is <i>implementee</i> name, the value is the
+	 *            <i>implementor</i> names of it.
+	 */
+	public IndexedImplementorManager(ClassLoader classLoader,
+			Map<String, Set<String>> implementorNamesMap)
+	{
+		super();
+		this.classLoader = classLoader;
+		this.implementorNamesMap = implementorNamesMap;
+	}
+
+	public ClassLoader getClassLoader()
+	{
+		return classLoader;
+	}
+
+	public Map<String, Set<String>> getImplementorNamesMap()
+	{
+		return implementorNamesMap;
+	}
+
+	@Override
+	public synchronized Set<Class<?>> getAllImplementees()
+	{
+		loadAll();
+
+		return super.getAllImplementees();
+	}
+
+	@Override
+	public synchronized Set<Class<?>> get(Class<?> implementee)
+	{
+		loadFor(implementee);
+
+		return super.get(implementee);
+	}
+
+	@Override
+	public synchronized boolean hasImplementor(Class<?> implementee)
+	{
+		loadFor(implementee);
+
+		return super.hasImplementor(implementee);
+	}
+
+	/**
+	 * Load the indexed <i>implementor</i>s for the <i>implementee</i>, if not
+	 * loaded.
+	 * <p>
+	 * The <i>implementee</i> is marked as loaded only after its
+	 * <i>implementor</i>s are added, so a failed loading is tried and thrown
+	 * again on the next call.
+	 * </p>
+	 * 
+	 * @param implementee
+	 * @throws IllegalStateException
+	 *             If an <i>implementor</i> class is not found.
+	 */
+	protected synchronized void loadFor(Class<?> implementee)
+			throws IllegalStateException
+	{
+		String implementeeName = implementee.getName();
+
+		if (this.loadedImplementeeNames.contains(implementeeName))
+			return;
+
+		Set<String> implementorNames = this.implementorNamesMap
+				.get(implementeeName);
+
+		if (implementorNames != null && !implementorNames.isEmpty())
+		{
+			Class<?>[] implementors = new Class<?>[implementorNames.size()];
+
+			int i = 0;
+			for (String implementorName : implementorNames)
+				implementors[i++] = loadClass(implementorName);
+
+			doAddFor(implementee, implementors);
+		}
+
+		this.loadedImplementeeNames.add(implementeeName);
+	}
+
+	/**
+	 * Load all the indexed <i>implementee</i>s and <i>implementor</i>s.
+	 */
+	protected synchronized void loadAll()
+	{
+		for (String implementeeName : this.implementorNamesMap.keySet())
+		{
+			if (!this.loadedImplementeeNames.contains(implementeeName))
+				loadFor(loadClass(implementeeName));
+		}
+	}
+
+	/**
+	 * Load a class without initializing.
+	 * 
+	 * @param name
+	 * @return
+	 * @throws IllegalStateException
+	 *             If the class is not found.
+	 */
+	protected Class<?> loadClass(String name) throws IllegalStateException
+	{
+		try
+		{
+			return Class.forName(name, false, this.classLoader);
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new IllegalStateException("Class [" + name + "] in ["
+					+ RESOURCE_NAME + "] is not found", e);
+		}
+	}
+
+	/**
+	 * Create an {@code IndexedImplementorManager} with all
+	 * {@linkplain #RESOURCE_NAME} resources in the {@linkplain ClassLoader}.
+	 * 
+	 * @param classLoader
+	 * @return
+	 * @throws IOException
+	 */
+	public static IndexedImplementorManager load(ClassLoader classLoader)
+			throws IOException
+	{
+		Map<String, Set<String>> implementorNamesMap = new LinkedHashMap<String, Set<String>>();
+
+		Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+
+		while (resources.hasMoreElements())
+		{
+			InputStream in = resources.nextElement().openStream();
+
+			try
+			{
+				readIndex(new InputStreamReader(in, "UTF-8"),
+						implementorNamesMap);
+			}
+			finally
+			{
+				in.close();
+			}
+		}
+
+		return new IndexedImplementorManager(classLoader, implementorNamesMap);
+	}
+
+	/**
+	 * Read an <i>implementor</i> index.
+	 * 
+	 * @param reader
+	 * @param implementorNamesMap
+	 *            The map to store the index, the key is <i>implementee</i>
+	 *            name, the value is the <i>implementor</i> names of it.
+	 * @throws IOException
+	 */
+	public static void readIndex(Reader reader,
+			Map<String, Set<String>> implementorNamesMap) throws IOException
+	{
+		BufferedReader bufferedReader = new BufferedReader(reader);
+
+		String line = null;
+		int lineNumber = 0;
+
+		while ((line = bufferedReader.readLine()) != null)
+		{
+			lineNumber++;
+
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+
+			String[] fields = line.split("\t", -1);
+
+			if (fields.length != 2 || fields[0].isEmpty())
+				throw new IOException("Line " + lineNumber
+						+ " : illegal implementor index [" + line + "]");
+
+			if (fields[1].isEmpty())
+				continue;
+
+			for (String implementeeName : fields[1].split(","))
+			{
+				Set<String> implementorNames = implementorNamesMap
+						.get(implementeeName);
+
+				if (implementorNames == null)
+				{
+					implementorNames = new LinkedHashSet<String>();
+					implementorNamesMap.put(implementeeName, implementorNames);
+				}
+
+				implementorNames.add(fields[0]);
+			}
+		}
+	}
+
+	/**
+	 * Write an <i>implementor</i> index.
+	 * 
+	 * @param writer
+	 * @param implementeeNamesMap
+	 *            The key is <i>implementor</i> name, the value is all the
+	 *            <i>implementee</i> names of it.
+	 * @throws IOException
+	 */
+	public static void writeIndex(Writer writer,
+			Map<String, ? extends Collection<String>> implementeeNamesMap)
+			throws IOException
+	{
+		for (Map.Entry<String, ? extends Collection<String>> entry : implementeeNamesMap
+				.entrySet())
+		{
+			List<String> implementeeNames = new ArrayList<String>(
+					entry.getValue());
+
+			writer.write(entry.getKey());
+			writer.write('\t');
+
+			for (int i = 0; i < implementeeNames.size(); i++)
+			{
+				if (i > 0)
+					writer.write(',');
+
+				writer.write(implementeeNames.get(i));
+			}
+
+			writer.write('\n');
+		}
+
+		writer.flush();
+	}
+}
@@ -0,0 +1,109 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Listener of <i>implementee method</i> invocation events.
+ * <p>
+ * It is notified by {@linkplain AbstractImplementeeMethodInvocationFactory}
+ * when routing an invocation to an <i>implement method</i>, evaluating the
+ * candidate <i>implement method</i>s and completing the invocation, so
+ * tracing and profiling can be attached without extending the factories.
+ * </p>
+ * <p>
+ * It is passed to the factory constructors and can not be changed later.
+ * {@linkplain #NO_OP} is used by default, whose empty calls are inlined away
+ * by the JIT compiler.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe, and should return quickly since they
+ * are called in the invocation thread.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ * @see AbstractInvocationListener
+ */
+public interface InvocationListener
+{
+	/** the listener doing nothing */
+	InvocationListener NO_OP = new AbstractInvocationListener()
+	{
+	};
+
+	/**
+	 * Called before selecting the <i>implement method</i>.
+	 * 
+	 * @param implementInfo
+	 * @param invocationParams
+	 */
+	void routingStarted(ImplementInfo implementInfo,
+			Object[] invocationParams);
+
+	/**
+	 * Called after a validity method of a candidate <i>implement method</i>
+	 * is evaluated, or its result is got from cache.
+	 * 
+	 * @param implementInfo
+	 * @param implementMethodInfo
+	 * @param implementorBean
+	 * @param valid
+	 */
+	void validityEvaluated(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			boolean valid);
+
+	/**
+	 * Called after a priority method of a candidate <i>implement method</i>
+	 * is evaluated, or its result is got from cache.
+	 * 
+	 * @param implementInfo
+	 * @param implementMethodInfo
+	 * @param implementorBean
+	 * @param priority
+	 */
+	void priorityEvaluated(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			int priority);
+
+	/**
+	 * Called after the <i>implement method</i> is selected.
+	 * 
+	 * @param implementInfo
+	 * @param implementMethodInfo
+	 *            The selected {@linkplain ImplementMethodInfo}, {@code null}
+	 *            if none is valid.
+	 * @param implementorBean
+	 *            The selected <i>implementor</i> bean, {@code null} if none
+	 *            is valid or the <i>implement method</i> is {@code static}.
+	 */
+	void routingEnded(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean);
+
+	/**
+	 * Called after the selected <i>implement method</i> returns or throws.
+	 * 
+	 * @param implementInfo
+	 * @param implementMethodInfo
+	 * @param implementorBean
+	 * @param result
+	 *            The result, {@code null} if thrown.
+	 * @param throwable
+	 *            The thrown, {@code null} if returned.
+	 */
+	void invocationCompleted(ImplementInfo implementInfo,
+			ImplementMethodInfo implementMethodInfo, Object implementorBean,
+			Object result, Throwable throwable);
+}
@@ -0,0 +1,102 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram.
+ * <p>
+ * Latencies are recorded in nanoseconds into power-of-two buckets, so
+ * recording is a few atomic additions and percentiles are accurate to within
+ * a factor of two.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ * @see LatencyStatistics
+ */
+public class LatencyHistogram
+{
+	/** bucket i counts latencies in [2^(i-1), 2^i), bucket 0 counts 0 */
+	private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+	private final LongAdder count = new LongAdder();
+
+	private final LongAdder total = new LongAdder();
+
+	private final AtomicLong max = new AtomicLong();
+
+	public LatencyHistogram()
+	{
+		super();
+	}
+
+	/**
+	 * Record a latency.
+	 * 
+	 * @param nanos
+	 *            The latency in nanoseconds, negative ones are recorded as
+	 *            {@code 0}.
+	 */
+	public void record(long nanos)
+	{
+		if (nanos < 0)
+			nanos = 0;
+
+		this.buckets.incrementAndGet(getBucketIndex(nanos));
+		this.count.increment();
+		this.total.add(nanos);
+
+		long max = this.max.get();
+
+		while (nanos > max && !this.max.compareAndSet(max, nanos))
+			max = this.max.get();
+	}
+
+	/**
+	 * Get the statistics snapshot.
+	 * <p>
+	 * Recordings concurrent with this method may be partly included.
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public LatencyStatistics getStatistics()
+	{
+		long[] bucketCounts = new long[this.buckets.length()];
+
+		for (int i = 0; i < bucketCounts.length; i++)
+			bucketCounts[i] = this.buckets.get(i);
+
+		return new LatencyStatistics(this.count.sum(), this.total.sum(),
+				this.max.get(), bucketCounts);
+	}
+
+	/**
+	 * Get the bucket index of given latency.
+	 * 
+	 * @param nanos
+	 * @return
+	 */
+	protected static int getBucketIndex(long nanos)
+	{
+		int index = 64 - Long.numberOfLeadingZeros(nanos);
+
+		return (index > 63 ? 63 : index);
+	}
+}
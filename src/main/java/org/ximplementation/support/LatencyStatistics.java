@@ -0,0 +1,163 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+/**
+ * Statistics snapshot of {@linkplain LatencyHistogram}.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class LatencyStatistics
+{
+	private final long count;
+
+	private final long totalNanos;
+
+	private final long maxNanos;
+
+	private final long[] bucketCounts;
+
+	public LatencyStatistics(long count, long totalNanos, long maxNanos,
+			long[] bucketCounts)
+	{
+		super();
+		this.count = count;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.bucketCounts = bucketCounts;
+	}
+
+	/**
+	 * Get the count of recorded latencies.
+	 * 
+	 * @return
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Get the total of recorded latencies in nanoseconds.
+	 * 
+	 * @return
+	 */
+	public long getTotalNanos()
+	{
+		return totalNanos;
+	}
+
+	/**
+	 * Get the max recorded latency in nanoseconds.
+	 * 
+	 * @return
+	 */
+	public long getMaxNanos()
+	{
+		return maxNanos;
+	}
+
+	/**
+	 * Get the mean latency in nanoseconds, {@code 0} if none recorded.
+	 * 
+	 * @return
+	 */
+	public double getMeanNanos()
+	{
+		return (this.count == 0 ? 0 : (double) this.totalNanos / this.count);
+	}
+
+	/**
+	 * Get the median latency in nanoseconds.
+	 * 
+	 * @return
+	 */
+	public long getP50Nanos()
+	{
+		return getPercentileNanos(50);
+	}
+
+	/**
+	 * Get the 90th percentile latency in nanoseconds.
+	 * 
+	 * @return
+	 */
+	public long getP90Nanos()
+	{
+		return getPercentileNanos(90);
+	}
+
+	/**
+	 * Get the 99th percentile latency in nanoseconds.
+	 * 
+	 * @return
+	 */
+	public long getP99Nanos()
+	{
+		return getPercentileNanos(99);
+	}
+
+	/**
+	 * Get the latency in nanoseconds at given percentile.
+	 * <p>
+	 * It is the upper bound of the bucket containing the percentile, but not
+	 * greater than {@linkplain #getMaxNanos()}.
+	 * </p>
+	 * 
+	 * @param percentile
+	 *            In {@code [0, 100]}.
+	 * @return The latency, {@code 0} if none recorded.
+	 */
+	public long getPercentileNanos(double percentile)
+	{
+		long total = 0;
+		for (long bucketCount : this.bucketCounts)
+			total += bucketCount;
+
+		if (total == 0)
+			return 0;
+
+		long rank = (long) Math.ceil(total * percentile / 100);
+		if (rank < 1)
+			rank = 1;
+
+		long accumulated = 0;
+
+		for (int i = 0; i < this.bucketCounts.length; i++)
+		{
+			accumulated += this.bucketCounts[i];
+
+			if (accumulated >= rank)
+			{
+				long upperBound = (i == 0 ? 0
+						: (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1));
+
+				return Math.min(upperBound, this.maxNanos);
+			}
+		}
+
+		return this.maxNanos;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [count=" + count
+				+ ", totalNanos=" + totalNanos + ", maxNanos=" + maxNanos
+				+ "]";
+	}
+}
@@ -0,0 +1,310 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lazy {@linkplain Implementation}.
+ * <p>
+ * Its {@linkplain ImplementInfo}s are not resolved when it is created, but
+ * each is resolved on the first access of its <i>implementee method</i>, e.g.
+ * the first dispatch of the method. So <i>implementee method</i>s never called
+ * cost nothing but a {@linkplain Method} reference.
+ * </p>
+ * <p>
+ * Resolving errors are the same {@linkplain ImplementationResolveException}s
+ * as {@linkplain ImplementationResolver} resolving eagerly, but they are thrown
+ * on the first access of the <i>implementee method</i>, and thrown again on
+ * every later access. Call {@linkplain #validate()} for resolving all
+ * {@code ImplementInfo}s and getting the errors up front.
+ * </p>
+ * <p>
+ * Methods need all {@code ImplementInfo}s, e.g.
+ * {@linkplain #getImplementInfos()}, {@linkplain #getImplementors()}, resolve
+ * all of them first. {@linkplain #equals(Object)} and
+ * {@linkplain #hashCode()} do not, they compare the <i>implementee</i>, the
+ * <i>implementor</i>s to resolve and the {@linkplain ImplementationResolver}
+ * instead, so a {@code LazyImplementation} never equals to an eager one. It
+ * is serialized as a plain {@code Implementation} with all
+ * {@code ImplementInfo}s resolved.
+ * </p>
+ * <p>
+ * Note that this class is thread-safe, each {@code ImplementInfo} is resolved
+ * only once.
+ * </p>
+ * <p>
+ * Instances of this class can be created by {@linkplain ImplementationResolver}
+ * with {@linkplain ImplementationResolver#setLazy(boolean)} enabled.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-24
+ * @see ImplementationResolver
+ */
+public class LazyImplementation<T> extends Implementation<T>
+{
+	private static final long serialVersionUID = 1L;
+
+	private final transient ImplementationResolver implementationResolver;
+
+	/** the implementors to resolve */
+	private final transient Set<Class<?>> implementors;
+
+	/** all implementee methods, for resolving */
+	private final transient Collection<Method> implementeeMethodCollection;
+
+	/** all implementee methods, indexed by ImplementInfo index */
+	private final transient Method[] implementeeMethods;
+
+	/** implementee method to ImplementInfo index */
+	private final transient Map<Method, Integer> implementeeMethodIndexes;
+
+	/** the resolved ImplementInfos */
+	private final transient AtomicReferenceArray<ImplementInfo> resolvedImplementInfos;
+
+	/** the resolving lock of each ImplementInfo */
+	private final transient Object[] resolvingLocks;
+
+	public LazyImplementation(ImplementationResolver implementationResolver,
+			Class<T> implementee, Set<Class<?>> implementors,
+			Collection<Method> implementeeMethods)
+	{
+		super();
+		super.setImplementee(implementee);
+
+		this.implementationResolver = implementationResolver;
+		this.implementors = implementors;
+		this.implementeeMethodCollection = implementeeMethods;
+		this.implementeeMethods = implementeeMethods
+				.toArray(new Method[implementeeMethods.size()]);
+		this.implementeeMethodIndexes = new HashMap<Method, Integer>(
+				this.implementeeMethods.length * 2);
+		this.resolvedImplementInfos = new AtomicReferenceArray<ImplementInfo>(
+				this.implementeeMethods.length);
+		this.resolvingLocks = new Object[this.implementeeMethods.length];
+
+		for (int i = 0; i < this.implementeeMethods.length; i++)
+		{
+			if (!this.implementeeMethodIndexes
+					.containsKey(this.implementeeMethods[i]))
+				this.implementeeMethodIndexes.put(this.implementeeMethods[i],
+						i);
+
+			this.resolvingLocks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Get the <i>implementee method</i>s, in the same order as
+	 * {@linkplain #getImplementInfos()}.
+	 * 
+	 * @return
+	 */
+	public Method[] getImplementeeMethods()
+	{
+		return this.implementeeMethods.clone();
+	}
+
+	/**
+	 * Return if the {@code ImplementInfo} at the given index is resolved.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public boolean isResolved(int index)
+	{
+		return (this.resolvedImplementInfos.get(index) != null);
+	}
+
+	/**
+	 * Resolve all {@code ImplementInfo}s if not yet.
+	 * <p>
+	 * They are resolved in the same order as {@linkplain ImplementationResolver}
+	 * resolving eagerly, so the same first error is thrown.
+	 * </p>
+	 * 
+	 * @throws ImplementationResolveException
+	 */
+	public void validate() throws ImplementationResolveException
+	{
+		if (super.getImplementInfos() != null)
+			return;
+
+		ImplementInfo[] implementInfos = new ImplementInfo[this.implementeeMethods.length];
+
+		for (int i = 0; i < implementInfos.length; i++)
+			implementInfos[i] = getImplementInfo(i);
+
+		super.setImplementInfos(implementInfos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * All {@code ImplementInfo}s are resolved first.
+	 * </p>
+	 */
+	@Override
+	public ImplementInfo[] getImplementInfos()
+	{
+		validate();
+
+		return super.getImplementInfos();
+	}
+
+	/**
+	 * Unsupported, the {@code ImplementInfo}s are resolved by this class.
+	 * 
+	 * @throws UnsupportedOperationException
+	 */
+	@Override
+	public void setImplementInfos(ImplementInfo[] implementInfos)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Unsupported, the <i>implementee</i> is set when created.
+	 * 
+	 * @throws UnsupportedOperationException
+	 */
+	@Override
+	public void setImplementee(Class<T> implementee)
+	{
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int getImplementInfoIndex(Method implementeeMethod)
+	{
+		Integer index = this.implementeeMethodIndexes.get(implementeeMethod);
+
+		return (index == null ? -1 : index.intValue());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * It is resolved first if not yet.
+	 * </p>
+	 * 
+	 * @throws ImplementationResolveException
+	 */
+	@Override
+	public ImplementInfo getImplementInfo(int index)
+			throws ImplementationResolveException
+	{
+		ImplementInfo implementInfo = this.resolvedImplementInfos.get(index);
+
+		if (implementInfo != null)
+			return implementInfo;
+
+		synchronized (this.resolvingLocks[index])
+		{
+			implementInfo = this.resolvedImplementInfos.get(index);
+
+			if (implementInfo == null)
+			{
+				implementInfo = this.implementationResolver
+						.resolveImplementInfo(getImplementee(),
+								this.implementeeMethodCollection,
+								this.implementeeMethods[index],
+								this.implementors);
+
+				this.resolvedImplementInfos.set(index, implementInfo);
+			}
+		}
+
+		return implementInfo;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((getImplementee() == null) ? 0
+				: getImplementee().hashCode());
+		result = prime * result
+				+ ((implementors == null) ? 0 : implementors.hashCode());
+		return result;
+	}
+
+	/**
+	 * Returns if the given object is a {@code LazyImplementation} of the same
+	 * <i>implementee</i>, <i>implementor</i>s and
+	 * {@linkplain ImplementationResolver} instance, without resolving any
+	 * {@code ImplementInfo}.
+	 */
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		LazyImplementation<?> other = (LazyImplementation<?>) obj;
+		if (implementationResolver != other.implementationResolver)
+			return false;
+		if (getImplementee() == null)
+		{
+			if (other.getImplementee() != null)
+				return false;
+		}
+		else if (!getImplementee().equals(other.getImplementee()))
+			return false;
+		if (implementors == null)
+		{
+			if (other.implementors != null)
+				return false;
+		}
+		else if (!implementors.equals(other.implementors))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		int resolved = 0;
+		for (int i = 0; i < this.resolvedImplementInfos.length(); i++)
+		{
+			if (this.resolvedImplementInfos.get(i) != null)
+				resolved++;
+		}
+
+		return getClass().getSimpleName() + " [implementee="
+				+ getImplementee() + ", resolved=" + resolved + "/"
+				+ this.implementeeMethods.length + "]";
+	}
+
+	/**
+	 * Serialize as a plain {@code Implementation}.
+	 * 
+	 * @return
+	 */
+	protected Object writeReplace()
+	{
+		return new Implementation<T>(getImplementee(), getImplementInfos());
+	}
+}
@@ -0,0 +1,138 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Least-in-flight {@linkplain BeanSelectionStrategy}.
+ * <p>
+ * It selects the bean with the least <i>implement method</i> invocations in
+ * flight, the first one is selected if there are more than one. In flight
+ * counts are kept by lock-free counters, keyed by the beans'
+ * {@code equals(Object)}, and a counter is discarded once its count drops to
+ * {@code 0}, so beans removed from the {@linkplain ImplementorBeanFactory} are
+ * not held.
+ * </p>
+ * <p>
+ * Selecting and counting are not atomic as a whole, so under contention the
+ * selected bean is the least loaded one at the time of selecting.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class LeastInFlightBeanSelectionStrategy
+		extends AbstractBeanSelectionStrategy
+{
+	/** counter value of a discarded counter */
+	private static final int DISCARDED = -1;
+
+	private final ConcurrentMap<Object, AtomicInteger> inFlightCounts = new ConcurrentHashMap<Object, AtomicInteger>();
+
+	public LeastInFlightBeanSelectionStrategy()
+	{
+		super();
+	}
+
+	@Override
+	public Object select(ImplementMethodInfo implementMethodInfo,
+			Collection<?> implementorBeans)
+	{
+		Object selected = null;
+		int selectedCount = Integer.MAX_VALUE;
+
+		for (Object implementorBean : implementorBeans)
+		{
+			int count = getInFlightCount(implementorBean);
+
+			if (count < selectedCount)
+			{
+				selected = implementorBean;
+				selectedCount = count;
+
+				if (count == 0)
+					break;
+			}
+		}
+
+		return selected;
+	}
+
+	@Override
+	public void beforeInvoke(Object implementorBean)
+	{
+		for (;;)
+		{
+			AtomicInteger counter = this.inFlightCounts.get(implementorBean);
+
+			if (counter == null)
+			{
+				if (this.inFlightCounts.putIfAbsent(implementorBean,
+						new AtomicInteger(1)) == null)
+					return;
+				else
+					continue;
+			}
+
+			int count = counter.get();
+
+			if (count == DISCARDED)
+			{
+				this.inFlightCounts.remove(implementorBean, counter);
+				continue;
+			}
+
+			if (counter.compareAndSet(count, count + 1))
+				return;
+		}
+	}
+
+	@Override
+	public void afterInvoke(Object implementorBean)
+	{
+		AtomicInteger counter = this.inFlightCounts.get(implementorBean);
+
+		if (counter == null)
+			return;
+
+		if (counter.decrementAndGet() == 0
+				&& counter.compareAndSet(0, DISCARDED))
+			this.inFlightCounts.remove(implementorBean, counter);
+	}
+
+	/**
+	 * Get the count of invocations in flight on given <i>implementor</i>
+	 * bean.
+	 * 
+	 * @param implementorBean
+	 * @return
+	 */
+	public int getInFlightCount(Object implementorBean)
+	{
+		AtomicInteger counter = this.inFlightCounts.get(implementorBean);
+
+		if (counter == null)
+			return 0;
+
+		int count = counter.get();
+
+		return (count < 0 ? 0 : count);
+	}
+}
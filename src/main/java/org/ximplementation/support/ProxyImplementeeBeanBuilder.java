@@ -17,6 +17,7 @@ package org.ximplementation.support;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.concurrent.Executor;
 
 /**
  * Implementee bean builder based on JDK {@linkplain Proxy}.
@@ -28,6 +29,11 @@ import java.lang.reflect.Proxy;
  * Note that the <i>implementee</i> bean also implements the
  * {@linkplain ProxyImplementee} interface for token.
  * </p>
+ * <p>
+ * If an {@linkplain Executor} is set, <i>implementee method</i>s returning
+ * {@code Future}s are invoked asynchronously in it, see
+ * {@linkplain ProxyImplementeeInvocationSupport}.
+ * </p>
  * 
  * @author earthangry@gmail.com
  * @date 2015-12-3
@@ -37,6 +43,9 @@ public class ProxyImplementeeBeanBuilder implements ImplementeeBeanBuilder
 {
 	private ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory;
 
+	/** the executor for asynchronous invocations, null for disabled */
+	private Executor executor;
+
 	public ProxyImplementeeBeanBuilder()
 	{
 		super();
@@ -54,6 +63,29 @@ public class ProxyImplementeeBeanBuilder implements ImplementeeBeanBuilder
 		this.implementeeMethodInvocationFactory = implementeeMethodInvocationFactory;
 	}
 
+	/**
+	 * Get the {@linkplain Executor} for asynchronous invocations.
+	 * 
+	 * @return The {@linkplain Executor}, {@code null} if asynchronous
+	 *         invocation is disabled.
+	 */
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Set the {@linkplain Executor} for asynchronous invocations of the
+	 * <i>implementee</i> beans built afterward, {@code null} for disabling
+	 * asynchronous invocation, which is the default.
+	 * 
+	 * @param executor
+	 */
+	public void setExecutor(Executor executor)
+	{
+		this.executor = executor;
+	}
+
 	@Override
 	public <T> T build(Implementation<T> implementation,
 			ImplementorBeanFactory implementorBeanFactory)
@@ -75,12 +107,15 @@ public class ProxyImplementeeBeanBuilder implements ImplementeeBeanBuilder
 		if (!implementee.isInterface())
 			throw new IllegalArgumentException("[implementee] must be an interface");
 
+		ProxyImplementeeInvocationHandler invocationHandler = new ProxyImplementeeInvocationHandler(
+				implementation, implementorBeanFactory,
+				this.implementeeMethodInvocationFactory);
+		invocationHandler.setExecutor(this.executor);
+
 		@SuppressWarnings("unchecked")
 		T proxy = (T) Proxy.newProxyInstance(implementee.getClassLoader(),
 				new Class<?>[] { implementee, ProxyImplementee.class },
-				new ProxyImplementeeInvocationHandler(implementation,
-						implementorBeanFactory,
-						this.implementeeMethodInvocationFactory));
+				invocationHandler);
 
 		return proxy;
 	}
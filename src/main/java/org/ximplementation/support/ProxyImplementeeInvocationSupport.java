@@ -15,6 +15,23 @@
 package org.ximplementation.support;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import org.ximplementation.Batch;
 
 /**
  * Invocation support for proxy <i>implementee</i>.
@@ -26,6 +43,20 @@ import java.lang.reflect.Method;
  * {@linkplain Object#hashCode()}, {@linkplain Object#toString()} methods for
  * proxy invocation support.
  * </p>
+ * <p>
+ * If an {@linkplain Executor} is set, <i>implementee method</i>s whose return
+ * type is {@linkplain Future}, {@linkplain CompletionStage} or
+ * {@linkplain CompletableFuture} are invoked asynchronously : the <i>implement
+ * method</i> is evaluated and invoked in the {@code Executor}, by the same
+ * {@linkplain ImplementeeMethodInvocationFactory} path as synchronous
+ * invocations. Any {@code Executor} can be used, eg. a
+ * virtual-thread-per-task one.
+ * </p>
+ * <p>
+ * A list of invocations of an <i>implementee method</i> can be invoked in
+ * batch by {@linkplain #invokeBatch(Method, List)}, which groups them by
+ * <i>implement method</i> and <i>implementor</i> bean.
+ * </p>
  * 
  * @author earthangry@gmail.com
  * @date 2015-9-21
@@ -39,6 +70,9 @@ public class ProxyImplementeeInvocationSupport
 
 	protected ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory;
 
+	/** the executor for asynchronous invocations, null for disabled */
+	protected Executor executor;
+
 	public ProxyImplementeeInvocationSupport()
 	{
 		super();
@@ -86,6 +120,28 @@ public class ProxyImplementeeInvocationSupport
 		this.implementeeMethodInvocationFactory = implementeeMethodInvocationFactory;
 	}
 
+	/**
+	 * Get the {@linkplain Executor} for asynchronous invocations.
+	 * 
+	 * @return The {@linkplain Executor}, {@code null} if asynchronous
+	 *         invocation is disabled.
+	 */
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	/**
+	 * Set the {@linkplain Executor} for asynchronous invocations,
+	 * {@code null} for disabling asynchronous invocation.
+	 * 
+	 * @param executor
+	 */
+	public void setExecutor(Executor executor)
+	{
+		this.executor = executor;
+	}
+
 	/**
 	 * Invoke given <i>implementee method</i>.
 	 * 
@@ -98,14 +154,444 @@ public class ProxyImplementeeInvocationSupport
 	 */
 	public Object invoke(Method implementeeMethod, Object[] parameters) throws Throwable
 	{
-		ImplementeeMethodInvocation invocation = getImplementeeMethodInvocation(
-				implementeeMethod, parameters);
+		ImplementInfo implementInfo = this.implementation
+				.getImplementInfo(implementeeMethod);
+
+		if (implementInfo == null)
+			throw new UnsupportedOperationException(
+					"No valid implement method found for [" + implementeeMethod + "]");
+
+		return invoke(implementInfo, parameters);
+	}
+
+	/**
+	 * Invoke the <i>implementee method</i> of given {@linkplain ImplementInfo}.
+	 * <p>
+	 * Proxies that already hold the {@code ImplementInfo} of an
+	 * <i>implementee method</i> can call this method directly to avoid looking
+	 * it up for every invocation.
+	 * </p>
+	 * <p>
+	 * It invokes by
+	 * {@linkplain ImplementeeMethodInvocationFactory#invoke(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * , no {@linkplain ImplementeeMethodInvocation} is created.
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 *            The {@code ImplementInfo} of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param parameters
+	 *            The parameters of the <i>implementee method</i>.
+	 * @return The <i>implementee method</i> invocation result.
+	 * @throws Throwable
+	 */
+	public Object invoke(ImplementInfo implementInfo, Object[] parameters)
+			throws Throwable
+	{
+		if (this.executor != null
+				&& isAsyncImplementeeMethod(implementInfo.getImplementeeMethod()))
+			return invokeAsync(implementInfo, parameters);
+
+		return this.implementeeMethodInvocationFactory.invoke(
+				this.implementation, implementInfo, parameters,
+				this.implementorBeanFactory);
+	}
+
+	/**
+	 * Invoke given <i>implementee method</i> in batch.
+	 * <p>
+	 * Each parameter array is routed to an <i>implement method</i> and
+	 * <i>implementor</i> bean by
+	 * {@linkplain ImplementeeMethodInvocationFactory#get(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * . If none of the <i>implement method</i>s has a validity or priority
+	 * method, the routing only depends on the parameter types, and is done
+	 * only once for each distinct {@linkplain TypeSignature} of them, see
+	 * {@linkplain #getParamTypeSignature(ImplementInfo, Object[])}.
+	 * </p>
+	 * <p>
+	 * The invocations are then grouped by the routed <i>implement method</i>
+	 * and <i>implementor</i> bean, and invoked group by group in the order of
+	 * their first invocations : a group whose <i>implement method</i> has a
+	 * batch method (see {@linkplain Batch}) is invoked in one batch method
+	 * call, others are invoked one by one. Invocations created with a
+	 * {@linkplain BeanSelectionStrategy} are not grouped.
+	 * </p>
+	 * <p>
+	 * Batch invocations are always synchronous, and they are not observed by
+	 * the {@linkplain DispatchMetrics} or {@linkplain InvocationListener} of
+	 * the {@linkplain ImplementeeMethodInvocationFactory}.
+	 * </p>
+	 * 
+	 * @param implementeeMethod
+	 *            The <i>implementee method</i> to be invoked.
+	 * @param parameterses
+	 *            The parameters list of the <i>implementee method</i>
+	 *            invocations.
+	 * @return The invocation results in the same order of
+	 *         {@code parameterses}, elements are {@code null} for
+	 *         {@code void} <i>implementee method</i>.
+	 * @throws Throwable
+	 */
+	public List<Object> invokeBatch(Method implementeeMethod,
+			List<Object[]> parameterses) throws Throwable
+	{
+		ImplementInfo implementInfo = this.implementation
+				.getImplementInfo(implementeeMethod);
 
-		if (invocation == null)
+		if (implementInfo == null)
 			throw new UnsupportedOperationException(
 					"No valid implement method found for [" + implementeeMethod + "]");
 
-		return invocation.invoke();
+		if (parameterses == null || parameterses.isEmpty())
+			return new ArrayList<Object>(0);
+
+		List<BatchGroup> groups = groupBatch(implementInfo, parameterses);
+
+		List<Object> results = new ArrayList<Object>(
+				Collections.nCopies(parameterses.size(), null));
+
+		for (BatchGroup group : groups)
+			invokeBatchGroup(implementInfo, group, results);
+
+		return results;
+	}
+
+	/**
+	 * Route and group the batch invocations.
+	 * 
+	 * @param implementInfo
+	 * @param parameterses
+	 * @return The groups, in the order of their first invocations.
+	 * @throws Throwable
+	 */
+	protected List<BatchGroup> groupBatch(ImplementInfo implementInfo,
+			List<Object[]> parameterses) throws Throwable
+	{
+		boolean routedByTypes = isRoutedByTypes(implementInfo);
+
+		Map<TypeSignature, ImplementeeMethodInvocation> routeds = new HashMap<TypeSignature, ImplementeeMethodInvocation>();
+		Map<ImplementMethodInfo, Map<Object, BatchGroup>> groupMap = new HashMap<ImplementMethodInfo, Map<Object, BatchGroup>>();
+		List<BatchGroup> groups = new ArrayList<BatchGroup>();
+
+		for (int i = 0, len = parameterses.size(); i < len; i++)
+		{
+			Object[] parameters = parameterses.get(i);
+
+			ImplementeeMethodInvocation invocation = null;
+			TypeSignature paramTypes = null;
+
+			if (routedByTypes)
+			{
+				paramTypes = getParamTypeSignature(implementInfo, parameters);
+				invocation = routeds.get(paramTypes);
+			}
+
+			if (invocation == null)
+			{
+				invocation = getImplementeeMethodInvocation(implementInfo,
+						parameters);
+
+				if (invocation == null)
+					throw new UnsupportedOperationException(
+							"No valid implement method found for ["
+									+ implementInfo.getImplementeeMethod()
+									+ "]");
+
+				if (routedByTypes && isGroupable(invocation))
+					routeds.put(paramTypes, invocation);
+			}
+
+			if (!isGroupable(invocation))
+			{
+				BatchGroup group = new BatchGroup(null, null);
+				group.setInvocation(invocation);
+				group.add(i, parameters);
+				groups.add(group);
+
+				continue;
+			}
+
+			DefaultImplementeeMethodInvocation defaultInvocation = (DefaultImplementeeMethodInvocation) invocation;
+			ImplementMethodInfo implementMethodInfo = defaultInvocation
+					.getImplementMethodInfo();
+			Object implementorBean = defaultInvocation.getImplementorBean();
+
+			Map<Object, BatchGroup> beanGroups = groupMap
+					.get(implementMethodInfo);
+
+			if (beanGroups == null)
+			{
+				beanGroups = new IdentityHashMap<Object, BatchGroup>();
+				groupMap.put(implementMethodInfo, beanGroups);
+			}
+
+			BatchGroup group = beanGroups.get(implementorBean);
+
+			if (group == null)
+			{
+				group = new BatchGroup(implementMethodInfo, implementorBean);
+				beanGroups.put(implementorBean, group);
+				groups.add(group);
+			}
+
+			group.add(i, parameters);
+		}
+
+		return groups;
+	}
+
+	/**
+	 * Invoke a batch group, and set its results into the result list.
+	 * 
+	 * @param implementInfo
+	 * @param group
+	 * @param results
+	 * @throws Throwable
+	 */
+	protected void invokeBatchGroup(ImplementInfo implementInfo,
+			BatchGroup group, List<Object> results) throws Throwable
+	{
+		List<Integer> indexes = group.getIndexes();
+		List<Object[]> parameterses = group.getParameterses();
+
+		if (group.getInvocation() != null)
+		{
+			results.set(indexes.get(0), group.getInvocation().invoke());
+			return;
+		}
+
+		ImplementMethodInfo implementMethodInfo = group
+				.getImplementMethodInfo();
+
+		if (!implementMethodInfo.hasBatchMethod())
+		{
+			for (int i = 0; i < indexes.size(); i++)
+				results.set(indexes.get(i), implementMethodInfo.invoke(
+						group.getImplementorBean(), parameterses.get(i)));
+
+			return;
+		}
+
+		Object batchResult = implementMethodInfo
+				.invokeBatch(group.getImplementorBean(), parameterses);
+
+		if (void.class
+				.equals(implementInfo.getImplementeeMethod().getReturnType()))
+			return;
+
+		List<?> batchResults = (List<?>) batchResult;
+
+		if (batchResults == null || batchResults.size() != indexes.size())
+			throw new IllegalStateException("Batch method ["
+					+ implementMethodInfo.getBatchMethod() + "] returns "
+					+ (batchResults == null ? 0 : batchResults.size())
+					+ " results for " + indexes.size() + " invocations");
+
+		for (int i = 0; i < indexes.size(); i++)
+			results.set(indexes.get(i), batchResults.get(i));
+	}
+
+	/**
+	 * Returns if the routing of given {@linkplain ImplementInfo} only depends
+	 * on the parameter types, that is none of its <i>implement method</i>s has
+	 * a validity or priority method.
+	 * 
+	 * @param implementInfo
+	 * @return
+	 */
+	protected boolean isRoutedByTypes(ImplementInfo implementInfo)
+	{
+		ImplementMethodInfo[] implementMethodInfos = implementInfo
+				.getImplementMethodInfos();
+
+		if (implementMethodInfos == null)
+			return true;
+
+		for (ImplementMethodInfo implementMethodInfo : implementMethodInfos)
+		{
+			if (implementMethodInfo.hasValidityMethod()
+					|| implementMethodInfo.hasPriorityMethod())
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns if given {@linkplain ImplementeeMethodInvocation} can be grouped
+	 * in batch invocation.
+	 * 
+	 * @param invocation
+	 * @return
+	 */
+	protected boolean isGroupable(ImplementeeMethodInvocation invocation)
+	{
+		return (invocation instanceof DefaultImplementeeMethodInvocation
+				&& !(invocation instanceof AbstractImplementeeMethodInvocationFactory.BeanSelectionImplementeeMethodInvocation));
+	}
+
+	/**
+	 * Get the {@linkplain TypeSignature} of given parameters, as the routing
+	 * key in batch invocation.
+	 * <p>
+	 * The types are extracted in the same way as the factory keys its caches,
+	 * see
+	 * {@linkplain AbstractImplementeeMethodInvocationFactory#extractInvocationParamTypes(ImplementInfo, Object[])}
+	 * .
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 * @param parameters
+	 * @return
+	 */
+	protected TypeSignature getParamTypeSignature(ImplementInfo implementInfo,
+			Object[] parameters)
+	{
+		return TypeSignature.valueOf(AbstractImplementeeMethodInvocationFactory
+				.extractInvocationParamTypes(implementInfo, parameters));
+	}
+
+	/**
+	 * Invoke the <i>implementee method</i> of given {@linkplain ImplementInfo}
+	 * asynchronously in the {@linkplain Executor}.
+	 * <p>
+	 * The <i>implement method</i> is evaluated and invoked in the
+	 * {@code Executor} by
+	 * {@linkplain ImplementeeMethodInvocationFactory#invoke(Implementation, ImplementInfo, Object[], ImplementorBeanFactory)}
+	 * , so the {@linkplain DispatchMetrics} and {@linkplain InvocationListener}
+	 * of the factory observe it as a synchronous invocation. Any exception,
+	 * including {@code UnsupportedOperationException} for no valid
+	 * <i>implement method</i> and the {@code Executor} rejecting, completes
+	 * the returned {@code Future} exceptionally instead of being thrown.
+	 * </p>
+	 * <p>
+	 * The {@code Future} returned by the <i>implement method</i> is not
+	 * nested in the returned one, nor waited in the {@code Executor} : for
+	 * {@linkplain CompletionStage} and {@linkplain CompletableFuture}
+	 * <i>implementee method</i>s, the returned {@code CompletableFuture} is
+	 * chained to it by {@linkplain #completeWith(CompletableFuture, Object)};
+	 * for {@linkplain Future} ones, the returned {@linkplain ChainedFuture}
+	 * waits it in the caller's {@code get()}. Cancelling the returned
+	 * {@code Future} cancels the invocation if it is not started yet, and the
+	 * {@code Future} of the <i>implement method</i> otherwise.
+	 * </p>
+	 * 
+	 * @param implementInfo
+	 *            The {@code ImplementInfo} of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param parameters
+	 *            The parameters of the <i>implementee method</i>.
+	 * @return A {@code Future} of the <i>implement method</i> result.
+	 */
+	protected Future<Object> invokeAsync(final ImplementInfo implementInfo,
+			final Object[] parameters)
+	{
+		final CompletableFuture<Object> dispatched = new CompletableFuture<Object>();
+		final boolean chained = (implementInfo.getImplementeeMethod()
+				.getReturnType() == Future.class);
+
+		try
+		{
+			this.executor.execute(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					// cancelled before started
+					if (dispatched.isDone())
+						return;
+
+					try
+					{
+						Object result = implementeeMethodInvocationFactory
+								.invoke(implementation, implementInfo,
+										parameters, implementorBeanFactory);
+
+						if (!chained)
+							completeWith(dispatched, result);
+						else if (!dispatched.complete(result)
+								&& result instanceof Future<?>)
+							((Future<?>) result).cancel(false);
+					}
+					catch (Throwable t)
+					{
+						dispatched.completeExceptionally(t);
+					}
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			dispatched.completeExceptionally(e);
+		}
+
+		return (chained ? new ChainedFuture(dispatched) : dispatched);
+	}
+
+	/**
+	 * Complete the {@code CompletableFuture} with the result of an
+	 * <i>implement method</i>.
+	 * <p>
+	 * If the result is a {@linkplain CompletionStage}, it completes when the
+	 * stage completes, without blocking, and if it is cancelled, the stage is
+	 * cancelled too if it is a {@linkplain Future}. Otherwise it completes with
+	 * the result.
+	 * </p>
+	 * 
+	 * @param future
+	 * @param result
+	 */
+	protected void completeWith(final CompletableFuture<Object> future,
+			final Object result)
+	{
+		if (!(result instanceof CompletionStage<?>))
+		{
+			future.complete(result);
+			return;
+		}
+
+		((CompletionStage<?>) result)
+				.whenComplete(new BiConsumer<Object, Throwable>()
+				{
+					@Override
+					public void accept(Object value, Throwable t)
+					{
+						if (t == null)
+							future.complete(value);
+						else
+							future.completeExceptionally(t);
+					}
+				});
+
+		if (result instanceof Future<?>)
+		{
+			future.whenComplete(new BiConsumer<Object, Throwable>()
+			{
+				@Override
+				public void accept(Object value, Throwable t)
+				{
+					if (future.isCancelled())
+						((Future<?>) result).cancel(false);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns if the given <i>implementee method</i> can be invoked
+	 * asynchronously, that is its return type is {@linkplain Future},
+	 * {@linkplain CompletionStage} or {@linkplain CompletableFuture}.
+	 * 
+	 * @param implementeeMethod
+	 * @return
+	 */
+	protected boolean isAsyncImplementeeMethod(Method implementeeMethod)
+	{
+		Class<?> returnType = implementeeMethod.getReturnType();
+
+		return (returnType == CompletableFuture.class
+				|| returnType == Future.class
+				|| returnType == CompletionStage.class);
 	}
 
 	/**
@@ -117,7 +603,15 @@ public class ProxyImplementeeInvocationSupport
 	 *            The parameters of the <i>implementee method</i>.
 	 * @return
 	 * @throws Throwable
+	 * @deprecated {@linkplain #invoke(Method, Object[])} does not call it any
+	 *             more, it looks up the {@linkplain ImplementInfo} and calls
+	 *             {@linkplain #invoke(ImplementInfo, Object[])}, which invokes
+	 *             without creating an {@linkplain ImplementeeMethodInvocation}
+	 *             . Override {@linkplain #invoke(ImplementInfo, Object[])} or
+	 *             {@linkplain #getImplementeeMethodInvocation(ImplementInfo, Object[])}
+	 *             instead.
 	 */
+	@Deprecated
 	protected ImplementeeMethodInvocation getImplementeeMethodInvocation(
 			Method method, Object[] parameters) throws Throwable
 	{
@@ -125,6 +619,25 @@ public class ProxyImplementeeInvocationSupport
 				method, parameters, this.implementorBeanFactory);
 	}
 
+	/**
+	 * Get {@linkplain ImplementeeMethodInvocation} for given
+	 * {@linkplain ImplementInfo}.
+	 * 
+	 * @param implementInfo
+	 *            The {@code ImplementInfo} of the <i>implementee method</i> to
+	 *            be invoked.
+	 * @param parameters
+	 *            The parameters of the <i>implementee method</i>.
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ImplementeeMethodInvocation getImplementeeMethodInvocation(
+			ImplementInfo implementInfo, Object[] parameters) throws Throwable
+	{
+		return this.implementeeMethodInvocationFactory.get(this.implementation,
+				implementInfo, parameters, this.implementorBeanFactory);
+	}
+
 	/**
 	 * Returns if the given {@linkplain Method} is {@code equals(Object)}
 	 * method.
@@ -165,6 +678,177 @@ public class ProxyImplementeeInvocationSupport
 				&& method.getParameterTypes().length == 0);
 	}
 
+	/**
+	 * A group of batch invocations with the same <i>implement method</i> and
+	 * <i>implementor</i> bean.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class BatchGroup
+	{
+		private final ImplementMethodInfo implementMethodInfo;
+
+		private final Object implementorBean;
+
+		/** the invocation of an ungrouped one */
+		private ImplementeeMethodInvocation invocation;
+
+		private final List<Integer> indexes = new ArrayList<Integer>();
+
+		private final List<Object[]> parameterses = new ArrayList<Object[]>();
+
+		public BatchGroup(ImplementMethodInfo implementMethodInfo,
+				Object implementorBean)
+		{
+			super();
+			this.implementMethodInfo = implementMethodInfo;
+			this.implementorBean = implementorBean;
+		}
+
+		public ImplementMethodInfo getImplementMethodInfo()
+		{
+			return implementMethodInfo;
+		}
+
+		public Object getImplementorBean()
+		{
+			return implementorBean;
+		}
+
+		public ImplementeeMethodInvocation getInvocation()
+		{
+			return invocation;
+		}
+
+		public void setInvocation(ImplementeeMethodInvocation invocation)
+		{
+			this.invocation = invocation;
+		}
+
+		public List<Integer> getIndexes()
+		{
+			return indexes;
+		}
+
+		public List<Object[]> getParameterses()
+		{
+			return parameterses;
+		}
+
+		public void add(int index, Object[] parameters)
+		{
+			this.indexes.add(index);
+			this.parameterses.add(parameters);
+		}
+	}
+
+	/**
+	 * The {@linkplain Future} of an asynchronous invocation whose
+	 * <i>implement method</i> returns a {@code Future}.
+	 * <p>
+	 * It is done after the <i>implement method</i> returned and the returned
+	 * {@code Future} is done. {@linkplain #get()} waits the returned
+	 * {@code Future} in the caller thread, so no {@linkplain Executor} thread
+	 * is blocked for it.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class ChainedFuture implements Future<Object>
+	{
+		/** completed with the implement method result */
+		private final CompletableFuture<Object> dispatched;
+
+		public ChainedFuture(CompletableFuture<Object> dispatched)
+		{
+			super();
+			this.dispatched = dispatched;
+		}
+
+		public CompletableFuture<Object> getDispatched()
+		{
+			return dispatched;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			if (this.dispatched.cancel(mayInterruptIfRunning))
+				return true;
+
+			Future<?> target = getTarget();
+
+			return (target != null && target.cancel(mayInterruptIfRunning));
+		}
+
+		@Override
+		public boolean isCancelled()
+		{
+			if (this.dispatched.isCancelled())
+				return true;
+
+			Future<?> target = getTarget();
+
+			return (target != null && target.isCancelled());
+		}
+
+		@Override
+		public boolean isDone()
+		{
+			if (!this.dispatched.isDone())
+				return false;
+
+			Future<?> target = getTarget();
+
+			return (target == null || target.isDone());
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException
+		{
+			Object result = this.dispatched.get();
+
+			return (result instanceof Future<?> ? ((Future<?>) result).get()
+					: result);
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException,
+				TimeoutException
+		{
+			long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+			Object result = this.dispatched.get(timeout, unit);
+
+			return (result instanceof Future<?>
+					? ((Future<?>) result).get(deadline - System.nanoTime(),
+							TimeUnit.NANOSECONDS)
+					: result);
+		}
+
+		/**
+		 * Get the {@code Future} returned by the <i>implement method</i>.
+		 * 
+		 * @return The {@code Future}, {@code null} if the <i>implement
+		 *         method</i> is not returned, thrown or returned {@code null}.
+		 */
+		protected Future<?> getTarget()
+		{
+			if (!this.dispatched.isDone()
+					|| this.dispatched.isCompletedExceptionally())
+				return null;
+
+			Object result = this.dispatched.getNow(null);
+
+			return (result instanceof Future<?> ? (Future<?>) result : null);
+		}
+	}
+
 	@Override
 	public int hashCode()
 	{
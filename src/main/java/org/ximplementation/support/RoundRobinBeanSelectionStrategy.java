@@ -0,0 +1,56 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Round-robin {@linkplain BeanSelectionStrategy}.
+ * <p>
+ * It selects the beans in turn by a lock-free counter shared by all
+ * <i>implementor</i>s.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class RoundRobinBeanSelectionStrategy
+		extends AbstractBeanSelectionStrategy
+{
+	private final AtomicInteger counter = new AtomicInteger();
+
+	public RoundRobinBeanSelectionStrategy()
+	{
+		super();
+	}
+
+	@Override
+	public Object select(ImplementMethodInfo implementMethodInfo,
+			Collection<?> implementorBeans)
+	{
+		int size = implementorBeans.size();
+
+		if (size == 1)
+			return getElement(implementorBeans, 0);
+
+		// mask the sign bit, so overflow does not result in negative index
+		int index = (this.counter.getAndIncrement() & Integer.MAX_VALUE)
+				% size;
+
+		return getElement(implementorBeans, index);
+	}
+}
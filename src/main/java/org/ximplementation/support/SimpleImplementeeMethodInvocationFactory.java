@@ -56,23 +56,43 @@ public class SimpleImplementeeMethodInvocationFactory
 		super();
 	}
 
+	public SimpleImplementeeMethodInvocationFactory(
+			InvocationListener invocationListener)
+	{
+		super(invocationListener);
+	}
+
 	@Override
 	public ImplementeeMethodInvocation get(
 			Implementation<?> implementation, Method implementeeMethod,
 			Object[] invocationParams,
 			ImplementorBeanFactory implementorBeanFactory) throws Throwable
+	{
+		ImplementInfo implementInfo = findImplementInfo(implementation,
+				implementeeMethod);
+
+		if (implementInfo == null)
+			return null;
+
+		return get(implementation, implementInfo, invocationParams,
+				implementorBeanFactory);
+	}
+
+	@Override
+	public ImplementeeMethodInvocation get(Implementation<?> implementation,
+			ImplementInfo implementInfo, Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory) throws Throwable
 	{
 		ImplementMethodInfo implementMethodInfo = null;
 		Object implementorBean = null;
 		int priority = Integer.MIN_VALUE;
+		Collection<?> finalBeans = null;
 
-		ImplementInfo implementInfo = findImplementInfo(implementation,
-				implementeeMethod);
-
-		if (implementInfo == null || !implementInfo.hasImplementMethodInfo())
+		if (!implementInfo.hasImplementMethodInfo())
 			return null;
 		
-		Class<?>[] invocationParamTypes = extractTypes(invocationParams);
+		Class<?>[] invocationParamTypes = extractTypes(implementInfo,
+				invocationParams);
 
 		// make sure get only once for the same implementor
 		Map<Class<?>, Collection<?>> cachedImplementorBeans = new HashMap<Class<?>, Collection<?>>();
@@ -143,13 +163,20 @@ public class SimpleImplementeeMethodInvocationFactory
 					implementMethodInfo = myImplementMethodInfo;
 					implementorBean = myImplementorBean;
 					priority = myPriority;
+					finalBeans = implementorBeans;
 				}
 			}
 		}
 
-		return (implementMethodInfo == null ? null
-				: new DefaultImplementeeMethodInvocation(implementation,
-						implementInfo, invocationParams,
-						implementMethodInfo, implementorBean));
+		if (implementMethodInfo == null)
+			return null;
+
+		if (isImplementorBeanSelectable(implementMethodInfo))
+			implementorBean = selectImplementorBean(implementMethodInfo,
+					finalBeans);
+
+		return createImplementeeMethodInvocation(implementation,
+				implementInfo, invocationParams, implementMethodInfo,
+				implementorBean);
 	}
 }
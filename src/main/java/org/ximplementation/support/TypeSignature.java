@@ -0,0 +1,442 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * Interned signature of a type tuple, eg. the invocation parameter types of an
+ * <i>implementee method</i>.
+ * <p>
+ * Signatures are got by {@linkplain #valueOf(Class[])}, which returns the same
+ * instance for the same type tuple as long as it is alive, so they can be
+ * compared by identity and their hash codes are computed only once. They are
+ * held in an open-addressing table keyed by the type tuples.
+ * </p>
+ * <p>
+ * The types are held weakly, so neither the signatures nor the table keep
+ * their class loaders alive. A signature with any of its types garbage
+ * collected is stale (see {@linkplain #isStale()}), and is removed from the
+ * table when the table is rebuilt.
+ * </p>
+ * <p>
+ * The table holds at most {@linkplain #getMaxInternedCount()} signatures. If
+ * it is full and most of them are not stale, all are evicted. The evicted
+ * signatures are still valid, but not identical to the ones got after for
+ * the same type tuples, so caches keyed by them only miss and are refilled.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class TypeSignature
+{
+	private static final Table TABLE = new Table();
+
+	/** the types, null element for null type */
+	private final WeakReference<?>[] typeRefs;
+
+	/** the hash code computed when created */
+	private final int hash;
+
+	protected TypeSignature(Class<?>[] types, int hash)
+	{
+		super();
+
+		this.typeRefs = new WeakReference<?>[types.length];
+
+		for (int i = 0; i < types.length; i++)
+		{
+			Class<?> type = types[i];
+
+			this.typeRefs[i] = (type == null ? null
+					: new WeakReference<Class<?>>(type));
+		}
+
+		this.hash = hash;
+	}
+
+	/**
+	 * Get the interned {@code TypeSignature} of given types.
+	 * 
+	 * @param types
+	 *            The types, element may be {@code null}.
+	 * @return
+	 */
+	public static TypeSignature valueOf(Class<?>[] types)
+	{
+		return TABLE.intern(types);
+	}
+
+	/**
+	 * Get the count of the interned {@code TypeSignature}s, including stale
+	 * ones not removed yet.
+	 * 
+	 * @return
+	 */
+	public static int getInternedCount()
+	{
+		return TABLE.getCount();
+	}
+
+	/**
+	 * Get the max count of the interned {@code TypeSignature}s.
+	 * 
+	 * @return
+	 */
+	public static int getMaxInternedCount()
+	{
+		return TABLE.getMaxCount();
+	}
+
+	/**
+	 * Get the type count.
+	 * 
+	 * @return
+	 */
+	public int size()
+	{
+		return this.typeRefs.length;
+	}
+
+	/**
+	 * Get the type at given position.
+	 * 
+	 * @param index
+	 * @return The type, {@code null} if it is {@code null} or garbage
+	 *         collected.
+	 */
+	public Class<?> getType(int index)
+	{
+		WeakReference<?> ref = this.typeRefs[index];
+
+		return (ref == null ? null : (Class<?>) ref.get());
+	}
+
+	/**
+	 * Get the types.
+	 * 
+	 * @return A new array of the types, elements are {@code null} if they are
+	 *         {@code null} or garbage collected.
+	 */
+	public Class<?>[] getTypes()
+	{
+		Class<?>[] types = new Class<?>[this.typeRefs.length];
+
+		for (int i = 0; i < types.length; i++)
+			types[i] = getType(i);
+
+		return types;
+	}
+
+	/**
+	 * Returns if any of the types is garbage collected.
+	 * 
+	 * @return
+	 */
+	public boolean isStale()
+	{
+		for (WeakReference<?> ref : this.typeRefs)
+		{
+			if (ref != null && ref.get() == null)
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns if the types are the same as given types.
+	 * 
+	 * @param types
+	 * @return
+	 */
+	protected boolean matches(Class<?>[] types)
+	{
+		WeakReference<?>[] typeRefs = this.typeRefs;
+
+		if (typeRefs.length != types.length)
+			return false;
+
+		for (int i = 0; i < typeRefs.length; i++)
+		{
+			WeakReference<?> ref = typeRefs[i];
+			Class<?> type = types[i];
+
+			if (ref == null)
+			{
+				if (type != null)
+					return false;
+			}
+			else if (type == null || ref.get() != type)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Compute the hash code of given types.
+	 * 
+	 * @param types
+	 * @return
+	 */
+	protected static int hash(Class<?>[] types)
+	{
+		int hash = 1;
+
+		for (Class<?> type : types)
+			hash = 31 * hash + (type == null ? 0 : type.hashCode());
+
+		return hash ^ (hash >>> 16);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return this.hash;
+	}
+
+	@Override
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		sb.append(getClass().getSimpleName()).append(" [");
+
+		for (int i = 0; i < this.typeRefs.length; i++)
+		{
+			if (i > 0)
+				sb.append(", ");
+
+			Class<?> type = getType(i);
+
+			sb.append(type == null ? "null" : type.getName());
+		}
+
+		sb.append(']');
+
+		return sb.toString();
+	}
+
+	/**
+	 * The open-addressing table of interned {@linkplain TypeSignature}s.
+	 * <p>
+	 * Lookups are lock free with linear probing, and fall back to a
+	 * synchronized lookup and insertion if not found. The slot array is
+	 * rebuilt without stale signatures when it is half full.
+	 * </p>
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-30
+	 *
+	 */
+	protected static class Table
+	{
+		public static final int DEFAULT_MAX_COUNT = 8192;
+
+		private static final int INITIAL_CAPACITY = 64;
+
+		private final int maxCount;
+
+		private volatile TypeSignature[] slots = new TypeSignature[INITIAL_CAPACITY];
+
+		/** the count of the signatures in slots */
+		private int count = 0;
+
+		public Table()
+		{
+			this(DEFAULT_MAX_COUNT);
+		}
+
+		public Table(int maxCount)
+		{
+			super();
+
+			if (maxCount <= 0)
+				throw new IllegalArgumentException("[maxCount] must be positive");
+
+			this.maxCount = maxCount;
+		}
+
+		/**
+		 * Get the max count of the signatures.
+		 * 
+		 * @return
+		 */
+		public int getMaxCount()
+		{
+			return maxCount;
+		}
+
+		/**
+		 * Get the count of the signatures, including stale ones not removed
+		 * yet.
+		 * 
+		 * @return
+		 */
+		public synchronized int getCount()
+		{
+			return count;
+		}
+
+		/**
+		 * Get the interned {@linkplain TypeSignature} of given types.
+		 * 
+		 * @param types
+		 * @return The signature, {@code null} if not interned.
+		 */
+		public TypeSignature get(Class<?>[] types)
+		{
+			return find(this.slots, types, hash(types));
+		}
+
+		/**
+		 * Get the interned {@linkplain TypeSignature} of given types, create
+		 * and add it if none.
+		 * 
+		 * @param types
+		 * @return
+		 */
+		public TypeSignature intern(Class<?>[] types)
+		{
+			int hash = hash(types);
+
+			TypeSignature signature = find(this.slots, types, hash);
+
+			if (signature != null)
+				return signature;
+
+			synchronized (this)
+			{
+				signature = find(this.slots, types, hash);
+
+				if (signature != null)
+					return signature;
+
+				if ((this.count + 1) * 2 > this.slots.length
+						|| this.count >= this.maxCount)
+					rebuild();
+
+				signature = new TypeSignature(types, hash);
+
+				TypeSignature[] slots = this.slots;
+				slots[indexOf(slots, hash)] = signature;
+				this.count++;
+
+				return signature;
+			}
+		}
+
+		/**
+		 * Find the signature of given types in given slots.
+		 * 
+		 * @param slots
+		 * @param types
+		 * @param hash
+		 * @return The signature, {@code null} if none.
+		 */
+		protected TypeSignature find(TypeSignature[] slots, Class<?>[] types,
+				int hash)
+		{
+			int mask = slots.length - 1;
+
+			for (int i = hash & mask;; i = (i + 1) & mask)
+			{
+				TypeSignature signature = slots[i];
+
+				if (signature == null)
+					return null;
+
+				if (signature.hash == hash && signature.matches(types))
+					return signature;
+			}
+		}
+
+		/**
+		 * Get the first empty slot index for given hash code.
+		 * 
+		 * @param slots
+		 * @param hash
+		 * @return
+		 */
+		protected int indexOf(TypeSignature[] slots, int hash)
+		{
+			int mask = slots.length - 1;
+			int i = hash & mask;
+
+			while (slots[i] != null)
+				i = (i + 1) & mask;
+
+			return i;
+		}
+
+		/**
+		 * Rebuild the slots without stale signatures, the capacity is grown or
+		 * shrunk for keeping the live ones at most a quarter.
+		 * <p>
+		 * If the signatures reach the max count and at least three quarters of
+		 * them are live, every fourth live one in slot order is evicted too,
+		 * which is arbitrary by hash code, so that the full table is rebuilt
+		 * at most once per a quarter of the max count addings, and most of the
+		 * live ones stay interned.
+		 * </p>
+		 */
+		protected void rebuild()
+		{
+			TypeSignature[] slots = this.slots;
+
+			int liveCount = 0;
+
+			for (TypeSignature signature : slots)
+			{
+				if (signature != null && !signature.isStale())
+					liveCount++;
+			}
+
+			boolean evict = (this.count >= this.maxCount
+					&& liveCount * 4 >= this.maxCount * 3);
+
+			if (evict)
+				liveCount -= liveCount / 4;
+
+			int capacity = INITIAL_CAPACITY;
+
+			while (capacity < (liveCount + 1) * 4)
+				capacity <<= 1;
+
+			TypeSignature[] newSlots = new TypeSignature[capacity];
+
+			int keptCount = 0;
+			int liveIndex = 0;
+
+			for (TypeSignature signature : slots)
+			{
+				if (signature == null || signature.isStale())
+					continue;
+
+				if (evict && (++liveIndex % 4) == 0)
+					continue;
+
+				newSlots[indexOf(newSlots, signature.hash)] = signature;
+				keptCount++;
+			}
+
+			this.count = keptCount;
+			this.slots = newSlots;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted random {@linkplain BeanSelectionStrategy}.
+ * <p>
+ * It selects a bean randomly with probability in proportion to its weight
+ * given by the {@linkplain Weigher}, beans with non-positive weight are never
+ * selected unless all are. All beans have the same weight if no
+ * {@linkplain Weigher} is set.
+ * </p>
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class WeightedRandomBeanSelectionStrategy
+		extends AbstractBeanSelectionStrategy
+{
+	private Weigher weigher;
+
+	public WeightedRandomBeanSelectionStrategy()
+	{
+		super();
+	}
+
+	public WeightedRandomBeanSelectionStrategy(Weigher weigher)
+	{
+		super();
+		this.weigher = weigher;
+	}
+
+	public Weigher getWeigher()
+	{
+		return weigher;
+	}
+
+	public void setWeigher(Weigher weigher)
+	{
+		this.weigher = weigher;
+	}
+
+	@Override
+	public Object select(ImplementMethodInfo implementMethodInfo,
+			Collection<?> implementorBeans)
+	{
+		int size = implementorBeans.size();
+
+		if (size == 1)
+			return getElement(implementorBeans, 0);
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+
+		if (this.weigher == null)
+			return getElement(implementorBeans, random.nextInt(size));
+
+		long totalWeight = 0;
+
+		for (Object implementorBean : implementorBeans)
+			totalWeight += getWeight(implementorBean);
+
+		if (totalWeight <= 0)
+			return getElement(implementorBeans, random.nextInt(size));
+
+		long point = (long) (random.nextDouble() * totalWeight);
+
+		Object selected = null;
+
+		for (Object implementorBean : implementorBeans)
+		{
+			int weight = getWeight(implementorBean);
+
+			if (weight <= 0)
+				continue;
+
+			selected = implementorBean;
+			point -= weight;
+
+			if (point < 0)
+				break;
+		}
+
+		return selected;
+	}
+
+	/**
+	 * Get the weight of the <i>implementor</i> bean, non-positive weights are
+	 * treated as {@code 0}.
+	 * 
+	 * @param implementorBean
+	 * @return
+	 */
+	protected int getWeight(Object implementorBean)
+	{
+		int weight = this.weigher.getWeight(implementorBean);
+
+		return (weight < 0 ? 0 : weight);
+	}
+
+	/**
+	 * Weigher of <i>implementor</i> beans.
+	 * 
+	 * @author earthangry@gmail.com
+	 * @date 2017-3-29
+	 *
+	 */
+	public static interface Weigher
+	{
+		/**
+		 * Get the weight of the <i>implementor</i> bean.
+		 * 
+		 * @param implementorBean
+		 * @return
+		 */
+		int getWeight(Object implementorBean);
+	}
+}
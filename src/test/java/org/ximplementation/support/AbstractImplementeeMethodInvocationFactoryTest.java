@@ -34,11 +34,13 @@ import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.ximplementation.CacheScope;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
 import org.ximplementation.Index;
 import org.ximplementation.Priority;
 import org.ximplementation.Validity;
+import org.ximplementation.support.AbstractImplementeeMethodInvocationFactory.ImplementMethodInfoKey;
 
 /**
  * {@linkplain AbstractImplementeeMethodInvocationFactory} unit tests.
@@ -490,6 +492,206 @@ public class AbstractImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void invokeValidityMethodTest_cacheScope() throws Throwable
+	{
+		Implementation<InvokeMethodTest_cacheScope.Implementee> implementation = this.implementationResolver
+				.resolve(InvokeMethodTest_cacheScope.Implementee.class,
+						InvokeMethodTest_cacheScope.Implementor0.class,
+						InvokeMethodTest_cacheScope.Implementor1.class,
+						InvokeMethodTest_cacheScope.Implementor2.class);
+
+		ImplementInfo implementInfo = implementation.getImplementInfo(
+				getMethodByName(InvokeMethodTest_cacheScope.Implementee.class,
+						"handle"));
+
+		// CacheScope.NONE
+		{
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfo(
+							InvokeMethodTest_cacheScope.Implementor0.class,
+							getMethodByName(
+									InvokeMethodTest_cacheScope.Implementor0.class,
+									"handle"));
+			InvokeMethodTest_cacheScope.Implementor0 bean = new InvokeMethodTest_cacheScope.Implementor0();
+
+			assertNull(implementMethodInfo.getValidityResultCache());
+
+			for (int i = 0; i < 3; i++)
+				assertTrue(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { 1 }, bean));
+
+			assertEquals(3, bean.count);
+		}
+
+		// CacheScope.PER_TYPE
+		{
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfo(
+							InvokeMethodTest_cacheScope.Implementor1.class,
+							getMethodByName(
+									InvokeMethodTest_cacheScope.Implementor1.class,
+									"handle"));
+			InvokeMethodTest_cacheScope.Implementor1 bean0 = new InvokeMethodTest_cacheScope.Implementor1();
+			InvokeMethodTest_cacheScope.Implementor1 bean1 = new InvokeMethodTest_cacheScope.Implementor1();
+
+			for (int i = 0; i < 3; i++)
+			{
+				assertTrue(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { i }, bean0));
+				assertFalse(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { (long) i }, bean0));
+				assertTrue(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { i }, bean1));
+			}
+
+			assertEquals(2, bean0.count);
+			assertEquals(1, bean1.count);
+		}
+
+		// CacheScope.PER_VALUE
+		{
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfo(
+							InvokeMethodTest_cacheScope.Implementor2.class,
+							getMethodByName(
+									InvokeMethodTest_cacheScope.Implementor2.class,
+									"handle"));
+			InvokeMethodTest_cacheScope.Implementor2 bean = new InvokeMethodTest_cacheScope.Implementor2();
+
+			assertEquals(2, implementMethodInfo.getValidityCacheSize());
+
+			for (int i = 0; i < 3; i++)
+			{
+				assertTrue(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { 1 }, bean));
+				assertFalse(this.mockAbstractImplementeeMethodInvocationFactory
+						.invokeValidityMethod(implementation, implementInfo,
+								implementMethodInfo,
+								implementMethodInfo.getValidityMethod(),
+								new Object[] { -1 }, bean));
+			}
+
+			assertEquals(2, bean.count);
+			assertEquals(2,
+					implementMethodInfo.getValidityResultCache().size());
+		}
+	}
+
+	@Test
+	public void invokePriorityMethodTest_cacheScope() throws Throwable
+	{
+		Implementation<InvokeMethodTest_cacheScope.Implementee> implementation = this.implementationResolver
+				.resolve(InvokeMethodTest_cacheScope.Implementee.class,
+						InvokeMethodTest_cacheScope.Implementor2.class);
+
+		ImplementInfo implementInfo = implementation.getImplementInfo(
+				getMethodByName(InvokeMethodTest_cacheScope.Implementee.class,
+						"handle"));
+		ImplementMethodInfo implementMethodInfo = implementInfo
+				.getImplementMethodInfos()[0];
+		InvokeMethodTest_cacheScope.Implementor2 bean = new InvokeMethodTest_cacheScope.Implementor2();
+
+		for (int i = 0; i < 3; i++)
+		{
+			assertEquals(1, this.mockAbstractImplementeeMethodInvocationFactory
+					.invokePriorityMethod(implementation, implementInfo,
+							implementMethodInfo,
+							implementMethodInfo.getPriorityMethod(),
+							new Object[] { 1 }, bean));
+			assertEquals(2, this.mockAbstractImplementeeMethodInvocationFactory
+					.invokePriorityMethod(implementation, implementInfo,
+							implementMethodInfo,
+							implementMethodInfo.getPriorityMethod(),
+							new Object[] { 2 }, bean));
+		}
+
+		assertEquals(2, bean.priorityCount);
+	}
+
+	public static class InvokeMethodTest_cacheScope
+	{
+		public static interface Implementee
+		{
+			void handle(Number a);
+		}
+
+		public static class Implementor0 implements Implementee
+		{
+			public int count = 0;
+
+			@Override
+			@Validity("isValid")
+			public void handle(Number a)
+			{
+			}
+
+			public boolean isValid(Number a)
+			{
+				count++;
+				return true;
+			}
+		}
+
+		public static class Implementor1 implements Implementee
+		{
+			public int count = 0;
+
+			@Override
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_TYPE)
+			public void handle(Number a)
+			{
+			}
+
+			public boolean isValid(Number a)
+			{
+				count++;
+				return (a instanceof Integer);
+			}
+		}
+
+		public static class Implementor2 implements Implementee
+		{
+			public int count = 0;
+
+			public int priorityCount = 0;
+
+			@Override
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_VALUE, cacheSize = 2)
+			@Priority(value = "getPriority", cacheScope = CacheScope.PER_VALUE)
+			public void handle(Number a)
+			{
+			}
+
+			public boolean isValid(Number a)
+			{
+				count++;
+				return a.intValue() > 0;
+			}
+
+			public int getPriority(Number a)
+			{
+				priorityCount++;
+				return a.intValue();
+			}
+		}
+	}
+
 	@Test
 	public void isImplementMethodParamTypeValidTest()
 	{
@@ -1177,6 +1379,29 @@ public class AbstractImplementeeMethodInvocationFactoryTest
 						org.ximplementation.support.testpkg.TImplementorDiffPkg0.class));
 	}
 
+	@Test
+	public void implementMethodInfoKeyTest()
+	{
+		ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo();
+
+		ImplementMethodInfoKey key = new ImplementMethodInfoKey(
+				implementMethodInfo, null);
+
+		assertTrue(key.equals(
+				new ImplementMethodInfoKey(implementMethodInfo, null)));
+		assertEquals(key.hashCode(),
+				new ImplementMethodInfoKey(implementMethodInfo, null)
+						.hashCode());
+		assertFalse(key.equals(
+				new ImplementMethodInfoKey(new ImplementMethodInfo(), null)));
+
+		key.clear();
+
+		assertTrue(key.equals(key));
+		assertFalse(key.equals(
+				new ImplementMethodInfoKey(implementMethodInfo, null)));
+	}
+
 	@Test
 	public void getActualImplementMethodParamTypesTest()
 	{
@@ -1350,6 +1575,65 @@ public class AbstractImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void extractTypesTest_implementInfo()
+	{
+		ImplementInfo implementInfo = new ImplementInfo(getMethodByName(
+				ExtractTypesTest.Implementee.class, "handle"));
+
+		// primitive
+		{
+			Class<?>[] classes = this.mockAbstractImplementeeMethodInvocationFactory
+					.extractTypes(implementInfo,
+							new Object[] { 1, 2, 3L });
+
+			assertArrayEquals(
+					new Class<?>[] { int.class, Integer.class, long.class },
+					classes);
+		}
+
+		// null element
+		{
+			Class<?>[] classes = this.mockAbstractImplementeeMethodInvocationFactory
+					.extractTypes(implementInfo,
+							new Object[] { null, null, 3L });
+
+			assertArrayEquals(new Class<?>[] { null, null, long.class },
+					classes);
+		}
+
+		// length not matched
+		{
+			Class<?>[] classes = this.mockAbstractImplementeeMethodInvocationFactory
+					.extractTypes(implementInfo, new Object[] { 1, 2 });
+
+			assertArrayEquals(new Class<?>[] { Integer.class, Integer.class },
+					classes);
+		}
+
+		// no primitive parameter
+		{
+			Class<?>[] classes = this.mockAbstractImplementeeMethodInvocationFactory
+					.extractTypes(
+							new ImplementInfo(getMethodByName(
+									ExtractTypesTest.Implementee.class,
+									"handleObject")),
+							new Object[] { 1 });
+
+			assertArrayEquals(new Class<?>[] { Integer.class }, classes);
+		}
+	}
+
+	public static class ExtractTypesTest
+	{
+		public static interface Implementee
+		{
+			void handle(int a, Number b, long c);
+
+			void handleObject(Object a);
+		}
+	}
+
 	@Test
 	public void copyArrayByIndexTest()
 	{
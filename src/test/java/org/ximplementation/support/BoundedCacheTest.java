@@ -0,0 +1,192 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * {@linkplain BoundedCache} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class BoundedCacheTest extends AbstractTestSupport
+{
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void newTest_illegalMaxSize()
+	{
+		expectedException.expect(IllegalArgumentException.class);
+		expectedException.expectMessage("[maxSize] must be positive");
+
+		new BoundedCache<String, String>(0);
+	}
+
+	@Test
+	public void getAndPutTest()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>(
+				4);
+
+		assertNull(cache.get("a"));
+
+		cache.put("a", "A");
+		cache.put("b", "B");
+
+		assertEquals("A", cache.get("a"));
+		assertEquals("B", cache.get("b"));
+		assertEquals(2, cache.size());
+
+		cache.put("a", "AA");
+
+		assertEquals("AA", cache.get("a"));
+		assertEquals(2, cache.size());
+
+		CacheStatistics statistics = cache.getStatistics();
+
+		assertEquals(3, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(0, statistics.getEvictionCount());
+		assertEquals(0.75D, statistics.getHitRate(), 0.0001D);
+	}
+
+	@Test
+	public void putTest_bounded()
+	{
+		BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>(
+				8);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			if (cache.get(i) == null)
+				cache.put(i, i);
+		}
+
+		assertTrue(cache.size() <= 8);
+	}
+
+	@Test
+	public void putTest_frequencyAware()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>(
+				2);
+
+		// hot keys
+		for (int i = 0; i < 5; i++)
+		{
+			for (String key : new String[] { "hot0", "hot1" })
+			{
+				if (cache.get(key) == null)
+					cache.put(key, key);
+			}
+		}
+
+		// one-off keys can not flush out hot keys
+		for (int i = 0; i < 10; i++)
+		{
+			String key = "cold" + i;
+
+			if (cache.get(key) == null)
+				cache.put(key, key);
+		}
+
+		assertNotNull(cache.get("hot0"));
+		assertNotNull(cache.get("hot1"));
+		assertEquals(2, cache.size());
+
+		// frequent key is admitted
+		for (int i = 0; i < 20; i++)
+		{
+			if (cache.get("new") == null)
+				cache.put("new", "new");
+		}
+
+		assertNotNull(cache.get("new"));
+		assertEquals(1, cache.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	public void removeTest()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>(
+				2);
+
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.remove("a");
+
+		assertEquals(1, cache.size());
+		assertNull(cache.get("a"));
+		assertEquals("B", cache.get("b"));
+
+		cache.put("c", "C");
+
+		assertEquals(2, cache.size());
+		assertEquals("C", cache.get("c"));
+	}
+
+	@Test
+	public void removeTest_clockBounded()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>(
+				16);
+
+		cache.put("a", "A");
+
+		for (int i = 0; i < 1000; i++)
+		{
+			cache.put("k" + i, "V");
+			cache.remove("k" + i);
+		}
+
+		assertEquals(1, cache.size());
+		assertEquals("A", cache.get("a"));
+		assertTrue(cache.getClockLength() <= 3);
+	}
+
+	@Test
+	public void clearTest()
+	{
+		BoundedCache<String, String> cache = new BoundedCache<String, String>();
+
+		cache.put("a", "A");
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+}
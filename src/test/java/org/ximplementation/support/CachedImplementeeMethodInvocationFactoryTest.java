@@ -14,30 +14,48 @@
 
 package org.ximplementation.support;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.ximplementation.CacheScope;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
+import org.ximplementation.Index;
 import org.ximplementation.Priority;
 import org.ximplementation.Validity;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.CandidateIndex;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.ImplementInfoCaches;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.ImplementInfoCachesTable;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.InlineCache;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.InlineCacheEntry;
 import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.StaticInvocationInputInfo;
 import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.StaticInvocationProcessInfo;
+import org.ximplementation.support.CachedImplementeeMethodInvocationFactory.WeakStaticInvocationInputInfo;
 
 /**
  * {@linkplain CachedImplementeeMethodInvocationFactory} unit tests.
@@ -52,6 +70,9 @@ public class CachedImplementeeMethodInvocationFactoryTest
 	private CachedImplementeeMethodInvocationFactory cachedImplementeeMethodInvocationFactory;
 	private ImplementationResolver implementationResolver;
 
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
 	@Before
 	public void setUp() throws Exception
 	{
@@ -228,32 +249,32 @@ public class CachedImplementeeMethodInvocationFactoryTest
 					processInfo.getStaticValidAndDescPrioritizeds()[0]
 							.getImplementor());
 
-			// createByEvalingFromValidAndDescPrioritizeds(...) get
-			// all implementor beans to evaluate the max priority
-			assertEquals(1, implementorBeanFactory
+			// createByEvalingFromValidAndDescPrioritizeds(...) stops after
+			// Implementor3, none of the remaining can be higher
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor0.class));
-			assertEquals(1, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor1.class));
 			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor2.class));
 			assertEquals(1, implementorBeanFactory
 					.getCount(GetTest.Implementor3.class));
-			assertEquals(1, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor4.class));
 
 			this.cachedImplementeeMethodInvocationFactory.get(implementation,
 					implementeeMethod, new Object[] { 1, 2 },
 					implementorBeanFactory);
 
-			assertEquals(2, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor0.class));
-			assertEquals(2, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor1.class));
 			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor2.class));
 			assertEquals(2, implementorBeanFactory
 					.getCount(GetTest.Implementor3.class));
-			assertEquals(2, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(GetTest.Implementor4.class));
 		}
 	}
@@ -325,6 +346,364 @@ public class CachedImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void getTest_inlineCache() throws Throwable
+	{
+		Class<?> implementee = GetTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, GetTest.Implementor0.class,
+						GetTest.Implementor1.class,
+						GetTest.Implementor2.class);
+		Method implementeeMethod = getMethodByName(implementee, "plus");
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(implementeeMethod);
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new GetTest.Implementor0(),
+						new GetTest.Implementor1(),
+						new GetTest.Implementor2());
+
+		this.cachedImplementeeMethodInvocationFactory.setInlineCacheSize(2);
+
+		// attached and hit
+		{
+			DefaultImplementeeMethodInvocation invocation = (DefaultImplementeeMethodInvocation) this.cachedImplementeeMethodInvocationFactory
+					.get(implementation, implementInfo, new Object[] { 1, 2 },
+							implementorBeanFactory);
+
+			assertEquals(GetTest.Implementor1.class, invocation
+					.getImplementMethodInfo().getImplementor());
+
+			InlineCache inlineCache = this.cachedImplementeeMethodInvocationFactory
+					.getImplementInfoCaches(implementation, implementInfo)
+					.getInlineCache();
+			InlineCacheEntry entry = inlineCache.find(new Object[] { 3, 4 });
+
+			assertNotNull(entry);
+			assertSame(Integer.class, entry.getInvocationParamTypes()[0]);
+			assertNull(inlineCache.find(new Object[] { 3, null }));
+			assertNull(inlineCache.find(new Object[] { 3 }));
+
+			invocation = (DefaultImplementeeMethodInvocation) this.cachedImplementeeMethodInvocationFactory.get(
+					implementation, implementInfo, new Object[] { 3, 4 },
+					implementorBeanFactory);
+
+			assertEquals(GetTest.Implementor1.class, invocation
+					.getImplementMethodInfo().getImplementor());
+		}
+
+		// more parameter types than inline cache size
+		{
+			Object[][] paramsArray = new Object[][] { { 1, 2 },
+					{ 1.0F, 2.0F }, { 1.0D, 2.0D }, { 1, 2 }, { 1.0F, 2.0F } };
+			Class<?>[] implementors = { GetTest.Implementor1.class,
+					GetTest.Implementor2.class, GetTest.Implementor0.class,
+					GetTest.Implementor1.class, GetTest.Implementor2.class };
+
+			for (int i = 0; i < paramsArray.length; i++)
+			{
+				DefaultImplementeeMethodInvocation invocation = (DefaultImplementeeMethodInvocation) this.cachedImplementeeMethodInvocationFactory
+						.get(implementation, implementInfo, paramsArray[i],
+								implementorBeanFactory);
+
+				assertEquals(implementors[i], invocation
+						.getImplementMethodInfo().getImplementor());
+			}
+
+			InlineCache inlineCache = this.cachedImplementeeMethodInvocationFactory
+					.getImplementInfoCaches(implementation, implementInfo)
+					.getInlineCache();
+
+			assertNull(inlineCache.find(new Object[] { 1.0D, 2.0D }));
+			assertNotNull(inlineCache.find(new Object[] { 1, 2 }));
+			assertNotNull(inlineCache.find(new Object[] { 1.0F, 2.0F }));
+		}
+
+		// another factory
+		{
+			CachedImplementeeMethodInvocationFactory another = new CachedImplementeeMethodInvocationFactory();
+
+			DefaultImplementeeMethodInvocation invocation = (DefaultImplementeeMethodInvocation) another.get(
+					implementation, implementInfo, new Object[] { 1, 2 },
+					implementorBeanFactory);
+
+			assertEquals(GetTest.Implementor1.class, invocation
+					.getImplementMethodInfo().getImplementor());
+			assertNotNull(another.getInlineCache(implementation, implementInfo));
+			assertTrue(another.getInlineCache(implementation,
+					implementInfo) != this.cachedImplementeeMethodInvocationFactory
+							.getInlineCache(implementation, implementInfo));
+			assertNotNull(this.cachedImplementeeMethodInvocationFactory
+					.getInlineCache(implementation, implementInfo)
+					.find(new Object[] { 1.0F, 2.0F }));
+		}
+
+		// disabled
+		{
+			CachedImplementeeMethodInvocationFactory disabled = new CachedImplementeeMethodInvocationFactory();
+			disabled.setInlineCacheSize(0);
+
+			assertNotNull(disabled.get(implementation, implementInfo,
+					new Object[] { 1, 2 }, implementorBeanFactory));
+			assertNull(disabled
+					.getImplementInfoCaches(implementation, implementInfo)
+					.getInlineCache());
+		}
+	}
+
+	@Test
+	public void implementInfoCachesTableTest()
+	{
+		ImplementInfoCachesTable table = new ImplementInfoCachesTable();
+
+		Implementation<?> implementation = new Implementation<Object>();
+		ImplementInfo[] implementInfos = new ImplementInfo[100];
+		ImplementInfoCaches[] implementInfoCachess = new ImplementInfoCaches[implementInfos.length];
+
+		for (int i = 0; i < implementInfos.length; i++)
+		{
+			implementInfos[i] = new ImplementInfo();
+			implementInfoCachess[i] = table.get(implementation,
+					implementInfos[i]);
+
+			assertTrue(implementInfoCachess[i].isOf(implementation));
+		}
+
+		assertEquals(implementInfos.length, table.getCount());
+
+		for (int i = 0; i < implementInfos.length; i++)
+			assertSame(implementInfoCachess[i],
+					table.get(new Implementation<Object>(), implementInfos[i]));
+
+		// equal but not identical
+		ImplementInfoCaches another = table.get(implementation,
+				new ImplementInfo());
+
+		assertTrue(another != implementInfoCachess[0]);
+		assertEquals(implementInfos.length + 1, table.getCount());
+
+		assertFalse(implementInfoCachess[0]
+				.isOf(new Implementation<Object>()));
+	}
+
+	@Test
+	public void invokeTest() throws Throwable
+	{
+		Class<?> implementee = InvokeTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, InvokeTest.Implementor0.class,
+						InvokeTest.Implementor1.class,
+						InvokeTest.Implementor2.class,
+						InvokeTest.Implementor3.class);
+		ImplementInfo plusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+		ImplementInfo minusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "minus"));
+		CountImplementorBeanFactory implementorBeanFactory = CountImplementorBeanFactory
+				.valueOf(new InvokeTest.Implementor0(),
+						new InvokeTest.Implementor1(),
+						new InvokeTest.Implementor3());
+
+		// by selecting
+		{
+			assertEquals(InvokeTest.Implementor1.RE,
+					this.cachedImplementeeMethodInvocationFactory.invoke(
+							implementation, plusInfo, new Object[] { 1, 2 },
+							implementorBeanFactory));
+			assertEquals(InvokeTest.Implementor0.RE,
+					this.cachedImplementeeMethodInvocationFactory.invoke(
+							implementation, plusInfo,
+							new Object[] { 1.0F, 2 },
+							implementorBeanFactory));
+			assertEquals(1, implementorBeanFactory
+					.getCount(InvokeTest.Implementor1.class));
+		}
+
+		// static implement method
+		{
+			assertEquals(InvokeTest.Implementor2.RE,
+					this.cachedImplementeeMethodInvocationFactory.invoke(
+							implementation, minusInfo,
+							new Object[] { 1, 2 },
+							new SimpleImplementorBeanFactory()));
+		}
+
+		// by evaluating
+		{
+			assertEquals(InvokeTest.Implementor3.RE,
+					this.cachedImplementeeMethodInvocationFactory.invoke(
+							implementation, plusInfo,
+							new Object[] { 1.0D, 2.0D },
+							implementorBeanFactory));
+			assertEquals(InvokeTest.Implementor0.RE,
+					this.cachedImplementeeMethodInvocationFactory.invoke(
+							implementation, plusInfo,
+							new Object[] { -1.0D, 2.0D },
+							implementorBeanFactory));
+		}
+
+		expectedException.expect(UnsupportedOperationException.class);
+		expectedException.expectMessage("No valid implement method found");
+
+		this.cachedImplementeeMethodInvocationFactory.invoke(implementation,
+				plusInfo, new Object[] { 1, 2 },
+				new SimpleImplementorBeanFactory());
+	}
+
+	@Test
+	public void cacheStaticValidAndDescPrioritizedsTest()
+	{
+		Class<?> implementee = GetTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, GetTest.Implementor0.class);
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+
+		StaticInvocationInputInfo key = new StaticInvocationInputInfo(
+				implementation, implementInfo,
+				new Class<?>[] { Integer.class, null });
+		StaticInvocationProcessInfo value = new StaticInvocationProcessInfo();
+
+		this.cachedImplementeeMethodInvocationFactory
+				.cacheStaticValidAndDescPrioritizeds(key, value);
+
+		assertSame(value, this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds(
+						new StaticInvocationInputInfo(implementation,
+								implementInfo,
+								new Class<?>[] { Integer.class, null })));
+		assertNull(this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds(
+						new StaticInvocationInputInfo(implementation,
+								implementInfo,
+								new Class<?>[] { Integer.class,
+										Integer.class })));
+
+		WeakStaticInvocationInputInfo weakKey = new WeakStaticInvocationInputInfo(
+				key);
+
+		assertEquals(key.hashCode(), weakKey.hashCode());
+		assertTrue(weakKey.equals(key));
+		assertTrue(key.equals(weakKey));
+		assertFalse(weakKey.isCleared());
+		assertSame(Integer.class, weakKey.getInvocationParamTypes()[0]);
+		assertNull(weakKey.getInvocationParamTypes()[1]);
+
+		CacheStatistics statistics = this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds().getStatistics();
+
+		assertEquals(1, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+	}
+
+	@Test
+	public void expungeClearedKeysTest() throws Throwable
+	{
+		Cache<StaticInvocationInputInfo, StaticInvocationProcessInfo> cache = this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds();
+
+		Implementation<?> implementation = new Implementation<Object>();
+		ImplementInfo implementInfo = new ImplementInfo();
+
+		cacheWithNewImplementInfo(implementation);
+		this.cachedImplementeeMethodInvocationFactory
+				.cacheStaticValidAndDescPrioritizeds(
+						new StaticInvocationInputInfo(implementation,
+								implementInfo,
+								new Class<?>[] { Integer.class }),
+						new StaticInvocationProcessInfo());
+
+		assertEquals(2, cache.size());
+
+		for (int i = 0; i < 20 && cache.size() > 1; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+
+			this.cachedImplementeeMethodInvocationFactory.expungeClearedKeys();
+		}
+
+		assertEquals(1, cache.size());
+		assertNotNull(this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds(
+						new StaticInvocationInputInfo(implementation,
+								implementInfo,
+								new Class<?>[] { Integer.class })));
+	}
+
+	protected void cacheWithNewImplementInfo(Implementation<?> implementation)
+	{
+		this.cachedImplementeeMethodInvocationFactory
+				.cacheStaticValidAndDescPrioritizeds(
+						new StaticInvocationInputInfo(implementation,
+								new ImplementInfo(),
+								new Class<?>[] { Integer.class }),
+						new StaticInvocationProcessInfo());
+	}
+
+	public static class InvokeTest
+	{
+		public static interface Implementee
+		{
+			Number plus(Number a, Number b);
+
+			Number minus(Number a, Number b);
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			public static final int RE = 0;
+
+			@Implement
+			public Number plus(Number a, Number b)
+			{
+				return RE;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			public static final int RE = 1;
+
+			@Implement
+			public Number plus(Integer a, Integer b)
+			{
+				return RE;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor2
+		{
+			public static final int RE = 2;
+
+			@Implement
+			public static Number minus(Number a, Number b)
+			{
+				return RE;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor3
+		{
+			public static final int RE = 3;
+
+			@Implement
+			@Validity("isValid")
+			public Number plus(Double a, Double b)
+			{
+				return RE;
+			}
+
+			public boolean isValid(Double a)
+			{
+				return a > 0;
+			}
+		}
+	}
+
 	@Test
 	public void evalStaticInvocationProcessInfoTest() throws Throwable
 	{
@@ -534,6 +913,190 @@ public class CachedImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void evalStaticInvocationProcessInfoTest_candidateIndex()
+	{
+		Class<?>[][] invocationParamTypess = new Class<?>[][] {
+				{ Integer.class, Integer.class }, { Integer.class, Long.class },
+				{ Long.class, Integer.class }, { Float.class, Float.class },
+				{ Double.class, Double.class }, { null, Integer.class },
+				{ Integer.class, null }, { null, null } };
+
+		{
+			Class<?> implementee = EvalInvocationCacheValueTest.Implementee.class;
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(implementee,
+							EvalInvocationCacheValueTest.Implementor0.class,
+							EvalInvocationCacheValueTest.Implementor1.class,
+							EvalInvocationCacheValueTest.Implementor2.class,
+							EvalInvocationCacheValueTest.Implementor3.class,
+							EvalInvocationCacheValueTest.Implementor5.class,
+							EvalStaticInvocationProcessInfoTest_candidateIndex.Implementor0.class,
+							EvalStaticInvocationProcessInfoTest_candidateIndex.Implementor1.class);
+			Method implementeeMethod = getMethodByName(implementee, "plus");
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(implementeeMethod);
+
+			assertEquals(7, implementInfo.getImplementMethodInfos().length);
+
+			// Implementor0.plus(int, Integer) is higher than
+			// Implementor5.plus(Integer, Integer) which is higher than
+			// Implementor1.plusLong(Long), but the last is the same as the
+			// first, so it is consistent only if the first is former in the
+			// original order
+			int implementor0Index = -1;
+			int implementor1Index = -1;
+			for (int i = 0; i < implementInfo
+					.getImplementMethodInfos().length; i++)
+			{
+				Class<?> implementor = implementInfo.getImplementMethodInfos()[i]
+						.getImplementor();
+
+				if (EvalStaticInvocationProcessInfoTest_candidateIndex.Implementor0.class
+						.equals(implementor))
+					implementor0Index = i;
+				else if (EvalStaticInvocationProcessInfoTest_candidateIndex.Implementor1.class
+						.equals(implementor))
+					implementor1Index = i;
+			}
+
+			assertEquals(implementor0Index < implementor1Index,
+					this.cachedImplementeeMethodInvocationFactory
+							.getCandidateIndex(implementation, implementInfo)
+							.isPrioritized());
+
+			assertEvalStaticInvocationProcessInfoByIndex(implementation,
+					implementInfo, invocationParamTypess);
+
+			assertTrue(this.cachedImplementeeMethodInvocationFactory
+					.getCandidateIndex(implementation,
+							implementInfo) == this.cachedImplementeeMethodInvocationFactory
+									.getImplementInfoCaches(implementation,
+											implementInfo)
+									.getCandidateIndex());
+		}
+
+		// more than 64 candidates
+		{
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(
+							ImplementeeMethodInvocationFactoryPerformanceTest.Implementee.class,
+							getPerformanceTestImplementors(101));
+			ImplementInfo implementInfo = implementation.getImplementInfo(
+					getMethodByName(
+							ImplementeeMethodInvocationFactoryPerformanceTest.Implementee.class,
+							"compare"));
+
+			assertEquals(101, implementInfo.getImplementMethodInfos().length);
+
+			CandidateIndex candidateIndex = this.cachedImplementeeMethodInvocationFactory
+					.getCandidateIndex(implementation, implementInfo);
+
+			assertEquals(2, candidateIndex.getValidBits().length);
+			assertTrue(candidateIndex.isPrioritized());
+
+			assertEvalStaticInvocationProcessInfoByIndex(implementation,
+					implementInfo, invocationParamTypess);
+		}
+
+		// another factory
+		{
+			Class<?> implementee = EvalInvocationCacheValueTest.Implementee.class;
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(implementee,
+							EvalInvocationCacheValueTest.Implementor0.class);
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(getMethodByName(implementee, "plus"));
+
+			CachedImplementeeMethodInvocationFactory another = new CachedImplementeeMethodInvocationFactory();
+			CandidateIndex candidateIndex = another
+					.getCandidateIndex(implementation, implementInfo);
+
+			assertSame(candidateIndex,
+					another.getCandidateIndex(implementation, implementInfo));
+			assertTrue(candidateIndex != this.cachedImplementeeMethodInvocationFactory
+					.getCandidateIndex(implementation, implementInfo));
+			assertSame(candidateIndex,
+					another.getCandidateIndex(implementation, implementInfo));
+		}
+	}
+
+	protected void assertEvalStaticInvocationProcessInfoByIndex(
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Class<?>[][] invocationParamTypess)
+	{
+		CandidateIndex candidateIndex = this.cachedImplementeeMethodInvocationFactory
+				.getCandidateIndex(implementation, implementInfo);
+
+		// twice for computed and cached type bits
+		for (int i = 0; i < 2; i++)
+		{
+			for (Class<?>[] invocationParamTypes : invocationParamTypess)
+			{
+				StaticInvocationProcessInfo expected = this.cachedImplementeeMethodInvocationFactory
+						.evalStaticInvocationProcessInfoByScanning(
+								implementation, implementInfo,
+								invocationParamTypes);
+
+				StaticInvocationProcessInfo actual = this.cachedImplementeeMethodInvocationFactory
+						.evalStaticInvocationProcessInfoByIndex(
+								implementation, implementInfo,
+								candidateIndex, invocationParamTypes);
+
+				assertArrayEquals(expected.getStaticValidAndDescPrioritizeds(),
+						actual.getStaticValidAndDescPrioritizeds());
+				assertEquals(expected.isValidityMethodPresents(),
+						actual.isValidityMethodPresents());
+				assertEquals(expected.isPriorityMethodPresents(),
+						actual.isPriorityMethodPresents());
+			}
+		}
+	}
+
+	protected Class<?>[] getPerformanceTestImplementors(int count)
+	{
+		Class<?>[] implementors = new Class<?>[count];
+
+		for (int i = 0; i < count; i++)
+		{
+			try
+			{
+				implementors[i] = Class.forName(
+						ImplementeeMethodInvocationFactoryPerformanceTest.class
+								.getName() + "$Implementor" + i);
+			}
+			catch (ClassNotFoundException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+
+		return implementors;
+	}
+
+	protected static class EvalStaticInvocationProcessInfoTest_candidateIndex
+	{
+		@Implementor(EvalInvocationCacheValueTest.Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			public int plus(int a, Integer b)
+			{
+				return 0;
+			}
+		}
+
+		@Implementor(EvalInvocationCacheValueTest.Implementee.class)
+		public static class Implementor1
+		{
+			@Implement("plus")
+			public int plusLong(@Index(1) Long b)
+			{
+				return 0;
+			}
+		}
+	}
+
 	@Test
 	public void createBySelectingFromValidAndDescPrioritizedsTest()
 	{
@@ -854,10 +1417,11 @@ public class CachedImplementeeMethodInvocationFactoryTest
 							implementorBeanFactory);
 
 			assertNotNull(invocation);
-			assertEquals(1, implementorBeanFactory
+			// stops after Implementor3, none of the remaining can be higher
+			assertEquals(0, implementorBeanFactory
 					.getCount(
 							CreateByEvaluatingFromValidAndDescPrioritizedsTest.Implementor0.class));
-			assertEquals(1, implementorBeanFactory.getCount(
+			assertEquals(0, implementorBeanFactory.getCount(
 					CreateByEvaluatingFromValidAndDescPrioritizedsTest.Implementor1.class));
 			assertEquals(0, implementorBeanFactory
 					.getCount(
@@ -865,7 +1429,7 @@ public class CachedImplementeeMethodInvocationFactoryTest
 			assertEquals(1, implementorBeanFactory
 					.getCount(
 							CreateByEvaluatingFromValidAndDescPrioritizedsTest.Implementor3.class));
-			assertEquals(1, implementorBeanFactory
+			assertEquals(0, implementorBeanFactory
 					.getCount(
 							CreateByEvaluatingFromValidAndDescPrioritizedsTest.Implementor4.class));
 		}
@@ -1295,6 +1859,968 @@ public class CachedImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void invokeTest_beanSelectionStrategy() throws Throwable
+	{
+		Class<?> implementee = BeanSelectionStrategyTest.Implementee.class;
+
+		Implementation<?> implementation = this.implementationResolver.resolve(
+				implementee, BeanSelectionStrategyTest.Implementor0.class);
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "id"));
+
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BeanSelectionStrategyTest.Implementor0(0),
+						new BeanSelectionStrategyTest.Implementor0(1),
+						new BeanSelectionStrategyTest.Implementor0(2));
+
+		// no strategy
+		{
+			for (int i = 0; i < 3; i++)
+				assertEquals(0, this.cachedImplementeeMethodInvocationFactory
+						.invoke(implementation, implementInfo, new Object[0],
+								implementorBeanFactory));
+		}
+
+		// RoundRobinBeanSelectionStrategy
+		{
+			this.cachedImplementeeMethodInvocationFactory
+					.setBeanSelectionStrategy(
+							new RoundRobinBeanSelectionStrategy());
+
+			for (int i = 0; i < 6; i++)
+			{
+				Object id = (i % 2 == 0
+						? this.cachedImplementeeMethodInvocationFactory.invoke(
+								implementation, implementInfo, new Object[0],
+								implementorBeanFactory)
+						: this.cachedImplementeeMethodInvocationFactory
+								.get(implementation, implementInfo,
+										new Object[0], implementorBeanFactory)
+								.invoke());
+
+				assertEquals(i % 3, id);
+			}
+		}
+
+		// LeastInFlightBeanSelectionStrategy
+		{
+			final LeastInFlightBeanSelectionStrategy strategy = new LeastInFlightBeanSelectionStrategy();
+			this.cachedImplementeeMethodInvocationFactory
+					.setBeanSelectionStrategy(strategy);
+
+			BeanSelectionStrategyTest.Implementor0 bean0 = (BeanSelectionStrategyTest.Implementor0) ((List<?>) implementorBeanFactory
+					.getImplementorBeans(
+							BeanSelectionStrategyTest.Implementor0.class))
+									.get(0);
+
+			strategy.beforeInvoke(bean0);
+
+			assertEquals(1, this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[0],
+							implementorBeanFactory));
+			assertEquals(1, strategy.getInFlightCount(bean0));
+
+			strategy.afterInvoke(bean0);
+
+			assertEquals(0, this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[0],
+							implementorBeanFactory));
+			assertEquals(0, strategy.getInFlightCount(bean0));
+		}
+	}
+
+	@Test
+	public void invalidateTest_implementInfo() throws Throwable
+	{
+		Class<?> implementee = InvalidateTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, InvalidateTest.Implementor0.class,
+						InvalidateTest.Implementor1.class);
+		ImplementInfo plusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+		ImplementInfo minusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "minus"));
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new InvalidateTest.Implementor0(),
+						new InvalidateTest.Implementor1());
+
+		assertEquals("1", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, plusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, minusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+
+		Object plusInlineCache = this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getInlineCache();
+		Object plusCandidateIndex = this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getCandidateIndex();
+		Object minusInlineCache = this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, minusInfo)
+				.getInlineCache();
+
+		// modified in place
+		plusInfo.setImplementMethodInfos(new ImplementMethodInfo[] {
+				plusInfo.getImplementMethodInfo(
+						InvalidateTest.Implementor0.class,
+						getMethodByName(InvalidateTest.Implementor0.class,
+								"plus")) });
+
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, plusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, minusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+
+		assertTrue(plusInlineCache != this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getInlineCache());
+		assertTrue(plusCandidateIndex != this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getCandidateIndex());
+		assertSame(minusInlineCache, this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, minusInfo)
+				.getInlineCache());
+
+		// shared cache
+		this.cachedImplementeeMethodInvocationFactory.setInlineCacheSize(0);
+
+		StaticInvocationInputInfo key = new StaticInvocationInputInfo(
+				implementation, minusInfo, new Class<?>[] { Integer.class });
+
+		assertNotNull(this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds(key));
+
+		this.cachedImplementeeMethodInvocationFactory.invalidate(minusInfo);
+
+		assertNull(this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds(key));
+	}
+
+	@Test
+	public void invalidateTest_implementor() throws Throwable
+	{
+		Class<?> implementee = InvalidateTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, InvalidateTest.Implementor0.class,
+						InvalidateTest.Implementor2.class);
+		ImplementInfo plusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+		ImplementInfo minusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "minus"));
+		InvalidateTest.Implementor2 implementor2 = new InvalidateTest.Implementor2();
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new InvalidateTest.Implementor0(), implementor2);
+
+		assertEquals("2", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, minusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+
+		// cached validity result
+		implementor2.valid = false;
+
+		assertEquals("2", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, minusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+
+		int plusEpoch = plusInfo.getEpoch();
+		int minusEpoch = minusInfo.getEpoch();
+
+		this.cachedImplementeeMethodInvocationFactory
+				.invalidate(implementation, InvalidateTest.Implementor2.class);
+
+		assertEquals(plusEpoch, plusInfo.getEpoch());
+		assertEquals(minusEpoch + 1, minusInfo.getEpoch());
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, minusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+	}
+
+	@Test
+	public void invalidateAllTest() throws Throwable
+	{
+		Class<?> implementee = InvalidateTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, InvalidateTest.Implementor0.class,
+						InvalidateTest.Implementor1.class);
+		ImplementInfo plusInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new InvalidateTest.Implementor0(),
+						new InvalidateTest.Implementor1());
+
+		this.cachedImplementeeMethodInvocationFactory.invoke(implementation,
+				plusInfo, new Object[] { 1 }, implementorBeanFactory);
+
+		Object inlineCache = this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getInlineCache();
+		Object candidateIndex = this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getCandidateIndex();
+		int epoch = this.cachedImplementeeMethodInvocationFactory.getEpoch();
+
+		assertEquals(1, this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds().size());
+
+		this.cachedImplementeeMethodInvocationFactory.invalidateAll();
+
+		assertEquals(epoch + 1,
+				this.cachedImplementeeMethodInvocationFactory.getEpoch());
+		assertEquals(0, this.cachedImplementeeMethodInvocationFactory
+				.getCachedStaticValidAndDescPrioritizeds().size());
+
+		assertEquals("1", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, plusInfo, new Object[] { 1 },
+				implementorBeanFactory));
+
+		assertTrue(inlineCache != this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getInlineCache());
+		assertTrue(candidateIndex != this.cachedImplementeeMethodInvocationFactory
+				.getImplementInfoCaches(implementation, plusInfo)
+				.getCandidateIndex());
+	}
+
+	@Test
+	public void invokeTest_invocationListener() throws Throwable
+	{
+		Class<?> implementee = InvocationListenerTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, InvocationListenerTest.Implementor0.class,
+						InvocationListenerTest.Implementor1.class);
+		ImplementInfo handleInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "handle"));
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new InvocationListenerTest.Implementor0(),
+						new InvocationListenerTest.Implementor1());
+
+		final List<String> events = new ArrayList<String>();
+
+		CachedImplementeeMethodInvocationFactory observedFactory = new CachedImplementeeMethodInvocationFactory(
+				new AbstractInvocationListener()
+				{
+					@Override
+					public void routingStarted(ImplementInfo implementInfo,
+							Object[] invocationParams)
+					{
+						events.add("routingStarted:" + invocationParams[0]);
+					}
+
+					@Override
+					public void validityEvaluated(ImplementInfo implementInfo,
+							ImplementMethodInfo implementMethodInfo,
+							Object implementorBean, boolean valid)
+					{
+						events.add("validityEvaluated:" + valid);
+					}
+
+					@Override
+					public void routingEnded(ImplementInfo implementInfo,
+							ImplementMethodInfo implementMethodInfo,
+							Object implementorBean)
+					{
+						events.add("routingEnded:"
+								+ implementMethodInfo.getImplementor()
+										.getSimpleName());
+					}
+
+					@Override
+					public void invocationCompleted(
+							ImplementInfo implementInfo,
+							ImplementMethodInfo implementMethodInfo,
+							Object implementorBean, Object result,
+							Throwable throwable)
+					{
+						events.add("invocationCompleted:" + (throwable == null
+								? result : throwable.getClass().getSimpleName()));
+					}
+				});
+
+		// valid
+		{
+			assertEquals("0", observedFactory.invoke(
+					implementation, handleInfo, new Object[] { 1 },
+							implementorBeanFactory));
+
+			assertEquals(Arrays.asList("routingStarted:1",
+					"validityEvaluated:true", "routingEnded:Implementor0",
+					"invocationCompleted:0"), events);
+		}
+
+		// invalid
+		{
+			events.clear();
+
+			assertEquals("1", observedFactory.invoke(
+					implementation, handleInfo, new Object[] { -1 },
+							implementorBeanFactory));
+
+			assertEquals(Arrays.asList("routingStarted:-1",
+					"validityEvaluated:false", "routingEnded:Implementor1",
+					"invocationCompleted:1"), events);
+		}
+
+		// thrown
+		{
+			events.clear();
+
+			try
+			{
+				observedFactory.invoke(
+						implementation, handleInfo, new Object[] { 2 },
+						implementorBeanFactory);
+
+				fail();
+			}
+			catch (IllegalStateException e)
+			{
+			}
+
+			assertEquals(
+					"invocationCompleted:IllegalStateException",
+					events.get(events.size() - 1));
+		}
+
+		// NO_OP by default
+		{
+			events.clear();
+
+			assertTrue(InvocationListener.NO_OP == this.cachedImplementeeMethodInvocationFactory
+					.getInvocationListener());
+			assertEquals("0", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, handleInfo, new Object[] { 1 },
+							implementorBeanFactory));
+
+			assertTrue(events.isEmpty());
+		}
+	}
+
+	@Test
+	public void invokeTest_primitive() throws Throwable
+	{
+		Class<?> implementee = PrimitiveTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver.resolve(
+				implementee, PrimitiveTest.Implementor0.class,
+				PrimitiveTest.Implementor1.class);
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new PrimitiveTest.Implementor0(),
+						new PrimitiveTest.Implementor1());
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "plus"));
+
+		for (int i = 0; i < 2; i++)
+		{
+			assertEquals("0", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo,
+							new Object[] { 1, 2 }, implementorBeanFactory));
+			assertEquals("1", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo,
+							new Object[] { 1, 2.0 }, implementorBeanFactory));
+		}
+
+		InlineCacheEntry inlineCacheEntry = this.cachedImplementeeMethodInvocationFactory
+				.getInlineCache(implementation, implementInfo)
+				.find(new Object[] { 3, 4 });
+
+		assertArrayEquals(new Class<?>[] { int.class, Integer.class },
+				inlineCacheEntry.getInvocationParamTypes());
+		assertNull(this.cachedImplementeeMethodInvocationFactory
+				.getInlineCache(implementation, implementInfo)
+				.find(new Object[] { 3, 4L }));
+	}
+
+	public static class PrimitiveTest
+	{
+		public static interface Implementee
+		{
+			String plus(int a, Number b);
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			public String plus(int a, Integer b)
+			{
+				return "0";
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			public String plus(Number a, Double b)
+			{
+				return "1";
+			}
+		}
+	}
+
+	@Test
+	public void invokeTest_shortCircuit() throws Throwable
+	{
+		Class<?> implementee = ShortCircuitTest.Implementee.class;
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new ShortCircuitTest.Implementor0(),
+						new ShortCircuitTest.Implementor1(),
+						new ShortCircuitTest.Implementor2(),
+						new ShortCircuitTest.Implementor3());
+
+		// stop at the first valid for bounded priority method
+		{
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(implementee, ShortCircuitTest.Implementor0.class,
+							ShortCircuitTest.Implementor1.class,
+							ShortCircuitTest.Implementor2.class);
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(getMethodByName(implementee, "handle"));
+
+			ShortCircuitTest.reset();
+
+			assertEquals("0", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[] { 1 },
+							implementorBeanFactory));
+			assertEquals(1, ShortCircuitTest.validityCount0);
+			assertEquals(0, ShortCircuitTest.validityCount1);
+			assertEquals(0, ShortCircuitTest.priorityCount2);
+
+			ShortCircuitTest.reset();
+
+			assertEquals("1", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[] { -1 },
+							implementorBeanFactory));
+			assertEquals(1, ShortCircuitTest.validityCount0);
+			assertEquals(1, ShortCircuitTest.validityCount1);
+			assertEquals(0, ShortCircuitTest.priorityCount2);
+		}
+
+		// priority method result is limited by max
+		{
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(implementee, ShortCircuitTest.Implementor1.class,
+							ShortCircuitTest.Implementor2.class);
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(getMethodByName(implementee, "handle"));
+
+			ShortCircuitTest.reset();
+
+			assertEquals("1", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[] { 1 },
+							implementorBeanFactory));
+			assertEquals(0, ShortCircuitTest.priorityCount2);
+
+			// Implementor2 is evaluated if Implementor1 is absent
+			implementation = this.implementationResolver.resolve(implementee,
+					ShortCircuitTest.Implementor0.class,
+					ShortCircuitTest.Implementor2.class);
+			implementInfo = implementation
+					.getImplementInfo(getMethodByName(implementee, "handle"));
+
+			assertEquals("2", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[] { -1 },
+							implementorBeanFactory));
+			assertEquals(1, ShortCircuitTest.priorityCount2);
+		}
+
+		// unbounded priority method is evaluated, lower ones are skipped
+		{
+			Implementation<?> implementation = this.implementationResolver
+					.resolve(implementee, ShortCircuitTest.Implementor0.class,
+							ShortCircuitTest.Implementor1.class,
+							ShortCircuitTest.Implementor3.class);
+			ImplementInfo implementInfo = implementation
+					.getImplementInfo(getMethodByName(implementee, "handle"));
+
+			ShortCircuitTest.reset();
+
+			assertEquals("3", this.cachedImplementeeMethodInvocationFactory
+					.invoke(implementation, implementInfo, new Object[] { 1 },
+							implementorBeanFactory));
+			assertEquals(1, ShortCircuitTest.validityCount0);
+			assertEquals(0, ShortCircuitTest.validityCount1);
+
+			assertEquals(ShortCircuitTest.Implementor3.class,
+					((DefaultImplementeeMethodInvocation) this.cachedImplementeeMethodInvocationFactory
+							.get(implementation, implementInfo,
+									new Object[] { 1 },
+									implementorBeanFactory))
+											.getImplementMethodInfo()
+											.getImplementor());
+		}
+	}
+
+	@Test
+	public void evalRemainingPriorityUpperBoundsTest() throws Throwable
+	{
+		ImplementMethodInfo fixed = new ImplementMethodInfo();
+		fixed.setPriorityValue(3);
+
+		ImplementMethodInfo bounded = new ImplementMethodInfo();
+		bounded.setPriorityMethod(
+				getMethodByName(ShortCircuitTest.Implementor2.class,
+						"getPriority"));
+		bounded.setPriorityMax(5);
+
+		ImplementMethodInfo none = new ImplementMethodInfo();
+
+		assertArrayEquals(new int[] { 5, 5, 0 },
+				CachedImplementeeMethodInvocationFactory
+						.evalRemainingPriorityUpperBounds(
+								new ImplementMethodInfo[] { fixed, bounded,
+										none }));
+		assertArrayEquals(new int[] { 3, 0 },
+				CachedImplementeeMethodInvocationFactory
+						.evalRemainingPriorityUpperBounds(
+								new ImplementMethodInfo[] { fixed, none }));
+		assertArrayEquals(new int[0], CachedImplementeeMethodInvocationFactory
+				.evalRemainingPriorityUpperBounds(new ImplementMethodInfo[0]));
+	}
+
+	public static class ShortCircuitTest
+	{
+		public static int validityCount0;
+		public static int validityCount1;
+		public static int priorityCount2;
+
+		public static void reset()
+		{
+			validityCount0 = 0;
+			validityCount1 = 0;
+			priorityCount2 = 0;
+		}
+
+		public static interface Implementee
+		{
+			String handle(Number n);
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				return "0";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				validityCount0++;
+				return n > 0;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Number n)
+			{
+				return "1";
+			}
+
+			public boolean isValid(Number n)
+			{
+				validityCount1++;
+				return true;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor2
+		{
+			@Implement
+			@Priority(value = "getPriority", max = 0)
+			public String handle(Number n)
+			{
+				return "2";
+			}
+
+			public int getPriority(Number n)
+			{
+				priorityCount2++;
+				return 5;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor3
+		{
+			@Implement
+			@Priority("getPriority")
+			public String handle(Number n)
+			{
+				return "3";
+			}
+
+			public int getPriority(Number n)
+			{
+				return 5;
+			}
+		}
+	}
+
+	@Test
+	public void invokeTest_parallelEvaluation() throws Throwable
+	{
+		Class<?> implementee = ParallelEvaluationTest.Implementee.class;
+		Implementation<?> implementation = this.implementationResolver
+				.resolve(implementee, ParallelEvaluationTest.Implementor0.class,
+						ParallelEvaluationTest.Implementor1.class,
+						ParallelEvaluationTest.Implementor2.class,
+						ParallelEvaluationTest.Implementor3.class,
+						ParallelEvaluationTest.Implementor4.class,
+						ParallelEvaluationTest.Implementor5.class);
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(getMethodByName(implementee, "handle"));
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new ParallelEvaluationTest.Implementor0(),
+						new ParallelEvaluationTest.Implementor1(),
+						new ParallelEvaluationTest.Implementor1(),
+						new ParallelEvaluationTest.Implementor2(),
+						new ParallelEvaluationTest.Implementor3(),
+						new ParallelEvaluationTest.Implementor4(),
+						new ParallelEvaluationTest.Implementor5());
+
+		CachedImplementeeMethodInvocationFactory parallelFactory = new CachedImplementeeMethodInvocationFactory();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		parallelFactory.setParallelEvaluationPool(pool);
+		parallelFactory.setParallelEvaluationThreshold(2);
+
+		try
+		{
+			for (int n = 0; n < 30; n++)
+			{
+				Object[] invocationParams = new Object[] { n };
+
+				Object expected = invokeForResultOrThrown(
+						this.cachedImplementeeMethodInvocationFactory,
+						implementation, implementInfo, invocationParams,
+						implementorBeanFactory);
+
+				ParallelEvaluationTest.threads.clear();
+
+				Object actual = invokeForResultOrThrown(parallelFactory,
+						implementation, implementInfo, invocationParams,
+						implementorBeanFactory);
+
+				assertEquals("n=" + n, expected, actual);
+
+				Object invocationResult = getAndInvokeForResultOrThrown(
+						parallelFactory, implementation, implementInfo,
+						invocationParams, implementorBeanFactory);
+
+				assertEquals("n=" + n, expected, invocationResult);
+
+				assertFalse(ParallelEvaluationTest.threads.isEmpty());
+
+				for (Thread thread : ParallelEvaluationTest.threads)
+					assertTrue(thread instanceof ForkJoinWorkerThread);
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		// under threshold
+		{
+			parallelFactory.setParallelEvaluationThreshold(6);
+			ParallelEvaluationTest.threads.clear();
+
+			parallelFactory.invoke(implementation, implementInfo,
+					new Object[] { 1 }, implementorBeanFactory);
+
+			assertEquals(Collections.singleton(Thread.currentThread()),
+					new HashSet<Thread>(ParallelEvaluationTest.threads));
+		}
+	}
+
+	protected Object invokeForResultOrThrown(
+			ImplementeeMethodInvocationFactory factory,
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory)
+	{
+		try
+		{
+			return factory.invoke(implementation, implementInfo,
+					invocationParams, implementorBeanFactory);
+		}
+		catch (Throwable t)
+		{
+			return t.getClass();
+		}
+	}
+
+	protected Object getAndInvokeForResultOrThrown(
+			ImplementeeMethodInvocationFactory factory,
+			Implementation<?> implementation, ImplementInfo implementInfo,
+			Object[] invocationParams,
+			ImplementorBeanFactory implementorBeanFactory)
+	{
+		try
+		{
+			ImplementeeMethodInvocation invocation = factory.get(
+					implementation, implementInfo, invocationParams,
+					implementorBeanFactory);
+
+			if (invocation == null)
+				return UnsupportedOperationException.class;
+
+			return invocation.invoke();
+		}
+		catch (Throwable t)
+		{
+			return t.getClass();
+		}
+	}
+
+	public static class ParallelEvaluationTest
+	{
+		public static final Collection<Thread> threads = new ConcurrentLinkedQueue<Thread>();
+
+		public static interface Implementee
+		{
+			String handle(Integer n);
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				return "0";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				threads.add(Thread.currentThread());
+				return n % 2 == 0;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			@Validity("isValid")
+			@Priority("getPriority")
+			public String handle(Integer n)
+			{
+				return "1@" + System.identityHashCode(this);
+			}
+
+			public boolean isValid(Integer n)
+			{
+				threads.add(Thread.currentThread());
+				return n % 3 == 0;
+			}
+
+			public int getPriority(Integer n)
+			{
+				return n % 4;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor2
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				return "2";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				threads.add(Thread.currentThread());
+				return n % 5 != 0;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor3
+		{
+			@Implement
+			@Validity("isValid")
+			@Priority(priority = -1)
+			public String handle(Integer n)
+			{
+				return "3";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				threads.add(Thread.currentThread());
+				return true;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor4
+		{
+			@Implement
+			@Priority("getPriority")
+			public String handle(Integer n)
+			{
+				return "4";
+			}
+
+			public int getPriority(Integer n)
+			{
+				return (n == 7 ? 1 : 0);
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor5
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				return "5";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				threads.add(Thread.currentThread());
+
+				if (n == 13)
+					throw new IllegalStateException();
+
+				return false;
+			}
+		}
+	}
+
+	public static class InvocationListenerTest
+	{
+		public static interface Implementee
+		{
+			String handle(Number n);
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				if (n == 2)
+					throw new IllegalStateException();
+
+				return "0";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				return n > 0;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			public String handle(Number n)
+			{
+				return "1";
+			}
+		}
+	}
+
+	public static class InvalidateTest
+	{
+		public static interface Implementee
+		{
+			String plus(Number a);
+
+			String minus(Number a);
+		}
+
+		public static class Implementor0 implements Implementee
+		{
+			@Override
+			public String plus(Number a)
+			{
+				return "0";
+			}
+
+			@Override
+			public String minus(Number a)
+			{
+				return "0";
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			public String plus(Integer a)
+			{
+				return "1";
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor2
+		{
+			private boolean valid = true;
+
+			@Implement
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_TYPE)
+			public String minus(Integer a)
+			{
+				return "2";
+			}
+
+			public boolean isValid()
+			{
+				return this.valid;
+			}
+		}
+	}
+
+	public static class BeanSelectionStrategyTest
+	{
+		public static interface Implementee
+		{
+			int id();
+		}
+
+		public static class Implementor0 implements Implementee
+		{
+			private final int id;
+
+			public Implementor0(int id)
+			{
+				super();
+				this.id = id;
+			}
+
+			@Override
+			public int id()
+			{
+				return this.id;
+			}
+		}
+	}
+
 	protected static class CountImplementorBeanFactory
 			extends SimpleImplementorBeanFactory
 	{
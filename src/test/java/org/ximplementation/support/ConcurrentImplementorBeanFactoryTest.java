@@ -0,0 +1,370 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.ximplementation.support.ConcurrentImplementorBeanFactory.Editor;
+import org.ximplementation.support.ConcurrentImplementorBeanFactory.Modification;
+
+/**
+ * {@linkplain ConcurrentImplementorBeanFactory} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-28
+ *
+ */
+public class ConcurrentImplementorBeanFactoryTest extends AbstractTestSupport
+{
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void addTest()
+	{
+		Implementor0 expected0 = new Implementor0();
+		Implementor0 expected1 = new Implementor0();
+		Implementor1 expected2 = new Implementor1();
+
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		factory.add(expected0);
+		factory.add(Arrays.asList(expected1, expected2));
+
+		Collection<Implementor0> actual = factory
+				.getImplementorBeans(Implementor0.class);
+
+		assertEquals(Arrays.asList(expected0, expected1), actual);
+		assertEquals(Arrays.asList(expected2),
+				factory.getImplementorBeans(Implementor1.class));
+		assertEquals(2, factory.size());
+		assertTrue(factory.exists(Implementor0.class));
+		assertTrue(factory.getAllImplementors().contains(Implementor1.class));
+	}
+
+	@Test
+	public void addTest_implementor()
+	{
+		Implementor1 expected = new Implementor1();
+
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		factory.add(Implementor0.class, expected);
+
+		assertEquals(Arrays.<Object> asList(expected),
+				factory.get(Implementor0.class));
+		assertNull(factory.get(Implementor1.class));
+	}
+
+	@Test
+	public void appendTest()
+	{
+		Implementor0 expected0 = new Implementor0();
+		Implementor0 expected1 = new Implementor0();
+
+		ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+
+		assertFalse(factory.append(expected0));
+		assertFalse(factory.exists(Implementor0.class));
+
+		factory.add(Implementor0.class);
+
+		assertTrue(factory.exists(Implementor0.class));
+		assertTrue(factory.append(expected0));
+		assertTrue(factory.append(Implementor0.class, expected1));
+
+		assertEquals(Arrays.asList(expected0, expected1),
+				factory.getImplementorBeans(Implementor0.class));
+	}
+
+	@Test
+	public void removeTest()
+	{
+		Implementor0 bean0 = new Implementor0();
+		Implementor0 bean1 = new Implementor0();
+		Implementor1 bean2 = new Implementor1();
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(bean0, bean1, bean0, bean2);
+
+		factory.remove(bean0);
+
+		assertEquals(Arrays.asList(bean1, bean0),
+				factory.getImplementorBeans(Implementor0.class));
+		assertTrue(factory.contains(bean0));
+
+		factory.remove(Arrays.asList(bean0, bean2));
+
+		assertEquals(Arrays.asList(bean1),
+				factory.getImplementorBeans(Implementor0.class));
+		assertFalse(factory.contains(bean0));
+		assertFalse(factory.contains(bean2));
+		assertTrue(factory.exists(Implementor1.class));
+		assertTrue(factory.getImplementorBeans(Implementor1.class).isEmpty());
+	}
+
+	@Test
+	public void removeTest_absent()
+	{
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(new Implementor0());
+
+		long version = factory.getVersion();
+
+		factory.remove(new Implementor0());
+		factory.remove(new Implementor1());
+
+		assertEquals(version, factory.getVersion());
+		assertEquals(1, factory.getImplementorBeans(Implementor0.class).size());
+	}
+
+	@Test
+	public void clearTest()
+	{
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(new Implementor0(), new Implementor1());
+
+		factory.clear(Implementor0.class);
+
+		assertFalse(factory.exists(Implementor0.class));
+		assertNull(factory.getImplementorBeans(Implementor0.class));
+		assertEquals(1, factory.size());
+
+		factory.clear();
+
+		assertEquals(0, factory.size());
+	}
+
+	@Test
+	public void containsTest()
+	{
+		Implementor0 bean = new Implementor0();
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(bean);
+
+		assertTrue(factory.contains(bean));
+		assertTrue(factory.contains(Implementor0.class, bean));
+		assertFalse(factory.contains(Implementor1.class, bean));
+		assertFalse(factory.contains(new Implementor0()));
+	}
+
+	@Test
+	public void getImplementorBeansTest_snapshot()
+	{
+		Implementor0 bean0 = new Implementor0();
+		Implementor0 bean1 = new Implementor0();
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(bean0);
+
+		Collection<Implementor0> snapshot = factory
+				.getImplementorBeans(Implementor0.class);
+
+		factory.add(bean1);
+		factory.remove(bean0);
+
+		assertEquals(Arrays.asList(bean0), snapshot);
+		assertEquals(Arrays.asList(bean1),
+				factory.getImplementorBeans(Implementor0.class));
+	}
+
+	@Test
+	public void getImplementorBeansTest_unmodifiable()
+	{
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(new Implementor0());
+
+		expectedException.expect(UnsupportedOperationException.class);
+
+		factory.getImplementorBeans(Implementor0.class)
+				.add(new Implementor0());
+	}
+
+	@Test
+	public void modifyTest()
+	{
+		final Implementor0 bean0 = new Implementor0();
+		final Implementor1 bean1 = new Implementor1();
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(bean0);
+
+		long version = factory.getVersion();
+
+		factory.modify(new Modification()
+		{
+			@Override
+			public void modify(Editor editor)
+			{
+				editor.remove(bean0);
+				editor.add(bean1);
+
+				assertTrue(editor.exists(Implementor1.class));
+			}
+		});
+
+		assertEquals(version + 1, factory.getVersion());
+		assertTrue(factory.getImplementorBeans(Implementor0.class).isEmpty());
+		assertEquals(Arrays.asList(bean1),
+				factory.getImplementorBeans(Implementor1.class));
+	}
+
+	@Test
+	public void modifyTest_throw()
+	{
+		final Implementor0 bean0 = new Implementor0();
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(bean0);
+
+		long version = factory.getVersion();
+
+		try
+		{
+			factory.modify(new Modification()
+			{
+				@Override
+				public void modify(Editor editor)
+				{
+					editor.clear();
+
+					throw new IllegalStateException();
+				}
+			});
+		}
+		catch (IllegalStateException e)
+		{
+		}
+
+		assertEquals(version, factory.getVersion());
+		assertTrue(factory.contains(bean0));
+	}
+
+	@Test
+	public void valueOfTest_Map()
+	{
+		Implementor0 bean0 = new Implementor0();
+		Implementor1 bean1 = new Implementor1();
+
+		Map<Class<?>, List<?>> map = new HashMap<Class<?>, List<?>>();
+		map.put(Implementor0.class, Arrays.asList(bean0, bean1));
+
+		ConcurrentImplementorBeanFactory factory = ConcurrentImplementorBeanFactory
+				.valueOf(map);
+
+		assertEquals(1, factory.getVersion());
+		assertEquals(Arrays.<Object> asList(bean0, bean1),
+				factory.get(Implementor0.class));
+	}
+
+	@Test
+	public void concurrentTest() throws Exception
+	{
+		final ConcurrentImplementorBeanFactory factory = new ConcurrentImplementorBeanFactory();
+		factory.add(Implementor0.class);
+
+		final int writerCount = 4;
+		final int count = 500;
+		final CountDownLatch latch = new CountDownLatch(writerCount);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+
+		for (int i = 0; i < writerCount; i++)
+		{
+			new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						for (int j = 0; j < count; j++)
+						{
+							Implementor0 bean = new Implementor0();
+
+							factory.append(bean);
+							factory.remove(bean);
+							factory.append(bean);
+						}
+					}
+					catch (Throwable t)
+					{
+						error.set(t);
+					}
+					finally
+					{
+						latch.countDown();
+					}
+				}
+			}.start();
+		}
+
+		while (latch.getCount() > 0)
+		{
+			Collection<Implementor0> beans = factory
+					.getImplementorBeans(Implementor0.class);
+
+			int size = 0;
+			for (Implementor0 bean : beans)
+			{
+				assertTrue(bean != null);
+				size++;
+			}
+
+			assertEquals(beans.size(), size);
+		}
+
+		latch.await();
+
+		assertNull(error.get());
+		assertEquals(writerCount * count,
+				factory.getImplementorBeans(Implementor0.class).size());
+		assertEquals(1 + writerCount * count * 3, factory.getVersion());
+	}
+
+	protected static class Implementor0
+	{
+	}
+
+	protected static class Implementor1
+	{
+	}
+}
@@ -15,7 +15,10 @@
 package org.ximplementation.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 
 import org.junit.After;
@@ -23,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
+import org.ximplementation.Index;
 
 /**
  * {@linkplain DefaultImplementeeMethodInvocation} unit tests.
@@ -168,6 +172,122 @@ public class DefaultImplementeeMethodInvocationTest extends AbstractTestSupport
 		}
 	}
 
+	@Test
+	public void invokeTest_methodHandle() throws Throwable
+	{
+		Implementation<InvokeMethodHandleTest.Implementee> implementation = this.implementationResolver
+				.resolve(InvokeMethodHandleTest.Implementee.class,
+						InvokeMethodHandleTest.Implementor0.class);
+
+		Object implementorBean = new InvokeMethodHandleTest.Implementor0();
+
+		// @Index remapping and primitive
+		{
+			ImplementInfo implementInfo = implementation.getImplementInfo(
+					getMethodByName(InvokeMethodHandleTest.Implementee.class,
+							"minus"));
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfos()[0];
+
+			assertNotNull(implementMethodInfo.getMethodHandle());
+
+			DefaultImplementeeMethodInvocation invocation = new DefaultImplementeeMethodInvocation(
+					implementation, implementInfo, new Object[] { 1, 5, 3 },
+					implementMethodInfo, implementorBean);
+
+			assertEquals(2, invocation.invoke());
+		}
+
+		// varargs
+		{
+			ImplementInfo implementInfo = implementation.getImplementInfo(
+					getMethodByName(InvokeMethodHandleTest.Implementee.class,
+							"join"));
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfos()[0];
+
+			DefaultImplementeeMethodInvocation invocation = new DefaultImplementeeMethodInvocation(
+					implementation, implementInfo,
+					new Object[] { new String[] { "a", "b" } },
+					implementMethodInfo, implementorBean);
+
+			assertEquals("ab", invocation.invoke());
+		}
+
+		// exception is thrown directly
+		{
+			ImplementInfo implementInfo = implementation.getImplementInfo(
+					getMethodByName(InvokeMethodHandleTest.Implementee.class,
+							"fail"));
+			ImplementMethodInfo implementMethodInfo = implementInfo
+					.getImplementMethodInfos()[0];
+
+			DefaultImplementeeMethodInvocation invocation = new DefaultImplementeeMethodInvocation(
+					implementation, implementInfo, null, implementMethodInfo,
+					implementorBean);
+
+			try
+			{
+				invocation.invoke();
+				assertTrue(false);
+			}
+			catch (IOException e)
+			{
+			}
+
+			// without method handle
+			implementMethodInfo.setMethodHandle(null);
+
+			try
+			{
+				invocation.invoke();
+				assertTrue(false);
+			}
+			catch (IOException e)
+			{
+			}
+		}
+	}
+
+	protected static class InvokeMethodHandleTest
+	{
+		public static interface Implementee
+		{
+			int minus(int a, int b, int c);
+
+			String join(String... strs);
+
+			void fail() throws IOException;
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			public int minus(@Index(2) int c, @Index(1) Integer b)
+			{
+				return b - c;
+			}
+
+			@Implement
+			public String join(String... strs)
+			{
+				StringBuilder sb = new StringBuilder();
+
+				for (String str : strs)
+					sb.append(str);
+
+				return sb.toString();
+			}
+
+			@Implement
+			public void fail() throws IOException
+			{
+				throw new IOException();
+			}
+		}
+	}
+
 	protected static class InvokeTest
 	{
 		public static class Implementee
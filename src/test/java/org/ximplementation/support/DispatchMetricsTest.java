@@ -0,0 +1,332 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ximplementation.Implement;
+import org.ximplementation.Implementor;
+import org.ximplementation.Validity;
+
+/**
+ * {@linkplain DispatchMetrics} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class DispatchMetricsTest extends AbstractTestSupport
+{
+	private ImplementationResolver implementationResolver;
+
+	private CachedImplementeeMethodInvocationFactory cachedImplementeeMethodInvocationFactory;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		this.implementationResolver = new ImplementationResolver();
+		this.cachedImplementeeMethodInvocationFactory = new CachedImplementeeMethodInvocationFactory();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void recordTest() throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = new DispatchMetrics();
+		this.cachedImplementeeMethodInvocationFactory
+				.setDispatchMetrics(dispatchMetrics);
+
+		Implementation<?> implementation = this.implementationResolver.resolve(
+				RecordTest.Implementee.class, RecordTest.Implementor0.class,
+				RecordTest.Implementor1.class);
+		Method handle = getMethodByName(RecordTest.Implementee.class,
+				"handle");
+		Method none = getMethodByName(RecordTest.Implementee.class, "none");
+		ImplementInfo handleInfo = implementation.getImplementInfo(handle);
+		ImplementInfo noneInfo = implementation.getImplementInfo(none);
+		ImplementMethodInfo implementMethodInfo0 = handleInfo
+				.getImplementMethodInfo(RecordTest.Implementor0.class,
+						getMethodByName(RecordTest.Implementor0.class,
+								"handle"));
+		ImplementMethodInfo implementMethodInfo1 = handleInfo
+				.getImplementMethodInfo(RecordTest.Implementor1.class,
+						getMethodByName(RecordTest.Implementor1.class,
+								"handle"));
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new RecordTest.Implementor0(),
+						new RecordTest.Implementor1());
+
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, handleInfo, new Object[] { 1 },
+				implementorBeanFactory));
+		assertEquals("1", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, handleInfo, new Object[] { 1.0D },
+				implementorBeanFactory));
+		assertEquals("0", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, handleInfo, new Object[] { 1 },
+				implementorBeanFactory));
+		assertEquals("1", this.cachedImplementeeMethodInvocationFactory.invoke(
+				implementation, handleInfo, new Object[] { -1 },
+				implementorBeanFactory));
+
+		try
+		{
+			this.cachedImplementeeMethodInvocationFactory.invoke(
+					implementation, noneInfo, new Object[0],
+					implementorBeanFactory);
+
+			fail();
+		}
+		catch (UnsupportedOperationException e)
+		{
+		}
+
+		// implementee method
+		{
+			ImplementeeMethodStatistics statistics = dispatchMetrics
+					.getImplementeeMethodStatistics(handle);
+
+			assertEquals(handle.toString(), statistics.getImplementeeMethod());
+			assertEquals(4, statistics.getInvocationCount());
+			assertEquals(0, statistics.getNoValidImplementMethodCount());
+			assertEquals(2, statistics.getInlineCacheHitCount());
+			assertEquals(0, statistics.getSharedCacheHitCount());
+			assertEquals(2, statistics.getCacheMissCount());
+			assertEquals(4, statistics.getRoutingLatency().getCount());
+
+			statistics = dispatchMetrics.getImplementeeMethodStatistics(none);
+
+			assertEquals(1, statistics.getInvocationCount());
+			assertEquals(1, statistics.getNoValidImplementMethodCount());
+
+			assertEquals(2,
+					dispatchMetrics.getImplementeeMethodStatistics().size());
+			assertEquals(5, dispatchMetrics.getInvocationCount());
+			assertEquals(1, dispatchMetrics.getNoValidImplementMethodCount());
+		}
+
+		// implement method
+		{
+			ImplementMethodStatistics statistics = dispatchMetrics
+					.getImplementMethodStatistics(implementMethodInfo0);
+
+			assertEquals(RecordTest.Implementor0.class.getName(),
+					statistics.getImplementor());
+			assertEquals(2, statistics.getInvocationCount());
+			assertEquals(2, statistics.getTargetLatency().getCount());
+			assertEquals(3, statistics.getValidityLatency().getCount());
+
+			statistics = dispatchMetrics
+					.getImplementMethodStatistics(implementMethodInfo1);
+
+			assertEquals(2, statistics.getInvocationCount());
+			assertEquals(0, statistics.getValidityLatency().getCount());
+		}
+
+		// shared cache
+		{
+			this.cachedImplementeeMethodInvocationFactory.setInlineCacheSize(0);
+
+			this.cachedImplementeeMethodInvocationFactory.invoke(implementation,
+					handleInfo, new Object[] { 1 }, implementorBeanFactory);
+
+			assertEquals(1, dispatchMetrics
+					.getImplementeeMethodStatistics(handle)
+					.getSharedCacheHitCount());
+		}
+
+		// disabled
+		{
+			dispatchMetrics.setEnabled(false);
+
+			this.cachedImplementeeMethodInvocationFactory.invoke(implementation,
+					handleInfo, new Object[] { 1 }, implementorBeanFactory);
+
+			assertEquals(5, dispatchMetrics
+					.getImplementeeMethodStatistics(handle)
+					.getInvocationCount());
+			assertEquals(3, dispatchMetrics
+					.getImplementMethodStatistics(implementMethodInfo0)
+					.getInvocationCount());
+		}
+
+		// reset
+		{
+			dispatchMetrics.reset();
+
+			assertNull(dispatchMetrics.getImplementeeMethodStatistics(handle));
+			assertEquals(0, dispatchMetrics.getInvocationCount());
+		}
+	}
+
+	@Test
+	public void recordTest_simple() throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = new DispatchMetrics();
+		SimpleImplementeeMethodInvocationFactory simpleImplementeeMethodInvocationFactory = new SimpleImplementeeMethodInvocationFactory();
+		simpleImplementeeMethodInvocationFactory
+				.setDispatchMetrics(dispatchMetrics);
+
+		Implementation<?> implementation = this.implementationResolver.resolve(
+				RecordTest.Implementee.class, RecordTest.Implementor0.class,
+				RecordTest.Implementor1.class);
+		Method handle = getMethodByName(RecordTest.Implementee.class,
+				"handle");
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new RecordTest.Implementor0(),
+						new RecordTest.Implementor1());
+
+		assertEquals("0", simpleImplementeeMethodInvocationFactory.invoke(
+				implementation, implementation.getImplementInfo(handle),
+				new Object[] { 1 }, implementorBeanFactory));
+
+		ImplementeeMethodStatistics statistics = dispatchMetrics
+				.getImplementeeMethodStatistics(handle);
+
+		assertEquals(1, statistics.getInvocationCount());
+		assertEquals(0, statistics.getCacheMissCount());
+		assertEquals(1, dispatchMetrics.getImplementMethodStatistics().size());
+		assertEquals(1, dispatchMetrics.getImplementMethodStatistics().get(0)
+				.getValidityLatency().getCount());
+	}
+
+	@Test
+	public void recordTest_collected() throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = new DispatchMetrics();
+
+		ImplementMethodInfo implementMethodInfo = newImplementMethodInfo();
+		dispatchMetrics.recordTarget(implementMethodInfo, 1);
+		dispatchMetrics.recordTarget(newImplementMethodInfo(), 1);
+
+		assertEquals(2, dispatchMetrics.getImplementMethodStatistics().size());
+
+		// the collected ones are removed when recording a new one
+		for (int i = 0; i < 20; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+
+			dispatchMetrics.recordTarget(newImplementMethodInfo(), 1);
+
+			if (dispatchMetrics.getImplementMethodStatistics().size() == 2)
+				break;
+		}
+
+		assertEquals(2, dispatchMetrics.getImplementMethodStatistics().size());
+		assertEquals(1, dispatchMetrics
+				.getImplementMethodStatistics(implementMethodInfo)
+				.getInvocationCount());
+	}
+
+	protected ImplementMethodInfo newImplementMethodInfo()
+	{
+		return new ImplementMethodInfo(RecordTest.Implementor0.class,
+				getMethodByName(RecordTest.Implementor0.class, "handle"));
+	}
+
+	@Test
+	public void registerMBeanTest() throws Throwable
+	{
+		DispatchMetrics dispatchMetrics = new DispatchMetrics();
+		dispatchMetrics.recordRouting(
+				getMethodByName(RecordTest.Implementee.class, "handle"), 10);
+
+		ObjectName objectName = dispatchMetrics
+				.registerMBean("registerMBeanTest");
+
+		try
+		{
+			MBeanServer mbeanServer = ManagementFactory
+					.getPlatformMBeanServer();
+
+			assertTrue(mbeanServer.isRegistered(objectName));
+			assertEquals(1L, mbeanServer.getAttribute(objectName,
+					"InvocationCount"));
+			assertEquals(Boolean.TRUE,
+					mbeanServer.getAttribute(objectName, "Enabled"));
+
+			CompositeData[] statisticses = (CompositeData[]) mbeanServer
+					.getAttribute(objectName, "ImplementeeMethodStatistics");
+
+			assertEquals(1, statisticses.length);
+			assertEquals(1L, statisticses[0].get("invocationCount"));
+
+			CompositeData routingLatency = (CompositeData) statisticses[0]
+					.get("routingLatency");
+
+			assertNotNull(routingLatency);
+			assertEquals(10L, routingLatency.get("maxNanos"));
+		}
+		finally
+		{
+			dispatchMetrics.unregisterMBean(objectName);
+		}
+	}
+
+	public static class RecordTest
+	{
+		public static interface Implementee
+		{
+			String handle(Number n);
+
+			String none();
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			@Implement
+			@Validity("isValid")
+			public String handle(Integer n)
+			{
+				return "0";
+			}
+
+			public boolean isValid(Integer n)
+			{
+				return n > 0;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement
+			public String handle(Number n)
+			{
+				return "1";
+			}
+		}
+	}
+}
@@ -0,0 +1,520 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.ximplementation.Implement;
+import org.ximplementation.Implementor;
+import org.ximplementation.Index;
+import org.ximplementation.NotImplement;
+import org.ximplementation.Validity;
+import org.ximplementation.support.GeneratedImplementeeBeanBuilder.GeneratedImplementee;
+
+/**
+ * {@linkplain GeneratedImplementeeBeanBuilder} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-2
+ * 
+ */
+public class GeneratedImplementeeBeanBuilderTest extends AbstractTestSupport
+{
+	private GeneratedImplementeeBeanBuilder generatedImplementeeBeanBuilder;
+
+	private ImplementationResolver implementationResolver;
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+		this.generatedImplementeeBeanBuilder = new GeneratedImplementeeBeanBuilder();
+		this.implementationResolver = new ImplementationResolver();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		this.generatedImplementeeBeanBuilder = null;
+		this.implementationResolver = null;
+	}
+
+	@Test
+	public void buildTest()
+	{
+		Implementation<BuildTest.Implementee1> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee1.class,
+						BuildTest.Implementor0.class,
+						BuildTest.Implementor1.class,
+						BuildTest.Implementor2.class);
+
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BuildTest.Implementor0(),
+						new BuildTest.Implementor1(),
+						new BuildTest.Implementor2());
+
+		BuildTest.Implementee1 implementee1 = this.generatedImplementeeBeanBuilder
+				.build(implementation, implementorBeanFactory);
+
+		assertNotNull(implementee1);
+		assertTrue(implementee1 instanceof ProxyImplementee);
+		assertTrue(implementee1 instanceof GeneratedImplementee);
+		assertFalse(Proxy.isProxyClass(implementee1.getClass()));
+	}
+
+	@Test
+	public void buildTest_executor() throws Exception
+	{
+		Implementation<ProxyImplementeeInvocationSupportTest.AsyncImplementee> implementation = this.implementationResolver
+				.resolve(ProxyImplementeeInvocationSupportTest.AsyncImplementee.class,
+						ProxyImplementeeInvocationSupportTest.AsyncImplementor0.class);
+
+		final AtomicInteger executed = new AtomicInteger();
+
+		this.generatedImplementeeBeanBuilder.setExecutor(new Executor()
+		{
+			@Override
+			public void execute(Runnable command)
+			{
+				executed.incrementAndGet();
+				command.run();
+			}
+		});
+
+		ProxyImplementeeInvocationSupportTest.AsyncImplementee implementee = this.generatedImplementeeBeanBuilder
+				.build(implementation, SimpleImplementorBeanFactory.valueOf(
+						new ProxyImplementeeInvocationSupportTest.AsyncImplementor0()));
+
+		assertTrue(implementee instanceof GeneratedImplementee);
+
+		assertEquals(Thread.currentThread().getName(),
+				implementee.threadName().get());
+		assertEquals(1, executed.get());
+
+		implementee.syncThreadName();
+		assertEquals(1, executed.get());
+	}
+
+	@Test
+	public void doBuildTestNotInterface()
+	{
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BuildTest.Implementor0(),
+						new BuildTest.Implementor1(),
+						new BuildTest.Implementor2());
+
+		Implementation<BuildTest.Implementee0> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee0.class,
+						BuildTest.Implementor0.class,
+						BuildTest.Implementor1.class,
+						BuildTest.Implementor2.class);
+
+		this.expectedException.expect(IllegalArgumentException.class);
+		this.expectedException.expectMessage("must be an interface");
+
+		this.generatedImplementeeBeanBuilder.doBuild(implementation,
+				implementorBeanFactory);
+	}
+
+	@Test
+	public void doBuildTest()
+	{
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BuildTest.Implementor0(),
+						new BuildTest.Implementor1(),
+						new BuildTest.Implementor2());
+
+		Implementation<BuildTest.Implementee1> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee1.class,
+						BuildTest.Implementor0.class,
+						BuildTest.Implementor1.class,
+						BuildTest.Implementor2.class);
+
+		BuildTest.Implementee1 implementee1 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, implementorBeanFactory);
+
+		assertEquals(152, implementee1.plus(150, 2));
+		assertEquals(BuildTest.Implementor1.MY_RE, implementee1.plus(1, 2));
+		assertEquals(9, implementee1.plus(250, 9));
+	}
+
+	@Test
+	public void doBuildTestThrowUnsupportedOperationException()
+	{
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BuildTest.Implementor0(),
+						new BuildTest.Implementor1(),
+						new BuildTest.Implementor2());
+
+		Implementation<BuildTest.Implementee1> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee1.class,
+						BuildTest.Implementor0.class,
+						BuildTest.Implementor1.class,
+						BuildTest.Implementor2.class);
+
+		BuildTest.Implementee1 implementee1 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, implementorBeanFactory);
+
+		this.expectedException.expect(UnsupportedOperationException.class);
+		this.expectedException
+				.expectMessage("No valid implement method found for");
+
+		implementee1.minus(2, 1);
+	}
+
+	@Test
+	public void doBuildTest_sameGeneratedClass()
+	{
+		Implementation<BuildTest.Implementee1> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee1.class,
+						BuildTest.Implementor0.class);
+
+		BuildTest.Implementee1 implementee0 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, SimpleImplementorBeanFactory
+						.valueOf(new BuildTest.Implementor0()));
+
+		BuildTest.Implementee1 implementee1 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, SimpleImplementorBeanFactory
+						.valueOf(new BuildTest.Implementor0()));
+
+		assertSame(implementee0.getClass(), implementee1.getClass());
+	}
+
+	@Test
+	public void doBuildTest_typesAndExceptions() throws Exception
+	{
+		Implementation<TypesTest.Implementee> implementation = this.implementationResolver
+				.resolve(TypesTest.Implementee.class,
+						TypesTest.Implementor0.class);
+
+		TypesTest.Implementor0 implementor = new TypesTest.Implementor0();
+
+		TypesTest.Implementee implementee = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation,
+						SimpleImplementorBeanFactory.valueOf(implementor));
+
+		assertTrue(implementee instanceof GeneratedImplementee);
+
+		assertEquals(true, implementee.testBoolean(false));
+		assertEquals((byte) 2, implementee.testByte((byte) 1));
+		assertEquals('b', implementee.testChar('a'));
+		assertEquals((short) 2, implementee.testShort((short) 1));
+		assertEquals(2, implementee.testInt(1));
+		assertEquals(2L, implementee.testLong(1L));
+		assertEquals(2.0F, implementee.testFloat(1.0F), 0.0F);
+		assertEquals(2.0D, implementee.testDouble(1.0D), 0.0D);
+		assertEquals(10L, implementee.testMixed(1, 2L, 3.0D, "4"));
+		assertEquals(Arrays.asList("a", "b"),
+				Arrays.asList(implementee.testArray("a", "b")));
+		assertEquals(Arrays.asList("c"), implementee.testList("c"));
+		assertNull(implementee.testNull(null));
+
+		implementee.testVoid(7);
+		assertEquals(7, implementor.voidValue);
+
+		try
+		{
+			implementee.testDeclaredException();
+			assertTrue(false);
+		}
+		catch (Exception e)
+		{
+			assertFalse(e instanceof UndeclaredThrowableException);
+		}
+
+		try
+		{
+			implementee.testUndeclaredException();
+			assertTrue(false);
+		}
+		catch (UndeclaredThrowableException e)
+		{
+			assertNotNull(e.getCause());
+		}
+	}
+
+	@Test
+	public void doBuildTest_objectMethods()
+	{
+		Implementation<BuildTest.Implementee1> implementation = this.implementationResolver
+				.resolve(BuildTest.Implementee1.class,
+						BuildTest.Implementor0.class);
+
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BuildTest.Implementor0());
+
+		BuildTest.Implementee1 implementee0 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, implementorBeanFactory);
+
+		BuildTest.Implementee1 implementee1 = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, implementorBeanFactory);
+
+		assertTrue(implementee0.equals(implementee1));
+		assertEquals(implementee0.hashCode(), implementee1.hashCode());
+		assertTrue(implementee0.toString()
+				.contains(BuildTest.Implementee1.class.getName()));
+	}
+
+	@Test
+	public void doBuildTest_notPublicImplementee()
+	{
+		Implementation<NotPublicImplementee> implementation = this.implementationResolver
+				.resolve(NotPublicImplementee.class,
+						NotPublicImplementor.class);
+
+		NotPublicImplementee implementee = this.generatedImplementeeBeanBuilder
+				.doBuild(implementation, SimpleImplementorBeanFactory
+						.valueOf(new NotPublicImplementor()));
+
+		assertTrue(Proxy.isProxyClass(implementee.getClass()));
+		assertTrue(implementee instanceof ProxyImplementee);
+		assertEquals(3, implementee.plus(1, 2));
+	}
+
+	public static class BuildTest
+	{
+		public static abstract class Implementee0
+		{
+			public abstract int plus(int a, int b);
+
+			public abstract int minus(int a, int b);
+		}
+
+		public static interface Implementee1
+		{
+			int plus(int a, int b);
+
+			int minus(int a, int b);
+		}
+
+		public static class Implementor0 implements Implementee1
+		{
+			@Override
+			public int plus(int a, int b)
+			{
+				return a + b;
+			}
+
+			@NotImplement
+			@Override
+			public int minus(int a, int b)
+			{
+				return 0;
+			}
+		}
+
+		@Implementor(Implementee1.class)
+		public static class Implementor1
+		{
+			public static int MY_RE = -9999;
+
+			@Implement
+			@Validity("isValid")
+			public int plus(int a, int b)
+			{
+				return MY_RE;
+			}
+
+			public boolean isValid(int a)
+			{
+				return a < 100;
+			}
+		}
+
+		@Implementor(Implementee1.class)
+		public static class Implementor2
+		{
+			@Implement
+			@Validity("isValid")
+			public int plus(@Index(1) int b)
+			{
+				return b;
+			}
+
+			public boolean isValid(int a)
+			{
+				return a > 200;
+			}
+		}
+	}
+
+	public static class TypesTest
+	{
+		public static interface Implementee
+		{
+			boolean testBoolean(boolean a);
+
+			byte testByte(byte a);
+
+			char testChar(char a);
+
+			short testShort(short a);
+
+			int testInt(int a);
+
+			long testLong(long a);
+
+			float testFloat(float a);
+
+			double testDouble(double a);
+
+			long testMixed(int a, long b, double c, String d);
+
+			String[] testArray(String... a);
+
+			List<String> testList(String a);
+
+			Object testNull(Object a);
+
+			void testVoid(int a);
+
+			void testDeclaredException() throws Exception;
+
+			void testUndeclaredException();
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor0
+		{
+			public static final String EXCEPTION_MESSAGE = "test";
+
+			public int voidValue;
+
+			@Implement
+			public boolean testBoolean(boolean a)
+			{
+				return !a;
+			}
+
+			@Implement
+			public byte testByte(byte a)
+			{
+				return (byte) (a + 1);
+			}
+
+			@Implement
+			public char testChar(char a)
+			{
+				return (char) (a + 1);
+			}
+
+			@Implement
+			public short testShort(short a)
+			{
+				return (short) (a + 1);
+			}
+
+			@Implement
+			public int testInt(int a)
+			{
+				return a + 1;
+			}
+
+			@Implement
+			public long testLong(long a)
+			{
+				return a + 1;
+			}
+
+			@Implement
+			public float testFloat(float a)
+			{
+				return a + 1;
+			}
+
+			@Implement
+			public double testDouble(double a)
+			{
+				return a + 1;
+			}
+
+			@Implement
+			public long testMixed(int a, long b, double c, String d)
+			{
+				return a + b + (long) c + Long.parseLong(d);
+			}
+
+			@Implement
+			public String[] testArray(String... a)
+			{
+				return a;
+			}
+
+			@Implement
+			public List<String> testList(String a)
+			{
+				return Arrays.asList(a);
+			}
+
+			@Implement
+			public Object testNull(Object a)
+			{
+				return a;
+			}
+
+			@Implement
+			public void testVoid(int a)
+			{
+				this.voidValue = a;
+			}
+
+			@Implement
+			public void testDeclaredException() throws IOException
+			{
+				throw new IOException(EXCEPTION_MESSAGE);
+			}
+
+			@Implement
+			public void testUndeclaredException() throws IOException
+			{
+				throw new IOException(EXCEPTION_MESSAGE);
+			}
+		}
+	}
+
+	static interface NotPublicImplementee
+	{
+		int plus(int a, int b);
+	}
+
+	static class NotPublicImplementor implements NotPublicImplementee
+	{
+		@Override
+		public int plus(int a, int b)
+		{
+			return a + b;
+		}
+	}
+}
@@ -17,6 +17,7 @@ package org.ximplementation.support;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Method;
@@ -90,6 +91,71 @@ public class ImplementInfoTest extends AbstractTestSupport
 		}
 	}
 
+	@Test
+	public void advanceEpochTest()
+	{
+		Method implementeeMethod = getMethodByName(
+				HasImplementMethodInfoTest.Implementee.class, "plus");
+
+		ImplementInfo implementInfo = new ImplementInfo(implementeeMethod);
+
+		assertEquals(0, implementInfo.getEpoch());
+
+		implementInfo.advanceEpoch();
+		assertEquals(1, implementInfo.getEpoch());
+
+		implementInfo.setImplementMethodInfos(new ImplementMethodInfo[0]);
+		assertEquals(2, implementInfo.getEpoch());
+	}
+
+	@Test
+	public void getPrimitiveParamTypesTest()
+	{
+		// no primitive parameter
+		{
+			ImplementInfo implementInfo = new ImplementInfo(getMethodByName(
+					HasImplementMethodInfoTest.Implementee.class, "plus"));
+
+			assertEquals(0, implementInfo.getPrimitiveParamTypes().length);
+		}
+
+		// implementeeMethod == null
+		{
+			ImplementInfo implementInfo = new ImplementInfo();
+
+			assertEquals(0, implementInfo.getPrimitiveParamTypes().length);
+		}
+
+		{
+			ImplementInfo implementInfo = new ImplementInfo(getMethodByName(
+					GetPrimitiveParamTypesTest.Implementee.class, "plus"));
+
+			Class<?>[] primitiveParamTypes = implementInfo
+					.getPrimitiveParamTypes();
+
+			assertEquals(3, primitiveParamTypes.length);
+			assertEquals(int.class, primitiveParamTypes[0]);
+			assertNull(primitiveParamTypes[1]);
+			assertEquals(double.class, primitiveParamTypes[2]);
+
+			assertSame(primitiveParamTypes,
+					implementInfo.getPrimitiveParamTypes());
+
+			implementInfo.setImplementeeMethod(getMethodByName(
+					HasImplementMethodInfoTest.Implementee.class, "plus"));
+
+			assertEquals(0, implementInfo.getPrimitiveParamTypes().length);
+		}
+	}
+
+	public static class GetPrimitiveParamTypesTest
+	{
+		public static interface Implementee
+		{
+			Number plus(int a, Number b, double c);
+		}
+	}
+
 	public static class HasImplementMethodInfoTest
 	{
 		public static interface Implementee
@@ -217,6 +217,41 @@ public class ImplementMethodInfoTest extends AbstractTestSupport
 		}
 	}
 
+	@Test
+	public void limitPriorityTest()
+	{
+		ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo();
+
+		assertEquals(Integer.MIN_VALUE,
+				implementMethodInfo.limitPriority(Integer.MIN_VALUE));
+		assertEquals(Integer.MAX_VALUE,
+				implementMethodInfo.limitPriority(Integer.MAX_VALUE));
+
+		implementMethodInfo.setPriorityMin(-1);
+		implementMethodInfo.setPriorityMax(1);
+
+		assertEquals(-1, implementMethodInfo.limitPriority(-5));
+		assertEquals(0, implementMethodInfo.limitPriority(0));
+		assertEquals(1, implementMethodInfo.limitPriority(5));
+	}
+
+	@Test
+	public void getPriorityUpperBoundTest()
+	{
+		ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+				GetPriorityParamsTest.Implementor.class, getMethodByName(
+						GetPriorityParamsTest.Implementor.class, "plus"));
+		implementMethodInfo.setPriorityValue(3);
+		implementMethodInfo.setPriorityMax(5);
+
+		assertEquals(3, implementMethodInfo.getPriorityUpperBound());
+
+		implementMethodInfo.setPriorityMethod(getMethodByName(
+				GetPriorityParamsTest.Implementor.class, "plus"));
+
+		assertEquals(5, implementMethodInfo.getPriorityUpperBound());
+	}
+
 	@Test
 	public void HasImplementMethodInfoTest()
 	{
@@ -0,0 +1,331 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ximplementation.Implementor;
+import org.ximplementation.support.ImplementationMetadata.ClassMetadata;
+
+/**
+ * {@linkplain ImplementationMetadataProcessor} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-25
+ *
+ */
+public class ImplementationMetadataProcessorTest extends AbstractTestSupport
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File sourceDirectory;
+
+	private File classDirectory;
+
+	private DiagnosticCollector<JavaFileObject> diagnostics;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		this.sourceDirectory = this.temporaryFolder.newFolder("src");
+		this.classDirectory = this.temporaryFolder.newFolder("classes");
+		this.diagnostics = new DiagnosticCollector<JavaFileObject>();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void processTest() throws Exception
+	{
+		writeSource("Service",
+				"public class Service { public Number plus(Number a, Number b) { return null; } }");
+		writeSource("ServiceBase",
+				"public class ServiceBase {",
+				"  public boolean isValid(@Index(1) Integer b) { return true; }",
+				"  public void log(@Index(1) Number[] a, @Index(0) String b) {}",
+				"}");
+		writeSource("ServiceImpl",
+				"@Implementor(Service.class) public class ServiceImpl extends ServiceBase {",
+				"  @Implement(\"plus\") @Validity(\"isValid\") @Priority(\"getPriority(Integer)\")",
+				"  public Integer plus(@Index(1) Integer b, @Index(0) Integer a) { return null; }",
+				"  public int getPriority(Integer a) { return 1; }",
+				"  public int getPriority(Number a) { return 2; }",
+				"}");
+
+		assertTrue(this.diagnostics.getDiagnostics().toString(), compile());
+
+		File metadataFile = new File(this.classDirectory,
+				ImplementationMetadata.RESOURCE_NAME);
+		assertTrue(metadataFile.exists());
+
+		ImplementationMetadata metadata = readMetadata(metadataFile);
+
+		assertNull(metadata.getClassMetadata("fixture.Service"));
+		assertNotNull(metadata.getClassMetadata("fixture.ServiceBase"));
+
+		ClassMetadata classMetadata = metadata
+				.getClassMetadata("fixture.ServiceImpl");
+
+		assertEquals("fixture.ServiceBase", classMetadata
+				.getReference("isValid").getDeclaringClassName());
+		assertArrayEquals(new String[] { "java.lang.Integer" },
+				classMetadata.getReference("isValid").getParamTypeNames());
+		assertArrayEquals(new String[] { "java.lang.Integer" }, classMetadata
+				.getReference("getPriority(Integer)").getParamTypeNames());
+
+		URLClassLoader classLoader = new URLClassLoader(
+				new URL[] { this.classDirectory.toURI().toURL() },
+				getClass().getClassLoader());
+
+		try
+		{
+			Class<?> service = classLoader.loadClass("fixture.Service");
+			Class<?> serviceBase = classLoader.loadClass("fixture.ServiceBase");
+			Class<?> serviceImpl = classLoader.loadClass("fixture.ServiceImpl");
+
+			assertEquals(serviceBase.getMethod("isValid", Integer.class),
+					metadata.findMethod(serviceImpl, "isValid"));
+			assertNull(metadata.findMethod(serviceImpl, "getPriority"));
+			assertArrayEquals(new int[] { 1, 0 },
+					metadata.getParamIndexes(serviceImpl.getMethod("plus",
+							Integer.class, Integer.class)));
+			assertArrayEquals(new int[] { 1, 0 },
+					metadata.getParamIndexes(serviceBase.getMethod("log",
+							Number[].class, String.class)));
+			assertArrayEquals(new int[] { 0 }, metadata.getParamIndexes(
+					serviceImpl.getMethod("getPriority", Integer.class)));
+			assertNull(metadata.getParamIndexes(
+					service.getMethod("plus", Number.class, Number.class)));
+
+			// implementor index
+			IndexedImplementorManager implementorManager = IndexedImplementorManager
+					.load(classLoader);
+
+			assertEquals(1, implementorManager.getImplementorNamesMap()
+					.get("fixture.Service").size());
+			assertEquals(ImplementorManager.resolveImplementees(serviceImpl),
+					implementorManager.getAllImplementees());
+			assertTrue(implementorManager.get(service).contains(serviceImpl));
+			assertTrue(implementorManager.get(serviceBase).contains(serviceImpl));
+
+			// the same as loaded by ClassLoader
+			ImplementationMetadata loaded = ImplementationMetadata
+					.load(classLoader);
+			assertEquals(metadata.getClassMetadatas().size(),
+					loaded.getClassMetadatas().size());
+
+			ImplementationResolver implementationResolver = new ImplementationResolver();
+
+			Implementation<?> expected = implementationResolver
+					.resolve(service, serviceImpl);
+
+			implementationResolver.setMetadata(loaded);
+
+			Implementation<?> actual = implementationResolver.resolve(service,
+					serviceImpl);
+
+			assertEquals(expected, actual);
+
+			ImplementMethodInfo implementMethodInfo = actual
+					.getImplementInfo(service.getMethod("plus", Number.class,
+							Number.class))
+					.getImplementMethodInfos()[0];
+
+			assertEquals(serviceBase.getMethod("isValid", Integer.class),
+					implementMethodInfo.getValidityMethod());
+			assertArrayEquals(new int[] { 1 },
+					implementMethodInfo.getValidityParamIndexes());
+		}
+		finally
+		{
+			classLoader.close();
+		}
+	}
+
+	@Test
+	public void processTest_illegalPattern() throws Exception
+	{
+		writeSource("Service",
+				"@Implementor(Object.class) public class Service {",
+				"  @Implement(\"(int)\") public void plus(int a) {}",
+				"}");
+
+		assertFalse(compile());
+		assertDiagnostic(Diagnostic.Kind.ERROR,
+				"is illegal method pattern, method name pattern should be present before '('");
+	}
+
+	@Test
+	public void processTest_duplicateIndex() throws Exception
+	{
+		writeSource("Service", "public class Service {",
+				"  public void plus(@Index(1) int a, int b) {}", "}");
+
+		assertFalse(compile());
+		assertDiagnostic(Diagnostic.Kind.ERROR,
+				"parameter index should not be duplicate with");
+	}
+
+	@Test
+	public void processTest_illegalCacheSize() throws Exception
+	{
+		writeSource("Service", "public class Service {",
+				"  @Validity(value = \"isValid\", cacheScope = CacheScope.PER_TYPE, cacheSize = 0)",
+				"  public void plus(int a) {}",
+				"  public boolean isValid() { return true; }", "}");
+
+		assertFalse(compile());
+		assertDiagnostic(Diagnostic.Kind.ERROR,
+				"The cache size must be positive");
+	}
+
+	@Test
+	public void processTest_referenceNotFound() throws Exception
+	{
+		writeSource("Service", "public abstract class Service {",
+				"  @Validity(\"isValid\") public void plus(int a) {}", "}");
+
+		assertTrue(compile());
+		assertDiagnostic(Diagnostic.Kind.WARNING,
+				"No method is found for [@Validity(\"isValid\")] reference");
+
+		ImplementationMetadata metadata = readMetadata(new File(
+				this.classDirectory, ImplementationMetadata.RESOURCE_NAME));
+
+		assertNull(metadata.getClassMetadata("fixture.Service")
+				.getReference("isValid"));
+	}
+
+	protected void writeSource(String className, String... lines)
+			throws Exception
+	{
+		File directory = new File(this.sourceDirectory, "fixture");
+		directory.mkdirs();
+
+		Writer writer = new OutputStreamWriter(new FileOutputStream(
+				new File(directory, className + ".java")), "UTF-8");
+
+		try
+		{
+			writer.write("package fixture;\n");
+			writer.write("import org.ximplementation.*;\n");
+
+			for (String line : lines)
+			{
+				writer.write(line);
+				writer.write('\n');
+			}
+		}
+		finally
+		{
+			writer.close();
+		}
+	}
+
+	protected boolean compile() throws Exception
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = compiler
+				.getStandardFileManager(this.diagnostics, null, null);
+
+		try
+		{
+			List<File> sources = new ArrayList<File>();
+			for (File file : new File(this.sourceDirectory, "fixture")
+					.listFiles())
+				sources.add(file);
+
+			String classPath = new File(Implementor.class.getProtectionDomain()
+					.getCodeSource().getLocation().toURI()).getPath();
+
+			List<String> options = Arrays.asList("-classpath", classPath,
+					"-processorpath", classPath, "-processor",
+					ImplementationMetadataProcessor.class.getName(), "-d",
+					this.classDirectory.getPath());
+
+			return compiler.getTask(null, fileManager, this.diagnostics,
+					options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources)).call();
+		}
+		finally
+		{
+			fileManager.close();
+		}
+	}
+
+	protected void assertDiagnostic(Diagnostic.Kind kind, String message)
+	{
+		for (Diagnostic<? extends JavaFileObject> diagnostic : this.diagnostics
+				.getDiagnostics())
+		{
+			if (diagnostic.getKind() == kind
+					&& diagnostic.getMessage(null).contains(message))
+				return;
+		}
+
+		throw new AssertionError("No " + kind + " diagnostic [" + message
+				+ "] in " + this.diagnostics.getDiagnostics());
+	}
+
+	protected ImplementationMetadata readMetadata(File file) throws Exception
+	{
+		Reader reader = new InputStreamReader(new FileInputStream(file),
+				"UTF-8");
+
+		try
+		{
+			return ImplementationMetadata.read(reader);
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+}
@@ -22,11 +22,18 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.hamcrest.Matchers;
@@ -35,6 +42,8 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.ximplementation.Batch;
+import org.ximplementation.CacheScope;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
 import org.ximplementation.Index;
@@ -121,6 +130,177 @@ public class ImplementationResolverTest extends AbstractTestSupport
 		assertEquals(implementors, actualImplementors);
 	}
 
+	@Test
+	public void resolveTest_parallel()
+	{
+		Class<?> implementee = ResolveTest_array.Implementee.class;
+
+		Set<Class<?>> implementors = new HashSet<Class<?>>();
+		implementors.add(ResolveTest_array.Implementor0.class);
+		implementors.add(ResolveTest_array.Implementor1.class);
+		implementors.add(ResolveImplementInfoTest.NotImplementor.class);
+
+		Implementation<?> expected = this.implementationResolver
+				.resolve(implementee, implementors);
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+		try
+		{
+			this.implementationResolver.setForkJoinPool(forkJoinPool);
+			this.implementationResolver.setParallelThreshold(1);
+
+			Implementation<?> actual = this.implementationResolver
+					.resolve(implementee, implementors);
+
+			assertEquals(expected, actual);
+		}
+		finally
+		{
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void resolveTest_parallel_buildImplementInfo()
+	{
+		final List<Method> builtMethods = Collections
+				.synchronizedList(new ArrayList<Method>());
+
+		ImplementationResolver implementationResolver = new ImplementationResolver()
+		{
+			@Override
+			protected ImplementInfo buildImplementInfo(Class<?> implementee,
+					Method implementeeMethod,
+					List<ImplementMethodInfo> implementMethodInfos)
+			{
+				builtMethods.add(implementeeMethod);
+
+				return super.buildImplementInfo(implementee,
+						implementeeMethod, implementMethodInfos);
+			}
+		};
+
+		Implementation<?> expected = implementationResolver.resolve(
+				ResolveTest_array.Implementee.class,
+				ResolveTest_array.Implementor0.class,
+				ResolveTest_array.Implementor1.class);
+
+		assertEquals(expected.getImplementInfos().length, builtMethods.size());
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+		try
+		{
+			builtMethods.clear();
+
+			implementationResolver.setForkJoinPool(forkJoinPool);
+			implementationResolver.setParallelThreshold(1);
+
+			Implementation<?> actual = implementationResolver.resolve(
+					ResolveTest_array.Implementee.class,
+					ResolveTest_array.Implementor0.class,
+					ResolveTest_array.Implementor1.class);
+
+			assertEquals(expected, actual);
+			assertEquals(actual.getImplementInfos().length,
+					builtMethods.size());
+		}
+		finally
+		{
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void resolveTest_parallel_exception()
+	{
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+		try
+		{
+			this.implementationResolver.setForkJoinPool(forkJoinPool);
+			this.implementationResolver.setParallelThreshold(1);
+
+			expectedException.expect(ImplementationResolveException.class);
+			expectedException.expectMessage("No method is found for [@Validity");
+
+			this.implementationResolver.resolve(
+					ResolveImplementMethodInfoValidity_notFound.Implementee.class,
+					ResolveImplementMethodInfoValidity_notFound.Implementor.class);
+		}
+		finally
+		{
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void resolveTest_implementorManager()
+	{
+		ImplementorManager implementorManager = new ImplementorManager();
+		implementorManager.addFor(ResolveTest_array.Implementee.class,
+				ResolveTest_array.Implementor0.class,
+				ResolveTest_array.Implementor1.class);
+		implementorManager.addFor(DoResolveTest.Implementee.class,
+				DoResolveTest.Implementor0.class,
+				DoResolveTest.Implementor1.class);
+
+		Map<Class<?>, Implementation<?>> expected = this.implementationResolver
+				.resolve(implementorManager);
+
+		assertEquals(2, expected.size());
+		assertEquals(
+				this.implementationResolver.resolve(
+						ResolveTest_array.Implementee.class,
+						implementorManager
+								.get(ResolveTest_array.Implementee.class)),
+				expected.get(ResolveTest_array.Implementee.class));
+		assertEquals(
+				this.implementationResolver.resolve(
+						DoResolveTest.Implementee.class,
+						implementorManager.get(DoResolveTest.Implementee.class)),
+				expected.get(DoResolveTest.Implementee.class));
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+
+		try
+		{
+			this.implementationResolver.setForkJoinPool(forkJoinPool);
+			this.implementationResolver.setParallelThreshold(1);
+
+			Map<Class<?>, Implementation<?>> actual = this.implementationResolver
+					.resolve(implementorManager);
+
+			assertEquals(expected, actual);
+		}
+		finally
+		{
+			forkJoinPool.shutdown();
+		}
+	}
+
+	@Test
+	public void resolveTest_lazy()
+	{
+		Implementation<DoResolveTest.Implementee> expected = this.implementationResolver
+				.resolve(DoResolveTest.Implementee.class,
+						DoResolveTest.Implementor0.class,
+						DoResolveTest.Implementor1.class);
+
+		this.implementationResolver.setLazy(true);
+
+		Implementation<DoResolveTest.Implementee> actual = this.implementationResolver
+				.resolve(DoResolveTest.Implementee.class,
+						DoResolveTest.Implementor0.class,
+						DoResolveTest.Implementor1.class);
+
+		assertTrue(actual instanceof LazyImplementation<?>);
+		assertEquals(expected.getImplementee(), actual.getImplementee());
+		assertArrayEquals(expected.getImplementInfos(),
+				actual.getImplementInfos());
+	}
+
 	public static class ResolveTest_array
 	{
 		public static class Implementee
@@ -370,6 +550,7 @@ public class ImplementationResolverTest extends AbstractTestSupport
 		assertNotNull(implementMethodInfo.getPriorityMethod());
 		assertEquals(1, implementMethodInfo.getPriorityValue());
 		assertNotNull(implementMethodInfo.getPriorityParamIndexes());
+		assertNotNull(implementMethodInfo.getMethodHandle());
 	}
 
 	public static class ResolveImplementMethodInfoPropertiesTest
@@ -457,6 +638,31 @@ public class ImplementationResolverTest extends AbstractTestSupport
 				implementMethodInfo.getParamIndexes());
 	}
 
+	@Test
+	public void resolveImplementMethodInfoMethodHandleTest() throws Throwable
+	{
+		Class<?> implementee = ResolveImplementMethodInfoPropertiesTest.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "handle");
+		Class<?> implementor = ResolveImplementMethodInfoPropertiesTest.Implementor.class;
+		Method implementMethod = getMethodByName(implementor, "handle");
+
+		ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+				implementor, implementMethod);
+
+		this.implementationResolver.resolveImplementMethodInfoParamIndexes(
+				implementee, implementeeMethod, implementMethodInfo);
+		this.implementationResolver.resolveImplementMethodInfoMethodHandle(
+				implementee, implementeeMethod, implementMethodInfo);
+
+		MethodHandle methodHandle = implementMethodInfo.getMethodHandle();
+
+		assertEquals(MethodType.methodType(Object.class, Object.class,
+				Object[].class), methodHandle.type());
+		assertNull((Object) methodHandle.invokeExact(
+				(Object) new ResolveImplementMethodInfoPropertiesTest.Implementor(),
+				new Object[] { 1 }));
+	}
+
 	@Test
 	public void resolveImplementMethodInfoValidityTest()
 	{
@@ -497,6 +703,307 @@ public class ImplementationResolverTest extends AbstractTestSupport
 		}
 	}
 
+	@Test
+	public void resolveImplementMethodInfoValidityTest_cacheScope()
+	{
+		Class<?> implementee = ResolveImplementMethodInfoValidityTest_cacheScope.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "handle");
+
+		// default
+		{
+			Class<?> implementor = ResolveImplementMethodInfoValidityTest.Implementor.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			this.implementationResolver.resolveImplementMethodInfoValidity(
+					ResolveImplementMethodInfoValidityTest.Implementee.class,
+					getMethodByName(
+							ResolveImplementMethodInfoValidityTest.Implementee.class,
+							"handle"),
+					implementMethodInfo);
+
+			assertEquals(CacheScope.NONE,
+					implementMethodInfo.getValidityCacheScope());
+			assertNull(implementMethodInfo.getValidityResultCache());
+		}
+
+		{
+			Class<?> implementor = ResolveImplementMethodInfoValidityTest_cacheScope.Implementor0.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			this.implementationResolver.resolveImplementMethodInfoValidity(
+					implementee, implementeeMethod, implementMethodInfo);
+			this.implementationResolver.resolveImplementMethodInfoPriority(
+					implementee, implementeeMethod, implementMethodInfo);
+
+			assertEquals(CacheScope.PER_TYPE,
+					implementMethodInfo.getValidityCacheScope());
+			assertEquals(CacheScope.DEFAULT_CACHE_SIZE,
+					implementMethodInfo.getValidityCacheSize());
+			assertEquals(CacheScope.PER_VALUE,
+					implementMethodInfo.getPriorityCacheScope());
+			assertEquals(10, implementMethodInfo.getPriorityCacheSize());
+			assertNotNull(implementMethodInfo.getValidityResultCache());
+			assertNotNull(implementMethodInfo.getPriorityResultCache());
+		}
+
+		// illegal cache size
+		{
+			Class<?> implementor = ResolveImplementMethodInfoValidityTest_cacheScope.Implementor1.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			expectedException.expect(ImplementationResolveException.class);
+			expectedException.expectMessage("must be positive");
+
+			this.implementationResolver.resolveImplementMethodInfoValidity(
+					implementee, implementeeMethod, implementMethodInfo);
+		}
+	}
+
+	@Test
+	public void resolveImplementMethodInfoPriorityTest_bound()
+	{
+		Class<?> implementee = ResolveImplementMethodInfoPriorityTest_bound.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "handle");
+
+		{
+			Class<?> implementor = ResolveImplementMethodInfoPriorityTest_bound.Implementor0.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			this.implementationResolver.resolveImplementMethodInfoPriority(
+					implementee, implementeeMethod, implementMethodInfo);
+
+			assertEquals(-1, implementMethodInfo.getPriorityMin());
+			assertEquals(10, implementMethodInfo.getPriorityMax());
+		}
+
+		// min > max
+		{
+			Class<?> implementor = ResolveImplementMethodInfoPriorityTest_bound.Implementor1.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			expectedException.expect(ImplementationResolveException.class);
+			expectedException.expectMessage("must not have min greater than max");
+
+			this.implementationResolver.resolveImplementMethodInfoPriority(
+					implementee, implementeeMethod, implementMethodInfo);
+		}
+	}
+
+	public static class ResolveImplementMethodInfoPriorityTest_bound
+	{
+		public static class Implementee
+		{
+			public void handle(Number a)
+			{
+			}
+		}
+
+		public static class Implementor0 extends Implementee
+		{
+			@Override
+			@Priority(value = "getPriority", min = -1, max = 10)
+			public void handle(Number a)
+			{
+			}
+
+			public int getPriority(Number a)
+			{
+				return 0;
+			}
+		}
+
+		public static class Implementor1 extends Implementee
+		{
+			@Override
+			@Priority(value = "getPriority", min = 1, max = 0)
+			public void handle(Number a)
+			{
+			}
+
+			public int getPriority(Number a)
+			{
+				return 0;
+			}
+		}
+	}
+
+	@Test
+	public void resolveImplementMethodInfoBatchTest()
+	{
+		Class<?> implementee = ResolveImplementMethodInfoBatchTest.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "handle");
+
+		{
+			Class<?> implementor = ResolveImplementMethodInfoBatchTest.Implementor0.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			this.implementationResolver.resolveImplementMethodInfoBatch(
+					implementee, implementeeMethod, implementMethodInfo);
+
+			assertTrue(implementMethodInfo.hasBatchMethod());
+			assertEquals(getMethodByName(implementor, "handleAll"),
+					implementMethodInfo.getBatchMethod());
+		}
+
+		// no batch
+		{
+			Class<?> implementor = ResolveImplementMethodInfoBatchTest.Implementee.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, implementeeMethod);
+
+			this.implementationResolver.resolveImplementMethodInfoBatch(
+					implementee, implementeeMethod, implementMethodInfo);
+
+			assertFalse(implementMethodInfo.hasBatchMethod());
+		}
+
+		// illegal return type
+		{
+			Class<?> implementor = ResolveImplementMethodInfoBatchTest.Implementor1.class;
+
+			ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+					implementor, getMethodByName(implementor, "handle"));
+
+			expectedException.expect(ImplementationResolveException.class);
+			expectedException.expectMessage("must return [List] type");
+
+			this.implementationResolver.resolveImplementMethodInfoBatch(
+					implementee, implementeeMethod, implementMethodInfo);
+		}
+	}
+
+	@Test
+	public void resolveImplementMethodInfoBatchTest_param()
+	{
+		Class<?> implementee = ResolveImplementMethodInfoBatchTest.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "handle");
+
+		Class<?> implementor = ResolveImplementMethodInfoBatchTest.Implementor2.class;
+
+		ImplementMethodInfo implementMethodInfo = new ImplementMethodInfo(
+				implementor, getMethodByName(implementor, "handle"));
+
+		expectedException.expect(ImplementationResolveException.class);
+		expectedException
+				.expectMessage("must have only one parameter of [List] type");
+
+		this.implementationResolver.resolveImplementMethodInfoBatch(
+				implementee, implementeeMethod, implementMethodInfo);
+	}
+
+	public static class ResolveImplementMethodInfoBatchTest
+	{
+		public static class Implementee
+		{
+			public Number handle(Number a)
+			{
+				return null;
+			}
+		}
+
+		public static class Implementor0 extends Implementee
+		{
+			@Override
+			@Batch("handleAll")
+			public Number handle(Number a)
+			{
+				return null;
+			}
+
+			public List<Number> handleAll(List<Object[]> paramses)
+			{
+				return null;
+			}
+		}
+
+		public static class Implementor1 extends Implementee
+		{
+			@Override
+			@Batch("handleAll")
+			public Number handle(Number a)
+			{
+				return null;
+			}
+
+			public Number handleAll(List<Object[]> paramses)
+			{
+				return null;
+			}
+		}
+
+		public static class Implementor2 extends Implementee
+		{
+			@Override
+			@Batch("handleAll")
+			public Number handle(Number a)
+			{
+				return null;
+			}
+
+			public List<Number> handleAll(Object[] params)
+			{
+				return null;
+			}
+		}
+	}
+
+	public static class ResolveImplementMethodInfoValidityTest_cacheScope
+	{
+		public static class Implementee
+		{
+			public void handle(Number a)
+			{
+			}
+		}
+
+		public static class Implementor0 extends Implementee
+		{
+			@Override
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_TYPE)
+			@Priority(value = "getPriority", cacheScope = CacheScope.PER_VALUE, cacheSize = 10)
+			public void handle(Number a)
+			{
+			}
+
+			public boolean isValid(Number a)
+			{
+				return true;
+			}
+
+			public int getPriority(Number a)
+			{
+				return 0;
+			}
+		}
+
+		public static class Implementor1 extends Implementee
+		{
+			@Override
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_VALUE, cacheSize = 0)
+			public void handle(Number a)
+			{
+			}
+
+			public boolean isValid(Number a)
+			{
+				return true;
+			}
+		}
+	}
+
 	public static class ResolveImplementMethodInfoValidityTest
 	{
 		public static class Implementee
@@ -2007,6 +2514,45 @@ public class ImplementationResolverTest extends AbstractTestSupport
 				.findMethod(FindMethodTest.Test4.class, "test5"));
 	}
 
+	@Test
+	public void findMethodTest_metadata()
+	{
+		ImplementationMetadata.ClassMetadata classMetadata = new ImplementationMetadata.ClassMetadata(
+				FindMethodTest.Test1.class.getName());
+		classMetadata.addReference("test",
+				new ImplementationMetadata.MethodMetadata(
+						FindMethodTest.Test0.class.getName(), "test1",
+						new String[0], null));
+
+		ImplementationMetadata metadata = new ImplementationMetadata();
+		metadata.addClassMetadata(classMetadata);
+
+		this.implementationResolver.setMetadata(metadata);
+
+		// in metadata
+		assertEquals(getMethodByName(FindMethodTest.Test0.class, "test1"),
+				this.implementationResolver
+						.findMethod(FindMethodTest.Test1.class, "test"));
+
+		// not in metadata
+		assertEquals(getMethodByName(FindMethodTest.Test3.class, "test3"),
+				this.implementationResolver
+						.findMethod(FindMethodTest.Test4.class, "test3"));
+
+		// only for DefaultMethodMatcher
+		this.implementationResolver.setMethodMatcher(new MethodMatcher()
+		{
+			@Override
+			public boolean match(String pattern, Method method, Class<?> clazz)
+			{
+				return false;
+			}
+		});
+
+		assertNull(this.implementationResolver
+				.findMethod(FindMethodTest.Test1.class, "test"));
+	}
+
 	public static class FindMethodTest
 	{
 		public static class Test0
@@ -2059,6 +2605,47 @@ public class ImplementationResolverTest extends AbstractTestSupport
 				getMethodByName(GetMethodParamIndexesTest.class, "test2"));
 	}
 
+	@Test
+	public void getMethodParamIndexesTest_metadata()
+	{
+		ImplementationMetadata.ClassMetadata classMetadata = new ImplementationMetadata.ClassMetadata(
+				GetMethodParamIndexesTest.class.getName());
+		classMetadata.addMethod(new ImplementationMetadata.MethodMetadata(
+				GetMethodParamIndexesTest.class.getName(), "test0",
+				new String[] { "int", "int", "int" }, new int[] { 2, 1, 0 }));
+
+		ImplementationMetadata metadata = new ImplementationMetadata();
+		metadata.addClassMetadata(classMetadata);
+
+		this.implementationResolver.setMetadata(metadata);
+
+		assertArrayEquals(new int[] { 2, 1, 0 },
+				this.implementationResolver.getMethodParamIndexes(
+						GetMethodParamIndexesTest.class, getMethodByName(
+								GetMethodParamIndexesTest.class, "test0")));
+
+		// not in the metadata of the class, no Index
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				this.implementationResolver.getMethodParamIndexes(
+						GetMethodParamIndexesTest.class, getMethodByName(
+								GetMethodParamIndexesTest.class, "test2")));
+
+		// class not in the metadata
+		assertArrayEquals(new int[] { 1, 0 },
+				this.implementationResolver.getMethodParamIndexes(
+						GetMethodParamIndexesTest_metadata.class,
+						getMethodByName(
+								GetMethodParamIndexesTest_metadata.class,
+								"test0")));
+	}
+
+	public static class GetMethodParamIndexesTest_metadata
+	{
+		public void test0(@Index(1) int a, @Index(0) int b)
+		{
+		}
+	}
+
 	public static class GetMethodParamIndexesTest
 	{
 		public void test0(int a, int b, int c)
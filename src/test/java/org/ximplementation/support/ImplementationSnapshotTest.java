@@ -0,0 +1,295 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.ximplementation.CacheScope;
+import org.ximplementation.Implement;
+import org.ximplementation.Implementor;
+import org.ximplementation.Index;
+import org.ximplementation.Priority;
+import org.ximplementation.Validity;
+
+/**
+ * {@linkplain ImplementationSnapshot} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-27
+ *
+ */
+public class ImplementationSnapshotTest extends AbstractTestSupport
+{
+	private CountingImplementationResolver implementationResolver;
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+		this.implementationResolver = new CountingImplementationResolver();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void linkTest() throws Exception
+	{
+		ImplementationSnapshot snapshot = new ImplementationSnapshot();
+		this.implementationResolver.setSnapshot(snapshot);
+
+		Implementation<LinkTest.Implementee> expected = this.implementationResolver
+				.resolve(LinkTest.Implementee.class, LinkTest.Implementor0.class,
+						LinkTest.Implementor1.class);
+
+		assertEquals(1, this.implementationResolver.resolveCount.get());
+		assertEquals(1, snapshot.size());
+
+		ImplementationSnapshot readSnapshot = writeAndRead(snapshot);
+
+		assertTrue(readSnapshot.contains(LinkTest.Implementee.class,
+				Arrays.<Class<?>> asList(LinkTest.Implementor1.class,
+						LinkTest.Implementor0.class)));
+
+		CountingImplementationResolver implementationResolver = new CountingImplementationResolver();
+		implementationResolver.setSnapshot(readSnapshot);
+
+		Implementation<LinkTest.Implementee> actual = implementationResolver
+				.resolve(LinkTest.Implementee.class, LinkTest.Implementor1.class,
+						LinkTest.Implementor0.class);
+
+		// re-linked without resolving
+		assertEquals(0, implementationResolver.resolveCount.get());
+		assertEquals(expected, actual);
+
+		Method plus = getMethodByName(LinkTest.Implementee.class, "plus");
+
+		for (ImplementMethodInfo expectedInfo : expected
+				.getImplementInfo(plus).getImplementMethodInfos())
+		{
+			ImplementMethodInfo actualInfo = actual.getImplementInfo(plus)
+					.getImplementMethodInfo(expectedInfo.getImplementor(),
+							expectedInfo.getImplementMethod());
+
+			assertArrayEquals(expectedInfo.getParamTypes(),
+					actualInfo.getParamTypes());
+			assertArrayEquals(expectedInfo.getGenericParamTypes(),
+					actualInfo.getGenericParamTypes());
+			assertArrayEquals(expectedInfo.getParamIndexes(),
+					actualInfo.getParamIndexes());
+			assertNotNull(actualInfo.getMethodHandle());
+			assertEquals(expectedInfo.getValidityMethod(),
+					actualInfo.getValidityMethod());
+			assertArrayEquals(expectedInfo.getValidityParamIndexes(),
+					actualInfo.getValidityParamIndexes());
+			assertEquals(expectedInfo.getValidityCacheScope(),
+					actualInfo.getValidityCacheScope());
+			assertEquals(expectedInfo.getValidityCacheSize(),
+					actualInfo.getValidityCacheSize());
+			assertEquals(expectedInfo.getPriorityValue(),
+					actualInfo.getPriorityValue());
+			assertEquals(expectedInfo.getPriorityMethod(),
+					actualInfo.getPriorityMethod());
+			assertArrayEquals(expectedInfo.getPriorityParamIndexes(),
+					actualInfo.getPriorityParamIndexes());
+		}
+
+		LinkTest.Implementee implementee = new ProxyImplementeeBeanBuilder()
+				.build(actual, SimpleImplementorBeanFactory.valueOf(
+						new LinkTest.Implementor0(),
+						new LinkTest.Implementor1()));
+
+		assertEquals(1, implementee.plus(1, 2));
+		assertEquals(-1, implementee.plus(1.0D, 2.0D));
+
+		// different implementors are not linked
+		implementationResolver.resolve(LinkTest.Implementee.class,
+				LinkTest.Implementor0.class);
+
+		assertEquals(1, implementationResolver.resolveCount.get());
+		assertEquals(2, readSnapshot.size());
+	}
+
+	@Test
+	public void linkTest_fingerprintMismatch() throws Exception
+	{
+		final byte[] changed = new byte[] { 1 };
+
+		// as if Implementor0 is changed after the snapshot is written
+		ImplementationSnapshot snapshot = new ImplementationSnapshot()
+		{
+			@Override
+			protected byte[] getClassDigest(Class<?> clazz)
+			{
+				if (LinkTest.Implementor0.class.equals(clazz))
+					return changed;
+
+				return super.getClassDigest(clazz);
+			}
+		};
+		this.implementationResolver.setSnapshot(snapshot);
+
+		Implementation<LinkTest.Implementee> expected = this.implementationResolver
+				.resolve(LinkTest.Implementee.class, LinkTest.Implementor0.class);
+
+		ImplementationSnapshot readSnapshot = writeAndRead(snapshot);
+
+		assertEquals(1, readSnapshot.size());
+		assertNull(readSnapshot.link(this.implementationResolver,
+				LinkTest.Implementee.class,
+				Arrays.<Class<?>> asList(LinkTest.Implementor0.class)));
+
+		CountingImplementationResolver implementationResolver = new CountingImplementationResolver();
+		implementationResolver.setSnapshot(readSnapshot);
+
+		assertEquals(expected, implementationResolver.resolve(
+				LinkTest.Implementee.class, LinkTest.Implementor0.class));
+		assertEquals(1, implementationResolver.resolveCount.get());
+
+		// replaced by the resolved one
+		assertNotNull(readSnapshot.link(this.implementationResolver,
+				LinkTest.Implementee.class,
+				Arrays.<Class<?>> asList(LinkTest.Implementor0.class)));
+	}
+
+	@Test
+	public void writeStringTest_manyStrings() throws Exception
+	{
+		int count = Short.MAX_VALUE + 10;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImplementationSnapshot.EntryWriter writer = new ImplementationSnapshot.EntryWriter(
+				new DataOutputStream(bytes));
+
+		for (int i = 0; i < count; i++)
+			writer.writeString("s" + i);
+
+		// referenced by index beyond short range
+		writer.writeString("s" + (count - 1));
+
+		ImplementationSnapshot.EntryReader reader = new ImplementationSnapshot.EntryReader(
+				new DataInputStream(
+						new ByteArrayInputStream(bytes.toByteArray())),
+				this.implementationResolver, Object.class,
+				Arrays.<Class<?>> asList());
+
+		for (int i = 0; i < count; i++)
+			assertEquals("s" + i, reader.readString());
+
+		assertEquals("s" + (count - 1), reader.readString());
+	}
+
+	@Test
+	public void readTest_illegal() throws Exception
+	{
+		expectedException.expect(IOException.class);
+		expectedException.expectMessage("Not an implementation snapshot");
+
+		ImplementationSnapshot.read(new ByteArrayInputStream(new byte[8]));
+	}
+
+	protected ImplementationSnapshot writeAndRead(
+			ImplementationSnapshot snapshot) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.write(out);
+
+		return ImplementationSnapshot
+				.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	protected static class CountingImplementationResolver
+			extends ImplementationResolver
+	{
+		private AtomicInteger resolveCount = new AtomicInteger();
+
+		@Override
+		protected Collection<Method> getImplementeeMethods(
+				Class<?> implementee)
+		{
+			this.resolveCount.incrementAndGet();
+
+			return super.getImplementeeMethods(implementee);
+		}
+	}
+
+	public static class LinkTest
+	{
+		public static interface Implementee
+		{
+			Number plus(Number a, Number b);
+		}
+
+		public static class Implementor0 implements Implementee
+		{
+			@Override
+			@Validity(value = "isValid", cacheScope = CacheScope.PER_TYPE)
+			public Number plus(Number a, Number b)
+			{
+				return -1;
+			}
+
+			public boolean isValid(Number a)
+			{
+				return true;
+			}
+		}
+
+		@Implementor(Implementee.class)
+		public static class Implementor1
+		{
+			@Implement("plus")
+			@Validity("isValid")
+			@Priority(value = "getPriority", cacheScope = CacheScope.PER_VALUE, cacheSize = 16)
+			public int plus(@Index(1) Integer b, @Index(0) Integer a)
+			{
+				return 1;
+			}
+
+			public boolean isValid(@Index(1) Integer b)
+			{
+				return true;
+			}
+
+			public int getPriority()
+			{
+				return 1;
+			}
+		}
+	}
+}
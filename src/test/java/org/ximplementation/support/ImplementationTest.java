@@ -16,6 +16,7 @@ package org.ximplementation.support;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 import java.lang.reflect.Method;
@@ -92,6 +93,58 @@ public class ImplementationTest extends AbstractTestSupport
 		}
 	}
 
+	@Test
+	public void getImplementInfoIndexTest()
+	{
+		// this.implementInfos == null
+		{
+			Implementation<GetImplementInfoTest.Implementee> implementation = new Implementation<GetImplementInfoTest.Implementee>(
+					GetImplementInfoTest.Implementee.class, null);
+
+			assertEquals(-1, implementation.getImplementInfoIndex(
+					getMethodByName(GetImplementInfoTest.Implementee.class,
+							"plus")));
+		}
+
+		// return index
+		{
+			Method implementeeMethod = getMethodByName(
+					GetImplementInfoTest.Implementee.class, "minus");
+
+			Implementation<GetImplementInfoTest.Implementee> implementation = this.implementationResolver
+					.resolve(GetImplementInfoTest.Implementee.class,
+							GetImplementInfoTest.Implementor0.class);
+
+			int index = implementation.getImplementInfoIndex(implementeeMethod);
+
+			assertEquals(implementeeMethod, implementation
+					.getImplementInfos()[index].getImplementeeMethod());
+			assertSame(implementation.getImplementInfos()[index],
+					implementation.getImplementInfo(index));
+		}
+
+		// setImplementInfos
+		{
+			Method implementeeMethod0 = getMethodByName(
+					GetImplementInfoTest.Implementee.class, "plus");
+			Method implementeeMethod1 = getMethodByName(
+					GetImplementInfoTest.Implementee.class, "minus");
+
+			Implementation<GetImplementInfoTest.Implementee> implementation = new Implementation<GetImplementInfoTest.Implementee>();
+			implementation.setImplementInfos(new ImplementInfo[] {
+					new ImplementInfo(implementeeMethod1),
+					new ImplementInfo(implementeeMethod0) });
+
+			assertEquals(1,
+					implementation.getImplementInfoIndex(implementeeMethod0));
+			assertEquals(0,
+					implementation.getImplementInfoIndex(implementeeMethod1));
+			assertEquals(-1, implementation.getImplementInfoIndex(
+					getMethodByName(GetImplementInfoTest.Implementor0.class,
+							"plus")));
+		}
+	}
+
 	public static class GetImplementInfoTest
 	{
 		public static interface Implementee
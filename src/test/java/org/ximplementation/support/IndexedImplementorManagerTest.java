@@ -0,0 +1,207 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * {@linkplain IndexedImplementorManager} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-26
+ *
+ */
+public class IndexedImplementorManagerTest extends AbstractTestSupport
+{
+	private static volatile boolean implementor1Initialized = false;
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void getTest() throws Exception
+	{
+		Map<String, Set<String>> implementorNamesMap = new LinkedHashMap<String, Set<String>>();
+
+		StringWriter writer = new StringWriter();
+
+		Map<String, Set<String>> implementeeNamesMap = new LinkedHashMap<String, Set<String>>();
+		implementeeNamesMap.put(GetTest.Implementor0.class.getName(),
+				toNames(ImplementorManager
+						.resolveImplementees(GetTest.Implementor0.class)));
+		implementeeNamesMap.put(
+				GetTest.class.getName() + "$Implementor1",
+				toNames(GetTest.Implementee.class, GetTest.Implementee0.class,
+						Object.class));
+
+		IndexedImplementorManager.writeIndex(writer, implementeeNamesMap);
+		IndexedImplementorManager.readIndex(
+				new StringReader(writer.toString()), implementorNamesMap);
+
+		assertEquals(
+				new HashSet<String>(
+						Arrays.asList(GetTest.Implementor0.class.getName(),
+								GetTest.class.getName() + "$Implementor1")),
+				implementorNamesMap.get(GetTest.Implementee.class.getName()));
+
+		IndexedImplementorManager implementorManager = new IndexedImplementorManager(
+				getClass().getClassLoader(), implementorNamesMap);
+
+		assertNull(implementorManager.getImplementorsMap()
+				.get(GetTest.Implementee.class));
+
+		assertTrue(implementorManager.hasImplementor(GetTest.Implementee.class));
+		assertEquals(2, implementorManager.get(GetTest.Implementee.class).size());
+		assertTrue(implementorManager.get(GetTest.Implementee.class)
+				.contains(GetTest.Implementor0.class));
+
+		// only the requested implementee is loaded
+		assertEquals(1, implementorManager.getImplementorsMap().size());
+
+		// loaded without initializing
+		assertFalse(implementor1Initialized);
+
+		// not indexed
+		assertFalse(implementorManager.hasImplementor(GetTest.class));
+		assertNull(implementorManager.get(GetTest.class));
+
+		// removed are not reloaded
+		implementorManager.removeFor(GetTest.Implementee.class);
+		assertNull(implementorManager.get(GetTest.Implementee.class));
+
+		assertEquals(
+				new HashSet<Class<?>>(Arrays.<Class<?>> asList(
+						GetTest.Implementee0.class, Object.class)),
+				implementorManager.getAllImplementees());
+	}
+
+	@Test
+	public void getTest_classNotFound()
+	{
+		Map<String, Set<String>> implementorNamesMap = new LinkedHashMap<String, Set<String>>();
+		implementorNamesMap.put(GetTest.Implementee.class.getName(),
+				toNames(GetTest.Implementee.class.getName() + "$NotFound"));
+
+		IndexedImplementorManager implementorManager = new IndexedImplementorManager(
+				getClass().getClassLoader(), implementorNamesMap);
+
+		try
+		{
+			implementorManager.get(GetTest.Implementee.class);
+			fail();
+		}
+		catch (IllegalStateException e)
+		{
+		}
+
+		// not marked as loaded, thrown again
+		expectedException.expect(IllegalStateException.class);
+		expectedException.expectMessage("is not found");
+
+		implementorManager.hasImplementor(GetTest.Implementee.class);
+	}
+
+	@Test
+	public void readIndexTest_illegal() throws Exception
+	{
+		expectedException.expect(java.io.IOException.class);
+		expectedException.expectMessage("Line 2 : illegal implementor index");
+
+		IndexedImplementorManager.readIndex(
+				new StringReader("# comment\nfoo.Bar\n"),
+				new LinkedHashMap<String, Set<String>>());
+	}
+
+	@Test
+	public void loadTest() throws Exception
+	{
+		IndexedImplementorManager implementorManager = IndexedImplementorManager
+				.load(getClass().getClassLoader());
+
+		assertNull(implementorManager.get(GetTest.Implementee.class));
+	}
+
+	protected Set<String> toNames(Class<?>... classes)
+	{
+		Set<String> names = new LinkedHashSet<String>();
+
+		for (Class<?> clazz : classes)
+			names.add(clazz.getName());
+
+		return names;
+	}
+
+	protected Set<String> toNames(Set<Class<?>> classes)
+	{
+		return toNames(classes.toArray(new Class<?>[classes.size()]));
+	}
+
+	protected Set<String> toNames(String... names)
+	{
+		return new LinkedHashSet<String>(Arrays.asList(names));
+	}
+
+	public static class GetTest
+	{
+		public static class Implementee
+		{
+		}
+
+		public static class Implementee0
+		{
+		}
+
+		public static class Implementor0 extends Implementee
+		{
+		}
+
+		public static class Implementor1 extends Implementee
+		{
+			static
+			{
+				implementor1Initialized = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain LatencyHistogram} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class LatencyHistogramTest extends AbstractTestSupport
+{
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void getBucketIndexTest()
+	{
+		assertEquals(0, LatencyHistogram.getBucketIndex(0));
+		assertEquals(1, LatencyHistogram.getBucketIndex(1));
+		assertEquals(2, LatencyHistogram.getBucketIndex(2));
+		assertEquals(2, LatencyHistogram.getBucketIndex(3));
+		assertEquals(3, LatencyHistogram.getBucketIndex(4));
+		assertEquals(63, LatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void getStatisticsTest()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		// empty
+		{
+			LatencyStatistics statistics = histogram.getStatistics();
+
+			assertEquals(0, statistics.getCount());
+			assertEquals(0, statistics.getMaxNanos());
+			assertEquals(0, statistics.getMeanNanos(), 0);
+			assertEquals(0, statistics.getP50Nanos());
+		}
+
+		for (int i = 0; i < 9; i++)
+			histogram.record(5);
+
+		histogram.record(1000);
+
+		// recorded
+		{
+			LatencyStatistics statistics = histogram.getStatistics();
+
+			assertEquals(10, statistics.getCount());
+			assertEquals(1045, statistics.getTotalNanos());
+			assertEquals(1000, statistics.getMaxNanos());
+			assertEquals(104.5, statistics.getMeanNanos(), 0);
+			assertEquals(7, statistics.getP50Nanos());
+			assertEquals(7, statistics.getP90Nanos());
+			assertEquals(1000, statistics.getP99Nanos());
+			assertEquals(1000, statistics.getPercentileNanos(100));
+		}
+
+		// negative
+		{
+			histogram.record(-1);
+
+			LatencyStatistics statistics = histogram.getStatistics();
+
+			assertEquals(11, statistics.getCount());
+			assertEquals(1045, statistics.getTotalNanos());
+			assertEquals(0, statistics.getPercentileNanos(0));
+		}
+	}
+}
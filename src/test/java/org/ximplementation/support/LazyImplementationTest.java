@@ -0,0 +1,297 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.ximplementation.Validity;
+
+/**
+ * {@linkplain LazyImplementation} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-24
+ *
+ */
+public class LazyImplementationTest extends AbstractTestSupport
+{
+	private ImplementationResolver implementationResolver;
+
+	private ImplementationResolver lazyImplementationResolver;
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Before
+	public void setUp() throws Exception
+	{
+		this.implementationResolver = new ImplementationResolver();
+		this.lazyImplementationResolver = new ImplementationResolver();
+		this.lazyImplementationResolver.setLazy(true);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void getImplementInfoTest()
+	{
+		Implementation<LazyTest.Implementee> expected = this.implementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class,
+						LazyTest.Implementor1.class);
+
+		Implementation<LazyTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class,
+						LazyTest.Implementor1.class);
+
+		assertTrue(implementation instanceof LazyImplementation<?>);
+
+		LazyImplementation<LazyTest.Implementee> lazyImplementation = (LazyImplementation<LazyTest.Implementee>) implementation;
+
+		Method plus = getMethodByName(LazyTest.Implementee.class, "plus");
+		Method minus = getMethodByName(LazyTest.Implementee.class, "minus");
+
+		int plusIndex = implementation.getImplementInfoIndex(plus);
+		int minusIndex = implementation.getImplementInfoIndex(minus);
+
+		assertFalse(lazyImplementation.isResolved(plusIndex));
+		assertFalse(lazyImplementation.isResolved(minusIndex));
+
+		ImplementInfo plusImplementInfo = implementation.getImplementInfo(plus);
+
+		assertEquals(expected.getImplementInfo(plus), plusImplementInfo);
+		assertSame(plusImplementInfo, implementation.getImplementInfo(plus));
+		assertTrue(lazyImplementation.isResolved(plusIndex));
+		assertFalse(lazyImplementation.isResolved(minusIndex));
+
+		assertEquals(-1, implementation.getImplementInfoIndex(
+				getMethodByName(LazyTest.Implementor0.class, "plus")));
+		assertNull(implementation.getImplementInfo(
+				getMethodByName(LazyTest.Implementor0.class, "plus")));
+
+		assertEquals(expected.getImplementInfos().length,
+				implementation.getImplementInfos().length);
+		assertTrue(lazyImplementation.isResolved(minusIndex));
+		assertSame(plusImplementInfo,
+				implementation.getImplementInfos()[plusIndex]);
+		assertEquals(expected.getImplementors(),
+				implementation.getImplementors());
+
+		for (ImplementInfo implementInfo : expected.getImplementInfos())
+			assertEquals(implementInfo, implementation
+					.getImplementInfo(implementInfo.getImplementeeMethod()));
+	}
+
+	@Test
+	public void getImplementInfoTest_concurrent() throws Exception
+	{
+		final Implementation<LazyTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class,
+						LazyTest.Implementor1.class);
+
+		final Method plus = getMethodByName(LazyTest.Implementee.class,
+				"plus");
+
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			List<Callable<ImplementInfo>> tasks = new ArrayList<Callable<ImplementInfo>>();
+
+			for (int i = 0; i < 16; i++)
+			{
+				tasks.add(new Callable<ImplementInfo>()
+				{
+					@Override
+					public ImplementInfo call() throws Exception
+					{
+						return implementation.getImplementInfo(plus);
+					}
+				});
+			}
+
+			ImplementInfo implementInfo = implementation.getImplementInfo(plus);
+
+			for (Future<ImplementInfo> future : executorService
+					.invokeAll(tasks))
+				assertSame(implementInfo, future.get());
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void getImplementInfoTest_error()
+	{
+		Implementation<ErrorTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(ErrorTest.Implementee.class, ErrorTest.Implementor0.class);
+
+		// resolve other methods is ok
+		assertNotNull(implementation.getImplementInfo(
+				getMethodByName(ErrorTest.Implementee.class, "hashCode")));
+
+		Method handle = getMethodByName(ErrorTest.Implementee.class, "handle");
+
+		for (int i = 0; i < 2; i++)
+		{
+			try
+			{
+				implementation.getImplementInfo(handle);
+			}
+			catch (ImplementationResolveException e)
+			{
+				assertTrue(e.getMessage()
+						.contains("No method is found for [@Validity"));
+				continue;
+			}
+
+			throw new AssertionError();
+		}
+	}
+
+	@Test
+	public void validateTest()
+	{
+		Implementation<ErrorTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(ErrorTest.Implementee.class, ErrorTest.Implementor0.class);
+
+		expectedException.expect(ImplementationResolveException.class);
+		expectedException.expectMessage("No method is found for [@Validity");
+
+		((LazyImplementation<ErrorTest.Implementee>) implementation)
+				.validate();
+	}
+
+	@Test
+	public void equalsTest()
+	{
+		Implementation<ErrorTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(ErrorTest.Implementee.class, ErrorTest.Implementor0.class);
+		Implementation<ErrorTest.Implementee> another = this.lazyImplementationResolver
+				.resolve(ErrorTest.Implementee.class, ErrorTest.Implementor0.class);
+
+		// not resolved, so no error
+		assertTrue(implementation.equals(another));
+		assertEquals(implementation.hashCode(), another.hashCode());
+
+		ImplementationResolver otherResolver = new ImplementationResolver();
+		otherResolver.setLazy(true);
+
+		assertFalse(implementation.equals(otherResolver
+				.resolve(ErrorTest.Implementee.class, ErrorTest.Implementor0.class)));
+		assertFalse(implementation.equals(this.lazyImplementationResolver
+				.resolve(ErrorTest.Implementee.class)));
+
+		Implementation<LazyTest.Implementee> lazy = this.lazyImplementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class);
+		Implementation<LazyTest.Implementee> eager = this.implementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class);
+
+		assertFalse(lazy.equals(eager));
+		assertFalse(eager.equals(lazy));
+	}
+
+	@Test
+	public void setImplementInfosTest()
+	{
+		Implementation<LazyTest.Implementee> implementation = this.lazyImplementationResolver
+				.resolve(LazyTest.Implementee.class, LazyTest.Implementor0.class);
+
+		expectedException.expect(UnsupportedOperationException.class);
+
+		implementation.setImplementInfos(new ImplementInfo[0]);
+	}
+
+	public static class LazyTest
+	{
+		public static interface Implementee
+		{
+			Number plus(Number a, Number b);
+
+			Number minus(Number a, Number b);
+		}
+
+		public static class Implementor0 implements Implementee
+		{
+			@Override
+			public Number plus(Number a, Number b)
+			{
+				return null;
+			}
+
+			@Override
+			public Number minus(Number a, Number b)
+			{
+				return null;
+			}
+		}
+
+		public static class Implementor1 implements Implementee
+		{
+			@Override
+			public Integer plus(Number a, Number b)
+			{
+				return null;
+			}
+
+			@Override
+			public Integer minus(Number a, Number b)
+			{
+				return null;
+			}
+		}
+	}
+
+	public static class ErrorTest
+	{
+		public static class Implementee
+		{
+			public void handle(int a)
+			{
+			}
+		}
+
+		public static class Implementor0 extends Implementee
+		{
+			@Override
+			@Validity("isValid")
+			public void handle(int a)
+			{
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain LeastInFlightBeanSelectionStrategy} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class LeastInFlightBeanSelectionStrategyTest
+		extends AbstractTestSupport
+{
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void selectTest()
+	{
+		LeastInFlightBeanSelectionStrategy strategy = new LeastInFlightBeanSelectionStrategy();
+
+		List<String> beans = Arrays.asList("a", "b", "c");
+
+		assertEquals("a", strategy.select(null, beans));
+
+		strategy.beforeInvoke("a");
+		assertEquals("b", strategy.select(null, beans));
+
+		strategy.beforeInvoke("b");
+		strategy.beforeInvoke("c");
+		strategy.beforeInvoke("c");
+		assertEquals("a", strategy.select(null, beans));
+
+		strategy.beforeInvoke("a");
+		assertEquals("b", strategy.select(null, beans));
+
+		strategy.afterInvoke("c");
+		strategy.afterInvoke("c");
+		assertEquals("c", strategy.select(null, beans));
+	}
+
+	@Test
+	public void getInFlightCountTest()
+	{
+		LeastInFlightBeanSelectionStrategy strategy = new LeastInFlightBeanSelectionStrategy();
+
+		assertEquals(0, strategy.getInFlightCount("a"));
+
+		strategy.beforeInvoke("a");
+		strategy.beforeInvoke("a");
+		assertEquals(2, strategy.getInFlightCount("a"));
+
+		strategy.afterInvoke("a");
+		assertEquals(1, strategy.getInFlightCount("a"));
+
+		strategy.afterInvoke("a");
+		assertEquals(0, strategy.getInFlightCount("a"));
+
+		// discarded counter is replaced
+		strategy.beforeInvoke("a");
+		assertEquals(1, strategy.getInFlightCount("a"));
+
+		// unpaired afterInvoke is ignored
+		strategy.afterInvoke("b");
+		assertEquals(0, strategy.getInFlightCount("b"));
+	}
+
+	@Test
+	public void concurrentTest() throws Exception
+	{
+		final LeastInFlightBeanSelectionStrategy strategy = new LeastInFlightBeanSelectionStrategy();
+
+		Thread[] threads = new Thread[4];
+
+		for (int i = 0; i < threads.length; i++)
+		{
+			threads[i] = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					for (int j = 0; j < 10000; j++)
+					{
+						strategy.beforeInvoke("a");
+						strategy.afterInvoke("a");
+					}
+				}
+			};
+			threads[i].start();
+		}
+
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(0, strategy.getInFlightCount("a"));
+	}
+}
@@ -18,6 +18,9 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -75,6 +78,37 @@ public class ProxyImplementeeBeanBuilderTest extends AbstractTestSupport
 		assertTrue(implementee1 instanceof ProxyImplementee);
 	}
 
+	@Test
+	public void buildTest_executor() throws Exception
+	{
+		Implementation<ProxyImplementeeInvocationSupportTest.AsyncImplementee> implementation = new ImplementationResolver()
+				.resolve(ProxyImplementeeInvocationSupportTest.AsyncImplementee.class,
+						ProxyImplementeeInvocationSupportTest.AsyncImplementor0.class);
+
+		final AtomicInteger executed = new AtomicInteger();
+
+		this.proxyImplementeeBeanBuilder.setExecutor(new Executor()
+		{
+			@Override
+			public void execute(Runnable command)
+			{
+				executed.incrementAndGet();
+				command.run();
+			}
+		});
+
+		ProxyImplementeeInvocationSupportTest.AsyncImplementee implementee = this.proxyImplementeeBeanBuilder
+				.build(implementation, SimpleImplementorBeanFactory.valueOf(
+						new ProxyImplementeeInvocationSupportTest.AsyncImplementor0()));
+
+		assertEquals(Thread.currentThread().getName(),
+				implementee.threadName().get());
+		assertEquals(1, executed.get());
+
+		implementee.syncThreadName();
+		assertEquals(1, executed.get());
+	}
+
 	@Test
 	public void doBuildTestNotInterface()
 	{
@@ -15,6 +15,19 @@
 package org.ximplementation.support;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -22,6 +35,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.ximplementation.Batch;
 import org.ximplementation.Implement;
 import org.ximplementation.Implementor;
 import org.ximplementation.NotImplement;
@@ -98,6 +112,543 @@ public class ProxyImplementeeInvocationSupportTest extends AbstractTestSupport
 		Assert.assertEquals(Implementor1.RE, re);
 	}
 
+	@Test
+	public void invokeTest_implementInfo() throws Throwable
+	{
+		Implementation<Implementee> implementation = this.implementationResolver
+				.resolve(Implementee.class, Implementor0.class,
+						Implementor1.class);
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new Implementor0(), new Implementor1());
+		ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory = new CachedImplementeeMethodInvocationFactory();
+
+		ProxyImplementeeInvocationSupport support = new ProxyImplementeeInvocationSupport(
+				implementation, implementorBeanFactory,
+				implementeeMethodInvocationFactory);
+
+		ImplementInfo implementInfo = implementation
+				.getImplementInfo(getMethodByName(Implementee.class, "plus"));
+
+		Assert.assertEquals(Implementor1.RE,
+				support.invoke(implementInfo, new Object[] { 1, 2 }));
+		Assert.assertEquals(Implementor0.RE,
+				support.invoke(implementInfo, new Object[] { 1.0, 2 }));
+
+		expectedException.expect(UnsupportedOperationException.class);
+		expectedException.expectMessage("No valid implement method found");
+
+		support.invoke(
+				new ImplementInfo(getMethodByName(Implementee.class, "minus")),
+				new Object[] { 1, 2 });
+	}
+
+	@Test
+	public void invokeBatchTest() throws Throwable
+	{
+		Implementation<BatchImplementee> implementation = this.implementationResolver
+				.resolve(BatchImplementee.class, BatchImplementor0.class,
+						BatchImplementor1.class);
+		BatchImplementor0 implementor0 = new BatchImplementor0();
+		BatchImplementor1 implementor1 = new BatchImplementor1();
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(implementor0, implementor1);
+
+		final List<Object[]> routeds = new ArrayList<Object[]>();
+
+		ImplementeeMethodInvocationFactory implementeeMethodInvocationFactory = new CachedImplementeeMethodInvocationFactory()
+		{
+			@Override
+			public ImplementeeMethodInvocation get(
+					Implementation<?> implementation,
+					ImplementInfo implementInfo, Object[] invocationParams,
+					ImplementorBeanFactory implementorBeanFactory)
+					throws Throwable
+			{
+				routeds.add(invocationParams);
+
+				return super.get(implementation, implementInfo,
+						invocationParams, implementorBeanFactory);
+			}
+		};
+
+		ProxyImplementeeInvocationSupport support = new ProxyImplementeeInvocationSupport(
+				implementation, implementorBeanFactory,
+				implementeeMethodInvocationFactory);
+
+		List<Object[]> parameterses = Arrays.asList(new Object[] { 1, 2 },
+				new Object[] { 1.0, 2 }, new Object[] { 3, 4 },
+				new Object[] { 2.0, 2.0 }, new Object[] { 5, 6 },
+				new Object[] { 1.0, 3 });
+
+		List<Object> results = support.invokeBatch(
+				getMethodByName(BatchImplementee.class, "plus"), parameterses);
+
+		Assert.assertEquals(Arrays.<Object> asList(3, 3.0, 7, 4.0, 11, 4.0),
+				results);
+
+		// routed once for each parameter type array
+		Assert.assertEquals(3, routeds.size());
+
+		// grouped in one batch method call
+		Assert.assertEquals(1, implementor1.batchSizes.size());
+		Assert.assertEquals(3, implementor1.batchSizes.get(0).intValue());
+		Assert.assertEquals(0, implementor1.plusCount);
+
+		Assert.assertEquals(3, implementor0.plusCount);
+
+		// void
+		{
+			List<Object> voidResults = support.invokeBatch(
+					getMethodByName(BatchImplementee.class, "log"),
+					parameterses);
+
+			Assert.assertEquals(parameterses.size(), voidResults.size());
+			Assert.assertEquals(1, implementor1.batchSizes.size());
+			Assert.assertEquals(parameterses.size(), implementor1.logCount);
+		}
+
+		Assert.assertTrue(support
+				.invokeBatch(getMethodByName(BatchImplementee.class, "plus"),
+						new ArrayList<Object[]>())
+				.isEmpty());
+	}
+
+	@Test
+	public void invokeBatchTest_illegalBatchResult() throws Throwable
+	{
+		Implementation<BatchImplementee> implementation = this.implementationResolver
+				.resolve(BatchImplementee.class, BatchImplementor0.class,
+						BatchImplementor1.class);
+		BatchImplementor1 implementor1 = new BatchImplementor1();
+		implementor1.illegalBatchResult = true;
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(new BatchImplementor0(), implementor1);
+
+		ProxyImplementeeInvocationSupport support = new ProxyImplementeeInvocationSupport(
+				implementation, implementorBeanFactory,
+				new CachedImplementeeMethodInvocationFactory());
+
+		expectedException.expect(IllegalStateException.class);
+		expectedException.expectMessage("returns 0 results for 2 invocations");
+
+		support.invokeBatch(getMethodByName(BatchImplementee.class, "plus"),
+				Arrays.asList(new Object[] { 1, 2 }, new Object[] { 3, 4 }));
+	}
+
+	@Test
+	public void getParamTypeSignatureTest()
+	{
+		Implementation<PrimitiveImplementee> implementation = this.implementationResolver
+				.resolve(PrimitiveImplementee.class,
+						PrimitiveImplementor0.class);
+		ImplementInfo implementInfo = implementation.getImplementInfo(
+				getMethodByName(PrimitiveImplementee.class, "plus"));
+
+		ProxyImplementeeInvocationSupport support = new ProxyImplementeeInvocationSupport(
+				implementation,
+				SimpleImplementorBeanFactory
+						.valueOf(new PrimitiveImplementor0()),
+				new CachedImplementeeMethodInvocationFactory());
+
+		TypeSignature signature = support.getParamTypeSignature(
+				implementInfo, new Object[] { 1, 2 });
+
+		Assert.assertSame(int.class, signature.getType(0));
+		Assert.assertSame(Integer.class, signature.getType(1));
+		Assert.assertSame(signature, support.getParamTypeSignature(
+				implementInfo, new Object[] { 3, 4 }));
+		Assert.assertSame(Long.class, support
+				.getParamTypeSignature(implementInfo, new Object[] { 1, 2L })
+				.getType(1));
+		Assert.assertNull(support
+				.getParamTypeSignature(implementInfo, new Object[] { 1, null })
+				.getType(1));
+	}
+
+	public static interface PrimitiveImplementee
+	{
+		Number plus(int a, Number b);
+	}
+
+	public static class PrimitiveImplementor0 implements PrimitiveImplementee
+	{
+		@Override
+		public Number plus(int a, Number b)
+		{
+			return a + b.intValue();
+		}
+	}
+
+	public static interface BatchImplementee
+	{
+		Number plus(Number a, Number b);
+
+		void log(Number a, Number b);
+	}
+
+	public static class BatchImplementor0 implements BatchImplementee
+	{
+		private int plusCount = 0;
+
+		@Override
+		public Number plus(Number a, Number b)
+		{
+			this.plusCount++;
+
+			return a.doubleValue() + b.doubleValue();
+		}
+
+		@NotImplement
+		@Override
+		public void log(Number a, Number b)
+		{
+		}
+	}
+
+	@Implementor(BatchImplementee.class)
+	public static class BatchImplementor1
+	{
+		private int plusCount = 0;
+
+		private int logCount = 0;
+
+		private List<Integer> batchSizes = new ArrayList<Integer>();
+
+		private boolean illegalBatchResult = false;
+
+		@Implement
+		@Batch("plusAll")
+		public Integer plus(Integer a, Integer b)
+		{
+			this.plusCount++;
+
+			return a + b;
+		}
+
+		public List<Integer> plusAll(List<Object[]> paramses)
+		{
+			this.batchSizes.add(paramses.size());
+
+			List<Integer> re = new ArrayList<Integer>();
+
+			if (this.illegalBatchResult)
+				return re;
+
+			for (Object[] params : paramses)
+				re.add((Integer) params[0] + (Integer) params[1]);
+
+			return re;
+		}
+
+		@Implement
+		public void log(Number a, Number b)
+		{
+			this.logCount++;
+		}
+	}
+
+	@Test
+	public void invokeTest_async() throws Throwable
+	{
+		Implementation<AsyncImplementee> implementation = this.implementationResolver
+				.resolve(AsyncImplementee.class, AsyncImplementor0.class);
+		final AsyncImplementor0 implementor = new AsyncImplementor0();
+
+		ProxyImplementeeInvocationSupport support = new ProxyImplementeeInvocationSupport(
+				implementation,
+				SimpleImplementorBeanFactory.valueOf(implementor),
+				new CachedImplementeeMethodInvocationFactory());
+
+		ExecutorService executor = Executors
+				.newSingleThreadExecutor(new ThreadFactory()
+				{
+					@Override
+					public Thread newThread(Runnable r)
+					{
+						return new Thread(r, AsyncImplementor0.THREAD_NAME);
+					}
+				});
+
+		try
+		{
+			// executor == null
+			{
+				CompletableFuture<?> re = (CompletableFuture<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "threadName"),
+						new Object[0]);
+
+				Assert.assertEquals(Thread.currentThread().getName(),
+						re.get());
+			}
+
+			support.setExecutor(executor);
+
+			// CompletionStage
+			{
+				CompletableFuture<?> re = (CompletableFuture<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "threadName"),
+						new Object[0]);
+
+				Assert.assertEquals(AsyncImplementor0.THREAD_NAME, re.get());
+			}
+
+			// not completed CompletionStage is not nested
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "pending"),
+						new Object[0]);
+
+				CompletableFuture<String> pending = implementor.pending.take();
+				Assert.assertFalse(re.isDone());
+
+				pending.complete("done");
+				Assert.assertEquals("done", re.get());
+			}
+
+			// cancelling forwarded to CompletionStage
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "pending"),
+						new Object[0]);
+
+				CompletableFuture<String> pending = implementor.pending.take();
+				re.cancel(true);
+
+				// wait the executor finishing the invocation
+				((Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "threadName"),
+						new Object[0])).get();
+
+				Assert.assertTrue(pending.isCancelled());
+			}
+
+			// not done Future is not waited in executor
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class,
+								"pendingFuture"),
+						new Object[0]);
+
+				FutureTask<String> pending = implementor.pendingFutures.take();
+
+				// executor is free
+				Assert.assertEquals(AsyncImplementor0.THREAD_NAME,
+						((Future<?>) support.invoke(
+								getMethodByName(AsyncImplementee.class,
+										"threadName"),
+								new Object[0])).get());
+				Assert.assertFalse(re.isDone());
+
+				pending.run();
+				Assert.assertTrue(re.isDone());
+				Assert.assertEquals("done", re.get());
+			}
+
+			// cancelling forwarded to Future
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class,
+								"pendingFuture"),
+						new Object[0]);
+
+				FutureTask<String> pending = implementor.pendingFutures.take();
+
+				Assert.assertTrue(re.cancel(false));
+
+				// wait the executor finishing the invocation
+				((Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "threadName"),
+						new Object[0])).get();
+				Assert.assertTrue(pending.isCancelled());
+				Assert.assertTrue(re.isCancelled());
+			}
+
+			// Future
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "future"),
+						new Object[0]);
+
+				Assert.assertEquals(AsyncImplementor0.THREAD_NAME, re.get());
+			}
+
+			// exception
+			{
+				Future<?> re = (Future<?>) support.invoke(
+						getMethodByName(AsyncImplementee.class, "fail"),
+						new Object[0]);
+
+				try
+				{
+					re.get();
+					Assert.fail();
+				}
+				catch (ExecutionException e)
+				{
+					Assert.assertTrue(
+							e.getCause() instanceof IllegalStateException);
+				}
+			}
+
+			// not Future
+			{
+				Assert.assertEquals(Thread.currentThread().getName(),
+						support.invoke(
+								getMethodByName(AsyncImplementee.class,
+										"syncThreadName"),
+								new Object[0]));
+			}
+
+			// observed by InvocationListener
+			{
+				final List<String> events = new ArrayList<String>();
+
+				ProxyImplementeeInvocationSupport observedSupport = new ProxyImplementeeInvocationSupport(
+						support.getImplementation(),
+						support.getImplementorBeanFactory(),
+						new CachedImplementeeMethodInvocationFactory(
+								new AbstractInvocationListener()
+								{
+									@Override
+									public void invocationCompleted(
+											ImplementInfo implementInfo,
+											ImplementMethodInfo implementMethodInfo,
+											Object implementorBean,
+											Object result,
+											Throwable throwable)
+									{
+										events.add(Thread.currentThread()
+												.getName());
+									}
+								}));
+				observedSupport.setExecutor(executor);
+
+				CompletableFuture<?> re = (CompletableFuture<?>) observedSupport
+						.invoke(getMethodByName(AsyncImplementee.class,
+								"threadName"), new Object[0]);
+
+				Assert.assertEquals(AsyncImplementor0.THREAD_NAME, re.get());
+				Assert.assertEquals(
+						Arrays.asList(AsyncImplementor0.THREAD_NAME), events);
+			}
+
+			// no valid implement method
+			{
+				ProxyImplementeeInvocationSupport noneSupport = new ProxyImplementeeInvocationSupport(
+						this.implementationResolver
+								.resolve(AsyncImplementee.class),
+						SimpleImplementorBeanFactory.valueOf(implementor),
+						new CachedImplementeeMethodInvocationFactory());
+				noneSupport.setExecutor(executor);
+
+				Future<?> re = (Future<?>) noneSupport.invoke(
+						getMethodByName(AsyncImplementee.class, "threadName"),
+						new Object[0]);
+
+				try
+				{
+					re.get();
+					Assert.fail();
+				}
+				catch (ExecutionException e)
+				{
+					Assert.assertTrue(e
+							.getCause() instanceof UnsupportedOperationException);
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public static interface AsyncImplementee
+	{
+		CompletableFuture<String> threadName();
+
+		CompletableFuture<String> pending();
+
+		Future<String> future();
+
+		Future<String> pendingFuture();
+
+		Future<String> fail();
+
+		String syncThreadName();
+	}
+
+	public static class AsyncImplementor0 implements AsyncImplementee
+	{
+		public static final String THREAD_NAME = "async-implementor";
+
+		private final BlockingQueue<CompletableFuture<String>> pending = new LinkedBlockingQueue<CompletableFuture<String>>();
+
+		private final BlockingQueue<FutureTask<String>> pendingFutures = new LinkedBlockingQueue<FutureTask<String>>();
+
+		@Override
+		public CompletableFuture<String> threadName()
+		{
+			return CompletableFuture
+					.completedFuture(Thread.currentThread().getName());
+		}
+
+		@Override
+		public CompletableFuture<String> pending()
+		{
+			CompletableFuture<String> re = new CompletableFuture<String>();
+			this.pending.add(re);
+
+			return re;
+		}
+
+		@Override
+		public Future<String> future()
+		{
+			FutureTask<String> re = new FutureTask<String>(
+					new Callable<String>()
+					{
+						@Override
+						public String call() throws Exception
+						{
+							return Thread.currentThread().getName();
+						}
+					});
+			re.run();
+
+			return re;
+		}
+
+		@Override
+		public Future<String> pendingFuture()
+		{
+			FutureTask<String> re = new FutureTask<String>(
+					new Callable<String>()
+					{
+						@Override
+						public String call() throws Exception
+						{
+							return "done";
+						}
+					});
+			this.pendingFutures.add(re);
+
+			return re;
+		}
+
+		@Override
+		public Future<String> fail()
+		{
+			throw new IllegalStateException();
+		}
+
+		@Override
+		public String syncThreadName()
+		{
+			return Thread.currentThread().getName();
+		}
+	}
+
 	public static interface Implementee
 	{
 		Number plus(Number a, Number b);
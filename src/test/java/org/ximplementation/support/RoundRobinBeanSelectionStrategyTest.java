@@ -0,0 +1,77 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain RoundRobinBeanSelectionStrategy} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class RoundRobinBeanSelectionStrategyTest extends AbstractTestSupport
+{
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void selectTest()
+	{
+		RoundRobinBeanSelectionStrategy strategy = new RoundRobinBeanSelectionStrategy();
+
+		// List
+		{
+			List<String> beans = Arrays.asList("a", "b", "c");
+
+			for (int i = 0; i < 7; i++)
+				assertEquals(beans.get(i % 3), strategy.select(null, beans));
+		}
+
+		// size == 1
+		{
+			assertEquals("a", strategy.select(null, Arrays.asList("a")));
+		}
+
+		// not List
+		{
+			strategy = new RoundRobinBeanSelectionStrategy();
+
+			Collection<String> beans = new LinkedHashSet<String>(
+					Arrays.asList("a", "b"));
+
+			assertEquals("a", strategy.select(null, beans));
+			assertEquals("b", strategy.select(null, beans));
+			assertEquals("a", strategy.select(null, beans));
+		}
+	}
+}
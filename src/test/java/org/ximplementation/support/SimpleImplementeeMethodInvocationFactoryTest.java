@@ -253,6 +253,36 @@ public class SimpleImplementeeMethodInvocationFactoryTest
 		}
 	}
 
+	@Test
+	public void getTest_beanSelectionStrategy() throws Throwable
+	{
+		Class<?> implementee = CachedImplementeeMethodInvocationFactoryTest.BeanSelectionStrategyTest.Implementee.class;
+		Method implementeeMethod = getMethodByName(implementee, "id");
+
+		Implementation<?> implementation = this.implementationResolver.resolve(
+				implementee,
+				CachedImplementeeMethodInvocationFactoryTest.BeanSelectionStrategyTest.Implementor0.class);
+
+		ImplementorBeanFactory implementorBeanFactory = SimpleImplementorBeanFactory
+				.valueOf(
+						new CachedImplementeeMethodInvocationFactoryTest.BeanSelectionStrategyTest.Implementor0(
+								0),
+						new CachedImplementeeMethodInvocationFactoryTest.BeanSelectionStrategyTest.Implementor0(
+								1));
+
+		this.simpleImplementeeMethodInvocationFactory
+				.setBeanSelectionStrategy(new RoundRobinBeanSelectionStrategy());
+
+		for (int i = 0; i < 4; i++)
+		{
+			ImplementeeMethodInvocation invocation = this.simpleImplementeeMethodInvocationFactory
+					.get(implementation, implementeeMethod, new Object[0],
+							implementorBeanFactory);
+
+			assertEquals(i % 2, invocation.invoke());
+		}
+	}
+
 	public static class GetTest
 	{
 		public static interface Implementee
@@ -0,0 +1,192 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@linkplain TypeSignature} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-30
+ *
+ */
+public class TypeSignatureTest extends AbstractTestSupport
+{
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void valueOfTest()
+	{
+		TypeSignature signature = TypeSignature
+				.valueOf(new Class<?>[] { Integer.class, null, int.class });
+
+		assertSame(signature, TypeSignature
+				.valueOf(new Class<?>[] { Integer.class, null, int.class }));
+
+		assertNotSame(signature, TypeSignature
+				.valueOf(new Class<?>[] { Integer.class, null, long.class }));
+		assertNotSame(signature, TypeSignature
+				.valueOf(new Class<?>[] { Integer.class, int.class, null }));
+		assertNotSame(signature, TypeSignature
+				.valueOf(new Class<?>[] { Integer.class, null }));
+
+		assertSame(TypeSignature.valueOf(new Class<?>[0]),
+				TypeSignature.valueOf(new Class<?>[0]));
+
+		assertEquals(3, signature.size());
+		assertSame(Integer.class, signature.getType(0));
+		assertNull(signature.getType(1));
+		assertArrayEquals(new Class<?>[] { Integer.class, null, int.class },
+				signature.getTypes());
+		assertFalse(signature.isStale());
+	}
+
+	@Test
+	public void valueOfTest_rebuild()
+	{
+		Class<?>[] types = { String.class, Integer.class, Long.class,
+				Double.class, Float.class, Short.class, Byte.class,
+				Character.class, Boolean.class, Object.class, Number.class,
+				int.class };
+
+		TypeSignature.Table table = new TypeSignature.Table();
+		List<TypeSignature> signatures = new ArrayList<TypeSignature>();
+
+		for (Class<?> first : types)
+		{
+			for (Class<?> second : types)
+				signatures.add(
+						table.intern(new Class<?>[] { first, second }));
+		}
+
+		assertEquals(signatures.size(), table.getCount());
+
+		int index = 0;
+
+		for (Class<?> first : types)
+		{
+			for (Class<?> second : types)
+			{
+				TypeSignature signature = table
+						.intern(new Class<?>[] { first, second });
+
+				assertSame(signatures.get(index++), signature);
+				assertSame(first, signature.getType(0));
+				assertSame(second, signature.getType(1));
+			}
+		}
+	}
+
+	@Test
+	public void valueOfTest_bounded()
+	{
+		Class<?>[] types = { String.class, Integer.class, Long.class,
+				Double.class, Float.class, Short.class, Byte.class,
+				Character.class, Boolean.class, Object.class, Number.class,
+				int.class, long.class, double.class, float.class, short.class,
+				byte.class, char.class, boolean.class, Class.class,
+				List.class, ArrayList.class, TypeSignature.class,
+				TypeSignatureTest.class };
+
+		int maxCount = TypeSignature.getMaxInternedCount();
+
+		assertTrue(types.length * types.length * types.length > maxCount);
+
+		for (Class<?> first : types)
+		{
+			for (Class<?> second : types)
+			{
+				for (Class<?> third : types)
+				{
+					Class<?>[] tuple = { first, second, third };
+					TypeSignature signature = TypeSignature.valueOf(tuple);
+
+					assertArrayEquals(tuple, signature.getTypes());
+					assertSame(signature, TypeSignature.valueOf(tuple));
+					assertTrue(TypeSignature.getInternedCount() <= maxCount);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void tableTest_bounded()
+	{
+		TypeSignature.Table table = new TypeSignature.Table(8);
+
+		List<TypeSignature> signatures = new ArrayList<TypeSignature>();
+
+		for (int i = 0; i < 8; i++)
+		{
+			Class<?>[] tuple = new Class<?>[i];
+			signatures.add(table.intern(tuple));
+		}
+
+		assertEquals(8, table.getCount());
+		assertSame(signatures.get(7), table.intern(new Class<?>[7]));
+
+		// full, a quarter evicted
+		TypeSignature signature = table.intern(new Class<?>[8]);
+
+		assertEquals(7, table.getCount());
+		assertSame(signature, table.intern(new Class<?>[8]));
+
+		int kept = 0;
+
+		for (int i = 0; i < 8; i++)
+		{
+			TypeSignature interned = table.get(new Class<?>[i]);
+
+			if (interned != null)
+			{
+				assertSame(signatures.get(i), interned);
+				kept++;
+			}
+		}
+
+		assertEquals(6, kept);
+	}
+
+	@Test
+	public void toStringTest()
+	{
+		assertEquals("TypeSignature [java.lang.Integer, null, int]",
+				TypeSignature.valueOf(
+						new Class<?>[] { Integer.class, null, int.class })
+						.toString());
+	}
+}
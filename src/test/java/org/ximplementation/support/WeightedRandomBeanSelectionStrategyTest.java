@@ -0,0 +1,131 @@
+/**
+  * Licensed under the Apache License, Version 2.0 (the "License");
+  * you may not use this file except in compliance with the License.
+  * You may obtain a copy of the License at
+  *  
+  * 	http://www.apache.org/licenses/LICENSE-2.0
+  *  
+  * Unless required by applicable law or agreed to in writing, software
+  * distributed under the License is distributed on an "AS IS" BASIS,
+  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  * See the License for the specific language governing permissions and
+  * limitations under the License. 
+  */
+
+package org.ximplementation.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ximplementation.support.WeightedRandomBeanSelectionStrategy.Weigher;
+
+/**
+ * {@linkplain WeightedRandomBeanSelectionStrategy} unit tests.
+ * 
+ * @author earthangry@gmail.com
+ * @date 2017-3-29
+ *
+ */
+public class WeightedRandomBeanSelectionStrategyTest
+		extends AbstractTestSupport
+{
+	@Before
+	public void setUp() throws Exception
+	{
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+	}
+
+	@Test
+	public void selectTest()
+	{
+		List<String> beans = Arrays.asList("a", "b", "c");
+
+		// weigher == null
+		{
+			WeightedRandomBeanSelectionStrategy strategy = new WeightedRandomBeanSelectionStrategy();
+
+			for (int i = 0; i < 100; i++)
+				assertTrue(beans.contains(strategy.select(null, beans)));
+		}
+
+		// non-positive weights are never selected
+		{
+			final Map<String, Integer> weights = new HashMap<String, Integer>();
+			weights.put("a", 0);
+			weights.put("b", 3);
+			weights.put("c", -1);
+
+			WeightedRandomBeanSelectionStrategy strategy = new WeightedRandomBeanSelectionStrategy(
+					new Weigher()
+					{
+						@Override
+						public int getWeight(Object implementorBean)
+						{
+							return weights.get(implementorBean);
+						}
+					});
+
+			for (int i = 0; i < 100; i++)
+				assertEquals("b", strategy.select(null, beans));
+		}
+
+		// weighted
+		{
+			final Map<String, Integer> weights = new HashMap<String, Integer>();
+			weights.put("a", 1);
+			weights.put("b", 0);
+			weights.put("c", 9);
+
+			WeightedRandomBeanSelectionStrategy strategy = new WeightedRandomBeanSelectionStrategy(
+					new Weigher()
+					{
+						@Override
+						public int getWeight(Object implementorBean)
+						{
+							return weights.get(implementorBean);
+						}
+					});
+
+			int cCount = 0;
+
+			for (int i = 0; i < 1000; i++)
+			{
+				Object selected = strategy.select(null, beans);
+
+				assertTrue(!"b".equals(selected));
+
+				if ("c".equals(selected))
+					cCount++;
+			}
+
+			assertTrue(cCount > 700);
+		}
+
+		// total weight <= 0
+		{
+			WeightedRandomBeanSelectionStrategy strategy = new WeightedRandomBeanSelectionStrategy(
+					new Weigher()
+					{
+						@Override
+						public int getWeight(Object implementorBean)
+						{
+							return 0;
+						}
+					});
+
+			assertTrue(beans.contains(strategy.select(null, beans)));
+		}
+	}
+}